@@ -0,0 +1,82 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * Deterministic inputs for the benchmarks.
+ *
+ * @author Carl Harris
+ */
+class BenchmarkData {
+
+  private static final String SALT_CHARS =
+      "./0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
+
+  private static final String PASSWORD_CHARS =
+      "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789"
+      + "!@#%^&*()-_=+[]{};:,.<>/?";
+
+  /**
+   * Creates a password of the given length.
+   * @param length number of characters (and UTF-8 bytes) in the password
+   * @return password
+   */
+  public static char[] password(int length) {
+    final char[] password = new char[length];
+    for (int i = 0; i < length; i++) {
+      password[i] = PASSWORD_CHARS.charAt((i * 7 + 3) % PASSWORD_CHARS.length());
+    }
+    return password;
+  }
+
+  /**
+   * Creates salt text of the given length.
+   * @param length number of characters in the salt text
+   * @return salt text
+   */
+  public static String saltText(int length) {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      sb.append(SALT_CHARS.charAt((i * 11 + 5) % SALT_CHARS.length()));
+    }
+    return sb.toString();
+  }
+
+  /**
+   * Creates a salt string for the given scheme.
+   * @param scheme one of {@code DES}, {@code MD5}, {@code SHA256} or
+   *    {@code SHA512}
+   * @param saltLength number of characters of salt text
+   * @param rounds number of rounds (used only for the SHA-2 schemes)
+   * @return salt string
+   */
+  public static String salt(String scheme, int saltLength, int rounds) {
+    final Type type = Type.valueOf(scheme);
+    switch (type) {
+      case DES:
+        return saltText(2);
+      case MD5:
+        return "$1$" + saltText(saltLength);
+      default:
+        return "$" + type.getType() + "$rounds=" + rounds + "$"
+            + saltText(saltLength);
+    }
+  }
+
+}
@@ -0,0 +1,127 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Microbenchmarks for the parts of a crypt operation other than the
+ * digest computation itself.
+ *
+ * @author Carl Harris
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComponentBenchmark {
+
+  @Param({ "MD5", "SHA256", "SHA512" })
+  public String scheme;
+
+  @Param({ "8", "64" })
+  public int passwordLength;
+
+  private String salt;
+  private Salt parsedSalt;
+  private Salt reusedSalt;
+  private char[] password;
+  private PasswordEncoder encoder;
+  private Crypt crypt;
+  private byte[] digest;
+  private int maxSaltLength;
+  private int[] order;
+  private byte[] encoded;
+
+  @Setup
+  public void setUp() throws Exception {
+    final Type type = Type.valueOf(scheme);
+    salt = BenchmarkData.salt(scheme, 16, 5000);
+    parsedSalt = new Salt(salt);
+    reusedSalt = new Salt();
+    password = BenchmarkData.password(passwordLength);
+    encoder = new PasswordEncoder();
+    crypt = Crypt.newInstance(type);
+    digest = new byte[type.newDigest().getDigestLength()];
+    for (int i = 0; i < digest.length; i++) {
+      digest[i] = (byte) (i * 37);
+    }
+    maxSaltLength = type == Type.MD5 ? 8 : 16;
+    order = type == Type.MD5 ? Md5Crypt.ENCODING_ORDER
+        : type == Type.SHA256 ? Sha256Crypt.ENCODING_ORDER
+        : Sha512Crypt.ENCODING_ORDER;
+    encoded = new byte[Base64.encodedLength(order)];
+  }
+
+  @Benchmark
+  public Salt parseSalt() {
+    return new Salt(salt);
+  }
+
+  @Benchmark
+  public int parseSaltReused() {
+    return Sha2Crypt.effectiveRounds(reusedSalt.parse(salt));
+  }
+
+  @Benchmark
+  public byte[] passwordEncode() {
+    return encoder.encode(password, StandardCharsets.UTF_8).getBytes();
+  }
+
+  @Benchmark
+  public byte[] saltGetBytes() throws Exception {
+    return parsedSalt.getBytes(maxSaltLength, Crypt.CHARACTER_ENCODING);
+  }
+
+  @Benchmark
+  public String base64Encode() {
+    return crypt.encodePassword(digest);
+  }
+
+  @Benchmark
+  public int base64EncodeBytes() {
+    return Base64.encode(digest, order, encoded, 0);
+  }
+
+  @Benchmark
+  public String format() {
+    return crypt.format(digest, parsedSalt);
+  }
+
+  @Benchmark
+  public byte[] formatAscii() {
+    return crypt.formatAscii(digest, parsedSalt);
+  }
+
+}
@@ -0,0 +1,80 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for {@link Crypt#crypt(char[], String)} and
+ * {@link Crypt#validate(char[], String)} using the legacy DES and MD5
+ * schemes, which have a fixed cost.
+ *
+ * @author Carl Harris
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CryptBenchmark {
+
+  @Param({ "DES", "MD5" })
+  public String scheme;
+
+  @Param({ "8", "32", "64", "200" })
+  public int passwordLength;
+
+  @Param({ "8" })
+  public int saltLength;
+
+  private char[] password;
+  private String salt;
+  private String hashedValue;
+
+  @Setup
+  public void setUp() throws Exception {
+    password = BenchmarkData.password(passwordLength);
+    salt = BenchmarkData.salt(scheme, saltLength, 0);
+    hashedValue = Crypt.crypt(password, salt);
+  }
+
+  @Benchmark
+  public String crypt() throws Exception {
+    return Crypt.crypt(password, salt);
+  }
+
+  @Benchmark
+  public boolean validate() throws Exception {
+    return Crypt.validate(password, hashedValue);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the selected benchmarks with the GC profiler at each thread count
+ * from 1 up to the number of available processors (doubling each time),
+ * and prints a summary of throughput and allocation per thread count.
+ * <p>
+ * Accepts the same command line options as the JMH runner, for example:
+ * <pre>
+ * java -cp target/benchmarks.jar org.soulwing.crypt4j.ThreadScaling \
+ *     Sha2CryptBenchmark.validate -p rounds=5000
+ * </pre>
+ * The maximum thread count may be set with the system property
+ * {@code threads.max}.
+ *
+ * @author Carl Harris
+ */
+public class ThreadScaling {
+
+  private static final String ALLOCATION_RATE = "gc.alloc.rate.norm";
+
+  public static void main(String[] args) throws Exception {
+    final CommandLineOptions commandLine = new CommandLineOptions(args);
+    final int maxThreads = Integer.getInteger("threads.max",
+        Runtime.getRuntime().availableProcessors());
+
+    final List<String> summary = new ArrayList<>();
+    for (int threads = 1; threads <= maxThreads;
+        threads = nextThreadCount(threads, maxThreads)) {
+      final Options options = new OptionsBuilder()
+          .parent(commandLine)
+          .threads(threads)
+          .addProfiler(GCProfiler.class)
+          .build();
+      summarize(threads, new Runner(options).run(), summary);
+    }
+
+    System.out.println();
+    System.out.format("%-8s %-60s %14s %-8s %14s%n",
+        "threads", "benchmark", "score", "units", "bytes/op");
+    for (String line : summary) {
+      System.out.println(line);
+    }
+  }
+
+  private static int nextThreadCount(int threads, int maxThreads) {
+    if (threads == maxThreads) return threads + 1;
+    return Math.min(2 * threads, maxThreads);
+  }
+
+  private static void summarize(int threads, Collection<RunResult> results,
+      List<String> summary) {
+    for (RunResult result : results) {
+      final Result primary = result.getPrimaryResult();
+      final Map<String, Result> secondary = result.getSecondaryResults();
+      final Result allocation = secondary.get(ALLOCATION_RATE);
+      summary.add(String.format("%-8d %-60s %14.3f %-8s %14.1f",
+          threads, label(result), primary.getScore(),
+          primary.getScoreUnit(),
+          allocation != null ? allocation.getScore() : Double.NaN));
+    }
+  }
+
+  private static String label(RunResult result) {
+    final StringBuilder sb = new StringBuilder();
+    final String benchmark = result.getParams().getBenchmark();
+    sb.append(benchmark.substring(benchmark.lastIndexOf('.',
+        benchmark.lastIndexOf('.') - 1) + 1));
+    for (String key : result.getParams().getParamsKeys()) {
+      sb.append(' ').append(key).append('=')
+          .append(result.getParams().getParam(key));
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,503 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.flow;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.soulwing.crypt4j.Crypt;
+
+/**
+ * A {@link Flow.Processor} that performs a stream of crypt and validate
+ * requests and publishes their results.
+ * <p>
+ * Requests are performed by a fixed number of worker threads. This
+ * processor never requests more items from its upstream publisher than
+ * it has room to buffer: at most {@code bufferSize} requests are accepted
+ * and not yet delivered to the subscriber, whether they are waiting for a
+ * worker, being performed, or waiting for demand from the subscriber. A
+ * fast source (e.g. a database cursor over a table of users) is thereby
+ * held to the pace of hashing and of the subscriber, rather than queueing
+ * an unbounded amount of work.
+ * <p>
+ * Results are published in the order of the requests, or when unordered
+ * output is selected, in order of completion; in that case, the key of
+ * each request (see {@link CryptRequest#getKey()}) can be used to match
+ * results to requests. A request that fails produces a result that holds
+ * the exception (see {@link CryptResult#getError()}). An error from the
+ * upstream publisher is passed on to the subscriber after the results of
+ * the requests accepted before it.
+ * <p>
+ * Each worker encodes passwords as UTF-8 using its own encoder and
+ * buffer, which is cleared after each request, and hashes them with the
+ * pooled engines of {@link Crypt}. The password of each request is
+ * cleared once the request has been performed.
+ * <p>
+ * A processor supports a single subscriber and a single upstream
+ * subscription.
+ *
+ * @author Carl Harris
+ */
+public class CryptProcessor
+    implements Flow.Processor<CryptRequest, CryptResult> {
+
+  /**
+   * Default number of requests buffered per worker thread.
+   */
+  public static final int DEFAULT_BUFFER_SIZE_PER_THREAD = 16;
+
+  private static final AtomicInteger processorCount = new AtomicInteger();
+
+  private static final int INITIAL_BUFFER_SIZE = 64;
+
+  private final int bufferSize;
+  private final boolean ordered;
+  private final ExecutorService executor;
+  private final ArrayDeque<Worker> idleWorkers = new ArrayDeque<>();
+  private final ArrayDeque<Task> pending = new ArrayDeque<>();
+  private final ArrayDeque<CryptResult> completed = new ArrayDeque<>();
+  private final CryptResult[] window;
+  private final AtomicInteger wip = new AtomicInteger();
+
+  private Flow.Subscription upstream;
+  private Flow.Subscriber<? super CryptResult> subscriber;
+  private boolean subscribed;
+  private long demand;
+  private long accepted;
+  private long delivered;
+  private boolean done;
+  private Throwable error;
+  private boolean cancelled;
+  private boolean terminated;
+
+  /**
+   * Constructs a new instance with a worker thread for each available
+   * processor, the default buffer size, and ordered output.
+   */
+  public CryptProcessor() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a new instance with the default buffer size and ordered
+   * output.
+   * @param threads number of worker threads
+   */
+  public CryptProcessor(int threads) {
+    this(threads, threads * DEFAULT_BUFFER_SIZE_PER_THREAD, true);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param threads number of worker threads
+   * @param bufferSize maximum number of requests that have been accepted
+   *    from the upstream publisher and whose results have not yet been
+   *    delivered to the subscriber
+   * @param ordered flag indicating whether results are published in the
+   *    order of the requests; otherwise they are published in order of
+   *    completion
+   */
+  public CryptProcessor(int threads, int bufferSize, boolean ordered) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("buffer size must be at least 1");
+    }
+    this.bufferSize = bufferSize;
+    this.ordered = ordered;
+    this.window = ordered ? new CryptResult[bufferSize] : null;
+    final int id = processorCount.incrementAndGet();
+    final AtomicInteger threadCount = new AtomicInteger();
+    this.executor = Executors.newFixedThreadPool(threads, r -> {
+      final Thread thread = new Thread(r, "crypt4j-flow-" + id + "-"
+          + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+    for (int i = 0; i < threads; i++) {
+      idleWorkers.add(new Worker());
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void subscribe(Flow.Subscriber<? super CryptResult> subscriber) {
+    Objects.requireNonNull(subscriber, "subscriber is required");
+    final boolean accepted;
+    synchronized (this) {
+      accepted = !subscribed;
+      subscribed = true;
+    }
+    if (!accepted) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+        @Override
+        public void cancel() {
+        }
+      });
+      subscriber.onError(
+          new IllegalStateException("processor already has a subscriber"));
+      return;
+    }
+    subscriber.onSubscribe(new Subscription());
+    synchronized (this) {
+      this.subscriber = subscriber;
+    }
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onSubscribe(Flow.Subscription subscription) {
+    synchronized (this) {
+      if (upstream == null && !cancelled) {
+        upstream = subscription;
+        subscription = null;
+      }
+    }
+    if (subscription != null) {
+      subscription.cancel();
+      return;
+    }
+    upstream.request(bufferSize);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onNext(CryptRequest request) {
+    Objects.requireNonNull(request, "request is required");
+    final boolean overrun;
+    Worker worker = null;
+    synchronized (this) {
+      if (cancelled || done) {
+        request.clear();
+        return;
+      }
+      overrun = accepted - delivered >= bufferSize;
+      if (overrun) {
+        request.clear();
+        done = true;
+        error = new IllegalStateException("publisher does not honor demand");
+      }
+      else {
+        pending.add(new Task(accepted++, request));
+        worker = idleWorkers.poll();
+      }
+    }
+    if (overrun) {
+      upstream.cancel();
+      drain();
+    }
+    else if (worker != null) {
+      final Worker w = worker;
+      executor.execute(() -> work(w));
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onError(Throwable throwable) {
+    Objects.requireNonNull(throwable, "throwable is required");
+    synchronized (this) {
+      if (done) return;
+      done = true;
+      error = throwable;
+    }
+    drain();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void onComplete() {
+    synchronized (this) {
+      if (done) return;
+      done = true;
+    }
+    drain();
+  }
+
+  /**
+   * Performs pending requests until there are none, on a worker thread.
+   * @param worker the worker that performs the requests
+   */
+  private void work(Worker worker) {
+    while (true) {
+      final Task task;
+      synchronized (this) {
+        task = cancelled ? null : pending.poll();
+        if (task == null) {
+          idleWorkers.add(worker);
+          return;
+        }
+      }
+      final CryptResult result = worker.perform(task.request);
+      synchronized (this) {
+        if (ordered) {
+          window[(int) (task.sequence % bufferSize)] = result;
+        }
+        else {
+          completed.add(result);
+        }
+      }
+      drain();
+    }
+  }
+
+  /**
+   * Delivers completed results to the subscriber as demand allows, and
+   * replenishes the demand of the upstream publisher accordingly.
+   * Invocations are serialized; an invocation made while another is in
+   * progress causes the latter to make another pass.
+   */
+  private void drain() {
+    if (wip.getAndIncrement() != 0) return;
+    int missed = 1;
+    while (true) {
+      final Flow.Subscriber<? super CryptResult> subscriber;
+      final Flow.Subscription upstream;
+      synchronized (this) {
+        subscriber = this.subscriber;
+        upstream = this.upstream;
+      }
+      if (subscriber != null) {
+        long n = 0;
+        while (true) {
+          final CryptResult result;
+          synchronized (this) {
+            if (cancelled || demand == 0) break;
+            result = next();
+            if (result == null) break;
+            demand--;
+            delivered++;
+          }
+          subscriber.onNext(result);
+          n++;
+        }
+        final boolean terminate;
+        final Throwable cause;
+        synchronized (this) {
+          terminate = done && !terminated && !cancelled
+              && delivered == accepted;
+          if (terminate) {
+            terminated = true;
+          }
+          cause = error;
+        }
+        if (terminate) {
+          executor.shutdown();
+          if (cause != null) {
+            subscriber.onError(cause);
+          }
+          else {
+            subscriber.onComplete();
+          }
+        }
+        else if (n > 0 && upstream != null) {
+          upstream.request(n);
+        }
+      }
+      missed = wip.addAndGet(-missed);
+      if (missed == 0) break;
+    }
+  }
+
+  /**
+   * Removes the next result to be delivered, if it is available.
+   * @return result or {@code null}
+   */
+  private CryptResult next() {
+    if (!ordered) {
+      return completed.poll();
+    }
+    if (delivered == accepted) return null;
+    final int index = (int) (delivered % bufferSize);
+    final CryptResult result = window[index];
+    window[index] = null;
+    return result;
+  }
+
+  /**
+   * Cancels the upstream subscription and discards all requests that
+   * have not been performed.
+   */
+  private void cancel() {
+    final Flow.Subscription upstream;
+    synchronized (this) {
+      if (cancelled) return;
+      cancelled = true;
+      upstream = this.upstream;
+      for (Task task : pending) {
+        task.request.clear();
+      }
+      pending.clear();
+      completed.clear();
+      if (window != null) {
+        Arrays.fill(window, null);
+      }
+    }
+    executor.shutdown();
+    if (upstream != null) {
+      upstream.cancel();
+    }
+  }
+
+  /**
+   * The subscription of the subscriber to this processor.
+   */
+  private class Subscription implements Flow.Subscription {
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void request(long n) {
+      if (n <= 0) {
+        final Flow.Subscriber<? super CryptResult> subscriber;
+        synchronized (CryptProcessor.this) {
+          subscriber = cancelled ? null : CryptProcessor.this.subscriber;
+        }
+        cancel();
+        if (subscriber != null) {
+          subscriber.onError(new IllegalArgumentException(
+              "demand must be positive"));
+        }
+        return;
+      }
+      synchronized (CryptProcessor.this) {
+        demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+      }
+      drain();
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void cancel() {
+      CryptProcessor.this.cancel();
+    }
+
+  }
+
+  /**
+   * A request accepted from the upstream publisher.
+   */
+  private static class Task {
+
+    final long sequence;
+    final CryptRequest request;
+
+    Task(long sequence, CryptRequest request) {
+      this.sequence = sequence;
+      this.request = request;
+    }
+
+  }
+
+  /**
+   * A worker, which performs requests one at a time using its own
+   * password buffer.
+   */
+  private static class Worker {
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    /**
+     * Performs a request, clearing its password.
+     * @param request the request to perform
+     * @return result
+     */
+    CryptResult perform(CryptRequest request) {
+      try {
+        encode(request.getPassword());
+        switch (request.getOperation()) {
+          case CRYPT:
+            return CryptResult.hashed(request,
+                Crypt.crypt(buffer, request.getText()));
+          default:
+            return CryptResult.validated(request,
+                Crypt.validate(buffer, request.getText()));
+        }
+      }
+      catch (Exception ex) {
+        return CryptResult.failed(request, ex);
+      }
+      finally {
+        request.clear();
+        Arrays.fill(buffer.array(), 0, buffer.limit(), (byte) 0);
+        buffer.clear();
+      }
+    }
+
+    /**
+     * Encodes a password into the buffer of this worker, growing the
+     * buffer as needed.
+     * @param password the password to encode
+     */
+    private void encode(char[] password) {
+      final CharBuffer in = CharBuffer.wrap(password);
+      encoder.reset();
+      buffer.clear();
+      while (encoder.encode(in, buffer, true).isOverflow()) {
+        grow();
+      }
+      while (encoder.flush(buffer).isOverflow()) {
+        grow();
+      }
+      buffer.flip();
+    }
+
+    private void grow() {
+      final ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+      buffer.flip();
+      larger.put(buffer);
+      Arrays.fill(buffer.array(), (byte) 0);
+      buffer = larger;
+    }
+
+  }
+
+}
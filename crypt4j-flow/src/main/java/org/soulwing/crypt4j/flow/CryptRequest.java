@@ -0,0 +1,150 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.flow;
+
+import java.util.Arrays;
+
+/**
+ * A crypt or validate operation to be performed by a
+ * {@link CryptProcessor}.
+ * <p>
+ * A request holds a copy of its password, which is cleared once the
+ * operation has been performed (or the processor discards the request).
+ *
+ * @author Carl Harris
+ */
+public final class CryptRequest {
+
+  /**
+   * An operation that can be requested.
+   */
+  public enum Operation {
+    /** encrypt (digest) a password */
+    CRYPT,
+    /** validate a password against a hashed value */
+    VALIDATE
+  }
+
+  private final Object key;
+  private final Operation operation;
+  private final char[] password;
+  private final String text;
+
+  private CryptRequest(Object key, Operation operation, char[] password,
+      String text) {
+    if (text == null) {
+      throw new NullPointerException("salt or hashed value is required");
+    }
+    this.key = key;
+    this.operation = operation;
+    this.password = password.clone();
+    this.text = text;
+  }
+
+  /**
+   * Creates a request to encrypt (digest) a password.
+   * @param password the password to encrypt; it is copied, so the caller
+   *    may clear it immediately
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return request
+   */
+  public static CryptRequest crypt(char[] password, String salt) {
+    return crypt(null, password, salt);
+  }
+
+  /**
+   * Creates a request to encrypt (digest) a password.
+   * @param key a value that identifies the request to the subscriber of
+   *    the results (e.g. a user identifier); may be {@code null}
+   * @param password the password to encrypt; it is copied, so the caller
+   *    may clear it immediately
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return request
+   */
+  public static CryptRequest crypt(Object key, char[] password,
+      String salt) {
+    return new CryptRequest(key, Operation.CRYPT, password, salt);
+  }
+
+  /**
+   * Creates a request to validate a password.
+   * @param password the password to validate; it is copied, so the caller
+   *    may clear it immediately
+   * @param hashedValue the hashed value to validate against
+   * @return request
+   */
+  public static CryptRequest validate(char[] password, String hashedValue) {
+    return validate(null, password, hashedValue);
+  }
+
+  /**
+   * Creates a request to validate a password.
+   * @param key a value that identifies the request to the subscriber of
+   *    the results (e.g. a user identifier); may be {@code null}
+   * @param password the password to validate; it is copied, so the caller
+   *    may clear it immediately
+   * @param hashedValue the hashed value to validate against
+   * @return request
+   */
+  public static CryptRequest validate(Object key, char[] password,
+      String hashedValue) {
+    return new CryptRequest(key, Operation.VALIDATE, password, hashedValue);
+  }
+
+  /**
+   * Gets the key of this request.
+   * @return key or {@code null}
+   */
+  public Object getKey() {
+    return key;
+  }
+
+  /**
+   * Gets the operation of this request.
+   * @return operation
+   */
+  public Operation getOperation() {
+    return operation;
+  }
+
+  /**
+   * Gets the salt (for {@link Operation#CRYPT}) or hashed value (for
+   * {@link Operation#VALIDATE}) of this request.
+   * @return salt or hashed value
+   */
+  public String getText() {
+    return text;
+  }
+
+  /**
+   * Gets the password of this request.
+   * @return password (not a copy)
+   */
+  char[] getPassword() {
+    return password;
+  }
+
+  /**
+   * Clears the password of this request.
+   */
+  void clear() {
+    Arrays.fill(password, (char) 0);
+  }
+
+}
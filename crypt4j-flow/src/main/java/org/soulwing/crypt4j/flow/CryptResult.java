@@ -0,0 +1,115 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.flow;
+
+/**
+ * The result of a {@link CryptRequest} performed by a
+ * {@link CryptProcessor}.
+ * <p>
+ * A request that fails (e.g. because its salt is malformed or its
+ * algorithm is not supported) produces a result that holds the exception,
+ * rather than terminating the stream.
+ *
+ * @author Carl Harris
+ */
+public final class CryptResult {
+
+  private final CryptRequest request;
+  private final String hashedValue;
+  private final boolean valid;
+  private final Exception error;
+
+  private CryptResult(CryptRequest request, String hashedValue,
+      boolean valid, Exception error) {
+    this.request = request;
+    this.hashedValue = hashedValue;
+    this.valid = valid;
+    this.error = error;
+  }
+
+  static CryptResult hashed(CryptRequest request, String hashedValue) {
+    return new CryptResult(request, hashedValue, false, null);
+  }
+
+  static CryptResult validated(CryptRequest request, boolean valid) {
+    return new CryptResult(request, null, valid, null);
+  }
+
+  static CryptResult failed(CryptRequest request, Exception error) {
+    return new CryptResult(request, null, false, error);
+  }
+
+  /**
+   * Gets the key of the request that produced this result.
+   * @return key or {@code null}
+   */
+  public Object getKey() {
+    return request.getKey();
+  }
+
+  /**
+   * Gets the operation of the request that produced this result.
+   * @return operation
+   */
+  public CryptRequest.Operation getOperation() {
+    return request.getOperation();
+  }
+
+  /**
+   * Gets the hashed value produced by a {@link CryptRequest.Operation#CRYPT}
+   * request.
+   * @return crypt output string or {@code null} if this is not the result
+   *    of a successful crypt request
+   */
+  public String getHashedValue() {
+    return hashedValue;
+  }
+
+  /**
+   * Tests whether the password of a {@link CryptRequest.Operation#VALIDATE}
+   * request matched its hashed value.
+   * @return {@code true} if the password matched
+   */
+  public boolean isValid() {
+    return valid;
+  }
+
+  /**
+   * Gets the exception that caused the request to fail.
+   * @return exception or {@code null} if the request succeeded
+   */
+  public Exception getError() {
+    return error;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    if (error != null) {
+      return getKey() + ": " + error;
+    }
+    if (getOperation() == CryptRequest.Operation.CRYPT) {
+      return getKey() + ": " + hashedValue;
+    }
+    return getKey() + ": " + (valid ? "OK" : "FAIL");
+  }
+
+}
@@ -0,0 +1,272 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.flow;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+import org.soulwing.crypt4j.Crypt;
+
+/**
+ * Unit tests for {@link CryptProcessor}.
+ *
+ * @author Carl Harris
+ */
+public class CryptProcessorTest {
+
+  private static final String PASSWORD = "Hello world!";
+  private static final String HASHED_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+  private static final String SALT = "$5$rounds=1000$salt";
+
+  @Test
+  public void testOrderedCrypt() throws Exception {
+    final int count = 50;
+    final List<CryptRequest> requests = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      requests.add(CryptRequest.crypt(i, password(i), SALT + i));
+    }
+    final CryptProcessor processor = new CryptProcessor(4, 8, true);
+    final MockSubscriber subscriber = new MockSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new MockPublisher(requests).subscribe(processor);
+    subscriber.await();
+
+    assertThat(subscriber.error, is(nullValue()));
+    assertThat(subscriber.results.size(), is(equalTo(count)));
+    for (int i = 0; i < count; i++) {
+      final CryptResult result = subscriber.results.get(i);
+      assertThat(result.getKey(), is(equalTo((Object) i)));
+      assertThat(result.getHashedValue(),
+          is(equalTo(Crypt.crypt(password(i), SALT + i))));
+    }
+  }
+
+  @Test
+  public void testUnorderedValidate() throws Exception {
+    final int count = 20;
+    final List<CryptRequest> requests = new ArrayList<>();
+    for (int i = 0; i < count; i++) {
+      requests.add(CryptRequest.validate(i,
+          (i % 2 == 0 ? PASSWORD : "wrong").toCharArray(), HASHED_VALUE));
+    }
+    final CryptProcessor processor = new CryptProcessor(3, 5, false);
+    final MockSubscriber subscriber = new MockSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new MockPublisher(requests).subscribe(processor);
+    subscriber.await();
+
+    final Set<Object> keys = new HashSet<>();
+    for (CryptResult result : subscriber.results) {
+      keys.add(result.getKey());
+      assertThat(result.isValid(), is((Integer) result.getKey() % 2 == 0));
+    }
+    assertThat(keys.size(), is(equalTo(count)));
+  }
+
+  @Test
+  public void testFailedRequests() throws Exception {
+    final List<CryptRequest> requests = new ArrayList<>();
+    requests.add(CryptRequest.validate(PASSWORD.toCharArray(),
+        "$99$saltstring$digest"));
+    requests.add(CryptRequest.crypt(PASSWORD.toCharArray(), "$1"));
+    requests.add(CryptRequest.validate(PASSWORD.toCharArray(), HASHED_VALUE));
+    final CryptProcessor processor = new CryptProcessor(2);
+    final MockSubscriber subscriber = new MockSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    new MockPublisher(requests).subscribe(processor);
+    subscriber.await();
+
+    assertThat(subscriber.results.get(0).getError(),
+        is(instanceOf(NoSuchAlgorithmException.class)));
+    assertThat(subscriber.results.get(1).getError(),
+        is(instanceOf(IllegalArgumentException.class)));
+    assertThat(subscriber.results.get(2).isValid(), is(true));
+  }
+
+  @Test
+  public void testHonorsDemand() throws Exception {
+    final List<CryptRequest> requests = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      requests.add(CryptRequest.crypt(i, password(i), SALT));
+    }
+    final CryptProcessor processor = new CryptProcessor(2, 4, true);
+    final MockSubscriber subscriber = new MockSubscriber(0);
+    final MockPublisher publisher = new MockPublisher(requests);
+    processor.subscribe(subscriber);
+    publisher.subscribe(processor);
+
+    Thread.sleep(200);
+    assertThat(publisher.requested.get(), is(equalTo(4L)));
+    assertThat(subscriber.results.size(), is(equalTo(0)));
+
+    subscriber.subscription.request(3);
+    subscriber.awaitResults(3);
+    Thread.sleep(200);
+    assertThat(publisher.requested.get(), is(equalTo(7L)));
+    assertThat(subscriber.results.size(), is(equalTo(3)));
+
+    subscriber.subscription.request(Long.MAX_VALUE);
+    subscriber.await();
+    assertThat(subscriber.results.size(), is(equalTo(20)));
+  }
+
+  @Test
+  public void testUpstreamError() throws Exception {
+    final List<CryptRequest> requests = new ArrayList<>();
+    requests.add(CryptRequest.crypt(PASSWORD.toCharArray(), SALT));
+    final CryptProcessor processor = new CryptProcessor(1);
+    final MockSubscriber subscriber = new MockSubscriber(Long.MAX_VALUE);
+    processor.subscribe(subscriber);
+    final MockPublisher publisher = new MockPublisher(requests);
+    publisher.error = new RuntimeException("cursor failed");
+    publisher.subscribe(processor);
+    subscriber.await();
+
+    assertThat(subscriber.results.size(), is(equalTo(1)));
+    assertThat(subscriber.error, is(publisher.error));
+  }
+
+  @Test
+  public void testSecondSubscriberRejected() throws Exception {
+    final CryptProcessor processor = new CryptProcessor(1);
+    processor.subscribe(new MockSubscriber(0));
+    final MockSubscriber subscriber = new MockSubscriber(0);
+    processor.subscribe(subscriber);
+    subscriber.await();
+    assertThat(subscriber.error, is(instanceOf(IllegalStateException.class)));
+  }
+
+  private static char[] password(int i) {
+    return (PASSWORD + i).toCharArray();
+  }
+
+  /**
+   * A publisher of a list of requests that honors demand.
+   */
+  private static class MockPublisher implements Flow.Publisher<CryptRequest> {
+
+    final AtomicLong requested = new AtomicLong();
+    final List<CryptRequest> requests;
+    Throwable error;
+
+    MockPublisher(List<CryptRequest> requests) {
+      this.requests = requests;
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super CryptRequest> subscriber) {
+      subscriber.onSubscribe(new Flow.Subscription() {
+        int next;
+        boolean done;
+
+        @Override
+        public synchronized void request(long n) {
+          requested.addAndGet(n);
+          while (n-- > 0 && next < requests.size()) {
+            subscriber.onNext(requests.get(next++));
+          }
+          if (next == requests.size() && !done) {
+            done = true;
+            if (error != null) {
+              subscriber.onError(error);
+            }
+            else {
+              subscriber.onComplete();
+            }
+          }
+        }
+
+        @Override
+        public void cancel() {
+        }
+      });
+    }
+
+  }
+
+  /**
+   * A subscriber that collects results.
+   */
+  private static class MockSubscriber
+      implements Flow.Subscriber<CryptResult> {
+
+    final List<CryptResult> results = new ArrayList<>();
+    final CountDownLatch terminated = new CountDownLatch(1);
+    final long initialDemand;
+    volatile Flow.Subscription subscription;
+    volatile Throwable error;
+
+    MockSubscriber(long initialDemand) {
+      this.initialDemand = initialDemand;
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+      this.subscription = subscription;
+      if (initialDemand > 0) {
+        subscription.request(initialDemand);
+      }
+    }
+
+    @Override
+    public synchronized void onNext(CryptResult item) {
+      results.add(item);
+      notifyAll();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+      error = throwable;
+      terminated.countDown();
+    }
+
+    @Override
+    public void onComplete() {
+      terminated.countDown();
+    }
+
+    void await() throws InterruptedException {
+      assertThat(terminated.await(10, TimeUnit.SECONDS), is(true));
+    }
+
+    synchronized void awaitResults(int count) throws InterruptedException {
+      final long deadline = System.currentTimeMillis() + 10000;
+      while (results.size() < count
+          && System.currentTimeMillis() < deadline) {
+        wait(100);
+      }
+    }
+
+  }
+
+}
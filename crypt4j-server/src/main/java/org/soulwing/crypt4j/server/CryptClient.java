@@ -0,0 +1,263 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.server;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A client of a {@link CryptServer}.
+ * <p>
+ * An instance is thread safe. Requests from concurrent threads are
+ * pipelined on the same connection, so that the server can process them
+ * in the same batch; a process typically needs only one client.
+ *
+ * @author Carl Harris
+ */
+public class CryptClient implements AutoCloseable {
+
+  private final SocketChannel channel;
+  private final Map<Integer, CompletableFuture<Response>> pending =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger nextId = new AtomicInteger();
+  private final Thread reader;
+
+  private volatile IOException failure;
+
+  /**
+   * Constructs a new instance connected to a server.
+   * @param socketPath path to the socket file of the server
+   * @throws IOException if the connection cannot be established
+   */
+  public CryptClient(Path socketPath) throws IOException {
+    channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+    channel.connect(UnixDomainSocketAddress.of(socketPath));
+    reader = new Thread(this::read, "crypt4j-client-reader");
+    reader.setDaemon(true);
+    reader.start();
+  }
+
+  /**
+   * Validates a password using the server.
+   * @param password the password to validate; it is encoded as UTF-8
+   * @param hashedValue a hashed value produced by the {@code crypt}
+   *    operation
+   * @return {@code true} if {@code password} matches {@code hashedValue}
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *    is not supported by the server
+   * @throws IllegalArgumentException if the hashed value is malformed
+   * @throws IOException if the server cannot complete the request
+   */
+  public boolean validate(char[] password, String hashedValue)
+      throws NoSuchAlgorithmException, IOException {
+    return call(Protocol.VALIDATE, password, hashedValue).status
+        == Protocol.OK;
+  }
+
+  /**
+   * Encrypts (digests) a password using the server.
+   * @param password the password to encrypt; it is encoded as UTF-8
+   * @param salt salt, as for {@link org.soulwing.crypt4j.Crypt#crypt(char[],
+   *    String)}
+   * @return crypt output string
+   * @throws NoSuchAlgorithmException if the algorithm for the salt is not
+   *    supported by the server
+   * @throws IllegalArgumentException if the salt is malformed
+   * @throws IOException if the server cannot complete the request
+   */
+  public String crypt(char[] password, String salt)
+      throws NoSuchAlgorithmException, IOException {
+    return call(Protocol.CRYPT, password, salt).text;
+  }
+
+  /**
+   * Closes the connection to the server. Requests in progress fail.
+   * @throws IOException if an error occurs in closing the connection
+   */
+  @Override
+  public void close() throws IOException {
+    channel.close();
+  }
+
+  /**
+   * Sends a request and waits for its response.
+   * @param operation request operation
+   * @param password password to encode
+   * @param text hashed value or salt
+   * @return response whose status is {@link Protocol#OK} or
+   *    {@link Protocol#MISMATCH}
+   * @throws NoSuchAlgorithmException if the status of the response is
+   *    {@link Protocol#UNSUPPORTED}
+   * @throws IOException if the request fails
+   */
+  private Response call(byte operation, char[] password, String text)
+      throws NoSuchAlgorithmException, IOException {
+    final int id = nextId.getAndIncrement();
+    final CompletableFuture<Response> future = new CompletableFuture<>();
+    pending.put(id, future);
+    send(operation, id, password, text);
+    if (failure != null) {
+      fail(failure);
+    }
+    final Response response;
+    try {
+      response = future.get();
+    }
+    catch (InterruptedException ex) {
+      pending.remove(id);
+      Thread.currentThread().interrupt();
+      throw new IOException(ex);
+    }
+    catch (ExecutionException ex) {
+      throw new IOException(ex.getCause());
+    }
+    switch (response.status) {
+      case Protocol.OK:
+      case Protocol.MISMATCH:
+        return response;
+      case Protocol.UNSUPPORTED:
+        throw new NoSuchAlgorithmException(response.text);
+      case Protocol.MALFORMED:
+        throw new IllegalArgumentException(response.text);
+      default:
+        throw new IOException(response.text);
+    }
+  }
+
+  /**
+   * Writes a request frame.
+   */
+  private void send(byte operation, int id, char[] password, String text)
+      throws IOException {
+    final ByteBuffer encoded =
+        StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+    ByteBuffer frame = null;
+    try {
+      frame = Protocol.request(operation, id, text, encoded.array(),
+          encoded.limit());
+      synchronized (channel) {
+        while (frame.hasRemaining()) {
+          channel.write(frame);
+        }
+      }
+    }
+    catch (IOException | RuntimeException ex) {
+      pending.remove(id);
+      throw ex;
+    }
+    finally {
+      Arrays.fill(encoded.array(), (byte) 0);
+      if (frame != null) {
+        Arrays.fill(frame.array(), (byte) 0);
+      }
+    }
+  }
+
+  /**
+   * Reads response frames until the connection is closed, completing
+   * the corresponding requests.
+   */
+  private void read() {
+    ByteBuffer input = ByteBuffer.allocate(1024);
+    try {
+      while (true) {
+        if (channel.read(input) < 0) {
+          throw new EOFException("connection closed by server");
+        }
+        input.flip();
+        for (int length = Protocol.frameLength(input); length != -1;
+            length = Protocol.frameLength(input)) {
+          input.getInt();
+          final int id = input.getInt();
+          final byte status = input.get();
+          final byte[] text = new byte[length - Protocol.RESPONSE_HEADER_SIZE];
+          input.get(text);
+          final CompletableFuture<Response> future = pending.remove(id);
+          if (future != null) {
+            future.complete(new Response(status,
+                new String(text, StandardCharsets.UTF_8)));
+          }
+        }
+        input.compact();
+        if (!input.hasRemaining()) {
+          final ByteBuffer larger =
+              ByteBuffer.allocate(2 * input.capacity());
+          input.flip();
+          input = larger.put(input);
+        }
+      }
+    }
+    catch (IOException ex) {
+      fail(ex);
+    }
+    catch (RuntimeException ex) {
+      fail(new IOException(ex));
+    }
+  }
+
+  /**
+   * Fails all pending requests.
+   * @param ex the cause of the failure
+   */
+  private void fail(IOException ex) {
+    failure = ex;
+    for (Integer id : pending.keySet()) {
+      final CompletableFuture<Response> future = pending.remove(id);
+      if (future != null) {
+        future.completeExceptionally(ex);
+      }
+    }
+    try {
+      channel.close();
+    }
+    catch (IOException e) {
+      assert true;  // nothing more can be done
+    }
+  }
+
+  /**
+   * A response frame.
+   */
+  private static class Response {
+
+    final byte status;
+    final String text;
+
+    Response(byte status, String text) {
+      this.status = status;
+      this.text = text;
+    }
+
+  }
+
+}
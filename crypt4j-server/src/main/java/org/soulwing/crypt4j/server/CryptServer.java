@@ -0,0 +1,578 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.server;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.soulwing.crypt4j.Crypt;
+
+/**
+ * A local daemon that performs crypt and validate operations for other
+ * processes on the same host, over a Unix domain socket.
+ * <p>
+ * A single selector thread accepts connections, reads request frames (see
+ * {@link Protocol}) and writes response frames. The requests read in each
+ * pass of the selector are coalesced into a batch, which is divided among
+ * a fixed pool of worker threads; each worker processes its share of the
+ * batch in turn and hands the responses back to the selector thread. The
+ * number of workers therefore bounds the processor time that hashing can
+ * take on the host, no matter how many client processes there are. When a
+ * connection has too many requests in progress, the server stops reading
+ * from it until some of them complete.
+ * <p>
+ * Access to the daemon is controlled by the permissions of the socket
+ * file and its directory.
+ *
+ * @author Carl Harris
+ */
+public class CryptServer implements AutoCloseable {
+
+  static final String USAGE =
+      "usage: java -jar crypt4j-server.jar [--threads n] socket-path";
+
+  /**
+   * Maximum number of requests in progress on a single connection.
+   */
+  static final int MAX_IN_FLIGHT = 1024;
+
+  /**
+   * Time (in milliseconds) for which accepting connections is suspended
+   * after an accept fails, unless a connection closes sooner.
+   */
+  static final long ACCEPT_BACKOFF = 100;
+
+  private static final int READ_BUFFER_SIZE = 8192;
+
+  private final Path socketPath;
+  private final int threads;
+  private final Queue<Response> completions = new ConcurrentLinkedQueue<>();
+
+  private ServerSocketChannel server;
+  private Selector selector;
+  private SelectionKey serverKey;
+  private ExecutorService workers;
+  private Thread selectorThread;
+  private volatile boolean closed;
+  private boolean acceptSuspended;
+  private long acceptResumeTime;
+
+  /**
+   * Constructs a new instance that uses a worker thread for each
+   * available processor.
+   * @param socketPath path to the socket file
+   */
+  public CryptServer(Path socketPath) {
+    this(socketPath, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param socketPath path to the socket file
+   * @param threads number of worker threads
+   */
+  public CryptServer(Path socketPath, int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    this.socketPath = socketPath;
+    this.threads = threads;
+  }
+
+  /**
+   * Starts this server. A socket file left by a server that did not shut
+   * down cleanly is replaced.
+   * @throws IOException if the socket cannot be created
+   */
+  public synchronized void start() throws IOException {
+    if (server != null) {
+      throw new IllegalStateException("already started");
+    }
+    Files.deleteIfExists(socketPath);
+    server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+    server.bind(UnixDomainSocketAddress.of(socketPath));
+    server.configureBlocking(false);
+    selector = Selector.open();
+    serverKey = server.register(selector, SelectionKey.OP_ACCEPT);
+    workers = Executors.newFixedThreadPool(threads, r -> {
+      final Thread thread = new Thread(r, "crypt4j-server-worker");
+      thread.setDaemon(true);
+      return thread;
+    });
+    selectorThread = new Thread(this::run, "crypt4j-server-selector");
+    selectorThread.start();
+  }
+
+  /**
+   * Stops this server, closing all connections and removing the socket
+   * file.
+   * @throws IOException if an error occurs in closing the socket
+   */
+  @Override
+  public synchronized void close() throws IOException {
+    if (server == null || closed) return;
+    closed = true;
+    selector.wakeup();
+    try {
+      selectorThread.join();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    workers.shutdownNow();
+    server.close();
+    Files.deleteIfExists(socketPath);
+  }
+
+  /**
+   * Runs the selector loop.
+   */
+  private void run() {
+    final List<Request> batch = new ArrayList<>();
+    try {
+      while (!closed) {
+        selector.select(selectTimeout());
+        final Iterator<SelectionKey> keys =
+            selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+          final SelectionKey key = keys.next();
+          keys.remove();
+          try {
+            if (!key.isValid()) continue;
+            if (key.isAcceptable()) {
+              accept();
+              continue;
+            }
+            final Connection connection = (Connection) key.attachment();
+            if (key.isReadable()) {
+              connection.read(batch);
+            }
+            if (key.isValid() && key.isWritable()) {
+              connection.write();
+            }
+          }
+          catch (IOException | RuntimeException ex) {
+            if (key.attachment() instanceof Connection) {
+              ((Connection) key.attachment()).close();
+            }
+          }
+        }
+        dispatch(batch);
+        complete();
+      }
+    }
+    catch (IOException ex) {
+      System.err.println("crypt4j-server: " + ex);
+    }
+    finally {
+      for (SelectionKey key : selector.keys()) {
+        if (key.attachment() instanceof Connection) {
+          ((Connection) key.attachment()).close();
+        }
+      }
+      try {
+        selector.close();
+      }
+      catch (IOException ex) {
+        assert true;  // nothing more can be done
+      }
+    }
+  }
+
+  /**
+   * Accepts a pending connection, if there is one. A failure (e.g. because
+   * the process has no more file descriptors) is logged, and the
+   * connection is left pending; accepting is suspended until a connection
+   * closes or the back-off period elapses, so that the selector does not
+   * spin on a connection that cannot yet be accepted.
+   */
+  private void accept() {
+    SocketChannel channel = null;
+    try {
+      channel = acceptChannel();
+      if (channel == null) return;
+      channel.configureBlocking(false);
+      final SelectionKey key = channel.register(selector,
+          SelectionKey.OP_READ);
+      key.attach(new Connection(channel, key));
+    }
+    catch (IOException ex) {
+      System.err.println("crypt4j-server: cannot accept connection: " + ex);
+      suspendAccept();
+      if (channel != null) {
+        try {
+          channel.close();
+        }
+        catch (IOException e) {
+          assert true;  // nothing more can be done
+        }
+      }
+    }
+  }
+
+  /**
+   * Stops selecting the server socket for accept, for the back-off period.
+   */
+  private void suspendAccept() {
+    acceptSuspended = true;
+    acceptResumeTime = System.nanoTime()
+        + TimeUnit.MILLISECONDS.toNanos(ACCEPT_BACKOFF);
+    serverKey.interestOps(0);
+  }
+
+  /**
+   * Resumes selecting the server socket for accept, if it was suspended.
+   */
+  private void resumeAccept() {
+    if (!acceptSuspended) return;
+    acceptSuspended = false;
+    if (serverKey.isValid()) {
+      serverKey.interestOps(SelectionKey.OP_ACCEPT);
+    }
+  }
+
+  /**
+   * Gets the timeout for the next select, resuming accept if its back-off
+   * period has elapsed.
+   * @return timeout in milliseconds, or 0 to wait indefinitely
+   */
+  private long selectTimeout() {
+    if (!acceptSuspended) return 0;
+    final long remaining = TimeUnit.NANOSECONDS.toMillis(
+        acceptResumeTime - System.nanoTime());
+    if (remaining > 0) return remaining;
+    resumeAccept();
+    return 0;
+  }
+
+  /**
+   * Accepts a pending connection on the server socket.
+   * @return channel for the connection or {@code null} if there is no
+   *    pending connection
+   * @throws IOException if the connection cannot be accepted
+   */
+  SocketChannel acceptChannel() throws IOException {
+    return server.accept();
+  }
+
+  /**
+   * Divides a batch of requests among the workers.
+   * @param batch the batch to dispatch; it is cleared
+   */
+  private void dispatch(List<Request> batch) {
+    if (batch.isEmpty()) return;
+    final int size = batch.size();
+    final int shares = Math.min(threads, size);
+    for (int i = 0; i < shares; i++) {
+      final Request[] share = batch.subList(i * size / shares,
+          (i + 1) * size / shares).toArray(new Request[0]);
+      workers.execute(() -> process(share));
+    }
+    batch.clear();
+  }
+
+  /**
+   * Processes a share of a batch, on a worker thread.
+   * @param share the requests to process
+   */
+  private void process(Request[] share) {
+    for (Request request : share) {
+      completions.add(new Response(request.connection,
+          execute(request)));
+    }
+    selector.wakeup();
+  }
+
+  /**
+   * Executes a single request.
+   * @param request the subject request
+   * @return response frame
+   */
+  private static ByteBuffer execute(Request request) {
+    try {
+      if (request.operation == Protocol.VALIDATE) {
+        return Protocol.response(request.id,
+            Crypt.validate(request.password, request.text) ?
+                Protocol.OK : Protocol.MISMATCH, null);
+      }
+      if (request.operation == Protocol.CRYPT) {
+        return Protocol.response(request.id, Protocol.OK,
+            Crypt.crypt(request.password, request.text));
+      }
+      return Protocol.response(request.id, Protocol.ERROR,
+          "unknown operation " + request.operation);
+    }
+    catch (NoSuchAlgorithmException ex) {
+      return Protocol.response(request.id, Protocol.UNSUPPORTED,
+          ex.toString());
+    }
+    catch (IllegalArgumentException ex) {
+      return Protocol.response(request.id, Protocol.MALFORMED,
+          ex.toString());
+    }
+    catch (Exception ex) {
+      return Protocol.response(request.id, Protocol.ERROR, ex.toString());
+    }
+    finally {
+      Arrays.fill(request.password, (byte) 0);
+    }
+  }
+
+  /**
+   * Queues the responses completed by the workers for writing.
+   */
+  private void complete() {
+    for (Response response = completions.poll(); response != null;
+        response = completions.poll()) {
+      response.connection.send(response.frame);
+    }
+  }
+
+  /**
+   * Runs the server as specified by command line arguments, until the
+   * process is terminated.
+   * @param args command line arguments
+   */
+  public static void main(String[] args) throws Exception {
+    int threads = Runtime.getRuntime().availableProcessors();
+    String socketPath = null;
+    try {
+      for (int i = 0; i < args.length; i++) {
+        if (args[i].equals("--threads") && i + 1 < args.length) {
+          threads = Integer.parseInt(args[++i]);
+        }
+        else if (socketPath == null && !args[i].startsWith("--")) {
+          socketPath = args[i];
+        }
+        else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+      if (socketPath == null) {
+        throw new IllegalArgumentException("socket path is required");
+      }
+    }
+    catch (IllegalArgumentException ex) {
+      System.err.println(ex);
+      System.err.println(USAGE);
+      System.exit(2);
+    }
+    Crypt.warmUp();
+    final CryptServer server = new CryptServer(Paths.get(socketPath),
+        threads);
+    server.start();
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+      try {
+        server.close();
+      }
+      catch (IOException ex) {
+        System.err.println("crypt4j-server: " + ex);
+      }
+    }));
+    server.selectorThread.join();
+  }
+
+  /**
+   * A client connection, used only by the selector thread.
+   */
+  private class Connection {
+
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ArrayDeque<ByteBuffer> output = new ArrayDeque<>();
+    private ByteBuffer input = ByteBuffer.allocate(READ_BUFFER_SIZE);
+    private int inFlight;
+    private boolean closed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+      this.channel = channel;
+      this.key = key;
+    }
+
+    /**
+     * Reads the available input and adds the complete requests to a
+     * batch.
+     */
+    void read(List<Request> batch) throws IOException {
+      if (channel.read(input) < 0) {
+        close();
+        return;
+      }
+      input.flip();
+      try {
+        for (int length = Protocol.frameLength(input); length != -1;
+            length = Protocol.frameLength(input)) {
+          input.getInt();
+          batch.add(parse(length));
+          inFlight++;
+        }
+      }
+      finally {
+        input.compact();
+      }
+      if (!input.hasRemaining()) {
+        input = grow(input);
+      }
+      updateInterest();
+    }
+
+    /**
+     * Parses a request frame from the position of the input buffer.
+     */
+    private Request parse(int length) {
+      if (length < Protocol.REQUEST_HEADER_SIZE) {
+        throw new IllegalArgumentException("malformed request");
+      }
+      final int end = input.position() + length;
+      final byte operation = input.get();
+      final int id = input.getInt();
+      final int textLength = input.getShort();
+      if (textLength < 0 || input.position() + textLength > end) {
+        throw new IllegalArgumentException("malformed request");
+      }
+      final byte[] text = new byte[textLength];
+      input.get(text);
+      final byte[] password = new byte[end - input.position()];
+      input.get(password);
+      Arrays.fill(input.array(), end - password.length, end, (byte) 0);
+      return new Request(this, operation, id,
+          new String(text, StandardCharsets.UTF_8), password);
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+      final ByteBuffer larger = ByteBuffer.allocate(Math.min(
+          2 * buffer.capacity(),
+          Protocol.LENGTH_SIZE + Protocol.MAX_FRAME_LENGTH));
+      buffer.flip();
+      larger.put(buffer);
+      Arrays.fill(buffer.array(), (byte) 0);
+      return larger;
+    }
+
+    /**
+     * Queues a response for writing.
+     */
+    void send(ByteBuffer frame) {
+      inFlight--;
+      if (closed) return;
+      output.add(frame);
+      updateInterest();
+    }
+
+    /**
+     * Writes as much of the queued output as the channel accepts.
+     */
+    void write() throws IOException {
+      while (!output.isEmpty()) {
+        final ByteBuffer frame = output.peek();
+        channel.write(frame);
+        if (frame.hasRemaining()) break;
+        output.remove();
+      }
+      updateInterest();
+    }
+
+    private void updateInterest() {
+      if (closed) return;
+      int ops = 0;
+      if (inFlight < MAX_IN_FLIGHT) {
+        ops |= SelectionKey.OP_READ;
+      }
+      if (!output.isEmpty()) {
+        ops |= SelectionKey.OP_WRITE;
+      }
+      key.interestOps(ops);
+    }
+
+    void close() {
+      if (closed) return;
+      closed = true;
+      key.cancel();
+      output.clear();
+      Arrays.fill(input.array(), (byte) 0);
+      resumeAccept();
+      try {
+        channel.close();
+      }
+      catch (IOException ex) {
+        assert true;  // nothing more can be done
+      }
+    }
+
+  }
+
+  /**
+   * A request read from a connection.
+   */
+  private static class Request {
+
+    final Connection connection;
+    final byte operation;
+    final int id;
+    final String text;
+    final byte[] password;
+
+    Request(Connection connection, byte operation, int id, String text,
+        byte[] password) {
+      this.connection = connection;
+      this.operation = operation;
+      this.id = id;
+      this.text = text;
+      this.password = password;
+    }
+
+  }
+
+  /**
+   * A response to be written to a connection.
+   */
+  private static class Response {
+
+    final Connection connection;
+    final ByteBuffer frame;
+
+    Response(Connection connection, ByteBuffer frame) {
+      this.connection = connection;
+      this.frame = frame;
+    }
+
+  }
+
+}
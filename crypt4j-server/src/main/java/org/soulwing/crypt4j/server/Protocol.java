@@ -0,0 +1,143 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.server;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The wire protocol between a {@link CryptClient} and a
+ * {@link CryptServer}.
+ * <p>
+ * Each message is a frame that consists of a 4-byte length (big-endian,
+ * not including the length itself) followed by that many bytes. A request
+ * frame holds:
+ * <pre>
+ *   byte    operation ({@link #VALIDATE} or {@link #CRYPT})
+ *   int     request identifier
+ *   short   length of the hashed value or salt
+ *   byte[]  hashed value or salt (UTF-8)
+ *   byte[]  password (encoded; the remainder of the frame)
+ * </pre>
+ * and a response frame holds:
+ * <pre>
+ *   int     request identifier
+ *   byte    status
+ *   byte[]  hashed value (for {@link #CRYPT}) or error message (UTF-8)
+ * </pre>
+ * A client may send any number of requests before reading the responses,
+ * which are not necessarily in the order of the requests.
+ *
+ * @author Carl Harris
+ */
+final class Protocol {
+
+  static final byte VALIDATE = 1;
+  static final byte CRYPT = 2;
+
+  /** the password matches (validate), or the value was hashed (crypt) */
+  static final byte OK = 0;
+
+  /** the password does not match */
+  static final byte MISMATCH = 1;
+
+  /** the algorithm is not supported */
+  static final byte UNSUPPORTED = 2;
+
+  /** the hashed value or salt is malformed */
+  static final byte MALFORMED = 3;
+
+  /** the request could not be processed */
+  static final byte ERROR = 4;
+
+  /** maximum length of a frame, not including its length */
+  static final int MAX_FRAME_LENGTH = 64 * 1024;
+
+  static final int LENGTH_SIZE = 4;
+
+  static final int REQUEST_HEADER_SIZE = 1 + 4 + 2;
+  static final int RESPONSE_HEADER_SIZE = 4 + 1;
+
+  private Protocol() {
+  }
+
+  /**
+   * Creates a request frame.
+   * @param operation request operation
+   * @param id request identifier
+   * @param text hashed value or salt
+   * @param password encoded password
+   * @param passwordLength length of the password in {@code password}
+   * @return buffer containing the frame, ready to be written
+   * @throws IllegalArgumentException if the frame would be too long
+   */
+  static ByteBuffer request(byte operation, int id, String text,
+      byte[] password, int passwordLength) {
+    final byte[] textBytes = text.getBytes(StandardCharsets.UTF_8);
+    final int length = REQUEST_HEADER_SIZE + textBytes.length
+        + passwordLength;
+    if (textBytes.length > Short.MAX_VALUE || length > MAX_FRAME_LENGTH) {
+      throw new IllegalArgumentException("request is too long");
+    }
+    final ByteBuffer frame = ByteBuffer.allocate(LENGTH_SIZE + length);
+    frame.putInt(length).put(operation).putInt(id)
+        .putShort((short) textBytes.length).put(textBytes)
+        .put(password, 0, passwordLength);
+    frame.flip();
+    return frame;
+  }
+
+  /**
+   * Creates a response frame.
+   * @param id request identifier
+   * @param status response status
+   * @param text hashed value, error message, or {@code null}
+   * @return buffer containing the frame, ready to be written
+   */
+  static ByteBuffer response(int id, byte status, String text) {
+    final byte[] textBytes = text == null ?
+        new byte[0] : text.getBytes(StandardCharsets.UTF_8);
+    final int length = RESPONSE_HEADER_SIZE
+        + Math.min(textBytes.length, MAX_FRAME_LENGTH - RESPONSE_HEADER_SIZE);
+    final ByteBuffer frame = ByteBuffer.allocate(LENGTH_SIZE + length);
+    frame.putInt(length).putInt(id).put(status)
+        .put(textBytes, 0, length - RESPONSE_HEADER_SIZE);
+    frame.flip();
+    return frame;
+  }
+
+  /**
+   * Gets the length of the frame at the position of a buffer, if the
+   * buffer holds the entire frame.
+   * @param buffer buffer in read mode
+   * @return length of the frame (not including its length), or {@code -1}
+   *    if the frame is not yet complete
+   * @throws IllegalArgumentException if the frame is too long or too
+   *    short
+   */
+  static int frameLength(ByteBuffer buffer) {
+    if (buffer.remaining() < LENGTH_SIZE) return -1;
+    final int length = buffer.getInt(buffer.position());
+    if (length < RESPONSE_HEADER_SIZE || length > MAX_FRAME_LENGTH) {
+      throw new IllegalArgumentException("illegal frame length");
+    }
+    return buffer.remaining() - LENGTH_SIZE >= length ? length : -1;
+  }
+
+}
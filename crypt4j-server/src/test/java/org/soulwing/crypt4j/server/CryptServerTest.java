@@ -0,0 +1,195 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j.server;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+import java.io.IOException;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.soulwing.crypt4j.Crypt;
+
+/**
+ * Unit tests for {@link CryptServer} and {@link CryptClient}.
+ *
+ * @author Carl Harris
+ */
+public class CryptServerTest {
+
+  private static final String PASSWORD = "Hello world!";
+  private static final String HASHED_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Path socketPath;
+  private CryptServer server;
+  private CryptClient client;
+
+  @Before
+  public void setUp() throws Exception {
+    socketPath = folder.getRoot().toPath().resolve("crypt.sock");
+    server = new CryptServer(socketPath, 2);
+    server.start();
+    client = new CryptClient(socketPath);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    client.close();
+    server.close();
+  }
+
+  @Test
+  public void testValidate() throws Exception {
+    assertThat(client.validate(PASSWORD.toCharArray(), HASHED_VALUE),
+        is(true));
+    assertThat(client.validate("wrong".toCharArray(), HASHED_VALUE),
+        is(false));
+  }
+
+  @Test
+  public void testCrypt() throws Exception {
+    final String salt = "$5$rounds=1000$saltstring";
+    assertThat(client.crypt(PASSWORD.toCharArray(), salt),
+        is(equalTo(Crypt.crypt(PASSWORD.toCharArray(), salt))));
+  }
+
+  @Test(expected = NoSuchAlgorithmException.class)
+  public void testUnsupportedAlgorithm() throws Exception {
+    client.validate(PASSWORD.toCharArray(), "$99$saltstring$digest");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMalformedSalt() throws Exception {
+    client.crypt(PASSWORD.toCharArray(), "$1");
+  }
+
+  @Test
+  public void testConcurrentClients() throws Exception {
+    final ExecutorService executor = Executors.newFixedThreadPool(4);
+    final List<CryptClient> others = new ArrayList<>();
+    try {
+      final List<Future<Boolean>> results = new ArrayList<>();
+      for (int c = 0; c < 4; c++) {
+        final CryptClient other = c == 0 ?
+            client : new CryptClient(socketPath);
+        others.add(other);
+        for (int i = 0; i < 8; i++) {
+          final String password = i % 2 == 0 ? PASSWORD : "wrong";
+          results.add(executor.submit(new Callable<Boolean>() {
+            @Override
+            public Boolean call() throws Exception {
+              return other.validate(password.toCharArray(), HASHED_VALUE);
+            }
+          }));
+        }
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i).get(), is(i % 2 == 0));
+      }
+    }
+    finally {
+      executor.shutdown();
+      for (CryptClient other : others.subList(1, others.size())) {
+        other.close();
+      }
+    }
+  }
+
+  @Test
+  public void testSurvivesFailedAccept() throws Exception {
+    final Path otherPath = folder.getRoot().toPath().resolve("other.sock");
+    final AtomicInteger failures = new AtomicInteger(1);
+    try (CryptServer other = new CryptServer(otherPath, 1) {
+          @Override
+          SocketChannel acceptChannel() throws IOException {
+            if (failures.getAndDecrement() > 0) {
+              throw new IOException("Too many open files");
+            }
+            return super.acceptChannel();
+          }
+        }) {
+      other.start();
+      try (CryptClient otherClient = new CryptClient(otherPath)) {
+        assertThat(otherClient.validate(PASSWORD.toCharArray(),
+            HASHED_VALUE), is(true));
+      }
+      assertThat(failures.get(), is(lessThan(0)));
+    }
+  }
+
+  @Test
+  public void testSuspendsAcceptAfterFailure() throws Exception {
+    final Path otherPath = folder.getRoot().toPath().resolve("other.sock");
+    final AtomicBoolean failing = new AtomicBoolean(true);
+    final AtomicInteger attempts = new AtomicInteger();
+    try (CryptServer other = new CryptServer(otherPath, 1) {
+          @Override
+          SocketChannel acceptChannel() throws IOException {
+            attempts.incrementAndGet();
+            if (failing.get()) {
+              throw new IOException("Too many open files");
+            }
+            return super.acceptChannel();
+          }
+        }) {
+      other.start();
+      try (SocketChannel pending = SocketChannel.open(
+          UnixDomainSocketAddress.of(otherPath))) {
+        Thread.sleep(5 * CryptServer.ACCEPT_BACKOFF);
+        assertThat(attempts.get(), is(lessThanOrEqualTo(10)));
+        failing.set(false);
+        try (CryptClient otherClient = new CryptClient(otherPath)) {
+          assertThat(otherClient.validate(PASSWORD.toCharArray(),
+              HASHED_VALUE), is(true));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testCloseRemovesSocket() throws Exception {
+    assertThat(Files.exists(socketPath), is(true));
+    server.close();
+    assertThat(Files.exists(socketPath), is(false));
+  }
+
+}
@@ -0,0 +1,287 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+/**
+ * A report produced by a {@link CredentialAuditor}.
+ * <p>
+ * A report is accumulated by the auditor; once returned to the caller it
+ * is not modified further, and may be shared among threads.
+ *
+ * @author Carl Harris
+ */
+public final class AuditReport {
+
+  /**
+   * Maximum number of malformed entries whose line numbers are retained.
+   */
+  public static final int MAX_MALFORMED_LINES = 100;
+
+  private final long[] typeCounts = new long[Type.values().length];
+  private final long[] wrappedCounts = new long[Type.values().length];
+  private final Map<String, Long> unsupportedCounts = new TreeMap<>();
+  private final SortedMap<Integer, Long> roundsHistogram = new TreeMap<>();
+  private final List<Long> malformedLines = new ArrayList<>();
+
+  private long lineCount;
+  private long entryCount;
+  private long emptyCount;
+  private long lockedCount;
+  private long malformedCount;
+  private long shortSaltCount;
+  private long longSaltCount;
+
+  /**
+   * Gets the number of entries (lines other than blank lines and comments).
+   * @return number of entries
+   */
+  public long getEntryCount() {
+    return entryCount;
+  }
+
+  /**
+   * Gets the number of well-formed entries for each supported algorithm.
+   * @return map of algorithm name (e.g. {@code SHA-512}) to count, in the
+   *    order of increasing strength
+   */
+  public Map<String, Long> getAlgorithmCounts() {
+    final Map<String, Long> counts = new LinkedHashMap<>();
+    for (Type type : Type.values()) {
+      counts.put(type.getAlgorithm(), typeCounts[type.ordinal()]);
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the number of well-formed entries for each legacy algorithm whose
+   * values have been wrapped in SHA-512 by a {@link HashMigrator}.
+   * @return map of the algorithm name of the legacy values (e.g.
+   *    {@code MD5}) to count, in the order of increasing strength
+   */
+  public Map<String, Long> getWrappedCounts() {
+    final Map<String, Long> counts = new LinkedHashMap<>();
+    for (Type type : Type.values()) {
+      if (WrappedCryptScheme.forType(type) != null) {
+        counts.put(type.getAlgorithm(), wrappedCounts[type.ordinal()]);
+      }
+    }
+    return counts;
+  }
+
+  /**
+   * Gets the number of entries for each scheme that is not supported by
+   * this library (e.g. {@code $2b$} or {@code {SHA}}).
+   * @return map of scheme identifier to count
+   */
+  public Map<String, Long> getUnsupportedCounts() {
+    return Collections.unmodifiableMap(unsupportedCounts);
+  }
+
+  /**
+   * Gets a histogram of the number of rounds used by SHA-256 and SHA-512
+   * entries.
+   * <p>
+   * The number of rounds is the number that would actually be used; for an
+   * entry with no {@code rounds=} parameter, it is the default of 5000.
+   * @return map of number of rounds to count
+   */
+  public SortedMap<Integer, Long> getRoundsHistogram() {
+    return Collections.unmodifiableSortedMap(roundsHistogram);
+  }
+
+  /**
+   * Gets the number of entries with an empty hash (no password).
+   * @return number of entries
+   */
+  public long getEmptyCount() {
+    return emptyCount;
+  }
+
+  /**
+   * Gets the number of locked entries (whose hash begins with {@code !} or
+   * {@code *}).
+   * @return number of entries
+   */
+  public long getLockedCount() {
+    return lockedCount;
+  }
+
+  /**
+   * Gets the number of malformed entries.
+   * @return number of entries
+   */
+  public long getMalformedCount() {
+    return malformedCount;
+  }
+
+  /**
+   * Gets the (1-based) line numbers of the first
+   * {@value #MAX_MALFORMED_LINES} malformed entries.
+   * @return list of line numbers in increasing order
+   */
+  public List<Long> getMalformedLines() {
+    return Collections.unmodifiableList(malformedLines);
+  }
+
+  /**
+   * Gets the number of MD5, SHA-256 and SHA-512 entries whose salt is
+   * shorter than the maximum length for the algorithm.
+   * @return number of entries
+   */
+  public long getShortSaltCount() {
+    return shortSaltCount;
+  }
+
+  /**
+   * Gets the number of MD5, SHA-256 and SHA-512 entries whose salt is
+   * longer than the maximum length for the algorithm; only a prefix of
+   * such a salt is used.
+   * @return number of entries
+   */
+  public long getLongSaltCount() {
+    return longSaltCount;
+  }
+
+  void addLine() {
+    lineCount++;
+  }
+
+  void addEntry() {
+    entryCount++;
+  }
+
+  void addEmpty() {
+    emptyCount++;
+  }
+
+  void addLocked() {
+    lockedCount++;
+  }
+
+  void addShortSalt() {
+    shortSaltCount++;
+  }
+
+  void addLongSalt() {
+    longSaltCount++;
+  }
+
+  void addType(Type type) {
+    typeCounts[type.ordinal()]++;
+  }
+
+  void addWrapped(Type type) {
+    wrappedCounts[type.ordinal()]++;
+  }
+
+  void addUnsupported(String scheme) {
+    final Long count = unsupportedCounts.get(scheme);
+    unsupportedCounts.put(scheme, count == null ? 1 : count + 1);
+  }
+
+  void addRounds(int rounds) {
+    final Long count = roundsHistogram.get(rounds);
+    roundsHistogram.put(rounds, count == null ? 1 : count + 1);
+  }
+
+  /**
+   * Records a malformed entry on the current line.
+   */
+  void addMalformed() {
+    malformedCount++;
+    if (malformedLines.size() < MAX_MALFORMED_LINES) {
+      malformedLines.add(lineCount);
+    }
+  }
+
+  /**
+   * Merges a report for the lines that follow those of this report.
+   * @param other the report to merge
+   */
+  void merge(AuditReport other) {
+    for (int i = 0; i < typeCounts.length; i++) {
+      typeCounts[i] += other.typeCounts[i];
+      wrappedCounts[i] += other.wrappedCounts[i];
+    }
+    for (Map.Entry<String, Long> entry : other.unsupportedCounts.entrySet()) {
+      final Long count = unsupportedCounts.get(entry.getKey());
+      unsupportedCounts.put(entry.getKey(),
+          count == null ? entry.getValue() : count + entry.getValue());
+    }
+    for (Map.Entry<Integer, Long> entry : other.roundsHistogram.entrySet()) {
+      final Long count = roundsHistogram.get(entry.getKey());
+      roundsHistogram.put(entry.getKey(),
+          count == null ? entry.getValue() : count + entry.getValue());
+    }
+    for (long line : other.malformedLines) {
+      if (malformedLines.size() >= MAX_MALFORMED_LINES) break;
+      malformedLines.add(lineCount + line);
+    }
+    lineCount += other.lineCount;
+    entryCount += other.entryCount;
+    emptyCount += other.emptyCount;
+    lockedCount += other.lockedCount;
+    malformedCount += other.malformedCount;
+    shortSaltCount += other.shortSaltCount;
+    longSaltCount += other.longSaltCount;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final Formatter formatter = new Formatter();
+    formatter.format("entries: %d%n", entryCount);
+    for (Map.Entry<String, Long> entry : getAlgorithmCounts().entrySet()) {
+      formatter.format("  %-12s %d%n", entry.getKey(), entry.getValue());
+    }
+    for (Map.Entry<String, Long> entry : getWrappedCounts().entrySet()) {
+      formatter.format("  %-12s %d%n", "wrapped " + entry.getKey(),
+          entry.getValue());
+    }
+    for (Map.Entry<String, Long> entry : unsupportedCounts.entrySet()) {
+      formatter.format("  %-12s %d (unsupported)%n", entry.getKey(),
+          entry.getValue());
+    }
+    formatter.format("  %-12s %d%n", "empty", emptyCount);
+    formatter.format("  %-12s %d%n", "locked", lockedCount);
+    formatter.format("  %-12s %d%n", "malformed", malformedCount);
+    formatter.format("rounds:%n");
+    for (Map.Entry<Integer, Long> entry : roundsHistogram.entrySet()) {
+      formatter.format("  %-12d %d%n", entry.getKey(), entry.getValue());
+    }
+    formatter.format("short salts: %d%n", shortSaltCount);
+    formatter.format("long salts: %d%n", longSaltCount);
+    if (!malformedLines.isEmpty()) {
+      formatter.format("malformed lines: %s%n", malformedLines);
+    }
+    return formatter.toString();
+  }
+
+}
@@ -0,0 +1,334 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Callable;
+
+/**
+ * A task that audits a line-aligned chunk of a credential file.
+ * <p>
+ * The chunk is memory-mapped, and each entry is classified in place by
+ * examining the bytes of its hash field; no strings or {@link Salt}
+ * objects are created, except to name an unsupported scheme.
+ *
+ * @author Carl Harris
+ */
+class AuditTask implements Callable<AuditReport> {
+
+  private static final int MD5_SALT_LENGTH = 8;
+  private static final int SHA2_SALT_LENGTH = 16;
+  private static final int DES_LENGTH = 13;
+  private static final int EXTENDED_DES_LENGTH = 20;
+  private static final int DES_SETTING_LENGTH = 2;
+  private static final int EXTENDED_DES_SETTING_LENGTH = 9;
+
+  private static final byte WRAPPED_ID = 'w';
+
+  private static final byte[] ROUNDS_PARAM =
+      "rounds=".getBytes(StandardCharsets.US_ASCII);
+
+  private static final boolean[] BASE64 = new boolean[128];
+
+  static {
+    for (int i = 0; i < Base64.BASE64_SET.length(); i++) {
+      BASE64[Base64.BASE64_SET.charAt(i)] = true;
+    }
+  }
+
+  private final FileChannel channel;
+  private final long start;
+  private final long end;
+
+  /**
+   * Constructs a new instance.
+   * @param channel channel for the file to audit
+   * @param start offset of the first byte of the chunk; the first byte of
+   *    a line
+   * @param end offset of the byte that follows the chunk; the first byte
+   *    of a line or the end of the file
+   */
+  public AuditTask(FileChannel channel, long start, long end) {
+    this.channel = channel;
+    this.start = start;
+    this.end = end;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public AuditReport call() throws IOException {
+    final AuditReport report = new AuditReport();
+    audit(channel.map(FileChannel.MapMode.READ_ONLY, start, end - start),
+        report);
+    return report;
+  }
+
+  /**
+   * Audits each line in a buffer.
+   * @param buffer the buffer to audit
+   * @param report the report to which the results are added
+   */
+  static void audit(ByteBuffer buffer, AuditReport report) {
+    final int limit = buffer.limit();
+    int lineStart = 0;
+    while (lineStart < limit) {
+      int lineEnd = indexOf(buffer, '\n', lineStart, limit);
+      final int next = lineEnd < 0 ? limit : lineEnd + 1;
+      if (lineEnd < 0) {
+        lineEnd = limit;
+      }
+      if (lineEnd > lineStart && buffer.get(lineEnd - 1) == '\r') {
+        lineEnd--;
+      }
+      report.addLine();
+      if (lineEnd > lineStart && buffer.get(lineStart) != '#') {
+        report.addEntry();
+        auditEntry(buffer, lineStart, lineEnd, report);
+      }
+      lineStart = next;
+    }
+  }
+
+  /**
+   * Audits an entry of the form {@code name:hash[:other fields]}.
+   */
+  private static void auditEntry(ByteBuffer buffer, int start, int end,
+      AuditReport report) {
+    final int colon = indexOf(buffer, ':', start, end);
+    if (colon < 0) {
+      report.addMalformed();
+      return;
+    }
+    int hashEnd = indexOf(buffer, ':', colon + 1, end);
+    if (hashEnd < 0) {
+      hashEnd = end;
+    }
+    auditHash(buffer, colon + 1, hashEnd, report);
+  }
+
+  /**
+   * Audits a hash field.
+   */
+  private static void auditHash(ByteBuffer buffer, int start, int end,
+      AuditReport report) {
+    if (start == end) {
+      report.addEmpty();
+      return;
+    }
+    final byte first = buffer.get(start);
+    if (first == '!' || first == '*') {
+      report.addLocked();
+      return;
+    }
+    if (first != '$') {
+      auditNonModular(buffer, start, end, report);
+      return;
+    }
+
+    /* $id$ */
+    final int idEnd = indexOf(buffer, '$', start + 1, end);
+    if (idEnd < 0 || idEnd == start + 1) {
+      report.addMalformed();
+      return;
+    }
+    final Type type;
+    final Type wrapped;
+    int index = idEnd + 1;
+    if (buffer.get(start + 1) == WRAPPED_ID) {
+      /* <legacy salt>$ of a legacy value wrapped in SHA-512 */
+      final int code = parseDigits(buffer, start + 2, idEnd);
+      wrapped = code < 0 ? null : Type.forType(code);
+      if (wrapped == null || WrappedCryptScheme.forType(wrapped) == null) {
+        report.addUnsupported(toString(buffer, start, idEnd + 1));
+        return;
+      }
+      final int legacyEnd = indexOf(buffer, '$', index, end);
+      if (legacyEnd < 0 || !isLegacySalt(wrapped, legacyEnd - index)) {
+        report.addMalformed();
+        return;
+      }
+      type = Type.SHA512;
+      index = legacyEnd + 1;
+    }
+    else {
+      final int code = parseDigits(buffer, start + 1, idEnd);
+      type = code < 0 ? null : Type.forType(code);
+      wrapped = null;
+      if (type == null || type == Type.DES) {
+        report.addUnsupported(toString(buffer, start, idEnd + 1));
+        return;
+      }
+    }
+
+    /* [param=value$] */
+    int extent = indexOf(buffer, '$', index, end);
+    int rounds = -1;
+    if (extent >= 0 && indexOf(buffer, '=', index, extent) >= 0) {
+      if (type == Type.MD5
+          || !startsWith(buffer, index, extent, ROUNDS_PARAM)) {
+        report.addMalformed();
+        return;
+      }
+      rounds = parseDigits(buffer, index + ROUNDS_PARAM.length, extent);
+      if (rounds < 0) {
+        report.addMalformed();
+        return;
+      }
+      index = extent + 1;
+      extent = indexOf(buffer, '$', index, end);
+    }
+
+    /* salt$digest */
+    if (extent < 0 || !isBase64(buffer, extent + 1, end,
+        Base64.encodedLength(encodingOrder(type)))) {
+      report.addMalformed();
+      return;
+    }
+
+    if (wrapped != null) {
+      report.addWrapped(wrapped);
+    }
+    else {
+      report.addType(type);
+    }
+    final int maxSaltLength = type == Type.MD5 ?
+        MD5_SALT_LENGTH : SHA2_SALT_LENGTH;
+    final int saltLength = extent - index;
+    if (saltLength < maxSaltLength) {
+      report.addShortSalt();
+    }
+    else if (saltLength > maxSaltLength) {
+      report.addLongSalt();
+    }
+    if (type != Type.MD5) {
+      report.addRounds(rounds < 0 ? Sha2Crypt.DEFAULT_ROUNDS :
+          Math.max(Sha2Crypt.MIN_ROUNDS, Math.min(rounds,
+              Sha2Crypt.MAX_ROUNDS)));
+    }
+  }
+
+  /**
+   * Audits a hash field that does not begin with {@code $}.
+   */
+  private static void auditNonModular(ByteBuffer buffer, int start, int end,
+      AuditReport report) {
+    if (buffer.get(start) == '{') {
+      final int brace = indexOf(buffer, '}', start + 1, end);
+      if (brace > start + 1) {
+        report.addUnsupported(toString(buffer, start, brace + 1));
+        return;
+      }
+    }
+    if (isBase64(buffer, start, end, DES_LENGTH)
+        || buffer.get(start) == '_'
+            && isBase64(buffer, start + 1, end, EXTENDED_DES_LENGTH - 1)) {
+      report.addType(Type.DES);
+      return;
+    }
+    report.addMalformed();
+  }
+
+  /**
+   * Tests whether a length is valid for the salt of a wrapped legacy value.
+   */
+  private static boolean isLegacySalt(Type wrapped, int length) {
+    if (wrapped == Type.DES) {
+      return length == DES_SETTING_LENGTH
+          || length == EXTENDED_DES_SETTING_LENGTH;
+    }
+    return length <= MD5_SALT_LENGTH;
+  }
+
+  private static int[] encodingOrder(Type type) {
+    switch (type) {
+      case MD5:
+        return Md5Crypt.ENCODING_ORDER;
+      case SHA256:
+        return Sha256Crypt.ENCODING_ORDER;
+      default:
+        return Sha512Crypt.ENCODING_ORDER;
+    }
+  }
+
+  /**
+   * Finds the first occurrence of a byte in a range.
+   * @return index of the byte or -1 if it does not occur in the range
+   */
+  private static int indexOf(ByteBuffer buffer, char c, int start,
+      int end) {
+    for (int i = start; i < end; i++) {
+      if (buffer.get(i) == c) return i;
+    }
+    return -1;
+  }
+
+  /**
+   * Parses a non-negative decimal integer.
+   * @return value or -1 if the range is empty, contains a character that
+   *    is not a digit, or the value does not fit in an {@code int}
+   */
+  private static int parseDigits(ByteBuffer buffer, int start, int end) {
+    if (start == end) return -1;
+    long value = 0;
+    for (int i = start; i < end; i++) {
+      final int digit = buffer.get(i) - '0';
+      if (digit < 0 || digit > 9) return -1;
+      value = 10 * value + digit;
+      if (value > Integer.MAX_VALUE) return -1;
+    }
+    return (int) value;
+  }
+
+  private static boolean startsWith(ByteBuffer buffer, int start, int end,
+      byte[] prefix) {
+    if (end - start < prefix.length) return false;
+    for (int i = 0; i < prefix.length; i++) {
+      if (buffer.get(start + i) != prefix[i]) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Tests whether a range consists of a given number of base 64
+   * characters.
+   */
+  private static boolean isBase64(ByteBuffer buffer, int start, int end,
+      int length) {
+    if (end - start != length) return false;
+    for (int i = start; i < end; i++) {
+      final byte b = buffer.get(i);
+      if (b < 0 || !BASE64[b]) return false;
+    }
+    return true;
+  }
+
+  private static String toString(ByteBuffer buffer, int start, int end) {
+    final byte[] bytes = new byte[end - start];
+    for (int i = start; i < end; i++) {
+      bytes[i - start] = buffer.get(i);
+    }
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+}
@@ -18,37 +18,269 @@
  */
 package org.soulwing.crypt4j;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 /**
- * A base-64 encoder.
+ * A base-64 encoder and decoder.
+ * <p>
+ * The crypt algorithms encode their digests in groups of three bytes,
+ * taken from the digest in an order that is particular to each
+ * algorithm. The order is given as an array that holds three byte
+ * indexes per group (high-order, middle, low-order bytes), with
+ * {@code -1} in place of a zero byte that is not part of the digest.
+ * A group encodes as four characters, least significant 6 bits first,
+ * except that a group having only one or two digest bytes encodes as
+ * two or three characters, respectively.
  *
  * @author Carl Harris
  */
 class Base64 {
 
-  private static final String BASE64_SET = 
+  static final String BASE64_SET = 
       "./0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz";
 
+  private static final char[] ENCODE_CHARS = BASE64_SET.toCharArray();
+
+  private static final byte[] ENCODE_BYTES = new byte[64];
+
+  private static final byte[] DECODE = new byte[128];
+
+  static {
+    Arrays.fill(DECODE, (byte) -1);
+    for (int i = 0; i < 64; i++) {
+      ENCODE_BYTES[i] = (byte) ENCODE_CHARS[i];
+      DECODE[ENCODE_CHARS[i]] = (byte) i;
+    }
+  }
+
+  /**
+   * Encodes a digest as a string.
+   * @param digest the digest to encode
+   * @param order byte order of the encoded groups
+   * @return encoded digest
+   */
+  public static String encode(byte[] digest, int[] order) {
+    final char[] buf = new char[encodedLength(order)];
+    encode(digest, order, buf, 0);
+    return new String(buf);
+  }
+
+  /**
+   * Encodes a digest into a character array.
+   * @param digest the digest to encode
+   * @param order byte order of the encoded groups
+   * @param dest the target array, which must have room for
+   *    {@link #encodedLength(int[])} characters at {@code offset}
+   * @param offset offset in {@code dest} of the first character
+   * @return offset in {@code dest} following the last character
+   */
+  public static int encode(byte[] digest, int[] order, char[] dest,
+      int offset) {
+    for (int g = 0; g < order.length; g += 3) {
+      int w = group(digest, order, g);
+      for (int i = 0, n = groupLength(order, g); i < n; i++) {
+        dest[offset++] = ENCODE_CHARS[w & 0x3f];
+        w >>>= 6;
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Encodes a digest into an array of ASCII bytes.
+   * @param digest the digest to encode
+   * @param order byte order of the encoded groups
+   * @param dest the target array, which must have room for
+   *    {@link #encodedLength(int[])} bytes at {@code offset}
+   * @param offset offset in {@code dest} of the first byte
+   * @return offset in {@code dest} following the last byte
+   */
+  public static int encode(byte[] digest, int[] order, byte[] dest,
+      int offset) {
+    for (int g = 0; g < order.length; g += 3) {
+      int w = group(digest, order, g);
+      for (int i = 0, n = groupLength(order, g); i < n; i++) {
+        dest[offset++] = ENCODE_BYTES[w & 0x3f];
+        w >>>= 6;
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Encodes a digest, appending it to a string builder.
+   * @param digest the digest to encode
+   * @param order byte order of the encoded groups
+   * @param dest the target string builder
+   * @return {@code dest}
+   */
+  public static StringBuilder encode(byte[] digest, int[] order,
+      StringBuilder dest) {
+    dest.ensureCapacity(dest.length() + encodedLength(order));
+    for (int g = 0; g < order.length; g += 3) {
+      int w = group(digest, order, g);
+      for (int i = 0, n = groupLength(order, g); i < n; i++) {
+        dest.append(ENCODE_CHARS[w & 0x3f]);
+        w >>>= 6;
+      }
+    }
+    return dest;
+  }
+
+  /**
+   * Encodes a digest, appending it to the given target.
+   * @param digest the digest to encode
+   * @param order byte order of the encoded groups
+   * @param dest the target
+   * @return {@code dest}
+   * @throws IOException if an error occurs in appending to {@code dest}
+   */
+  public static <A extends Appendable> A encode(byte[] digest, int[] order,
+      A dest) throws IOException {
+    for (int g = 0; g < order.length; g += 3) {
+      int w = group(digest, order, g);
+      for (int i = 0, n = groupLength(order, g); i < n; i++) {
+        dest.append(ENCODE_CHARS[w & 0x3f]);
+        w >>>= 6;
+      }
+    }
+    return dest;
+  }
+
+  /**
+   * Decodes a string produced by {@link #encode(byte[], int[])}.
+   * @param encoded the string to decode
+   * @param order byte order of the encoded groups
+   * @param length length of the decoded output
+   * @return decoded bytes
+   * @throws IllegalArgumentException if {@code encoded} is not of the
+   *    length implied by {@code order} or contains a character that is
+   *    not in the base 64 set
+   */
+  public static byte[] decode(CharSequence encoded, int[] order,
+      int length) {
+    if (encoded.length() != encodedLength(order)) {
+      throw new IllegalArgumentException("illegal encoded length");
+    }
+    final byte[] buf = new byte[length];
+    int c = 0;
+    for (int g = 0; g < order.length; g += 3) {
+      final int n = groupLength(order, g);
+      int w = 0;
+      for (int i = 0; i < n; i++) {
+        w |= decode(encoded.charAt(c++)) << (6 * i);
+      }
+      put(buf, order, g, w);
+    }
+    return buf;
+  }
+
   /**
-   * Encodes a 24-bit value as a character array containing base 64.
-   * @param b2 high-order 8 bits
-   * @param b1 middle 8 bits
-   * @param b0 low-order 8 bits
-   * @param n number of characters to encode
-   * @return character array of length {@code n} containing the base 64 
-   *    representation of the input value
-   */
-  public static char[] encode(byte b2, byte b1, byte b0, int n) {
-    char[] buf = new char[n];
-    int i = 0;
-    int w = (((int) b2 & 0xff) << 16) 
-          | (((int) b1 & 0xff) << 8) 
-          | ((int) b0 & 0xff);
-    
-    while (i < n) {
-      buf[i++] = BASE64_SET.charAt(w & 0x3f);
-      w >>>= 6;
+   * Decodes an array of ASCII bytes produced by
+   * {@link #encode(byte[], int[], byte[], int)}.
+   * @param encoded array containing the bytes to decode
+   * @param offset offset of the first byte to decode
+   * @param encodedLength number of bytes to decode
+   * @param order byte order of the encoded groups
+   * @param length length of the decoded output
+   * @return decoded bytes
+   * @throws IllegalArgumentException if {@code encodedLength} is not the
+   *    length implied by {@code order} or a byte to decode is not in the
+   *    base 64 set
+   */
+  public static byte[] decode(byte[] encoded, int offset, int encodedLength,
+      int[] order, int length) {
+    if (encodedLength != encodedLength(order)) {
+      throw new IllegalArgumentException("illegal encoded length");
+    }
+    final byte[] buf = new byte[length];
+    int c = offset;
+    for (int g = 0; g < order.length; g += 3) {
+      final int n = groupLength(order, g);
+      int w = 0;
+      for (int i = 0; i < n; i++) {
+        w |= decode((char) (encoded[c++] & 0xff)) << (6 * i);
+      }
+      put(buf, order, g, w);
     }
     return buf;
   }
 
+  /**
+   * Gets the 6-bit value of a base 64 character.
+   * @param c the subject character
+   * @return value of {@code c} or {@code -1} if {@code c} is not in the
+   *    base 64 set
+   */
+  static int valueOf(char c) {
+    return c < DECODE.length ? DECODE[c] : -1;
+  }
+
+  /**
+   * Gets the base 64 character for a 6-bit value.
+   * @param value the subject value; only the low-order 6 bits are used
+   * @return character
+   */
+  static char charOf(int value) {
+    return ENCODE_CHARS[value & 0x3f];
+  }
+
+  /**
+   * Gets the length of the encoding of bytes in the given order.
+   * @param order byte order of the encoded groups
+   * @return number of characters
+   */
+  static int encodedLength(int[] order) {
+    int length = 0;
+    for (int g = 0; g < order.length; g += 3) {
+      length += groupLength(order, g);
+    }
+    return length;
+  }
+
+  /**
+   * Gets the number of characters used to encode a group.
+   * @param order byte order of the encoded groups
+   * @param g index of the first element of the group in {@code order}
+   * @return number of characters
+   */
+  private static int groupLength(int[] order, int g) {
+    int n = 1;
+    for (int i = g; i < g + 3; i++) {
+      if (order[i] != -1) n++;
+    }
+    return n;
+  }
+
+  private static int group(byte[] digest, int[] order, int g) {
+    return get(digest, order[g]) << 16
+        | get(digest, order[g + 1]) << 8
+        | get(digest, order[g + 2]);
+  }
+
+  private static int get(byte[] digest, int index) {
+    return index == -1 ? 0 : digest[index] & 0xff;
+  }
+
+  private static int decode(char c) {
+    final int v = valueOf(c);
+    if (v == -1) {
+      throw new IllegalArgumentException("illegal base 64 character");
+    }
+    return v;
+  }
+
+  private static void put(byte[] buf, int[] order, int g, int w) {
+    put(buf, order[g], w >>> 16);
+    put(buf, order[g + 1], w >>> 8);
+    put(buf, order[g + 2], w);
+  }
+
+  private static void put(byte[] buf, int index, int value) {
+    if (index != -1) {
+      buf[index] = (byte) value;
+    }
+  }
+
 }
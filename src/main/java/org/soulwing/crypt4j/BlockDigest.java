@@ -0,0 +1,243 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * An abstract base for pure-Java implementations of the Merkle-Damg&aring;rd
+ * digests used by the crypt algorithms.
+ * <p>
+ * Subclasses keep the chaining state in primitive arrays and compress
+ * directly from the caller's input array whenever a full block is
+ * available; only a trailing partial block is copied into the internal
+ * block buffer.
+ *
+ * @author Carl Harris
+ */
+abstract class BlockDigest implements Digest {
+
+  private final byte[] block;
+  private final int lengthSize;
+  private int blockOffset;
+  private long byteCount;
+
+  /**
+   * Constructs a new instance.
+   * @param blockLength length of a compression block in bytes
+   * @param lengthSize size in bytes of the message length field that is
+   *    placed at the end of the final block
+   */
+  protected BlockDigest(int blockLength, int lengthSize) {
+    this.block = new byte[blockLength];
+    this.lengthSize = lengthSize;
+  }
+
+  /**
+   * Gets the length of a compression block.
+   * @return block length in bytes
+   */
+  public final int getBlockLength() {
+    return block.length;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final void reset() {
+    /* the block may hold the tail of a password-derived message */
+    fill(0, block.length);
+    blockOffset = 0;
+    byteCount = 0;
+    resetState();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final void update(byte input) {
+    byteCount++;
+    block[blockOffset++] = input;
+    if (blockOffset == block.length) {
+      compress(block, 0);
+      blockOffset = 0;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final void update(byte[] input) {
+    update(input, 0, input.length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final void update(byte[] input, int offset, int length) {
+    final int blockLength = block.length;
+    byteCount += length;
+    if (blockOffset > 0) {
+      final int n = Math.min(length, blockLength - blockOffset);
+      System.arraycopy(input, offset, block, blockOffset, n);
+      blockOffset += n;
+      offset += n;
+      length -= n;
+      if (blockOffset < blockLength) return;
+      compress(block, 0);
+      blockOffset = 0;
+    }
+    while (length >= blockLength) {
+      compress(input, offset);
+      offset += blockLength;
+      length -= blockLength;
+    }
+    if (length > 0) {
+      System.arraycopy(input, offset, block, 0, length);
+      blockOffset = length;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public final void digest(byte[] output) {
+    final int blockLength = block.length;
+    final long bitLength = byteCount << 3;
+    block[blockOffset++] = (byte) 0x80;
+    if (blockOffset > blockLength - lengthSize) {
+      fill(blockOffset, blockLength);
+      compress(block, 0);
+      blockOffset = 0;
+    }
+    fill(blockOffset, blockLength - 8);
+    encodeLength(block, blockLength - 8, bitLength);
+    compress(block, 0);
+    encodeState(output, 0);
+    reset();
+  }
+
+  /**
+   * Gets the length of the padded form of a message.
+   * @param messageLength length of the message in bytes
+   * @return length of the message with its padding and length field,
+   *    which is always a multiple of the block length
+   */
+  public final int paddedLength(int messageLength) {
+    final int blockLength = block.length;
+    final int blocks = (messageLength + lengthSize + blockLength)
+        / blockLength;
+    return blocks * blockLength;
+  }
+
+  /**
+   * Appends the padding and length field to a message stored in an array.
+   * @param input array containing the message at {@code offset}; it must
+   *    have room for {@link #paddedLength(int)} bytes at that offset
+   * @param offset offset of the message in {@code input}
+   * @param messageLength length of the message in bytes
+   */
+  public final void pad(byte[] input, int offset, int messageLength) {
+    final int end = offset + paddedLength(messageLength);
+    input[offset + messageLength] = (byte) 0x80;
+    for (int i = offset + messageLength + 1; i < end - 8; i++) {
+      input[i] = 0;
+    }
+    encodeLength(input, end - 8, (long) messageLength << 3);
+  }
+
+  /**
+   * Digests a message that has already been padded using
+   * {@link #pad(byte[], int, int)}.
+   * <p>
+   * This engine must not hold any input that has not yet been digested.
+   * The blocks are compressed directly from {@code input}, and this engine
+   * is left reset and ready for reuse.
+   * @param input array containing the padded message
+   * @param offset offset of the padded message in {@code input}
+   * @param paddedLength length of the padded message
+   * @param output array to receive the digest
+   */
+  public final void digestPadded(byte[] input, int offset, int paddedLength,
+      byte[] output) {
+    final int blockLength = block.length;
+    for (int end = offset + paddedLength; offset < end;
+        offset += blockLength) {
+      compress(input, offset);
+    }
+    encodeState(output, 0);
+    resetState();
+  }
+
+  /**
+   * Zero fills a range of the block buffer.
+   * @param from index of the first byte to clear
+   * @param to index following the last byte to clear
+   */
+  private void fill(int from, int to) {
+    for (int i = from; i < to; i++) {
+      block[i] = 0;
+    }
+  }
+
+  /**
+   * Resets the chaining state to the initial value of the digest.
+   */
+  protected abstract void resetState();
+
+  /**
+   * Compresses a single block into the chaining state.
+   * @param input source array
+   * @param offset offset of the block in {@code input}
+   */
+  protected abstract void compress(byte[] input, int offset);
+
+  /**
+   * Encodes the chaining state as a digest value.
+   * @param output array to receive the digest
+   * @param offset offset at which the digest is to be stored
+   */
+  protected abstract void encodeState(byte[] output, int offset);
+
+  /**
+   * Encodes the low-order 64 bits of the message length field.
+   * @param output array to receive the length
+   * @param offset offset at which the 8-byte length is to be stored
+   * @param bitLength message length in bits
+   */
+  protected abstract void encodeLength(byte[] output, int offset,
+      long bitLength);
+
+  /**
+   * Stores a 64-bit value in big-endian order.
+   * @param value the value to store
+   * @param output destination array
+   * @param offset offset of the first byte
+   */
+  static void putLongBigEndian(long value, byte[] output, int offset) {
+    for (int i = 7; i >= 0; i--) {
+      output[offset + i] = (byte) value;
+      value >>>= 8;
+    }
+  }
+
+}
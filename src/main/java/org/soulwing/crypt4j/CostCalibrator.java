@@ -0,0 +1,462 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A calibrator that measures the cost of crypt operations on the running
+ * machine, and recommends a number of rounds that achieves a target
+ * latency.
+ * <p>
+ * A fixed {@code rounds=} value is a poor fit for a fleet of machines of
+ * differing speed: it wastes CPU on slow machines and under-protects on
+ * fast ones. Calibrating at startup (or as part of provisioning) lets each
+ * machine choose its own value. Measurements are made with the given
+ * number of threads hashing concurrently, since the latency of a hash
+ * on a busy machine is what matters in practice.
+ * <p>
+ * For example, to find the number of SHA-512 rounds that takes 250 ms per
+ * hash when four threads are hashing at once:
+ * <pre>
+ * CostCalibrator.Recommendation recommendation =
+ *     new CostCalibrator(4).recommend("$6$", 250, TimeUnit.MILLISECONDS);
+ * String salt = recommendation.getSaltPrefix() + saltText;
+ * </pre>
+ * <p>
+ * Calibration takes time proportional to the target latency and to the
+ * number of iterations, and the results are only as good as the
+ * machine is quiet while it runs. An instance is not thread safe.
+ *
+ * @author Carl Harris
+ */
+public class CostCalibrator {
+
+  /**
+   * Default number of rounds used to measure the time per round.
+   */
+  public static final int DEFAULT_SAMPLE_ROUNDS = 20000;
+
+  /**
+   * Default number of operations performed by each thread per measurement.
+   */
+  public static final int DEFAULT_ITERATIONS = 5;
+
+  /**
+   * Default length (in bytes) of the password used for a recommendation.
+   */
+  public static final int DEFAULT_PASSWORD_LENGTH = 16;
+
+  /**
+   * Relative error in the measured latency of a recommendation beyond
+   * which the recommendation is corrected and measured again.
+   */
+  private static final double TOLERANCE = 0.1;
+
+  /**
+   * Minimum time spent warming up each algorithm before it is measured, so
+   * that measurements are of compiled code.
+   */
+  private static final long WARM_UP_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+  private static final String SALT_TEXT = "CalibrationSalt.";
+
+  private static final Type[] MODELED_TYPES =
+      { Type.MD5, Type.SHA256, Type.SHA512 };
+
+  private final int threads;
+
+  private int sampleRounds = DEFAULT_SAMPLE_ROUNDS;
+  private int iterations = DEFAULT_ITERATIONS;
+
+  /**
+   * Constructs a new instance that measures with a single thread.
+   */
+  public CostCalibrator() {
+    this(1);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param threads number of threads hashing concurrently during each
+   *    measurement
+   */
+  public CostCalibrator(int threads) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    this.threads = threads;
+  }
+
+  /**
+   * Gets the number of threads hashing concurrently during each
+   * measurement.
+   * @return number of threads
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Gets the number of rounds used to measure the time per round.
+   * @return number of rounds
+   */
+  public int getSampleRounds() {
+    return sampleRounds;
+  }
+
+  /**
+   * Sets the number of rounds used to measure the time per round.
+   * @param sampleRounds number of rounds; must be greater than the minimum
+   *    number of rounds of the SHA-2 algorithms
+   */
+  public void setSampleRounds(int sampleRounds) {
+    if (sampleRounds <= Sha2Crypt.MIN_ROUNDS) {
+      throw new IllegalArgumentException("sample rounds must be more than "
+          + Sha2Crypt.MIN_ROUNDS);
+    }
+    this.sampleRounds = sampleRounds;
+  }
+
+  /**
+   * Gets the number of operations performed by each thread per
+   * measurement.
+   * @return number of iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Sets the number of operations performed by each thread per
+   * measurement.
+   * @param iterations number of iterations
+   */
+  public void setIterations(int iterations) {
+    if (iterations < 1) {
+      throw new IllegalArgumentException("iterations must be at least 1");
+    }
+    this.iterations = iterations;
+  }
+
+  /**
+   * Measures a cost model for MD5, SHA-256 and SHA-512 for each class of
+   * password length.
+   * @return cost model
+   * @throws NoSuchAlgorithmException if an algorithm is not supported on
+   *    this platform
+   * @throws InterruptedException if the calling thread is interrupted
+   */
+  public CostModel calibrate()
+      throws NoSuchAlgorithmException, InterruptedException {
+    return calibrate(MODELED_TYPES, CostModel.PASSWORD_LENGTHS);
+  }
+
+  /**
+   * Recommends a number of rounds that achieves a target latency for a
+   * password of the default length.
+   * @param scheme salt string that identifies the algorithm; it must
+   *    specify SHA-256 ({@code $5$}) or SHA-512 ({@code $6$})
+   * @param target target time per operation
+   * @param unit unit of {@code target}
+   * @return recommendation
+   * @throws NoSuchAlgorithmException if the algorithm is not supported on
+   *    this platform
+   * @throws InterruptedException if the calling thread is interrupted
+   * @throws IllegalArgumentException if the algorithm does not have a
+   *    configurable number of rounds
+   */
+  public Recommendation recommend(String scheme, long target, TimeUnit unit)
+      throws NoSuchAlgorithmException, InterruptedException {
+    return recommend(scheme, DEFAULT_PASSWORD_LENGTH, target, unit);
+  }
+
+  /**
+   * Recommends a number of rounds that achieves a target latency.
+   * <p>
+   * The recommendation is computed from a cost model and then verified by
+   * measurement; if the measured latency is not within 10% of the target,
+   * the number of rounds is corrected proportionally and measured again.
+   * @param scheme salt string that identifies the algorithm; it must
+   *    specify SHA-256 ({@code $5$}) or SHA-512 ({@code $6$})
+   * @param passwordLength length (in bytes) of a typical password
+   * @param target target time per operation
+   * @param unit unit of {@code target}
+   * @return recommendation
+   * @throws NoSuchAlgorithmException if the algorithm is not supported on
+   *    this platform
+   * @throws InterruptedException if the calling thread is interrupted
+   * @throws IllegalArgumentException if the algorithm does not have a
+   *    configurable number of rounds
+   */
+  public Recommendation recommend(String scheme, int passwordLength,
+      long target, TimeUnit unit)
+      throws NoSuchAlgorithmException, InterruptedException {
+    final Type type = Type.forSalt(new Salt(scheme));
+    if (type != Type.SHA256 && type != Type.SHA512) {
+      throw new IllegalArgumentException(
+          "algorithm does not have a configurable number of rounds");
+    }
+    final long targetNanos = unit.toNanos(target);
+    final CostModel model = calibrate(new Type[] { type },
+        new int[] { passwordLength });
+    final char[] password = password(passwordLength);
+    final ExecutorService executor = newExecutor();
+    try {
+      int rounds = model.roundsFor(scheme, passwordLength, target, unit);
+      double measured = measure(executor, password,
+          saltPrefix(type, rounds) + SALT_TEXT);
+      if (Math.abs(measured - targetNanos) > TOLERANCE * targetNanos) {
+        final int corrected = CostModel.clampRounds(
+            Math.round(rounds * targetNanos / measured));
+        if (corrected != rounds) {
+          rounds = corrected;
+          measured = measure(executor, password,
+              saltPrefix(type, rounds) + SALT_TEXT);
+        }
+      }
+      return new Recommendation(saltPrefix(type, rounds), rounds,
+          Math.round(measured), model);
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Measures a cost model.
+   * @param types the types to measure
+   * @param passwordLengths password lengths to measure; the model is
+   *    populated for the class of each length
+   * @return cost model; types that were not measured are not modeled
+   * @throws NoSuchAlgorithmException
+   * @throws InterruptedException
+   */
+  private CostModel calibrate(Type[] types, int[] passwordLengths)
+      throws NoSuchAlgorithmException, InterruptedException {
+    final int size = CostModel.PASSWORD_LENGTHS.length;
+    final double[][] nanosPerRound = new double[Type.values().length][size];
+    final double[][] setupNanos = new double[Type.values().length][size];
+    for (Type type : Type.values()) {
+      Arrays.fill(nanosPerRound[type.ordinal()], Double.NaN);
+      Arrays.fill(setupNanos[type.ordinal()], Double.NaN);
+    }
+
+    final ExecutorService executor = newExecutor();
+    try {
+      for (Type type : types) {
+        warmUp(executor, type);
+        for (int length : passwordLengths) {
+          final int index = CostModel.lengthClass(length);
+          final char[] password = password(length);
+          if (type == Type.MD5) {
+            nanosPerRound[type.ordinal()][index] = measure(executor,
+                password, saltPrefix(type, 0) + SALT_TEXT) / Md5Crypt.ROUNDS;
+            setupNanos[type.ordinal()][index] = 0;
+            continue;
+          }
+          /* time at two round counts; the slope is the time per round */
+          final double few = measure(executor, password,
+              saltPrefix(type, Sha2Crypt.MIN_ROUNDS) + SALT_TEXT);
+          final double many = measure(executor, password,
+              saltPrefix(type, sampleRounds) + SALT_TEXT);
+          double perRound =
+              (many - few) / (sampleRounds - Sha2Crypt.MIN_ROUNDS);
+          if (perRound <= 0) {
+            /* measurement noise swamped the difference; be conservative */
+            perRound = many / sampleRounds;
+          }
+          nanosPerRound[type.ordinal()][index] = perRound;
+          setupNanos[type.ordinal()][index] =
+              Math.max(0, few - Sha2Crypt.MIN_ROUNDS * perRound);
+        }
+      }
+    }
+    finally {
+      executor.shutdownNow();
+    }
+    return new CostModel(threads, nanosPerRound, setupNanos);
+  }
+
+  /**
+   * Performs operations of a given type for at least
+   * {@link #WARM_UP_NANOS}.
+   * @param executor executor with (at least) {@link #threads} threads
+   * @param type the type to warm up
+   * @throws NoSuchAlgorithmException
+   * @throws InterruptedException
+   */
+  private void warmUp(ExecutorService executor, Type type)
+      throws NoSuchAlgorithmException, InterruptedException {
+    final char[] password = password(DEFAULT_PASSWORD_LENGTH);
+    final String salt = saltPrefix(type, Sha2Crypt.MIN_ROUNDS) + SALT_TEXT;
+    final long start = System.nanoTime();
+    while (System.nanoTime() - start < WARM_UP_NANOS) {
+      measure(executor, password, salt);
+    }
+  }
+
+  /**
+   * Measures the latency of a crypt operation while all threads are
+   * performing the same operation; the result is the mean over the threads
+   * of the median latency observed by each thread. The operations are not
+   * reported to the registered {@link CryptListener}, if any.
+   * @param executor executor with (at least) {@link #threads} threads
+   * @param password password to encrypt
+   * @param salt salt string
+   * @return latency in nanoseconds
+   * @throws NoSuchAlgorithmException
+   * @throws InterruptedException
+   */
+  private double measure(ExecutorService executor, final char[] password,
+      final String salt) throws NoSuchAlgorithmException,
+      InterruptedException {
+    final CyclicBarrier barrier = new CyclicBarrier(threads);
+    final List<Future<Long>> futures = new ArrayList<>(threads);
+    for (int i = 0; i < threads; i++) {
+      futures.add(executor.submit(() -> {
+        final long[] samples = new long[iterations];
+        barrier.await();
+        for (int j = 0; j < iterations; j++) {
+          final long start = System.nanoTime();
+          Crypt.cryptBuiltIn(
+              encoder -> encoder.encode(password, StandardCharsets.UTF_8),
+              salt);
+          samples[j] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[iterations / 2];
+      }));
+    }
+    long total = 0;
+    for (Future<Long> future : futures) {
+      try {
+        total += future.get();
+      }
+      catch (ExecutionException ex) {
+        final Throwable cause = ex.getCause();
+        if (cause instanceof NoSuchAlgorithmException) {
+          throw (NoSuchAlgorithmException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+          throw (RuntimeException) cause;
+        }
+        throw new RuntimeException(cause);
+      }
+    }
+    return (double) total / threads;
+  }
+
+  private ExecutorService newExecutor() {
+    return Executors.newFixedThreadPool(threads, r -> {
+      final Thread thread = new Thread(r, "crypt4j-calibrator");
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  private static char[] password(int length) {
+    final char[] password = new char[length];
+    Arrays.fill(password, 'x');
+    return password;
+  }
+
+  private static String saltPrefix(Type type, int rounds) {
+    if (type == Type.MD5) {
+      return "$" + type.getType() + "$";
+    }
+    return "$" + type.getType() + "$rounds=" + rounds + "$";
+  }
+
+  /**
+   * A recommended number of rounds.
+   */
+  public static final class Recommendation {
+
+    private final String saltPrefix;
+    private final int rounds;
+    private final long measuredNanos;
+    private final CostModel model;
+
+    Recommendation(String saltPrefix, int rounds, long measuredNanos,
+        CostModel model) {
+      this.saltPrefix = saltPrefix;
+      this.rounds = rounds;
+      this.measuredNanos = measuredNanos;
+      this.model = model;
+    }
+
+    /**
+     * Gets the salt prefix that specifies the algorithm and recommended
+     * number of rounds (e.g. {@code $6$rounds=656000$}); append the salt
+     * text to form a complete salt.
+     * @return salt prefix
+     */
+    public String getSaltPrefix() {
+      return saltPrefix;
+    }
+
+    /**
+     * Gets the recommended number of rounds.
+     * @return number of rounds
+     */
+    public int getRounds() {
+      return rounds;
+    }
+
+    /**
+     * Gets the latency measured at the recommended number of rounds.
+     * @param unit desired unit of the result
+     * @return latency
+     */
+    public long getMeasuredLatency(TimeUnit unit) {
+      return unit.convert(measuredNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Gets the cost model from which the recommendation was derived; it
+     * models only the recommended algorithm.
+     * @return cost model
+     */
+    public CostModel getModel() {
+      return model;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public String toString() {
+      return saltPrefix + " (" + TimeUnit.NANOSECONDS.toMillis(measuredNanos)
+          + " ms)";
+    }
+
+  }
+
+}
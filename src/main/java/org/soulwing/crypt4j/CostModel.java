@@ -0,0 +1,236 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Formatter;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A model of the cost of crypt operations on a particular machine, as
+ * measured by a {@link CostCalibrator}.
+ * <p>
+ * The cost of an operation is modeled as a fixed setup time plus a time
+ * per round, for each supported algorithm and for each of several classes
+ * of password length (the length of the password affects the length of
+ * the message digested in each round). Times are wall-clock times per
+ * operation observed while the number of threads given by
+ * {@link #getThreads()} were hashing concurrently.
+ * <p>
+ * Algorithms are identified by a salt string, of which only the type (e.g.
+ * {@code $6$}) and any {@code rounds=} parameter are significant. DES is
+ * not modeled.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Carl Harris
+ */
+public final class CostModel {
+
+  /**
+   * Upper bound (in bytes) of each class of password length; a password
+   * longer than the last bound belongs to the last class.
+   */
+  static final int[] PASSWORD_LENGTHS = { 8, 16, 32, 64, 128 };
+
+  private final int threads;
+  private final double[][] nanosPerRound;
+  private final double[][] setupNanos;
+
+  /**
+   * Constructs a new instance.
+   * @param threads number of concurrent threads at which the model was
+   *    measured
+   * @param nanosPerRound time per round, indexed by {@link Type#ordinal()}
+   *    and then by password length class; {@link Double#NaN} for types
+   *    that are not modeled
+   * @param setupNanos setup time, indexed in the same manner
+   */
+  CostModel(int threads, double[][] nanosPerRound, double[][] setupNanos) {
+    this.threads = threads;
+    this.nanosPerRound = nanosPerRound;
+    this.setupNanos = setupNanos;
+  }
+
+  /**
+   * Gets the number of concurrent threads at which this model was measured.
+   * @return number of threads
+   */
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Gets the time per round for an algorithm.
+   * @param salt salt string that identifies the algorithm
+   * @param passwordLength length of the password in bytes
+   * @return time per round in nanoseconds
+   * @throws NoSuchAlgorithmException if the salt specifies an unsupported
+   *    algorithm
+   * @throws IllegalArgumentException if the algorithm is not modeled
+   */
+  public double getNanosPerRound(String salt, int passwordLength)
+      throws NoSuchAlgorithmException {
+    return nanosPerRound(Type.forSalt(new Salt(salt)), passwordLength);
+  }
+
+  /**
+   * Gets the fixed setup time of an operation (everything other than the
+   * rounds).
+   * @param salt salt string that identifies the algorithm
+   * @param passwordLength length of the password in bytes
+   * @return setup time in nanoseconds
+   * @throws NoSuchAlgorithmException if the salt specifies an unsupported
+   *    algorithm
+   * @throws IllegalArgumentException if the algorithm is not modeled
+   */
+  public double getSetupNanos(String salt, int passwordLength)
+      throws NoSuchAlgorithmException {
+    return lookup(setupNanos, Type.forSalt(new Salt(salt)), passwordLength);
+  }
+
+  /**
+   * Estimates the time of a crypt operation.
+   * @param salt salt string for the operation
+   * @param passwordLength length of the password in bytes
+   * @return estimated time in nanoseconds
+   * @throws NoSuchAlgorithmException if the salt specifies an unsupported
+   *    algorithm
+   * @throws IllegalArgumentException if the algorithm is not modeled
+   */
+  public long estimateNanos(String salt, int passwordLength)
+      throws NoSuchAlgorithmException {
+    final Salt s = new Salt(salt);
+    final Type type = Type.forSalt(s);
+    return estimateNanos(type, rounds(type, s), passwordLength);
+  }
+
+  /**
+   * Computes the number of rounds at which a crypt operation takes a
+   * given time.
+   * @param salt salt string that identifies the algorithm; it must specify
+   *    SHA-256 or SHA-512
+   * @param passwordLength length of the password in bytes
+   * @param target target time per operation
+   * @param unit unit of {@code target}
+   * @return number of rounds, limited to the range allowed by the algorithm
+   * @throws NoSuchAlgorithmException if the salt specifies an unsupported
+   *    algorithm
+   * @throws IllegalArgumentException if the algorithm does not have a
+   *    configurable number of rounds
+   */
+  public int roundsFor(String salt, int passwordLength, long target,
+      TimeUnit unit) throws NoSuchAlgorithmException {
+    final Type type = Type.forSalt(new Salt(salt));
+    if (type != Type.SHA256 && type != Type.SHA512) {
+      throw new IllegalArgumentException(
+          "algorithm does not have a configurable number of rounds");
+    }
+    final double roundNanos = unit.toNanos(target)
+        - lookup(setupNanos, type, passwordLength);
+    return clampRounds(
+        Math.round(roundNanos / nanosPerRound(type, passwordLength)));
+  }
+
+  /**
+   * Gets the time per round for a type.
+   * @param type the subject type
+   * @param passwordLength length of the password in bytes
+   * @return time per round in nanoseconds
+   * @throws IllegalArgumentException if the type is not modeled
+   */
+  double nanosPerRound(Type type, int passwordLength) {
+    return lookup(nanosPerRound, type, passwordLength);
+  }
+
+  /**
+   * Estimates the time of a crypt operation.
+   * @param type the subject type
+   * @param rounds number of rounds
+   * @param passwordLength length of the password in bytes
+   * @return estimated time in nanoseconds
+   * @throws IllegalArgumentException if the type is not modeled
+   */
+  long estimateNanos(Type type, int rounds, int passwordLength) {
+    return Math.round(lookup(setupNanos, type, passwordLength)
+        + rounds * nanosPerRound(type, passwordLength));
+  }
+
+  /**
+   * Gets the number of rounds performed by an operation.
+   * @param type the subject type
+   * @param salt salt for the operation
+   * @return number of rounds
+   */
+  static int rounds(Type type, Salt salt) {
+    return type == Type.MD5 ? Md5Crypt.ROUNDS : Sha2Crypt.effectiveRounds(salt);
+  }
+
+  /**
+   * Limits a number of rounds to the range allowed by the SHA-2 algorithms.
+   * @param rounds number of rounds
+   * @return number of rounds in the allowed range
+   */
+  static int clampRounds(long rounds) {
+    return (int) Math.max(Sha2Crypt.MIN_ROUNDS,
+        Math.min(rounds, Sha2Crypt.MAX_ROUNDS));
+  }
+
+  /**
+   * Gets the index of the class of a password length.
+   * @param passwordLength length of the password in bytes
+   * @return index into {@link #PASSWORD_LENGTHS}
+   */
+  static int lengthClass(int passwordLength) {
+    for (int i = 0; i < PASSWORD_LENGTHS.length - 1; i++) {
+      if (passwordLength <= PASSWORD_LENGTHS[i]) return i;
+    }
+    return PASSWORD_LENGTHS.length - 1;
+  }
+
+  private static double lookup(double[][] table, Type type,
+      int passwordLength) {
+    final double value = table[type.ordinal()][lengthClass(passwordLength)];
+    if (Double.isNaN(value)) {
+      throw new IllegalArgumentException(type + " is not modeled");
+    }
+    return value;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final Formatter formatter = new Formatter();
+    formatter.format("ns/round at %d thread(s)%n%-8s", threads, "length");
+    for (int length : PASSWORD_LENGTHS) {
+      formatter.format("%10d", length);
+    }
+    for (Type type : Type.values()) {
+      if (Double.isNaN(nanosPerRound[type.ordinal()][0])) continue;
+      formatter.format("%n%-8s", type);
+      for (double nanos : nanosPerRound[type.ordinal()]) {
+        formatter.format("%10.1f", nanos);
+      }
+    }
+    return formatter.toString();
+  }
+
+}
@@ -0,0 +1,164 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * An auditor that classifies the hashed passwords in a credential file.
+ * <p>
+ * The file may be in {@code /etc/shadow} format or in htpasswd format, or
+ * generally any format in which each line is of the form
+ * {@code name:hash} optionally followed by further colon-separated
+ * fields. Blank lines and lines that begin with {@code #} are ignored.
+ * <p>
+ * The file is divided into line-aligned chunks, each of which is
+ * memory-mapped and audited in parallel. Each hash is classified by
+ * examining its bytes in place, without creating a {@link Salt} or any
+ * other object per line, and without computing any digest. The resulting
+ * {@link AuditReport} gives the number of entries of each algorithm, a
+ * histogram of the number of rounds, the number of salts that are shorter
+ * or longer than the maximum length, and the number (and line numbers) of
+ * malformed entries.
+ *
+ * @author Carl Harris
+ */
+public class CredentialAuditor {
+
+  /**
+   * Default size (in bytes) of the chunks that are audited in parallel.
+   */
+  public static final int DEFAULT_CHUNK_SIZE = 16 * 1024 * 1024;
+
+  private static final int SCAN_BUFFER_SIZE = 8192;
+
+  private final ForkJoinPool pool;
+  private final int chunkSize;
+
+  /**
+   * Constructs a new instance that uses the common fork/join pool.
+   */
+  public CredentialAuditor() {
+    this(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param pool the pool that will audit the chunks of a file
+   */
+  public CredentialAuditor(ForkJoinPool pool) {
+    this(pool, DEFAULT_CHUNK_SIZE);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param pool the pool that will audit the chunks of a file
+   * @param chunkSize approximate size of each chunk
+   */
+  CredentialAuditor(ForkJoinPool pool, int chunkSize) {
+    this.pool = pool;
+    this.chunkSize = chunkSize;
+  }
+
+  /**
+   * Audits a credential file.
+   * @param path path to the file
+   * @return audit report
+   * @throws IOException if an error occurs in reading the file
+   */
+  public AuditReport audit(Path path) throws IOException {
+    try (FileChannel channel = FileChannel.open(path,
+        StandardOpenOption.READ)) {
+      final List<Future<AuditReport>> futures = new ArrayList<>();
+      final long size = channel.size();
+      long start = 0;
+      while (start < size) {
+        final long end = lineStart(channel, Math.min(start + chunkSize, size));
+        if (end - start > Integer.MAX_VALUE) {
+          throw new IOException("line at offset " + start + " is too long");
+        }
+        futures.add(pool.submit(new AuditTask(channel, start, end)));
+        start = end;
+      }
+
+      final AuditReport report = new AuditReport();
+      for (Future<AuditReport> future : futures) {
+        report.merge(get(future));
+      }
+      return report;
+    }
+  }
+
+  /**
+   * Finds the start of the line that contains the byte at a given offset,
+   * or of the following line if the byte is not the first byte of its
+   * line.
+   * @param channel the subject channel
+   * @param offset offset of the subject byte
+   * @return offset of the first byte of a line, or the size of the file
+   * @throws IOException
+   */
+  private static long lineStart(FileChannel channel, long offset)
+      throws IOException {
+    final long size = channel.size();
+    if (offset == 0 || offset >= size) return Math.min(offset, size);
+    final ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+    long position = offset - 1;
+    while (position < size) {
+      ((Buffer) buffer).clear();
+      final int count = channel.read(buffer, position);
+      if (count <= 0) break;
+      for (int i = 0; i < count; i++) {
+        if (buffer.get(i) == '\n') {
+          return position + i + 1;
+        }
+      }
+      position += count;
+    }
+    return size;
+  }
+
+  private static AuditReport get(Future<AuditReport> future)
+      throws IOException {
+    try {
+      return future.get();
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("audit interrupted", ex);
+    }
+    catch (ExecutionException ex) {
+      if (ex.getCause() instanceof IOException) {
+        throw (IOException) ex.getCause();
+      }
+      throw new RuntimeException(ex.getCause());
+    }
+  }
+
+}
@@ -19,9 +19,16 @@
 package org.soulwing.crypt4j;
 
 import java.io.UnsupportedEncodingException;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * A utility class that encrypts password strings using algorithms that are
@@ -33,8 +40,32 @@ public abstract class Crypt {
 
   public static final String CHARACTER_ENCODING = "UTF-8";
 
+  /**
+   * Initial capacity of the output buffer; enough for the output of any
+   * supported type with a salt of the maximum length.
+   */
+  private static final int OUTPUT_CAPACITY = 128;
+
+  /**
+   * Salts used by {@link #warmUp()}; one for each type, with the smallest
+   * number of rounds that exercises the round loop of each algorithm.
+   */
+  private static final String[] WARM_UP_SALTS = {
+      "wu", "_J9..warm", "$1$warmup", "$5$rounds=1000$warmup",
+      "$6$rounds=1000$warmup"
+  };
+
+  /**
+   * Number of times each warm-up salt is used by {@link #warmUp()}.
+   */
+  static final int WARM_UP_ITERATIONS = 100;
+
   protected final Type type;
 
+  private final StringBuilder output = new StringBuilder(OUTPUT_CAPACITY);
+
+  private PasswordEncoder encoder;
+
   /**
    * Constructs a new instance.
    * @param type
@@ -57,15 +88,317 @@ public abstract class Crypt {
    */
   public static String crypt(char[] password, String salt)
       throws NoSuchAlgorithmException, UnsupportedEncodingException {
-    Salt s = new Salt(salt);
-    Password p = new Password(password);
-    String encrypted = Crypt.newInstance(Type.forSalt(s)).doCrypt(p, s);
-    p.clear();
-    return encrypted;
+    return crypt(password, salt, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encrypts (digests) the given password, encoded using the given character
+   * set, using the algorithm identified by the given salt.
+   * @param password the password to encrypt
+   * @param salt algorithm identifier, parameters, and salt text
+   * @param charset character set used to encode the password (e.g.
+   *    ISO-8859-1 for compatibility with values created by a system that
+   *    used it)
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static String crypt(char[] password, String salt, Charset charset)
+      throws NoSuchAlgorithmException {
+    return crypt(encoder -> encoder.encode(password, charset), salt);
+  }
+
+  /**
+   * Encrypts (digests) the given password, encoded as UTF-8, using the
+   * algorithm identified by the given salt.
+   * @param password the password to encrypt (e.g. a {@link CharBuffer})
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static String crypt(CharSequence password, String salt)
+      throws NoSuchAlgorithmException {
+    return crypt(password, salt, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Encrypts (digests) the given password, encoded using the given character
+   * set, using the algorithm identified by the given salt.
+   * @param password the password to encrypt (e.g. a {@link CharBuffer})
+   * @param salt algorithm identifier, parameters, and salt text
+   * @param charset character set used to encode the password
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static String crypt(CharSequence password, String salt,
+      Charset charset) throws NoSuchAlgorithmException {
+    return crypt(encoder -> encoder.encode(password, charset), salt);
+  }
+
+  /**
+   * Encrypts (digests) the given encoded password using the algorithm
+   * identified by the given salt.
+   * @param password the encoded password to encrypt; its contents are
+   *    used as is and are not modified
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static String crypt(byte[] password, String salt)
+      throws NoSuchAlgorithmException {
+    return crypt(encoder -> PasswordEncoder.wrap(password), salt);
+  }
+
+  /**
+   * Encrypts (digests) the given encoded password using the algorithm
+   * identified by the given salt.
+   * @param password buffer whose remaining bytes are the encoded password
+   *    to encrypt; neither its contents nor its position are modified
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static String crypt(ByteBuffer password, String salt)
+      throws NoSuchAlgorithmException {
+    return crypt(encoder -> PasswordEncoder.wrap(password), salt);
+  }
+
+  /**
+   * Encrypts (digests) a password using the algorithm identified by the
+   * given salt.
+   * @param password source of the password to encrypt
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  static String crypt(PasswordSource password, String salt)
+      throws NoSuchAlgorithmException {
+    final CryptProbe probe = CryptProbe.begin();
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
+    try {
+      final Salt s = new Salt(salt);
+      final CryptScheme scheme = SchemeRegistry.lookup(s);
+      final String result = scheme != null ?
+          apply(password, scheme, probe, (sc, p) -> sc.crypt(p, salt))
+          : apply(password, s, probe, (crypt, p) -> crypt.doCrypt(p, s));
+      outcome = CryptOutcome.HASHED;
+      return result;
+    }
+    catch (NoSuchAlgorithmException ex) {
+      outcome = CryptOutcome.UNSUPPORTED;
+      throw ex;
+    }
+    finally {
+      if (probe != null) {
+        probe.end(outcome);
+      }
+    }
+  }
+
+  /**
+   * Encrypts (digests) a password using one of the built-in types, without
+   * reporting the operation to any {@link CryptListener}; for use by
+   * schemes that are composed of built-in types and for measurements.
+   * @param password source of the password to encrypt
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  static String cryptBuiltIn(PasswordSource password, String salt)
+      throws NoSuchAlgorithmException {
+    final Salt s = new Salt(salt);
+    return apply(password, s, null, (crypt, p) -> crypt.doCrypt(p, s));
+  }
+
+  /**
+   * Encrypts (digests) the given password, encoded as UTF-8, using the
+   * algorithm identified by the given salt, producing the crypt output
+   * string as bytes (e.g. for direct storage).
+   * @param password the password to encrypt
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password; it consists only of ASCII
+   *    characters unless {@code salt} does not, in which case it is
+   *    encoded as UTF-8
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  public static byte[] cryptAscii(char[] password, String salt)
+      throws NoSuchAlgorithmException {
+    return cryptAscii(
+        encoder -> encoder.encode(password, StandardCharsets.UTF_8), salt);
+  }
+
+  /**
+   * Encrypts (digests) the given encoded password using the algorithm
+   * identified by the given salt, producing the crypt output string as
+   * bytes (e.g. for direct storage).
+   * @param password the encoded password to encrypt; its contents are
+   *    used as is and are not modified
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   * @see #cryptAscii(char[], String)
+   */
+  public static byte[] cryptAscii(byte[] password, String salt)
+      throws NoSuchAlgorithmException {
+    return cryptAscii(encoder -> PasswordEncoder.wrap(password), salt);
+  }
+
+  /**
+   * Encrypts (digests) a password using the algorithm identified by the
+   * given salt, producing the crypt output string as bytes.
+   * @param password source of the password to encrypt
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return the encrypted (digested) password
+   * @throws NoSuchAlgorithmException if the desired algorithm is not supported
+   *         on this platform
+   */
+  static byte[] cryptAscii(PasswordSource password, String salt)
+      throws NoSuchAlgorithmException {
+    final CryptProbe probe = CryptProbe.begin();
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
+    try {
+      final Salt s = new Salt(salt);
+      final CryptScheme scheme = SchemeRegistry.lookup(s);
+      final byte[] result = scheme != null ?
+          apply(password, scheme, probe, (sc, p) ->
+              sc.crypt(p, salt).getBytes(StandardCharsets.UTF_8))
+          : apply(password, s, probe,
+              (crypt, p) -> crypt.formatAscii(crypt.doDigest(p, s), s));
+      outcome = CryptOutcome.HASHED;
+      return result;
+    }
+    catch (NoSuchAlgorithmException ex) {
+      outcome = CryptOutcome.UNSUPPORTED;
+      throw ex;
+    }
+    finally {
+      if (probe != null) {
+        probe.end(outcome);
+      }
+    }
+  }
+
+  /**
+   * Applies an operation to a password using an engine for the type of
+   * the given salt.
+   * @param password source of the password
+   * @param salt the subject salt
+   * @param probe probe for the operation (may be {@code null})
+   * @param operation the operation to apply
+   * @return result of {@code operation}
+   * @throws NoSuchAlgorithmException if the algorithm for {@code salt} is
+   *         not supported on this platform
+   */
+  private static <T> T apply(PasswordSource password, Salt salt,
+      CryptProbe probe, Operation<T> operation)
+      throws NoSuchAlgorithmException {
+    final Type type = Type.forSalt(salt);
+    if (probe != null) {
+      probe.identify(type, salt);
+    }
+    final EnginePool pool = type.pool;
+    final Crypt crypt = pool.acquire();
+    try {
+      final Password p = password.encode(crypt.getEncoder());
+      try {
+        return operation.apply(crypt, p);
+      }
+      catch (UnsupportedEncodingException ex) {
+        throw new RuntimeException(ex);
+      }
+      finally {
+        p.clear();
+      }
+    }
+    finally {
+      pool.release(crypt);
+    }
+  }
+
+  /**
+   * Applies an operation to a password using a registered crypt scheme.
+   * @param password source of the password
+   * @param scheme the scheme to use
+   * @param probe probe for the operation (may be {@code null})
+   * @param operation the operation to apply
+   * @return result of {@code operation}
+   * @throws NoSuchAlgorithmException if {@code scheme} is not supported on
+   *         this platform
+   */
+  private static <T> T apply(PasswordSource password, CryptScheme scheme,
+      CryptProbe probe, SchemeOperation<T> operation)
+      throws NoSuchAlgorithmException {
+    if (probe != null) {
+      probe.identify(scheme.getId(), 0);
+    }
+    final Password p = password.encode(new PasswordEncoder());
+    try {
+      return operation.apply(scheme, p.getBytes());
+    }
+    finally {
+      p.clear();
+    }
+  }
+
+  /**
+   * An operation on a password using a crypt engine.
+   */
+  private interface Operation<T> {
+    T apply(Crypt crypt, Password password)
+        throws NoSuchAlgorithmException, UnsupportedEncodingException;
+  }
+
+  /**
+   * An operation on an encoded password using a registered crypt scheme.
+   */
+  private interface SchemeOperation<T> {
+    T apply(CryptScheme scheme, byte[] password)
+        throws NoSuchAlgorithmException;
+  }
+
+  /**
+   * Encrypts (digests) many passwords.
+   * <p>
+   * This is equivalent to invoking {@link #crypt(char[], String)} for each
+   * password and salt in turn, but SHA-256 and SHA-512 entries that have the
+   * same password length, salt length and number of rounds, and DES entries
+   * that have the same iteration count, may be computed several at a time.
+   * @param passwords the passwords to encrypt
+   * @param salts algorithm identifier, parameters, and salt text for each
+   *    password; the salt at each index corresponds to the password at the
+   *    same index
+   * @return the encrypted (digested) passwords, in the same order
+   * @throws IllegalArgumentException if the lists are not of the same size
+   * @throws NoSuchAlgorithmException if the algorithm required for some salt
+   *         is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available on
+   *         the platform
+   */
+  public static List<String> cryptAll(List<char[]> passwords,
+      List<String> salts)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    if (passwords.size() != salts.size()) {
+      throw new IllegalArgumentException(
+          "passwords and salts must be the same size");
+    }
+    final int size = passwords.size();
+    return Arrays.asList(Sha2CryptBatch.cryptAll(
+        passwords.toArray(new char[size][]), salts.toArray(new String[size])));
   }
 
   /**
    * Validate a given password against a provided hashed value
+   * <p>
+   * The raw digest of the password is compared to that of the hashed value
+   * in constant time.
    * @param password The password to validate
    * @param hashedValue The hashed value to validate against
    * @return True if the password and hashedValue validate
@@ -76,36 +409,347 @@ public abstract class Crypt {
    */
   public static boolean validate(char[] password, String hashedValue)
       throws NoSuchAlgorithmException, UnsupportedEncodingException {
-    return Crypt.crypt(password, hashedValue).equals(hashedValue);
+    return validate(password, hashedValue, StandardCharsets.UTF_8);
   }
 
   /**
-   * Constructs a new instance of the specified type.
-   * @param type crypt type
-   * @return new crypt object
+   * Validate a given password, encoded using the given character set,
+   * against a provided hashed value.
+   * @param password The password to validate
+   * @param hashedValue The hashed value to validate against
+   * @param charset character set used to encode the password
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validate(char[], String)
+   */
+  public static boolean validate(char[] password, String hashedValue,
+      Charset charset) throws NoSuchAlgorithmException {
+    return validate(encoder -> encoder.encode(password, charset),
+        hashedValue);
+  }
+
+  /**
+   * Validate a given password, encoded as UTF-8, against a provided hashed
+   * value.
+   * @param password The password to validate (e.g. a {@link CharBuffer})
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validate(char[], String)
+   */
+  public static boolean validate(CharSequence password, String hashedValue)
+      throws NoSuchAlgorithmException {
+    return validate(password, hashedValue, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Validate a given password, encoded using the given character set,
+   * against a provided hashed value.
+   * @param password The password to validate (e.g. a {@link CharBuffer})
+   * @param hashedValue The hashed value to validate against
+   * @param charset character set used to encode the password
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validate(char[], String)
+   */
+  public static boolean validate(CharSequence password, String hashedValue,
+      Charset charset) throws NoSuchAlgorithmException {
+    return validate(encoder -> encoder.encode(password, charset),
+        hashedValue);
+  }
+
+  /**
+   * Validate a given encoded password against a provided hashed value.
+   * @param password The encoded password to validate; its contents are
+   *    used as is and are not modified
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validate(char[], String)
    */
-  private static Crypt newInstance(Type type) throws NoSuchAlgorithmException {
+  public static boolean validate(byte[] password, String hashedValue)
+      throws NoSuchAlgorithmException {
+    return validate(encoder -> PasswordEncoder.wrap(password), hashedValue);
+  }
+
+  /**
+   * Validate a given encoded password against a provided hashed value.
+   * @param password buffer whose remaining bytes are the encoded password
+   *    to validate; neither its contents nor its position are modified
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validate(char[], String)
+   */
+  public static boolean validate(ByteBuffer password, String hashedValue)
+      throws NoSuchAlgorithmException {
+    return validate(encoder -> PasswordEncoder.wrap(password), hashedValue);
+  }
+
+  /**
+   * Validate a given password, encoded as UTF-8, against a hashed value
+   * given as bytes (e.g. as produced by {@link #cryptAscii(char[], String)}).
+   * <p>
+   * The crypt output string for the password is compared to the hashed
+   * value in constant time.
+   * @param password The password to validate
+   * @param hashedValue The hashed value to validate against, consisting of
+   *    ASCII characters or encoded as UTF-8
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   */
+  public static boolean validateAscii(char[] password, byte[] hashedValue)
+      throws NoSuchAlgorithmException {
+    return validateAscii(
+        encoder -> encoder.encode(password, StandardCharsets.UTF_8),
+        hashedValue);
+  }
+
+  /**
+   * Validate a given encoded password against a hashed value given as
+   * bytes.
+   * @param password The encoded password to validate; its contents are
+   *    used as is and are not modified
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see #validateAscii(char[], byte[])
+   */
+  public static boolean validateAscii(byte[] password, byte[] hashedValue)
+      throws NoSuchAlgorithmException {
+    return validateAscii(encoder -> PasswordEncoder.wrap(password),
+        hashedValue);
+  }
+
+  /**
+   * Validate a password against a hashed value given as bytes.
+   * @param password source of the password to validate
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   */
+  static boolean validateAscii(PasswordSource password, byte[] hashedValue)
+      throws NoSuchAlgorithmException {
+    for (byte b : hashedValue) {
+      if (b < 0) {
+        return validate(password,
+            new String(hashedValue, StandardCharsets.UTF_8));
+      }
+    }
+    final CryptProbe probe = CryptProbe.begin();
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
     try {
-      Constructor<? extends Crypt> constructor =
-          type.providerClass.getConstructor(Type.class);
-      return constructor.newInstance(type);
+      final Salt s = new Salt().parse(hashedValue, 0, hashedValue.length);
+      final CryptScheme scheme = SchemeRegistry.lookup(s);
+      final boolean result = scheme != null ?
+          apply(password, scheme, probe, (sc, p) -> sc.matches(p,
+              new String(hashedValue, StandardCharsets.US_ASCII)))
+          : apply(password, s, probe,
+              (crypt, p) -> crypt.matchesOutput(crypt.doDigest(p, s), s,
+                  hashedValue));
+      outcome = result ? CryptOutcome.MATCH : CryptOutcome.MISMATCH;
+      return result;
     }
-    catch (NoSuchMethodException ex) {
-      throw new RuntimeException(ex);
+    catch (NoSuchAlgorithmException ex) {
+      outcome = CryptOutcome.UNSUPPORTED;
+      throw ex;
     }
-    catch (IllegalAccessException ex) {
-      throw new RuntimeException(ex);
+    finally {
+      if (probe != null) {
+        probe.end(outcome);
+      }
     }
-    catch (InvocationTargetException ex) {
-      throw new RuntimeException(ex);
+  }
+
+  /**
+   * Validate a password against a hashed value.
+   * @param password source of the password to validate
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   */
+  static boolean validate(PasswordSource password, String hashedValue)
+      throws NoSuchAlgorithmException {
+    final CryptProbe probe = CryptProbe.begin();
+    if (probe == null) {
+      return HashedValue.parse(hashedValue).matches(password, null);
     }
-    catch (InstantiationException ex) {
-      throw new RuntimeException(ex);
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
+    try {
+      final HashedValue value = HashedValue.parse(hashedValue);
+      final boolean result = value.matches(password, probe);
+      outcome = value.outcome(result);
+      return result;
+    }
+    catch (NoSuchAlgorithmException ex) {
+      outcome = CryptOutcome.UNSUPPORTED;
+      throw ex;
+    }
+    finally {
+      probe.end(outcome);
+    }
+  }
+
+  /**
+   * Validate a given password against a previously parsed hashed value.
+   * <p>
+   * The raw digest of the password is compared to that of the hashed value
+   * in constant time.
+   * @param password The password to validate
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available on
+   *         the platform
+   * @see HashedValue#parse(String)
+   */
+  public static boolean validate(char[] password, HashedValue hashedValue)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return hashedValue.matches(password);
+  }
+
+  /**
+   * Validate a given encoded password against a previously parsed hashed
+   * value.
+   * @param password The encoded password to validate; its contents are
+   *    used as is and are not modified
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see HashedValue#matches(byte[])
+   */
+  public static boolean validate(byte[] password, HashedValue hashedValue)
+      throws NoSuchAlgorithmException {
+    return hashedValue.matches(password);
+  }
+
+  /**
+   * Validate a given encoded password against a previously parsed hashed
+   * value.
+   * @param password buffer whose remaining bytes are the encoded password
+   *    to validate; neither its contents nor its position are modified
+   * @param hashedValue The hashed value to validate against
+   * @return True if the password and hashedValue validate
+   * @throws NoSuchAlgorithmException if the algorithm for the provided hashed
+   *         value is not supported on this platform
+   * @see HashedValue#matches(ByteBuffer)
+   */
+  public static boolean validate(ByteBuffer password, HashedValue hashedValue)
+      throws NoSuchAlgorithmException {
+    return hashedValue.matches(password);
+  }
+
+  /**
+   * Validates many passwords against their respective hashed values in
+   * parallel.
+   * <p>
+   * The work is divided among the workers of {@code pool} according to the
+   * estimated cost of each entry's algorithm and number of rounds. Each
+   * worker reuses its engines across the entries it validates. Unlike
+   * {@link #validate(char[], String)}, an entry whose hashed value is
+   * malformed or uses an unsupported algorithm does not cause an exception;
+   * the entry simply does not validate.
+   * @param passwords the passwords to validate
+   * @param hashedValues the hashed values to validate against; the value
+   *    at each index corresponds to the password at the same index
+   * @param pool the pool that will perform the validation
+   * @return a bit set in which bit {@code i} is set if and only if the
+   *    password at index {@code i} validates
+   * @throws IllegalArgumentException if the lists are not of the same size
+   */
+  public static BitSet validateAll(List<char[]> passwords,
+      List<String> hashedValues, ForkJoinPool pool) {
+    if (passwords.size() != hashedValues.size()) {
+      throw new IllegalArgumentException(
+          "passwords and hashed values must be the same size");
+    }
+    final int size = passwords.size();
+    final AtomicLongArray results = new AtomicLongArray((size + 63) / 64);
+    pool.invoke(new ValidateAllTask(
+        passwords.toArray(new char[size][]),
+        hashedValues.toArray(new String[size]), results));
+    final long[] words = new long[results.length()];
+    for (int i = 0; i < words.length; i++) {
+      words[i] = results.get(i);
     }
+    return BitSet.valueOf(words);
+  }
+
+  /**
+   * Prepares the built-in algorithms for use, ahead of the first request.
+   * <p>
+   * Encrypts and validates a fixed set of passwords with each built-in
+   * type, using a small number of rounds, so that the digest providers are
+   * initialized, each engine pool holds an engine, and the hot paths have
+   * been compiled by the JIT compiler before the first real password is
+   * hashed. This takes well under a second; a long-running service may
+   * call it once at startup. These operations are not reported to any
+   * {@link CryptListener}.
+   * @throws NoSuchAlgorithmException if a built-in algorithm is not
+   *         supported on this platform
+   */
+  public static void warmUp() throws NoSuchAlgorithmException {
+    final byte[][] passwords = new byte[16][];
+    for (int i = 0; i < passwords.length; i++) {
+      passwords[i] = new byte[i + 1];
+      Arrays.fill(passwords[i], (byte) ('a' + i));
+    }
+    for (int i = 0; i < WARM_UP_ITERATIONS; i++) {
+      final byte[] bytes = passwords[i % passwords.length];
+      final PasswordSource password = encoder -> PasswordEncoder.wrap(bytes);
+      for (String salt : WARM_UP_SALTS) {
+        final Salt s = new Salt(salt);
+        final String hashed = apply(password, s, null,
+            (crypt, p) -> crypt.doCrypt(p, s));
+        if (!HashedValue.parse(hashed).matches(password, null)) {
+          throw new IllegalStateException("warm-up failed for " + salt);
+        }
+      }
+    }
+  }
+
+  /**
+   * Constructs a new instance of the specified type.
+   * <p>
+   * Instances are reusable but not thread safe; callers obtain them from
+   * the {@link EnginePool} of the appropriate {@link Type}. The instance is
+   * created by the factory of the type, without reflection, so that no
+   * reflection metadata is needed in a native image.
+   * @param type crypt type
+   * @return new crypt object
+   */
+  static Crypt newInstance(Type type) throws NoSuchAlgorithmException {
+    return type.factory.apply(type);
+  }
+
+  /**
+   * Gets the encoder for passwords used with this instance.
+   * @return password encoder
+   */
+  PasswordEncoder getEncoder() {
+    if (encoder == null) {
+      encoder = new PasswordEncoder();
+    }
+    return encoder;
   }
 
   /**
    * Performs the password encryption operation.
+   * <p>
+   * An instance may be used for any number of operations in sequence, so
+   * implementations may retain digests and working buffers between calls,
+   * but must not retain any state that influences the result.
    * @param password the password to encrypt
    * @param salt salt for the encryption
    * @return formatted crypt output string
@@ -114,45 +758,153 @@ public abstract class Crypt {
    * @throws UnsupportedEncodingException if the password character encoding
    *         cannot be supported on the platform
    */
-  protected abstract String doCrypt(Password password, Salt salt)
-      throws NoSuchAlgorithmException, UnsupportedEncodingException;
+  protected String doCrypt(Password password, Salt salt)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return format(doDigest(password, salt), salt);
+  }
+
+  /**
+   * Computes the raw digest of a password.
+   * <p>
+   * The returned array may be a working buffer of this instance; its
+   * contents are valid only until the next operation on this instance.
+   * @param password the password to encrypt
+   * @param salt salt for the encryption
+   * @return raw digest
+   * @throws NoSuchAlgorithmException if the specified encryption type cannot be
+   *         supported on the platform
+   * @throws UnsupportedEncodingException if the password character encoding
+   *         cannot be supported on the platform
+   * @throws UnsupportedOperationException if this type does not produce
+   *         a raw digest
+   */
+  protected byte[] doDigest(Password password, Salt salt)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Formats a raw digest as a crypt output string.
+   * @param digest raw digest produced by {@link #doDigest(Password, Salt)}
+   * @param salt salt for the encryption
+   * @return crypt output string
+   * @throws UnsupportedOperationException if this type does not produce
+   *         a raw digest
+   */
+  protected String format(byte[] digest, Salt salt) {
+    return formatOutput(digest, salt).toString();
+  }
+
+  /**
+   * Formats a raw digest as a crypt output string, encoded as bytes.
+   * <p>
+   * The output consists only of ASCII characters unless the salt text
+   * does not; in that case the output is encoded as UTF-8.
+   * @param digest raw digest produced by {@link #doDigest(Password, Salt)}
+   * @param salt salt for the encryption
+   * @return crypt output string encoded as bytes
+   * @throws UnsupportedOperationException if this type does not produce
+   *         a raw digest
+   */
+  byte[] formatAscii(byte[] digest, Salt salt) {
+    final StringBuilder sb = formatOutput(digest, salt);
+    final byte[] buf = new byte[sb.length()];
+    for (int i = 0; i < buf.length; i++) {
+      final char c = sb.charAt(i);
+      if (c >= 0x80) {
+        return sb.toString().getBytes(StandardCharsets.UTF_8);
+      }
+      buf[i] = (byte) c;
+    }
+    return buf;
+  }
+
+  /**
+   * Tests whether the crypt output string for a raw digest is equal to
+   * the given ASCII bytes, in time that does not depend on the position
+   * of the first difference.
+   * @param digest raw digest produced by {@link #doDigest(Password, Salt)}
+   * @param salt salt for the encryption
+   * @param expected the expected output
+   * @return {@code true} if the output is equal to {@code expected}
+   */
+  boolean matchesOutput(byte[] digest, Salt salt, byte[] expected) {
+    final StringBuilder sb = formatOutput(digest, salt);
+    if (sb.length() != expected.length) return false;
+    int diff = 0;
+    for (int i = 0; i < expected.length; i++) {
+      diff |= sb.charAt(i) ^ (expected[i] & 0xff);
+    }
+    return diff == 0;
+  }
 
   /**
-   * Converts the encrypted password to a crypt output string.
+   * Formats a raw digest as a crypt output string in the output buffer
+   * of this instance.
+   * @param digest raw digest
+   * @param salt salt for the encryption
+   * @return output buffer; its contents are valid only until the next
+   *    operation on this instance
+   */
+  private StringBuilder formatOutput(byte[] digest, Salt salt) {
+    output.setLength(0);
+    appendOutput(output, digest, salt);
+    return output;
+  }
+
+  /**
+   * Appends the crypt output string for a raw digest to a string builder.
+   * @param sb the target string builder
+   * @param digest raw digest produced by {@link #doDigest(Password, Salt)}
+   * @param salt salt for the encryption
+   * @throws UnsupportedOperationException if this type does not produce
+   *         a raw digest
+   */
+  protected void appendOutput(StringBuilder sb, byte[] digest, Salt salt) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Appends a crypt output string of the form
+   * {@code $type$[params$]salt$digest} to a string builder.
+   * @param sb the target string builder
    * @param password the encrypted password
    * @param salt salt
    * @param maxSaltLength maximum allowable length for the salt
-   * @param params subclass-specific parameters (these will be passed to
-   *        {@link #encodeParameters(Object...)}
-   * @return crypt output string
    */
-  protected String passwordToString(byte[] password, Salt salt,
-      int maxSaltLength, Object... params) {
-    StringBuilder sb = new StringBuilder();
+  protected void appendOutput(StringBuilder sb, byte[] password, Salt salt,
+      int maxSaltLength) {
     if (salt.getType() == 0) {
-      return encodePassword(password);
+      appendPassword(sb, password);
+      return;
     }
     sb.append('$').append(salt.getType()).append('$');
-    if (params != null && params.length != 0) {
-      String encodedParameters = encodeParameters(params);
-      if (encodedParameters != null) {
-        sb.append(encodedParameters).append('$');
-      }
-    }
-    sb.append(salt.getText(maxSaltLength)).append('$');
-    sb.append(encodePassword(password));
-    return sb.toString();
+    appendParameters(sb, salt);
+    salt.appendText(sb, maxSaltLength).append('$');
+    appendPassword(sb, password);
   }
 
   /**
-   * Encodes the parameters specified with the salt in the crypt output string.
-   * @param params the subclass-specific parameters provided to
-   *        {@link #passwordToString(byte[], Salt, int, Object...)}
-   * @return string encoding of parameters or {@code null} to indicate that no
-   *         parameters are needed in the ouptut string
+   * Appends the parameters specified with the salt to the crypt output
+   * string, each followed by a {@code $} delimiter.
+   * <p>
+   * This implementation appends nothing.
+   * @param sb the target string builder
+   * @param salt salt
    */
-  protected String encodeParameters(Object... params) {
-    throw new UnsupportedOperationException();
+  protected void appendParameters(StringBuilder sb, Salt salt) {
+  }
+
+  /**
+   * Appends the encoding of the password to the crypt output string.
+   * <p>
+   * This implementation appends the result of
+   * {@link #encodePassword(byte[])}.
+   * @param sb the target string builder
+   * @param password the password to encode
+   */
+  protected void appendPassword(StringBuilder sb, byte[] password) {
+    sb.append(encodePassword(password));
   }
 
   /**
@@ -163,12 +915,52 @@ public abstract class Crypt {
   protected abstract String encodePassword(byte[] password);
 
   /**
-   * Simple demo. Be sure to run with {@code java -ea} to enable assertions.
-   * @param args
+   * Decodes a password encoded by {@link #encodePassword(byte[])}.
+   * @param encoded the encoded password
+   * @return raw digest
+   * @throws IllegalArgumentException if {@code encoded} is not a valid
+   *    encoding
+   * @throws UnsupportedOperationException if this type does not produce
+   *    a raw digest
+   */
+  protected byte[] decodePassword(String encoded) {
+    throw new UnsupportedOperationException();
+  }
+
+  /**
+   * Command line entry point.
+   * <p>
+   * With two arguments, encrypts the password given as the first argument
+   * using the salt given as the second. With {@code --batch} as the first
+   * argument, processes a stream of records from standard input or a file;
+   * see {@link CryptStream}. With {@code --migrate} as the first argument,
+   * wraps the legacy hashed values in a credential file; see
+   * {@link HashMigrator}. With {@code --warm-up} as the only argument,
+   * runs {@link #warmUp()} (e.g. as the training run for a class data
+   * sharing archive).
+   * @param args command line arguments
    */
   public static void main(String[] args) throws Exception {
+    if (args.length == 1 && args[0].equals("--warm-up")) {
+      warmUp();
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--migrate")) {
+      final int status = HashMigrator.main(args);
+      if (status != HashMigrator.EXIT_OK) {
+        System.exit(status);
+      }
+      return;
+    }
+    if (args.length > 0 && args[0].equals("--batch")) {
+      final int status = CryptStream.main(args);
+      if (status != CryptStream.EXIT_OK) {
+        System.exit(status);
+      }
+      return;
+    }
     if (args.length != 2) {
-      System.err.println("usage: java -jar crypt4j.jar password salt-string");
+      System.err.println(CryptStream.USAGE);
       return;
     }
     try {
@@ -0,0 +1,62 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A listener that is notified of each operation performed by the
+ * {@code crypt} and {@code validate} entry points of {@link Crypt} and
+ * {@link HashedValue}.
+ * <p>
+ * Each entry of {@link Crypt#cryptAll} and {@link Crypt#validateAll} is
+ * reported as a separate operation. Entries that are computed together
+ * (e.g. in the lanes of a batch engine) share the elapsed time of the
+ * batch equally.
+ * <p>
+ * A listener is registered using {@link CryptMetrics#addListener}. Its
+ * methods are invoked on the thread that performs the operation, so they
+ * should return quickly and must be thread safe. Any exception thrown by
+ * a listener is ignored. When no listener is registered, the operations
+ * are not timed and no notifications are made.
+ *
+ * @author Carl Harris
+ */
+public interface CryptListener {
+
+  /**
+   * Notifies the recipient that an operation has started.
+   */
+  void operationStarted();
+
+  /**
+   * Notifies the recipient that an operation has completed.
+   * @param scheme name of the algorithm of the operation (one of
+   *    {@code DES}, {@code MD5}, {@code SHA256} or {@code SHA512}), the
+   *    identifier of the registered {@link CryptScheme} that performed it
+   *    (e.g. {@code w1}), or {@code null} if the salt was malformed or the
+   *    algorithm is not supported
+   * @param rounds number of rounds (or iterations) performed by the
+   *    algorithm for the given salt, or 0 if {@code scheme} is
+   *    {@code null}
+   * @param outcome outcome of the operation
+   * @param elapsedNanos elapsed time of the operation in nanoseconds
+   */
+  void operationCompleted(String scheme, int rounds, CryptOutcome outcome,
+      long elapsedNanos);
+
+}
@@ -0,0 +1,216 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+
+/**
+ * The registry of {@link CryptListener} instances that receive
+ * notification of crypt operations.
+ * <p>
+ * Instrumentation is disabled until a listener is registered. To collect
+ * the built-in statistics and expose them to JMX clients (e.g. JConsole)
+ * as the {@value CryptStatistics#OBJECT_NAME} MBean:
+ * <pre>
+ * CryptStatistics statistics = CryptMetrics.enableStatistics(true);
+ * </pre>
+ *
+ * @author Carl Harris
+ */
+public final class CryptMetrics {
+
+  private static final Object lock = new Object();
+
+  private static CryptListener[] listeners = new CryptListener[0];
+
+  private static volatile CryptListener listener;
+
+  private static CryptStatistics statistics;
+
+  private CryptMetrics() {
+  }
+
+  /**
+   * Registers a listener.
+   * @param listener the listener to register
+   */
+  public static void addListener(CryptListener listener) {
+    if (listener == null) {
+      throw new NullPointerException("listener is required");
+    }
+    synchronized (lock) {
+      listeners = Arrays.copyOf(listeners, listeners.length + 1);
+      listeners[listeners.length - 1] = listener;
+      update();
+    }
+  }
+
+  /**
+   * Unregisters a listener.
+   * @param listener the listener to unregister
+   * @return {@code true} if {@code listener} was registered
+   */
+  public static boolean removeListener(CryptListener listener) {
+    synchronized (lock) {
+      for (int i = 0; i < listeners.length; i++) {
+        if (listeners[i] == listener) {
+          final CryptListener[] remaining =
+              new CryptListener[listeners.length - 1];
+          System.arraycopy(listeners, 0, remaining, 0, i);
+          System.arraycopy(listeners, i + 1, remaining, i,
+              remaining.length - i);
+          listeners = remaining;
+          if (listener == statistics) {
+            statistics = null;
+          }
+          update();
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  /**
+   * Enables the built-in statistics.
+   * <p>
+   * The statistics are registered as a listener the first time this
+   * method is invoked; subsequent invocations return the same instance.
+   * @param registerMBean flag indicating whether the statistics should
+   *    be registered with the platform MBean server, if they are not
+   *    already registered
+   * @return statistics
+   * @throws IllegalStateException if the MBean cannot be registered
+   */
+  public static CryptStatistics enableStatistics(boolean registerMBean) {
+    final CryptStatistics statistics;
+    synchronized (lock) {
+      if (CryptMetrics.statistics == null) {
+        CryptMetrics.statistics = new CryptStatistics();
+        addListener(CryptMetrics.statistics);
+      }
+      statistics = CryptMetrics.statistics;
+    }
+    if (registerMBean) {
+      final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+      try {
+        if (!server.isRegistered(statistics.getObjectName())) {
+          server.registerMBean(statistics, statistics.getObjectName());
+        }
+      }
+      catch (JMException ex) {
+        throw new IllegalStateException(ex);
+      }
+    }
+    return statistics;
+  }
+
+  /**
+   * Disables the built-in statistics, unregistering them as a listener
+   * and from the platform MBean server.
+   */
+  public static void disableStatistics() {
+    final CryptStatistics statistics;
+    synchronized (lock) {
+      statistics = CryptMetrics.statistics;
+      if (statistics == null) return;
+      removeListener(statistics);
+    }
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    try {
+      if (server.isRegistered(statistics.getObjectName())) {
+        server.unregisterMBean(statistics.getObjectName());
+      }
+    }
+    catch (JMException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Gets the listener that is notified of each operation.
+   * @return listener or {@code null} if no listener is registered
+   */
+  static CryptListener getListener() {
+    return listener;
+  }
+
+  private static void update() {
+    switch (listeners.length) {
+      case 0:
+        listener = null;
+        break;
+      case 1:
+        listener = listeners[0];
+        break;
+      default:
+        listener = new CompositeListener(listeners.clone());
+        break;
+    }
+  }
+
+  /**
+   * A listener that notifies each of several listeners.
+   */
+  private static class CompositeListener implements CryptListener {
+
+    private final CryptListener[] delegates;
+
+    CompositeListener(CryptListener[] delegates) {
+      this.delegates = delegates;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void operationStarted() {
+      for (CryptListener delegate : delegates) {
+        try {
+          delegate.operationStarted();
+        }
+        catch (RuntimeException ex) {
+          // a listener cannot affect the others
+        }
+      }
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void operationCompleted(String scheme, int rounds,
+        CryptOutcome outcome, long elapsedNanos) {
+      for (CryptListener delegate : delegates) {
+        try {
+          delegate.operationCompleted(scheme, rounds, outcome, elapsedNanos);
+        }
+        catch (RuntimeException ex) {
+          // a listener cannot affect the others
+        }
+      }
+    }
+
+  }
+
+}
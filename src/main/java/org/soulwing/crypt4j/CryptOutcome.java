@@ -0,0 +1,48 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * An enumeration of the outcomes of a crypt operation, as reported to a
+ * {@link CryptListener}.
+ *
+ * @author Carl Harris
+ */
+public enum CryptOutcome {
+
+  /** A password was encrypted. */
+  HASHED,
+
+  /** A password was validated and matches the hashed value. */
+  MATCH,
+
+  /** A password was validated and does not match the hashed value. */
+  MISMATCH,
+
+  /**
+   * The salt or hashed value is malformed, or is not exactly what
+   * {@link Crypt#crypt(char[], String)} would produce, so no password could
+   * match it.
+   */
+  MALFORMED,
+
+  /** The algorithm of the salt or hashed value is not supported. */
+  UNSUPPORTED;
+
+}
@@ -0,0 +1,162 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A probe that times a single operation and reports it to the registered
+ * {@link CryptListener}.
+ * <p>
+ * A probe is created only when a listener is registered, so the cost of
+ * instrumentation when none is registered is a single volatile read.
+ *
+ * @author Carl Harris
+ */
+final class CryptProbe {
+
+  private final CryptListener listener;
+  private final long startTime;
+  private String scheme;
+  private int rounds;
+
+  private CryptProbe(CryptListener listener) {
+    this.listener = listener;
+    this.startTime = System.nanoTime();
+  }
+
+  /**
+   * Begins an operation.
+   * @return probe for the operation or {@code null} if no listener is
+   *    registered
+   */
+  static CryptProbe begin() {
+    final CryptListener listener = CryptMetrics.getListener();
+    if (listener == null) return null;
+    return begin(listener);
+  }
+
+  private static CryptProbe begin(CryptListener listener) {
+    try {
+      listener.operationStarted();
+    }
+    catch (RuntimeException ex) {
+      // a listener cannot affect the outcome of the operation
+    }
+    return new CryptProbe(listener);
+  }
+
+  /**
+   * Begins the operations on the entries of a batch, which are performed
+   * together.
+   * @param n number of entries
+   * @return probes for the operations or {@code null} if no listener is
+   *    registered
+   */
+  static CryptProbe[] beginBatch(int n) {
+    final CryptListener listener = CryptMetrics.getListener();
+    if (listener == null) return null;
+    final CryptProbe[] probes = new CryptProbe[n];
+    for (int i = 0; i < n; i++) {
+      probes[i] = begin(listener);
+    }
+    return probes;
+  }
+
+  /**
+   * Ends the operations on the entries of a batch, all of which have the
+   * same outcome.
+   * @param probes probes for the operations (may be {@code null})
+   * @param outcome outcome of the operations
+   */
+  static void endBatch(CryptProbe[] probes, CryptOutcome outcome) {
+    if (probes == null) return;
+    final long elapsed = elapsedShare(probes);
+    for (CryptProbe probe : probes) {
+      probe.end(outcome, elapsed);
+    }
+  }
+
+  /**
+   * Ends the operations on the entries of a batch.
+   * @param probes probes for the operations (may be {@code null})
+   * @param outcomes outcome of each operation, indexed like
+   *    {@code probes}
+   */
+  static void endBatch(CryptProbe[] probes, CryptOutcome[] outcomes) {
+    if (probes == null) return;
+    final long elapsed = elapsedShare(probes);
+    for (int i = 0; i < probes.length; i++) {
+      probes[i].end(outcomes[i], elapsed);
+    }
+  }
+
+  /**
+   * Gets the share of the elapsed time of a batch attributed to each of
+   * its entries; the entries are performed together, so the time is
+   * divided evenly among them.
+   * @param probes probes for the entries of the batch
+   * @return elapsed time per entry in nanoseconds
+   */
+  private static long elapsedShare(CryptProbe[] probes) {
+    if (probes.length == 0) return 0;
+    return (System.nanoTime() - probes[0].startTime) / probes.length;
+  }
+
+  /**
+   * Records the type of the operation.
+   * @param type type of the operation
+   * @param salt salt for the operation
+   */
+  void identify(Type type, Salt salt) {
+    this.scheme = type.name();
+    this.rounds = type.rounds(salt);
+  }
+
+  /**
+   * Records the scheme of the operation.
+   * @param scheme identifier of the scheme
+   * @param rounds number of rounds used by the operation
+   */
+  void identify(String scheme, int rounds) {
+    this.scheme = scheme;
+    this.rounds = rounds;
+  }
+
+  /**
+   * Ends the operation.
+   * @param outcome outcome of the operation
+   */
+  void end(CryptOutcome outcome) {
+    end(outcome, System.nanoTime() - startTime);
+  }
+
+  /**
+   * Ends the operation.
+   * @param outcome outcome of the operation
+   * @param elapsed elapsed time of the operation in nanoseconds
+   */
+  private void end(CryptOutcome outcome, long elapsed) {
+    try {
+      listener.operationCompleted(scheme, rounds, outcome, elapsed);
+    }
+    catch (RuntimeException ex) {
+      // a listener cannot affect the outcome of the operation
+    }
+  }
+
+}
@@ -0,0 +1,85 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A service provider interface for crypt schemes other than those built
+ * into crypt4j (e.g. bcrypt as {@code $2b$}, or yescrypt as {@code $y$}).
+ * <p>
+ * Providers are discovered using {@link java.util.ServiceLoader}; a
+ * provider jar lists its implementation classes in
+ * {@code META-INF/services/org.soulwing.crypt4j.CryptScheme}. Each
+ * implementation is instantiated once and used for all salts and hashed
+ * values that have its identifier, so it must be thread safe. The
+ * built-in schemes ({@code DES}, {@code $1$}, {@code $5$} and {@code $6$},
+ * and the wrapped legacy schemes {@code $w0$} and {@code $w1$} produced
+ * by a {@link HashMigrator}) cannot be replaced; a provider with the
+ * identifier of a built-in scheme, or of a provider that was discovered
+ * before it, is ignored.
+ *
+ * @author Carl Harris
+ */
+public interface CryptScheme {
+
+  /**
+   * Gets the identifier of this scheme.
+   * @return identifier that appears between the first two {@code $}
+   *    characters of a salt or hashed value (e.g. {@code 2b}); it must be
+   *    non-empty and must not contain {@code $}
+   */
+  String getId();
+
+  /**
+   * Encrypts (digests) a password.
+   * @param password the encoded password; it must not be modified
+   * @param salt salt that has the identifier of this scheme, followed by
+   *    its parameters and salt text (and possibly by a digest, which is
+   *    ignored)
+   * @return crypt output string
+   * @throws NoSuchAlgorithmException if this scheme is not supported on
+   *    this platform
+   * @throws IllegalArgumentException if {@code salt} is malformed
+   */
+  String crypt(byte[] password, String salt) throws NoSuchAlgorithmException;
+
+  /**
+   * Tests whether a password matches a hashed value.
+   * <p>
+   * The default implementation compares the result of
+   * {@link #crypt(byte[], String)} to {@code hashedValue} in constant
+   * time.
+   * @param password the encoded password; it must not be modified
+   * @param hashedValue hashed value that has the identifier of this scheme
+   * @return {@code true} if {@code password} matches {@code hashedValue}
+   * @throws NoSuchAlgorithmException if this scheme is not supported on
+   *    this platform
+   * @throws IllegalArgumentException if {@code hashedValue} is malformed
+   */
+  default boolean matches(byte[] password, String hashedValue)
+      throws NoSuchAlgorithmException {
+    return MessageDigest.isEqual(
+        crypt(password, hashedValue).getBytes(StandardCharsets.UTF_8),
+        hashedValue.getBytes(StandardCharsets.UTF_8));
+  }
+
+}
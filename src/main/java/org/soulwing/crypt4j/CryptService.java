@@ -0,0 +1,206 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A service that performs crypt operations asynchronously on a dedicated,
+ * bounded pool of platform threads.
+ * <p>
+ * A crypt operation with a large number of rounds occupies a CPU for tens
+ * of milliseconds or more. Performing it inline on a virtual thread pins
+ * the carrier thread for that long, starving unrelated work. This service
+ * isolates that work: the calling thread (virtual or otherwise) submits
+ * the operation and may then block on the returned future, which releases
+ * the carrier while the hash is computed elsewhere.
+ * <p>
+ * The number of worker threads defaults to
+ * {@link Runtime#availableProcessors()}, which on JDK 8u191 and later
+ * reflects the CPU quota of the container (cgroup) in which the JVM runs.
+ * Operations wait in a bounded queue when all workers are busy; when the
+ * queue is full, the returned future fails immediately with a
+ * {@link RejectedExecutionException} so that callers can shed load rather
+ * than pile up.
+ * <p>
+ * Results are identical to those of {@link Crypt#crypt(char[], String)} and
+ * {@link Crypt#validate(char[], String)}. Any exception those methods
+ * would throw completes the returned future exceptionally.
+ *
+ * @author Carl Harris
+ */
+public class CryptService implements AutoCloseable {
+
+  /**
+   * Default number of queued operations allowed per worker thread.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY_PER_THREAD = 64;
+
+  private static final AtomicInteger serviceCount = new AtomicInteger();
+
+  private final ThreadPoolExecutor executor;
+
+  /**
+   * Constructs a new instance with a worker thread for each available
+   * processor and the default queue capacity.
+   */
+  public CryptService() {
+    this(Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a new instance with the default queue capacity.
+   * @param threads number of worker threads
+   */
+  public CryptService(int threads) {
+    this(threads, threads * DEFAULT_QUEUE_CAPACITY_PER_THREAD);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param threads number of worker threads
+   * @param queueCapacity maximum number of operations that may wait for a
+   *    worker thread
+   */
+  public CryptService(int threads, int queueCapacity) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    if (queueCapacity < 1) {
+      throw new IllegalArgumentException("queue capacity must be at least 1");
+    }
+    this.executor = new ThreadPoolExecutor(threads, threads, 0L,
+        TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueCapacity),
+        new WorkerThreadFactory(), new ThreadPoolExecutor.AbortPolicy());
+  }
+
+  /**
+   * Asynchronously encrypts (digests) the given password using the
+   * algorithm identified by the given salt.
+   * @param password the password to encrypt; it is copied before this
+   *    method returns, so the caller may clear it immediately
+   * @param salt algorithm identifier, parameters, and salt text
+   * @return future result of {@link Crypt#crypt(char[], String)}
+   */
+  public CompletableFuture<String> cryptAsync(char[] password,
+      final String salt) {
+    final char[] copy = password.clone();
+    return submit(copy, () -> Crypt.crypt(copy, salt));
+  }
+
+  /**
+   * Asynchronously validates a given password against a provided hashed
+   * value.
+   * @param password the password to validate; it is copied before this
+   *    method returns, so the caller may clear it immediately
+   * @param hashedValue the hashed value to validate against
+   * @return future result of {@link Crypt#validate(char[], String)}
+   */
+  public CompletableFuture<Boolean> validateAsync(char[] password,
+      final String hashedValue) {
+    final char[] copy = password.clone();
+    return submit(copy, () -> Crypt.validate(copy, hashedValue));
+  }
+
+  /**
+   * Gets the number of operations waiting for a worker thread.
+   * @return queue length
+   */
+  public int getQueueLength() {
+    return executor.getQueue().size();
+  }
+
+  /**
+   * Gets the number of operations currently being performed.
+   * @return active operation count
+   */
+  public int getActiveCount() {
+    return executor.getActiveCount();
+  }
+
+  /**
+   * Shuts down this service. Operations already submitted are completed,
+   * but new operations are rejected.
+   */
+  @Override
+  public void close() {
+    executor.shutdown();
+  }
+
+  /**
+   * Submits an operation to the executor.
+   * <p>
+   * If the operation is rejected, the returned future has already been
+   * completed exceptionally with a {@link RejectedExecutionException} when
+   * this method returns.
+   * @param password copy of the password, which is cleared when the
+   *    operation finishes or is rejected
+   * @param operation the operation to perform
+   * @return future result of {@code operation}
+   */
+  <T> CompletableFuture<T> submit(final char[] password,
+      final Callable<T> operation) {
+    final CompletableFuture<T> future = new CompletableFuture<>();
+    try {
+      executor.execute(() -> {
+        try {
+          future.complete(operation.call());
+        }
+        catch (Throwable ex) {
+          future.completeExceptionally(ex);
+        }
+        finally {
+          Arrays.fill(password, (char) 0);
+        }
+      });
+    }
+    catch (RejectedExecutionException ex) {
+      Arrays.fill(password, (char) 0);
+      future.completeExceptionally(ex);
+    }
+    return future;
+  }
+
+  /**
+   * A factory for the (daemon) worker threads of a service.
+   */
+  private static class WorkerThreadFactory implements ThreadFactory {
+
+    private final int service = serviceCount.incrementAndGet();
+    private final AtomicInteger threadCount = new AtomicInteger();
+
+    @Override
+    public Thread newThread(Runnable r) {
+      final Thread thread = new Thread(r, "crypt4j-" + service + "-worker-"
+          + threadCount.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    }
+
+  }
+
+}
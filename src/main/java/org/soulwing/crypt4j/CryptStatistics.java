@@ -0,0 +1,378 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * A {@link CryptListener} that collects operation counts, latency
+ * histograms and the number of operations in progress.
+ * <p>
+ * Operations are counted by scheme (a built-in algorithm or the identifier
+ * of a registered {@link CryptScheme}) and {@link CryptOutcome}. Latencies
+ * are recorded by scheme and by bucket of the number of rounds (at most
+ * 1000, 10000, 100000, 1000000, or more), so that the latency of, say,
+ * legacy MD5 values can be told apart from that of a few SHA-512 values
+ * with a very large {@code rounds=}. Each histogram has four buckets for
+ * each power of two nanoseconds, so percentiles are accurate to within
+ * 25%.
+ * <p>
+ * All updates are lock free, except the first for each registered scheme,
+ * which creates its counters. An instance is thread safe; a snapshot taken
+ * while operations are in progress may include some of their effects and
+ * not others.
+ *
+ * @author Carl Harris
+ */
+public class CryptStatistics implements CryptListener, CryptStatisticsMXBean {
+
+  /** Object name of the MBean registered by {@link CryptMetrics}. */
+  public static final String OBJECT_NAME =
+      "org.soulwing.crypt4j:type=CryptStatistics";
+
+  private static final String UNKNOWN_SCHEME = "unknown";
+
+  private static final Type[] TYPES = Type.values();
+
+  private static final int OUTCOMES = CryptOutcome.values().length;
+
+  private static final int[] ROUNDS_LIMITS = { 1000, 10000, 100000, 1000000 };
+
+  private static final int ROUNDS_BUCKETS = ROUNDS_LIMITS.length + 1;
+
+  private static final int LATENCY_BUCKETS = 4 * 62;
+
+  private final Slot[] builtIn = new Slot[TYPES.length];
+
+  private final ConcurrentMap<String, Slot> registered =
+      new ConcurrentHashMap<>();
+
+  private final Slot unknown = new Slot();
+
+  private final AtomicInteger inFlight = new AtomicInteger();
+
+  private final AtomicInteger peakInFlight = new AtomicInteger();
+
+  /**
+   * Constructs a new instance.
+   */
+  public CryptStatistics() {
+    for (int i = 0; i < builtIn.length; i++) {
+      builtIn[i] = new Slot();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void operationStarted() {
+    final int n = inFlight.incrementAndGet();
+    int peak = peakInFlight.get();
+    while (n > peak && !peakInFlight.compareAndSet(peak, n)) {
+      peak = peakInFlight.get();
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void operationCompleted(String scheme, int rounds,
+      CryptOutcome outcome, long elapsedNanos) {
+    inFlight.decrementAndGet();
+    final Slot slot = scheme == null ? unknown : slot(scheme, true);
+    slot.counts[outcome.ordinal()].increment();
+    if (scheme == null) return;
+    final int h = roundsBucket(rounds);
+    slot.histograms.incrementAndGet(h * LATENCY_BUCKETS
+        + latencyBucket(elapsedNanos));
+    long max = slot.maxima.get(h);
+    while (elapsedNanos > max
+        && !slot.maxima.compareAndSet(h, max, elapsedNanos)) {
+      max = slot.maxima.get(h);
+    }
+  }
+
+  /**
+   * Gets the number of operations of a given scheme and outcome.
+   * @param scheme name of the scheme (e.g. {@code SHA512} or {@code w1}),
+   *    or {@code null} for operations whose scheme could not be determined
+   * @param outcome the subject outcome
+   * @return number of operations
+   */
+  public long getCount(String scheme, CryptOutcome outcome) {
+    final Slot slot = scheme == null ? unknown : slot(scheme, false);
+    return slot == null ? 0 : slot.counts[outcome.ordinal()].sum();
+  }
+
+  /**
+   * Gets a latency percentile for operations of a given scheme with a
+   * number of rounds in the same bucket as the given number.
+   * @param scheme name of the scheme (e.g. {@code SHA512} or {@code w1})
+   * @param rounds number of rounds
+   * @param percentile the subject percentile (e.g. 99.0)
+   * @return latency in nanoseconds or 0 if no operations have been
+   *    recorded
+   */
+  public long getLatencyPercentile(String scheme, int rounds,
+      double percentile) {
+    if (percentile < 0 || percentile > 100) {
+      throw new IllegalArgumentException("percentile must be in [0, 100]");
+    }
+    final Slot slot = scheme == null ? null : slot(scheme, false);
+    return slot == null ? 0 : slot.percentile(roundsBucket(rounds), percentile);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Long> getCounts() {
+    final Map<String, Long> map = new LinkedHashMap<>();
+    for (Map.Entry<String, Slot> entry : slots().entrySet()) {
+      for (CryptOutcome outcome : CryptOutcome.values()) {
+        final long count = entry.getValue().counts[outcome.ordinal()].sum();
+        if (count != 0) {
+          map.put(entry.getKey() + "/" + outcome, count);
+        }
+      }
+    }
+    return map;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Double> getMedianLatencyMillis() {
+    return latencies(50.0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Double> getP99LatencyMillis() {
+    return latencies(99.0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public Map<String, Double> getMaxLatencyMillis() {
+    return latencies(100.0);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getInFlight() {
+    return inFlight.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getPeakInFlight() {
+    return peakInFlight.get();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void reset() {
+    for (Slot slot : slots().values()) {
+      slot.reset();
+    }
+    peakInFlight.set(inFlight.get());
+  }
+
+  /**
+   * Gets the object name for the MBean.
+   * @return object name
+   */
+  ObjectName getObjectName() {
+    try {
+      return new ObjectName(OBJECT_NAME);
+    }
+    catch (MalformedObjectNameException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  private Map<String, Double> latencies(double percentile) {
+    final Map<String, Double> map = new LinkedHashMap<>();
+    for (Map.Entry<String, Slot> entry : slots().entrySet()) {
+      for (int r = 0; r < ROUNDS_BUCKETS; r++) {
+        final long nanos = entry.getValue().percentile(r, percentile);
+        if (nanos != 0) {
+          map.put(entry.getKey() + "/" + roundsLabel(r), nanos / 1.0e6);
+        }
+      }
+    }
+    return map;
+  }
+
+  /**
+   * Gets the slot for a scheme.
+   * @param scheme name of a built-in algorithm or identifier of a
+   *    registered scheme
+   * @param create whether to create the slot of a registered scheme
+   *    that has none
+   * @return slot or {@code null} if {@code create} is {@code false} and
+   *    there is no slot for {@code scheme}
+   */
+  private Slot slot(String scheme, boolean create) {
+    for (Type type : TYPES) {
+      if (type.name().equals(scheme)) return builtIn[type.ordinal()];
+    }
+    return create ? registered.computeIfAbsent(scheme, id -> new Slot())
+        : registered.get(scheme);
+  }
+
+  /**
+   * Gets all of the slots, in reporting order: the built-in algorithms,
+   * then the registered schemes by identifier, then the unknown scheme.
+   * @return map of scheme name to slot
+   */
+  private Map<String, Slot> slots() {
+    final Map<String, Slot> slots = new LinkedHashMap<>();
+    for (Type type : TYPES) {
+      slots.put(type.name(), builtIn[type.ordinal()]);
+    }
+    slots.putAll(new TreeMap<>(registered));
+    slots.put(UNKNOWN_SCHEME, unknown);
+    return slots;
+  }
+
+  /**
+   * Gets the latency bucket for an elapsed time.
+   * <p>
+   * Times less than 4 ns have a bucket each; above that, each power of two
+   * is divided into four buckets of equal width.
+   * @param nanos elapsed time
+   * @return bucket index
+   */
+  static int latencyBucket(long nanos) {
+    if (nanos < 4) return (int) Math.max(0, nanos);
+    final int e = 63 - Long.numberOfLeadingZeros(nanos);
+    return 4 * (e - 1) + (int) ((nanos >>> (e - 2)) & 3);
+  }
+
+  /**
+   * Gets the (exclusive) upper bound of a latency bucket.
+   * @param bucket bucket index
+   * @return upper bound in nanoseconds
+   */
+  static long upperBound(int bucket) {
+    if (bucket < 4) return bucket + 1;
+    final long width = 1L << (bucket / 4 - 1);
+    final long lower = (4 + bucket % 4) * width;
+    return lower > Long.MAX_VALUE - width ? Long.MAX_VALUE : lower + width;
+  }
+
+  private static int roundsBucket(int rounds) {
+    int r = 0;
+    while (r < ROUNDS_LIMITS.length && rounds > ROUNDS_LIMITS[r]) {
+      r++;
+    }
+    return r;
+  }
+
+  private static String roundsLabel(int r) {
+    return r < ROUNDS_LIMITS.length ? "rounds<=" + ROUNDS_LIMITS[r]
+        : "rounds>" + ROUNDS_LIMITS[ROUNDS_LIMITS.length - 1];
+  }
+
+  /**
+   * The operation counts and latency histograms of a single scheme.
+   */
+  private static class Slot {
+
+    final LongAdder[] counts = new LongAdder[OUTCOMES];
+
+    final AtomicLongArray histograms =
+        new AtomicLongArray(ROUNDS_BUCKETS * LATENCY_BUCKETS);
+
+    final AtomicLongArray maxima = new AtomicLongArray(ROUNDS_BUCKETS);
+
+    Slot() {
+      for (int i = 0; i < counts.length; i++) {
+        counts[i] = new LongAdder();
+      }
+    }
+
+    /**
+     * Computes a percentile of a histogram.
+     * @param h index of the histogram (the rounds bucket)
+     * @param percentile the subject percentile
+     * @return upper bound of the bucket that contains the percentile,
+     *    limited to the maximum recorded latency, or 0 if the histogram is
+     *    empty
+     */
+    long percentile(int h, double percentile) {
+      final int base = h * LATENCY_BUCKETS;
+      long total = 0;
+      for (int i = 0; i < LATENCY_BUCKETS; i++) {
+        total += histograms.get(base + i);
+      }
+      if (total == 0) return 0;
+      final long max = maxima.get(h);
+      final long rank =
+          Math.max(1, (long) Math.ceil(total * percentile / 100));
+      long count = 0;
+      for (int i = 0; i < LATENCY_BUCKETS; i++) {
+        count += histograms.get(base + i);
+        if (count >= rank) {
+          return Math.min(upperBound(i), max);
+        }
+      }
+      return max;
+    }
+
+    void reset() {
+      for (LongAdder count : counts) {
+        count.reset();
+      }
+      for (int i = 0; i < histograms.length(); i++) {
+        histograms.set(i, 0);
+      }
+      for (int i = 0; i < maxima.length(); i++) {
+        maxima.set(i, 0);
+      }
+    }
+
+  }
+
+}
@@ -0,0 +1,81 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.Map;
+
+/**
+ * The management interface of {@link CryptStatistics}.
+ *
+ * @author Carl Harris
+ */
+public interface CryptStatisticsMXBean {
+
+  /**
+   * Gets the number of operations by scheme and outcome.
+   * @return map whose keys are of the form {@code scheme/outcome} (e.g.
+   *    {@code SHA512/MATCH}, or {@code unknown/MALFORMED} for operations
+   *    whose scheme could not be determined); only non-zero counts are
+   *    included
+   */
+  Map<String, Long> getCounts();
+
+  /**
+   * Gets the median latency by scheme and rounds bucket.
+   * @return map whose keys are of the form {@code scheme/rounds<=N} (e.g.
+   *    {@code SHA512/rounds<=10000}) and whose values are in
+   *    milliseconds; only buckets that have recorded operations are
+   *    included
+   */
+  Map<String, Double> getMedianLatencyMillis();
+
+  /**
+   * Gets the 99th percentile latency by scheme and rounds bucket.
+   * @return map of the form described for
+   *    {@link #getMedianLatencyMillis()}
+   */
+  Map<String, Double> getP99LatencyMillis();
+
+  /**
+   * Gets the maximum latency by scheme and rounds bucket.
+   * @return map of the form described for
+   *    {@link #getMedianLatencyMillis()}
+   */
+  Map<String, Double> getMaxLatencyMillis();
+
+  /**
+   * Gets the number of operations in progress.
+   * @return number of operations
+   */
+  int getInFlight();
+
+  /**
+   * Gets the largest number of operations that have been in progress at
+   * once since the statistics were created or reset.
+   * @return number of operations
+   */
+  int getPeakInFlight();
+
+  /**
+   * Resets the counts, latencies and peak number of operations in
+   * progress.
+   */
+  void reset();
+
+}
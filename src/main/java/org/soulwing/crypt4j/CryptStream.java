@@ -0,0 +1,520 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The streaming (batch) mode of the command line entry point.
+ * <p>
+ * Records are read from a channel, one per line. In crypt mode, a record
+ * is {@code password<TAB>salt}, or just {@code password}, in which case a
+ * salt is generated using a given prefix; the output for the record is the
+ * hashed value. In verify mode, a record is {@code password<TAB>hash} and
+ * the output is {@code OK} or {@code FAIL}. Since salts and hashed values
+ * never contain a tab, a record is split at its last tab.
+ * <p>
+ * Records are processed by a pool of worker threads, with a bounded
+ * number of records in flight. Output lines are written in input order,
+ * or, in tagged mode, in order of completion, each prefixed with its
+ * record (line) number and a tab. A record that cannot be processed is
+ * reported on the error stream; in input order mode, an empty output line
+ * takes its place.
+ *
+ * @author Carl Harris
+ */
+class CryptStream {
+
+  static final String USAGE =
+      "usage: java -jar crypt4j.jar password salt-string\n"
+    + "       java -jar crypt4j.jar --batch [--verify] [--tagged] "
+    + "[--threads n] [--salt prefix] [file]\n"
+    + "       java -jar crypt4j.jar --migrate [--rounds n] [--threads n] "
+    + "input output\n"
+    + "       java -jar crypt4j.jar --warm-up";
+
+  static final int EXIT_OK = 0;
+  static final int EXIT_FAILED = 1;
+  static final int EXIT_ERROR = 2;
+
+  static final int BUFFER_SIZE = 1024 * 1024;
+
+  private static final int RECORDS_PER_THREAD = 256;
+  private static final String DEFAULT_SALT_PREFIX = "$6$";
+
+  private final boolean verify;
+  private final boolean tagged;
+  private final int threads;
+  private final String saltPrefix;
+
+  /**
+   * Constructs a new instance.
+   * @param verify flag indicating verify mode
+   * @param tagged flag indicating tagged mode
+   * @param threads number of worker threads
+   * @param saltPrefix prefix for generated salts
+   */
+  CryptStream(boolean verify, boolean tagged, int threads,
+      String saltPrefix) {
+    this.verify = verify;
+    this.tagged = tagged;
+    this.threads = threads;
+    this.saltPrefix = saltPrefix;
+  }
+
+  /**
+   * Runs the batch mode as specified by command line arguments.
+   * @param args command line arguments, starting with {@code --batch}
+   * @return exit status
+   */
+  static int main(String[] args) {
+    boolean verify = false;
+    boolean tagged = false;
+    int threads = Runtime.getRuntime().availableProcessors();
+    String saltPrefix = DEFAULT_SALT_PREFIX;
+    String file = null;
+    try {
+      for (int i = 1; i < args.length; i++) {
+        if (args[i].equals("--verify")) {
+          verify = true;
+        }
+        else if (args[i].equals("--tagged")) {
+          tagged = true;
+        }
+        else if (args[i].equals("--threads") && i + 1 < args.length) {
+          threads = Integer.parseInt(args[++i]);
+        }
+        else if (args[i].equals("--salt") && i + 1 < args.length) {
+          saltPrefix = args[++i];
+        }
+        else if (file == null && !args[i].startsWith("--")) {
+          file = args[i];
+        }
+        else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+      if (threads < 1) {
+        throw new IllegalArgumentException("--threads " + threads);
+      }
+      SaltGenerator.getInstance().newSalt(saltPrefix);
+    }
+    catch (Exception ex) {
+      System.err.println(ex);
+      System.err.println(USAGE);
+      return EXIT_ERROR;
+    }
+
+    try (ReadableByteChannel in = file == null || file.equals("-") ?
+            new FileInputStream(FileDescriptor.in).getChannel() :
+            FileChannel.open(Paths.get(file), StandardOpenOption.READ);
+        WritableByteChannel out =
+            new FileOutputStream(FileDescriptor.out).getChannel()) {
+      return new CryptStream(verify, tagged, threads, saltPrefix)
+          .run(in, out, System.err);
+    }
+    catch (IOException | InterruptedException ex) {
+      System.err.println(ex);
+      return EXIT_ERROR;
+    }
+  }
+
+  /**
+   * Processes all records from an input channel.
+   * @param in input channel
+   * @param out output channel
+   * @param err stream on which errors are reported
+   * @return exit status: {@link #EXIT_OK}, {@link #EXIT_FAILED} if any
+   *    record failed verification, or {@link #EXIT_ERROR} if any record
+   *    could not be processed
+   * @throws IOException if an error occurs in reading or writing
+   * @throws InterruptedException if the calling thread is interrupted
+   */
+  int run(ReadableByteChannel in, WritableByteChannel out, PrintStream err)
+      throws IOException, InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(threads,
+        r -> {
+          final Thread thread = new Thread(r, "crypt4j-batch-worker");
+          thread.setDaemon(true);
+          return thread;
+        });
+    final Semaphore permits = new Semaphore(threads * RECORDS_PER_THREAD);
+    final BlockingQueue<Object> queue = new LinkedBlockingQueue<>();
+    final Thread reader = new Thread(
+        () -> read(in, executor, permits, queue), "crypt4j-batch-reader");
+    reader.setDaemon(true);
+    reader.start();
+    try {
+      return write(out, err, permits, queue);
+    }
+    finally {
+      reader.interrupt();
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads records and submits them to the executor. In input order mode,
+   * the future result of each record is put on the queue; otherwise, each
+   * record puts itself on the queue when complete. Finally, an
+   * {@link End} is put on the queue.
+   */
+  private void read(ReadableByteChannel in, ExecutorService executor,
+      Semaphore permits, BlockingQueue<Object> queue) {
+    final LineReader reader = new LineReader(in);
+    long count = 0;
+    Exception error = null;
+    try {
+      for (CharBuffer line = reader.readLine(); line != null;
+          line = reader.readLine()) {
+        final Record record = newRecord(++count, line);
+        permits.acquire();
+        final CompletableFuture<Record> future =
+            CompletableFuture.supplyAsync(() -> process(record), executor);
+        if (tagged) {
+          future.thenAccept(queue::add);
+        }
+        else {
+          queue.add(future);
+        }
+      }
+    }
+    catch (IOException | InterruptedException ex) {
+      error = ex;
+    }
+    finally {
+      reader.clear();
+    }
+    queue.add(new End(count, error));
+  }
+
+  /**
+   * Writes the output for each record as it is taken from the queue.
+   */
+  private int write(WritableByteChannel out, PrintStream err,
+      Semaphore permits, BlockingQueue<Object> queue)
+      throws IOException, InterruptedException {
+    final LineWriter writer = new LineWriter(out);
+    final StringBuilder sb = new StringBuilder();
+    int status = EXIT_OK;
+    long written = 0;
+    End end = null;
+    while (end == null || written < end.count) {
+      if (!isReady(queue.peek())) {
+        /* don't hold back output while waiting (e.g. for a coprocess) */
+        writer.flush();
+      }
+      final Object item = queue.take();
+      if (item instanceof End) {
+        end = (End) item;
+        continue;
+      }
+      final Record record = recordOf(item);
+      written++;
+      permits.release();
+      sb.setLength(0);
+      if (record.error != null) {
+        err.println("crypt4j: record " + record.number + ": " + record.error);
+        status = EXIT_ERROR;
+        if (tagged) continue;
+      }
+      else {
+        if (tagged) {
+          sb.append(record.number).append('\t');
+        }
+        sb.append(record.output);
+        if (verify && !record.valid && status == EXIT_OK) {
+          status = EXIT_FAILED;
+        }
+      }
+      sb.append('\n');
+      writer.write(sb);
+    }
+    writer.flush();
+    if (end.error != null) {
+      throw end.error instanceof IOException ?
+          (IOException) end.error : new IOException(end.error);
+    }
+    return status;
+  }
+
+  /**
+   * Tests whether an item at the head of the queue can be written without
+   * waiting.
+   * @param item a record, the future result of a record, an {@link End},
+   *    or {@code null} if the queue is empty
+   * @return {@code true} if {@code item} is available and complete
+   */
+  private static boolean isReady(Object item) {
+    return item != null && (!(item instanceof CompletableFuture)
+        || ((CompletableFuture<?>) item).isDone());
+  }
+
+  /**
+   * Gets the record for an item taken from the queue.
+   * @param item a record or the future result of a record
+   * @return record
+   */
+  @SuppressWarnings("unchecked")
+  private static Record recordOf(Object item) {
+    return item instanceof Record ?
+        (Record) item : ((CompletableFuture<Record>) item).join();
+  }
+
+  /**
+   * Creates a record from a line of input.
+   */
+  private Record newRecord(long number, CharBuffer line) {
+    int tab = -1;
+    for (int i = line.limit() - 1; i >= 0; i--) {
+      if (line.get(i) == '\t') {
+        tab = i;
+        break;
+      }
+    }
+    final char[] password = new char[tab < 0 ? line.limit() : tab];
+    line.get(password);
+    final String salt = tab < 0 ?
+        null : line.subSequence(1, line.remaining()).toString();
+    return new Record(number, password, salt);
+  }
+
+  /**
+   * Processes a record on a worker thread.
+   */
+  private Record process(Record record) {
+    try {
+      if (verify) {
+        if (record.salt == null) {
+          throw new IllegalArgumentException("missing hashed value");
+        }
+        record.valid = Crypt.validate(record.password, record.salt);
+        record.output = record.valid ? "OK" : "FAIL";
+      }
+      else {
+        record.output = Crypt.crypt(record.password, record.salt != null ?
+            record.salt : SaltGenerator.getInstance().newSalt(saltPrefix));
+      }
+    }
+    catch (Exception ex) {
+      record.error = ex;
+    }
+    finally {
+      Arrays.fill(record.password, (char) 0);
+    }
+    return record;
+  }
+
+  /**
+   * A record of input and its result.
+   */
+  private static class Record {
+
+    final long number;
+    final char[] password;
+    final String salt;
+    String output;
+    boolean valid;
+    Exception error;
+
+    Record(long number, char[] password, String salt) {
+      this.number = number;
+      this.password = password;
+      this.salt = salt;
+    }
+
+  }
+
+  /**
+   * A marker for the end of input.
+   */
+  private static class End {
+
+    final long count;
+    final Exception error;
+
+    End(long count, Exception error) {
+      this.count = count;
+      this.error = error;
+    }
+
+  }
+
+  /**
+   * A reader of UTF-8 encoded lines from a channel.
+   */
+  private static class LineReader {
+
+    private final ReadableByteChannel channel;
+    private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    private CharBuffer chars = CharBuffer.allocate(BUFFER_SIZE);
+    private boolean eof;
+
+    LineReader(ReadableByteChannel channel) {
+      this.channel = channel;
+      ((Buffer) buffer).flip();
+    }
+
+    /**
+     * Reads the next line, without its line terminator.
+     * @return buffer containing the line, which is valid until the next
+     *    invocation, or {@code null} at the end of input
+     */
+    CharBuffer readLine() throws IOException {
+      int scan = buffer.position();
+      for (;;) {
+        for (int i = scan, limit = buffer.limit(); i < limit; i++) {
+          if (buffer.get(i) == '\n') {
+            return decode(i, i + 1);
+          }
+        }
+        if (eof) {
+          return buffer.hasRemaining() ?
+              decode(buffer.limit(), buffer.limit()) : null;
+        }
+        scan = buffer.limit() - fill();
+      }
+    }
+
+    /**
+     * Reads more input into the buffer, moving the unread input to the
+     * start of the buffer and growing the buffer as needed.
+     * @return the number of positions by which the unread input moved
+     */
+    private int fill() throws IOException {
+      final int shift = buffer.position();
+      buffer.compact();
+      if (!buffer.hasRemaining()) {
+        final ByteBuffer larger = ByteBuffer.allocate(2 * buffer.capacity());
+        ((Buffer) buffer).flip();
+        larger.put(buffer);
+        Arrays.fill(buffer.array(), (byte) 0);
+        buffer = larger;
+      }
+      int count;
+      do {
+        count = channel.read(buffer);
+      }
+      while (count == 0);
+      eof = count < 0;
+      ((Buffer) buffer).flip();
+      return shift;
+    }
+
+    /**
+     * Decodes the line that ends at a given index, and consumes it.
+     * @param end index of the end of the line
+     * @param next index of the start of the following line
+     * @return decoded line
+     */
+    private CharBuffer decode(int end, int next) {
+      if (end > buffer.position() && buffer.get(end - 1) == '\r') {
+        end--;
+      }
+      final ByteBuffer line = buffer.duplicate();
+      ((Buffer) line).limit(end);
+      for (;;) {
+        ((Buffer) chars).clear();
+        decoder.reset();
+        final CoderResult result = decoder.decode(line, chars, true);
+        if (!result.isOverflow()) {
+          decoder.flush(chars);
+          break;
+        }
+        Arrays.fill(chars.array(), (char) 0);
+        chars = CharBuffer.allocate(2 * chars.capacity());
+        ((Buffer) line).position(buffer.position());
+      }
+      ((Buffer) buffer).position(next);
+      ((Buffer) chars).flip();
+      return chars;
+    }
+
+    /**
+     * Clears the buffers, which contain passwords.
+     */
+    void clear() {
+      Arrays.fill(buffer.array(), (byte) 0);
+      Arrays.fill(chars.array(), (char) 0);
+    }
+
+  }
+
+  /**
+   * A writer of UTF-8 encoded text to a channel.
+   */
+  private static class LineWriter {
+
+    private final WritableByteChannel channel;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    LineWriter(WritableByteChannel channel) {
+      this.channel = channel;
+    }
+
+    void write(CharSequence text) throws IOException {
+      final CharBuffer chars = CharBuffer.wrap(text);
+      encoder.reset();
+      while (encoder.encode(chars, buffer, true).isOverflow()) {
+        flush();
+      }
+    }
+
+    void flush() throws IOException {
+      ((Buffer) buffer).flip();
+      while (buffer.hasRemaining()) {
+        channel.write(buffer);
+      }
+      ((Buffer) buffer).clear();
+    }
+
+  }
+
+}
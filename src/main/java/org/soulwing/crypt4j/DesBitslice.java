@@ -0,0 +1,957 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.Arrays;
+
+/**
+ * A bitsliced DES engine that encrypts the zero block under 64 keys and
+ * salts at once, as required by DES crypt.
+ * <p>
+ * Bit {@code j} of each word of state belongs to lane {@code j}, so each
+ * word holds one bit position of 64 independent blocks, and each step of
+ * the cipher is a sequence of bitwise operations on whole words. The
+ * expansion and the key schedule are mere selections of words, the salt
+ * exchanges bits of the expanded half block in the lanes whose salt has
+ * the corresponding bit set, and the S-boxes are evaluated as boolean
+ * circuits; no table lookups depend on the data. The S-box circuits were
+ * derived from the tables of {@link Des} by Shannon decomposition with
+ * shared subfunctions, choosing the order of the input variables for each
+ * S-box that minimizes the number of gates.
+ * <p>
+ * All lanes share the same iteration count. The cost of a pass does not
+ * depend on the number of lanes in use.
+ * <p>
+ * An instance is reusable but not thread safe.
+ *
+ * @author Carl Harris
+ */
+class DesBitslice {
+
+  static final int LANES = 64;
+
+  /** index of the half block bit selected by each bit of the expansion */
+  private static final int[] E_INDEX = new int[48];
+
+  /** index of the key bit selected by each subkey bit of each round */
+  private static final int[][] KEY_INDEX = new int[16][48];
+
+  /** index of the preoutput bit selected by each bit of the output */
+  private static final int[] FP_INDEX = new int[64];
+
+  static {
+    for (int i = 0; i < 48; i++) {
+      E_INDEX[i] = Des.E[i] - 1;
+    }
+    final int[] cd = new int[56];
+    for (int i = 0; i < 56; i++) {
+      cd[i] = Des.PC1[i] - 1;
+    }
+    for (int round = 0; round < 16; round++) {
+      for (int s = 0; s < Des.SHIFTS[round]; s++) {
+        rotate(cd, 0);
+        rotate(cd, 28);
+      }
+      for (int i = 0; i < 48; i++) {
+        KEY_INDEX[round][i] = cd[Des.PC2[i] - 1];
+      }
+    }
+    for (int i = 0; i < 64; i++) {
+      FP_INDEX[Des.IP[i] - 1] = i;
+    }
+  }
+
+  private final long[] key = new long[64];
+  private final long[] saltMask = new long[24];
+  private final long[] e = new long[48];
+  private final long[] l = new long[32];
+  private final long[] r = new long[32];
+
+  /**
+   * Encrypts the zero block in each lane.
+   * @param keys DES key for each lane
+   * @param salts salt for each lane (24 bits, of which only the low-order
+   *    12 are used in the traditional format)
+   * @param n number of lanes in use
+   * @param count number of times to encrypt the block
+   * @param blocks array that receives the encrypted block for each lane
+   */
+  public void crypt(long[] keys, int[] salts, int n, int count,
+      long[] blocks) {
+    try {
+      load(keys, salts, n);
+      long[] l = this.l;
+      long[] r = this.r;
+      while (count-- > 0) {
+        for (int round = 0; round < 16; round += 2) {
+          round(l, r, KEY_INDEX[round]);
+          round(r, l, KEY_INDEX[round + 1]);
+        }
+        final long[] t = l;
+        l = r;
+        r = t;
+      }
+      store(l, r, n, blocks);
+    }
+    finally {
+      clear();
+    }
+  }
+
+  /**
+   * Transposes the keys and salts of the lanes into words, and clears the
+   * half blocks.
+   */
+  private void load(long[] keys, int[] salts, int n) {
+    for (int lane = 0; lane < n; lane++) {
+      final long k = keys[lane];
+      for (int i = 0; i < 64; i++) {
+        key[i] |= (k >>> (63 - i) & 1) << lane;
+      }
+      final long salt = salts[lane];
+      for (int i = 0; i < 24; i++) {
+        saltMask[i] |= (salt >>> i & 1) << lane;
+      }
+    }
+  }
+
+  /**
+   * Applies the final permutation to the preoutput and transposes it into
+   * the blocks of the lanes.
+   */
+  private static void store(long[] l, long[] r, int n, long[] blocks) {
+    for (int lane = 0; lane < n; lane++) {
+      long block = 0;
+      for (int i = 0; i < 64; i++) {
+        final int j = FP_INDEX[i];
+        final long word = j < 32 ? l[j] : r[j - 32];
+        block = (block << 1) | (word >>> lane & 1);
+      }
+      blocks[lane] = block;
+    }
+  }
+
+  private void clear() {
+    Arrays.fill(key, 0);
+    Arrays.fill(saltMask, 0);
+    Arrays.fill(e, 0);
+    Arrays.fill(l, 0);
+    Arrays.fill(r, 0);
+  }
+
+  /**
+   * Performs a round, adding the cipher function of {@code r} to
+   * {@code l}.
+   * @param l left half block
+   * @param r right half block
+   * @param keyIndex key bit indexes of the subkey for the round
+   */
+  private void round(long[] l, long[] r, int[] keyIndex) {
+    final long[] e = this.e;
+    final long[] key = this.key;
+    for (int i = 0; i < 48; i++) {
+      e[i] = r[E_INDEX[i]];
+    }
+    for (int i = 0; i < 24; i++) {
+      final long t = (e[i] ^ e[i + 24]) & saltMask[i];
+      e[i] ^= t;
+      e[i + 24] ^= t;
+    }
+    for (int i = 0; i < 48; i++) {
+      e[i] ^= key[keyIndex[i]];
+    }
+    s1(e[0], e[1], e[2], e[3], e[4], e[5], l);
+    s2(e[6], e[7], e[8], e[9], e[10], e[11], l);
+    s3(e[12], e[13], e[14], e[15], e[16], e[17], l);
+    s4(e[18], e[19], e[20], e[21], e[22], e[23], l);
+    s5(e[24], e[25], e[26], e[27], e[28], e[29], l);
+    s6(e[30], e[31], e[32], e[33], e[34], e[35], l);
+    s7(e[36], e[37], e[38], e[39], e[40], e[41], l);
+    s8(e[42], e[43], e[44], e[45], e[46], e[47], l);
+  }
+
+  private static void rotate(int[] cd, int offset) {
+    final int first = cd[offset];
+    System.arraycopy(cd, offset + 1, cd, offset, 27);
+    cd[offset + 27] = first;
+  }
+
+  /**
+   * Evaluates S-box 1 and adds its permuted output to a half block.
+   */
+  private static void s1(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a6;
+    final long x1 = x0 & a2;
+    final long x2 = a6 ^ a2;
+    final long x3 = x2 & a5;
+    final long x4 = x1 ^ x3;
+    final long x5 = a6 & a2;
+    final long x6 = x5 | a5;
+    final long x7 = x6 & a3;
+    final long x8 = x4 ^ x7;
+    final long x9 = ~x5;
+    final long x10 = a2 & a5;
+    final long x11 = x9 ^ x10;
+    final long x12 = x11 & a4;
+    final long x13 = x8 ^ x12;
+    final long x14 = ~a2;
+    final long x15 = x0 & x14;
+    final long x16 = x15 & a5;
+    final long x17 = a6 ^ x16;
+    final long x18 = x9 & a5;
+    final long x19 = x14 ^ x18;
+    final long x20 = x19 & a3;
+    final long x21 = x17 ^ x20;
+    final long x22 = x0 & a5;
+    final long x23 = x15 ^ x22;
+    final long x24 = ~a3;
+    final long x25 = x23 & x24;
+    final long x26 = x4 ^ x25;
+    final long x27 = x26 & a4;
+    final long x28 = x21 ^ x27;
+    final long x29 = x28 & a1;
+    final long x30 = x13 ^ x29;
+    final long x31 = ~x15;
+    final long x32 = x14 & a5;
+    final long x33 = x31 ^ x32;
+    final long x34 = x33 & x24;
+    final long x35 = x14 ^ x34;
+    final long x36 = x0 | a2;
+    final long x37 = ~a5;
+    final long x38 = x36 & x37;
+    final long x39 = x2 ^ x38;
+    final long x40 = x15 & a3;
+    final long x41 = x39 ^ x40;
+    final long x42 = x41 & a4;
+    final long x43 = x35 ^ x42;
+    final long x44 = x1 & x37;
+    final long x45 = x44 & a3;
+    final long x46 = x39 ^ x45;
+    final long x47 = a6 & x37;
+    final long x48 = x15 ^ x47;
+    final long x49 = x48 & a3;
+    final long x50 = x44 ^ x49;
+    final long x51 = x50 & a4;
+    final long x52 = x46 ^ x51;
+    final long x53 = x52 & a1;
+    final long x54 = x43 ^ x53;
+    final long x55 = a6 & a5;
+    final long x56 = x15 ^ x55;
+    final long x57 = x0 & a5;
+    final long x58 = x9 ^ x57;
+    final long x59 = x58 & a3;
+    final long x60 = x56 ^ x59;
+    final long x61 = x47 & a3;
+    final long x62 = x33 ^ x61;
+    final long x63 = x62 & a4;
+    final long x64 = x60 ^ x63;
+    final long x65 = x31 & x37;
+    final long x66 = x0 ^ x65;
+    final long x67 = x66 & a3;
+    final long x68 = x33 ^ x67;
+    final long x69 = x48 & a3;
+    final long x70 = x18 ^ x69;
+    final long x71 = x70 & a4;
+    final long x72 = x68 ^ x71;
+    final long x73 = x72 & a1;
+    final long x74 = x64 ^ x73;
+    final long x75 = ~x2;
+    final long x76 = x75 ^ a5;
+    final long x77 = x14 & a3;
+    final long x78 = x76 ^ x77;
+    final long x79 = x76 & a3;
+    final long x80 = x55 ^ x79;
+    final long x81 = x80 & a4;
+    final long x82 = x78 ^ x81;
+    final long x83 = ~x19;
+    final long x84 = x83 & x24;
+    final long x85 = x14 ^ x84;
+    final long x86 = x15 ^ a5;
+    final long x87 = x86 & x24;
+    final long x88 = x32 ^ x87;
+    final long x89 = x88 & a4;
+    final long x90 = x85 ^ x89;
+    final long x91 = x90 & a1;
+    final long x92 = x82 ^ x91;
+    l[8] ^= x92;
+    l[16] ^= x74;
+    l[22] ^= x54;
+    l[30] ^= x30;
+  }
+
+  /**
+   * Evaluates S-box 2 and adds its permuted output to a half block.
+   */
+  private static void s2(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a3;
+    final long x1 = a5 | x0;
+    final long x2 = ~a1;
+    final long x3 = x1 & x2;
+    final long x4 = a4 ^ x3;
+    final long x5 = a5 & a4;
+    final long x6 = x5 ^ a3;
+    final long x7 = ~a5;
+    final long x8 = x7 & x0;
+    final long x9 = x5 ^ x8;
+    final long x10 = x9 & a1;
+    final long x11 = x6 ^ x10;
+    final long x12 = x11 & a6;
+    final long x13 = x4 ^ x12;
+    final long x14 = a5 & a3;
+    final long x15 = x5 ^ x14;
+    final long x16 = x7 & a1;
+    final long x17 = x15 ^ x16;
+    final long x18 = ~x15;
+    final long x19 = a5 ^ a4;
+    final long x20 = x7 & a3;
+    final long x21 = x19 ^ x20;
+    final long x22 = x21 & a1;
+    final long x23 = x18 ^ x22;
+    final long x24 = x23 & a6;
+    final long x25 = x17 ^ x24;
+    final long x26 = x25 & a2;
+    final long x27 = x13 ^ x26;
+    final long x28 = x7 | a4;
+    final long x29 = x28 ^ a3;
+    final long x30 = ~x5;
+    final long x31 = x30 & a1;
+    final long x32 = x29 ^ x31;
+    final long x33 = a5 & a3;
+    final long x34 = x28 ^ x33;
+    final long x35 = x34 | x2;
+    final long x36 = x35 & a6;
+    final long x37 = x32 ^ x36;
+    final long x38 = x6 & x2;
+    final long x39 = a4 ^ x38;
+    final long x40 = x29 & a1;
+    final long x41 = x0 ^ x40;
+    final long x42 = x41 & a6;
+    final long x43 = x39 ^ x42;
+    final long x44 = x43 & a2;
+    final long x45 = x37 ^ x44;
+    final long x46 = ~x19;
+    final long x47 = x46 ^ a1;
+    final long x48 = x30 & x0;
+    final long x49 = x48 & a6;
+    final long x50 = x47 ^ x49;
+    final long x51 = x15 & a1;
+    final long x52 = a4 ^ x51;
+    final long x53 = ~a6;
+    final long x54 = x52 & x53;
+    final long x55 = x0 ^ x54;
+    final long x56 = x55 & a2;
+    final long x57 = x50 ^ x56;
+    final long x58 = a5 | a4;
+    final long x59 = x58 & a3;
+    final long x60 = x46 ^ x59;
+    final long x61 = ~x58;
+    final long x62 = x61 & a3;
+    final long x63 = x30 ^ x62;
+    final long x64 = x63 & a1;
+    final long x65 = x60 ^ x64;
+    final long x66 = a4 & a3;
+    final long x67 = a5 ^ x66;
+    final long x68 = x67 & x2;
+    final long x69 = a5 ^ x68;
+    final long x70 = x69 & a6;
+    final long x71 = x65 ^ x70;
+    final long x72 = x19 | a3;
+    final long x73 = x72 | x2;
+    final long x74 = a5 & x0;
+    final long x75 = x61 ^ x74;
+    final long x76 = x75 & x2;
+    final long x77 = x8 ^ x76;
+    final long x78 = x77 & a6;
+    final long x79 = x73 ^ x78;
+    final long x80 = x79 & a2;
+    final long x81 = x71 ^ x80;
+    l[12] ^= x45;
+    l[27] ^= x57;
+    l[1] ^= x81;
+    l[17] ^= x27;
+  }
+
+  /**
+   * Evaluates S-box 3 and adds its permuted output to a half block.
+   */
+  private static void s3(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a2;
+    final long x1 = x0 ^ a5;
+    final long x2 = a6 ^ a2;
+    final long x3 = ~a6;
+    final long x4 = x3 & x0;
+    final long x5 = x4 & a5;
+    final long x6 = x2 ^ x5;
+    final long x7 = x6 & a4;
+    final long x8 = x1 ^ x7;
+    final long x9 = x3 & a2;
+    final long x10 = ~a5;
+    final long x11 = x9 | x10;
+    final long x12 = a6 & a5;
+    final long x13 = x0 ^ x12;
+    final long x14 = x13 & a4;
+    final long x15 = x11 ^ x14;
+    final long x16 = x15 & a3;
+    final long x17 = x8 ^ x16;
+    final long x18 = ~x6;
+    final long x19 = x18 & a4;
+    final long x20 = x2 ^ x19;
+    final long x21 = ~a4;
+    final long x22 = x13 & x21;
+    final long x23 = x22 & a3;
+    final long x24 = x20 ^ x23;
+    final long x25 = x24 & a1;
+    final long x26 = x17 ^ x25;
+    final long x27 = x9 & x10;
+    final long x28 = x2 ^ x27;
+    final long x29 = ~x4;
+    final long x30 = x3 & a5;
+    final long x31 = x29 ^ x30;
+    final long x32 = x31 & a4;
+    final long x33 = x28 ^ x32;
+    final long x34 = ~x9;
+    final long x35 = x34 & x10;
+    final long x36 = a2 & a4;
+    final long x37 = x35 ^ x36;
+    final long x38 = x37 & a3;
+    final long x39 = x33 ^ x38;
+    final long x40 = ~x27;
+    final long x41 = ~x13;
+    final long x42 = x41 & a4;
+    final long x43 = x40 ^ x42;
+    final long x44 = x43 | a3;
+    final long x45 = x44 & a1;
+    final long x46 = x39 ^ x45;
+    final long x47 = ~x2;
+    final long x48 = x34 & a5;
+    final long x49 = x47 ^ x48;
+    final long x50 = x47 | a5;
+    final long x51 = x50 & a4;
+    final long x52 = x49 ^ x51;
+    final long x53 = x31 | a4;
+    final long x54 = x53 & a3;
+    final long x55 = x52 ^ x54;
+    final long x56 = ~x28;
+    final long x57 = x3 | a2;
+    final long x58 = x57 & a5;
+    final long x59 = x4 ^ x58;
+    final long x60 = x59 & a4;
+    final long x61 = x56 ^ x60;
+    final long x62 = a6 & a5;
+    final long x63 = x29 ^ x62;
+    final long x64 = x63 & a4;
+    final long x65 = x30 ^ x64;
+    final long x66 = x65 & a3;
+    final long x67 = x61 ^ x66;
+    final long x68 = x67 & a1;
+    final long x69 = x55 ^ x68;
+    final long x70 = x10 & a4;
+    final long x71 = x2 ^ x70;
+    final long x72 = a5 & a3;
+    final long x73 = x71 ^ x72;
+    final long x74 = a6 ^ a5;
+    final long x75 = x74 & x21;
+    final long x76 = x40 ^ x75;
+    final long x77 = x0 & a5;
+    final long x78 = x34 ^ x77;
+    final long x79 = a6 & a2;
+    final long x80 = x79 & a4;
+    final long x81 = x78 ^ x80;
+    final long x82 = x81 & a3;
+    final long x83 = x76 ^ x82;
+    final long x84 = x83 & a1;
+    final long x85 = x73 ^ x84;
+    l[23] ^= x26;
+    l[15] ^= x46;
+    l[29] ^= x69;
+    l[5] ^= x85;
+  }
+
+  /**
+   * Evaluates S-box 4 and adds its permuted output to a half block.
+   */
+  private static void s4(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a3;
+    final long x1 = a5 | x0;
+    final long x2 = ~a5;
+    final long x3 = x2 | a3;
+    final long x4 = x3 & a1;
+    final long x5 = x1 ^ x4;
+    final long x6 = a5 & a4;
+    final long x7 = x5 ^ x6;
+    final long x8 = x2 ^ a3;
+    final long x9 = x8 & a1;
+    final long x10 = a3 ^ x9;
+    final long x11 = x10 & a4;
+    final long x12 = x0 ^ x11;
+    final long x13 = x12 & a2;
+    final long x14 = x7 ^ x13;
+    final long x15 = ~x8;
+    final long x16 = ~x3;
+    final long x17 = x16 & a1;
+    final long x18 = x15 ^ x17;
+    final long x19 = x1 & a1;
+    final long x20 = x2 ^ x19;
+    final long x21 = x20 & a4;
+    final long x22 = x18 ^ x21;
+    final long x23 = x3 | a1;
+    final long x24 = x15 & a4;
+    final long x25 = x23 ^ x24;
+    final long x26 = x25 & a2;
+    final long x27 = x22 ^ x26;
+    final long x28 = x27 & a6;
+    final long x29 = x14 ^ x28;
+    final long x30 = ~x27;
+    final long x31 = ~a6;
+    final long x32 = x30 & x31;
+    final long x33 = x14 ^ x32;
+    final long x34 = ~x18;
+    final long x35 = x16 | a1;
+    final long x36 = x35 & a4;
+    final long x37 = x34 ^ x36;
+    final long x38 = ~x4;
+    final long x39 = x10 & a4;
+    final long x40 = x38 ^ x39;
+    final long x41 = x40 & a2;
+    final long x42 = x37 ^ x41;
+    final long x43 = x8 & a1;
+    final long x44 = x2 ^ x43;
+    final long x45 = ~a1;
+    final long x46 = x3 & x45;
+    final long x47 = a5 ^ x46;
+    final long x48 = x47 & a4;
+    final long x49 = x44 ^ x48;
+    final long x50 = ~x1;
+    final long x51 = x50 & a1;
+    final long x52 = x8 ^ x51;
+    final long x53 = x15 & a4;
+    final long x54 = x52 ^ x53;
+    final long x55 = x54 & a2;
+    final long x56 = x49 ^ x55;
+    final long x57 = x56 & a6;
+    final long x58 = x42 ^ x57;
+    final long x59 = ~x56;
+    final long x60 = x59 & x31;
+    final long x61 = x42 ^ x60;
+    l[25] ^= x33;
+    l[19] ^= x29;
+    l[9] ^= x58;
+    l[0] ^= x61;
+  }
+
+  /**
+   * Evaluates S-box 5 and adds its permuted output to a half block.
+   */
+  private static void s5(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = a6 | a3;
+    final long x1 = ~a6;
+    final long x2 = ~a3;
+    final long x3 = x1 | x2;
+    final long x4 = x3 & a4;
+    final long x5 = x0 ^ x4;
+    final long x6 = x5 ^ a1;
+    final long x7 = x3 | a4;
+    final long x8 = x1 ^ a3;
+    final long x9 = x8 & a4;
+    final long x10 = a6 ^ x9;
+    final long x11 = x10 & a1;
+    final long x12 = x7 ^ x11;
+    final long x13 = x12 & a5;
+    final long x14 = x6 ^ x13;
+    final long x15 = ~x3;
+    final long x16 = x15 | a4;
+    final long x17 = ~a4;
+    final long x18 = x0 & x17;
+    final long x19 = x18 & a1;
+    final long x20 = x16 ^ x19;
+    final long x21 = x20 & a2;
+    final long x22 = x14 ^ x21;
+    final long x23 = ~x0;
+    final long x24 = x23 & a4;
+    final long x25 = x3 ^ x24;
+    final long x26 = a6 | x2;
+    final long x27 = x26 & a4;
+    final long x28 = x23 ^ x27;
+    final long x29 = x28 & a1;
+    final long x30 = x25 ^ x29;
+    final long x31 = x26 & a4;
+    final long x32 = x8 ^ x31;
+    final long x33 = x32 | a1;
+    final long x34 = x33 & a5;
+    final long x35 = x30 ^ x34;
+    final long x36 = x23 | x17;
+    final long x37 = ~x32;
+    final long x38 = x37 & a1;
+    final long x39 = x36 ^ x38;
+    final long x40 = x23 ^ a4;
+    final long x41 = a6 & a4;
+    final long x42 = x3 ^ x41;
+    final long x43 = x42 & a1;
+    final long x44 = x40 ^ x43;
+    final long x45 = x44 & a5;
+    final long x46 = x39 ^ x45;
+    final long x47 = x46 & a2;
+    final long x48 = x35 ^ x47;
+    final long x49 = x0 & x17;
+    final long x50 = a3 ^ x49;
+    final long x51 = a6 & x17;
+    final long x52 = x0 ^ x51;
+    final long x53 = x52 & a1;
+    final long x54 = x50 ^ x53;
+    final long x55 = a3 & x17;
+    final long x56 = x23 ^ x55;
+    final long x57 = ~a1;
+    final long x58 = x56 & x57;
+    final long x59 = x16 ^ x58;
+    final long x60 = x59 & a5;
+    final long x61 = x54 ^ x60;
+    final long x62 = x1 & a4;
+    final long x63 = x3 ^ x62;
+    final long x64 = x8 & a4;
+    final long x65 = x15 ^ x64;
+    final long x66 = x65 & a1;
+    final long x67 = x63 ^ x66;
+    final long x68 = x15 ^ a4;
+    final long x69 = a6 | a4;
+    final long x70 = x69 & a1;
+    final long x71 = x68 ^ x70;
+    final long x72 = x71 & a5;
+    final long x73 = x67 ^ x72;
+    final long x74 = x73 & a2;
+    final long x75 = x61 ^ x74;
+    final long x76 = x15 & x17;
+    final long x77 = a3 ^ x76;
+    final long x78 = x5 & a1;
+    final long x79 = x77 ^ x78;
+    final long x80 = x31 & x57;
+    final long x81 = x0 ^ x80;
+    final long x82 = x81 & a5;
+    final long x83 = x79 ^ x82;
+    final long x84 = x2 & a4;
+    final long x85 = x23 ^ x84;
+    final long x86 = x85 & a1;
+    final long x87 = x69 ^ x86;
+    final long x88 = a6 & a4;
+    final long x89 = x8 ^ x88;
+    final long x90 = x40 & a1;
+    final long x91 = x89 ^ x90;
+    final long x92 = x91 & a5;
+    final long x93 = x87 ^ x92;
+    final long x94 = x93 & a2;
+    final long x95 = x83 ^ x94;
+    l[7] ^= x75;
+    l[13] ^= x22;
+    l[24] ^= x48;
+    l[2] ^= x95;
+  }
+
+  /**
+   * Evaluates S-box 6 and adds its permuted output to a half block.
+   */
+  private static void s6(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = a2 & a3;
+    final long x1 = a6 ^ x0;
+    final long x2 = a6 & a2;
+    final long x3 = ~a2;
+    final long x4 = x3 & a3;
+    final long x5 = x2 ^ x4;
+    final long x6 = x5 & a5;
+    final long x7 = x1 ^ x6;
+    final long x8 = a6 ^ a2;
+    final long x9 = x8 | a3;
+    final long x10 = a6 & x3;
+    final long x11 = ~a3;
+    final long x12 = x10 | x11;
+    final long x13 = x12 & a5;
+    final long x14 = x9 ^ x13;
+    final long x15 = x14 & a1;
+    final long x16 = x7 ^ x15;
+    final long x17 = ~x8;
+    final long x18 = ~a5;
+    final long x19 = x17 | x18;
+    final long x20 = a6 | a2;
+    final long x21 = x20 & a5;
+    final long x22 = x21 & a1;
+    final long x23 = x19 ^ x22;
+    final long x24 = x23 & a4;
+    final long x25 = x16 ^ x24;
+    final long x26 = x4 ^ a5;
+    final long x27 = ~x10;
+    final long x28 = x2 & a3;
+    final long x29 = x27 ^ x28;
+    final long x30 = a3 & a5;
+    final long x31 = x29 ^ x30;
+    final long x32 = x31 & a1;
+    final long x33 = x26 ^ x32;
+    final long x34 = ~x20;
+    final long x35 = x34 & a3;
+    final long x36 = a2 ^ x35;
+    final long x37 = ~a6;
+    final long x38 = x37 & a3;
+    final long x39 = x10 ^ x38;
+    final long x40 = x39 & a5;
+    final long x41 = x36 ^ x40;
+    final long x42 = ~x39;
+    final long x43 = x42 & x18;
+    final long x44 = x37 ^ x43;
+    final long x45 = x44 & a1;
+    final long x46 = x41 ^ x45;
+    final long x47 = x46 & a4;
+    final long x48 = x33 ^ x47;
+    final long x49 = x8 & a3;
+    final long x50 = x3 ^ x49;
+    final long x51 = x37 | a3;
+    final long x52 = x51 & a5;
+    final long x53 = x50 ^ x52;
+    final long x54 = x27 & a3;
+    final long x55 = a6 ^ x54;
+    final long x56 = x55 | a5;
+    final long x57 = x56 & a1;
+    final long x58 = x53 ^ x57;
+    final long x59 = x37 & x11;
+    final long x60 = x59 & a5;
+    final long x61 = x55 ^ x60;
+    final long x62 = x10 & x18;
+    final long x63 = x28 ^ x62;
+    final long x64 = x63 & a1;
+    final long x65 = x61 ^ x64;
+    final long x66 = x65 & a4;
+    final long x67 = x58 ^ x66;
+    final long x68 = x11 & x18;
+    final long x69 = x8 ^ x68;
+    final long x70 = x20 & a3;
+    final long x71 = x70 & x18;
+    final long x72 = x11 ^ x71;
+    final long x73 = x72 & a1;
+    final long x74 = x69 ^ x73;
+    final long x75 = x2 ^ a3;
+    final long x76 = x75 & a5;
+    final long x77 = x3 ^ x76;
+    final long x78 = x17 ^ a3;
+    final long x79 = x78 & a5;
+    final long x80 = x28 ^ x79;
+    final long x81 = x80 & a1;
+    final long x82 = x77 ^ x81;
+    final long x83 = x82 & a4;
+    final long x84 = x74 ^ x83;
+    l[3] ^= x67;
+    l[28] ^= x84;
+    l[10] ^= x25;
+    l[18] ^= x48;
+  }
+
+  /**
+   * Evaluates S-box 7 and adds its permuted output to a half block.
+   */
+  private static void s7(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a1;
+    final long x1 = a6 | x0;
+    final long x2 = a1 & a3;
+    final long x3 = x1 ^ x2;
+    final long x4 = ~a6;
+    final long x5 = x4 ^ a1;
+    final long x6 = x4 | x0;
+    final long x7 = x6 & a3;
+    final long x8 = x5 ^ x7;
+    final long x9 = x8 & a2;
+    final long x10 = x3 ^ x9;
+    final long x11 = x10 ^ a5;
+    final long x12 = a1 & a3;
+    final long x13 = x6 ^ x12;
+    final long x14 = x13 & a2;
+    final long x15 = x0 ^ x14;
+    final long x16 = ~x5;
+    final long x17 = x16 & a3;
+    final long x18 = a6 & x0;
+    final long x19 = x18 & a2;
+    final long x20 = x17 ^ x19;
+    final long x21 = x20 & a5;
+    final long x22 = x15 ^ x21;
+    final long x23 = x22 & a4;
+    final long x24 = x11 ^ x23;
+    final long x25 = x6 & a3;
+    final long x26 = x18 ^ x25;
+    final long x27 = x4 & x0;
+    final long x28 = x27 & a3;
+    final long x29 = a1 ^ x28;
+    final long x30 = x29 & a2;
+    final long x31 = x26 ^ x30;
+    final long x32 = x12 & a2;
+    final long x33 = x3 ^ x32;
+    final long x34 = x33 & a5;
+    final long x35 = x31 ^ x34;
+    final long x36 = ~x29;
+    final long x37 = x36 & a2;
+    final long x38 = a1 ^ x37;
+    final long x39 = ~a3;
+    final long x40 = x27 & x39;
+    final long x41 = x5 ^ x40;
+    final long x42 = a1 & a2;
+    final long x43 = x41 ^ x42;
+    final long x44 = x43 & a5;
+    final long x45 = x38 ^ x44;
+    final long x46 = x45 & a4;
+    final long x47 = x35 ^ x46;
+    final long x48 = x5 & x39;
+    final long x49 = x27 ^ x48;
+    final long x50 = x1 | x39;
+    final long x51 = x50 & a2;
+    final long x52 = x49 ^ x51;
+    final long x53 = ~x50;
+    final long x54 = ~a2;
+    final long x55 = x53 & x54;
+    final long x56 = x27 ^ x55;
+    final long x57 = x56 & a5;
+    final long x58 = x52 ^ x57;
+    final long x59 = x18 & a3;
+    final long x60 = a1 ^ x59;
+    final long x61 = x60 & x54;
+    final long x62 = x0 ^ x61;
+    final long x63 = x5 & x54;
+    final long x64 = x60 ^ x63;
+    final long x65 = x64 & a5;
+    final long x66 = x62 ^ x65;
+    final long x67 = x66 & a4;
+    final long x68 = x58 ^ x67;
+    final long x69 = x16 ^ a3;
+    final long x70 = ~x25;
+    final long x71 = x70 & a2;
+    final long x72 = x69 ^ x71;
+    final long x73 = x6 | x54;
+    final long x74 = x73 & a5;
+    final long x75 = x72 ^ x74;
+    final long x76 = x6 & x39;
+    final long x77 = a6 & a2;
+    final long x78 = x76 ^ x77;
+    final long x79 = ~a5;
+    final long x80 = x78 & x79;
+    final long x81 = x73 ^ x80;
+    final long x82 = x81 & a4;
+    final long x83 = x75 ^ x82;
+    l[31] ^= x47;
+    l[11] ^= x24;
+    l[21] ^= x68;
+    l[6] ^= x83;
+  }
+
+  /**
+   * Evaluates S-box 8 and adds its permuted output to a half block.
+   */
+  private static void s8(long a1, long a2, long a3, long a4, long a5,
+      long a6, long[] l) {
+    final long x0 = ~a4;
+    final long x1 = ~a2;
+    final long x2 = x0 & x1;
+    final long x3 = a2 & a3;
+    final long x4 = x2 ^ x3;
+    final long x5 = a4 | x1;
+    final long x6 = x5 ^ a3;
+    final long x7 = x6 & a5;
+    final long x8 = x4 ^ x7;
+    final long x9 = x8 ^ a6;
+    final long x10 = ~a3;
+    final long x11 = x2 & x10;
+    final long x12 = x1 ^ x11;
+    final long x13 = ~x6;
+    final long x14 = x13 & a5;
+    final long x15 = x12 ^ x14;
+    final long x16 = a4 & x1;
+    final long x17 = x16 & a3;
+    final long x18 = a4 ^ x17;
+    final long x19 = x10 & a5;
+    final long x20 = x18 ^ x19;
+    final long x21 = x20 & a6;
+    final long x22 = x15 ^ x21;
+    final long x23 = x22 & a1;
+    final long x24 = x9 ^ x23;
+    final long x25 = a2 ^ a3;
+    final long x26 = x0 ^ a3;
+    final long x27 = x26 & a5;
+    final long x28 = x25 ^ x27;
+    final long x29 = ~x5;
+    final long x30 = x29 & x10;
+    final long x31 = x29 & a5;
+    final long x32 = x30 ^ x31;
+    final long x33 = x32 & a6;
+    final long x34 = x28 ^ x33;
+    final long x35 = x1 & x10;
+    final long x36 = a4 ^ x35;
+    final long x37 = x36 & a5;
+    final long x38 = x0 ^ x37;
+    final long x39 = a2 & x10;
+    final long x40 = x2 ^ x39;
+    final long x41 = x40 & a5;
+    final long x42 = a4 ^ x41;
+    final long x43 = x42 & a6;
+    final long x44 = x38 ^ x43;
+    final long x45 = x44 & a1;
+    final long x46 = x34 ^ x45;
+    final long x47 = ~x16;
+    final long x48 = ~a5;
+    final long x49 = x47 & x48;
+    final long x50 = x13 ^ x49;
+    final long x51 = x0 & a3;
+    final long x52 = x1 ^ x51;
+    final long x53 = x52 & x48;
+    final long x54 = x36 ^ x53;
+    final long x55 = x54 & a6;
+    final long x56 = x50 ^ x55;
+    final long x57 = x1 & x10;
+    final long x58 = x5 ^ x57;
+    final long x59 = x58 | a5;
+    final long x60 = ~x36;
+    final long x61 = x60 & x48;
+    final long x62 = x11 ^ x61;
+    final long x63 = x62 & a6;
+    final long x64 = x59 ^ x63;
+    final long x65 = x64 & a1;
+    final long x66 = x56 ^ x65;
+    final long x67 = x47 & x10;
+    final long x68 = a4 ^ x67;
+    final long x69 = x5 & a5;
+    final long x70 = x68 ^ x69;
+    final long x71 = x16 & a3;
+    final long x72 = x2 ^ x71;
+    final long x73 = a4 ^ a2;
+    final long x74 = x73 & a5;
+    final long x75 = x72 ^ x74;
+    final long x76 = x75 & a6;
+    final long x77 = x70 ^ x76;
+    final long x78 = x2 & x10;
+    final long x79 = x73 ^ x78;
+    final long x80 = x40 & a5;
+    final long x81 = x79 ^ x80;
+    final long x82 = ~a6;
+    final long x83 = x81 & x82;
+    final long x84 = x59 ^ x83;
+    final long x85 = x84 & a1;
+    final long x86 = x77 ^ x85;
+    l[4] ^= x86;
+    l[26] ^= x24;
+    l[14] ^= x46;
+    l[20] ^= x66;
+  }
+}
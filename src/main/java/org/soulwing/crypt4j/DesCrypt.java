@@ -20,20 +20,85 @@ package org.soulwing.crypt4j;
 
 import java.io.UnsupportedEncodingException;
 import java.security.NoSuchAlgorithmException;
-
-import org.apache.commons.codec.digest.UnixCrypt;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
- * A DES crypt implementation that simply delegates to the implementation
- * in Commons Codec.
+ * A DES crypt implementation.
+ * <p>
+ * Supports both the traditional format, in which a 2-character salt
+ * (12 bits) precedes the 11-character encoding of the password, and the
+ * BSDi extended format, in which the setting is an underscore followed by
+ * four characters of iteration count (24 bits) and four characters of salt
+ * (24 bits), and all characters of the password are significant.
+ * <p>
+ * An extended setting whose iteration count is zero ({@code _....} followed
+ * by the salt) is rejected as malformed, both for {@code crypt} and for
+ * {@code validate}. With no encryptions the output does not depend on the
+ * password, so every password would match such a value. Some other
+ * implementations of {@code crypt(3)} produce and accept these values;
+ * they cannot be validated by this implementation.
+ * <p>
+ * Each half block is carried through the rounds in its expanded (48-bit)
+ * form, with the salt permutation applied, so that a round consists only
+ * of table lookups. The combined S-box, P-box and expansion (SPE) tables
+ * depend on the salt; those for the 4,096 traditional salts are created
+ * as needed and shared by all instances (4 KB per salt).
  *
  * @author Carl Harris
  */
 class DesCrypt extends Crypt {
 
-  private static final String UNIX_CRYPT_CLASS = 
-      "org.apache.commons.codec.digest.UnixCrypt";
-  
+  /** length of the setting in the traditional format */
+  static final int SETTING_LENGTH = 2;
+
+  /** length of the setting in the extended format */
+  static final int EXTENDED_SETTING_LENGTH = 9;
+
+  /** number of iterations in the traditional format */
+  static final int ITERATIONS = 25;
+
+  private static final char EXTENDED_PREFIX = '_';
+  private static final int ENCODED_LENGTH = 11;
+  private static final int KEY_LENGTH = 8;
+
+  private static final int[] FP = new int[64];
+
+  /** SPE table for salt zero */
+  private static final long[] SPE = new long[8 * 64];
+
+  private static final long[] PC1_TABLE = new long[8 * 128];
+  private static final long[] PC2_TABLE = new long[8 * 128];
+
+  private static final AtomicReferenceArray<long[]> SPE_CACHE =
+      new AtomicReferenceArray<>(1 << 12);
+
+  static {
+    for (int i = 0; i < 64; i++) {
+      FP[Des.IP[i] - 1] = i + 1;
+    }
+    for (int box = 0; box < 8; box++) {
+      for (int v = 0; v < 64; v++) {
+        final long p = Des.permute(
+            (long) Des.sbox(box, v) << (28 - 4 * box), 32, Des.P);
+        SPE[64 * box + v] = expanded(Des.permute(p, 32, Des.E));
+      }
+    }
+    for (int i = 0; i < 8; i++) {
+      for (int v = 0; v < 128; v++) {
+        PC1_TABLE[128 * i + v] = Des.permute(
+            (long) v << (57 - 8 * i), 64, Des.PC1);
+        PC2_TABLE[128 * i + v] = expanded(Des.permute(
+            (long) v << (49 - 7 * i), 56, Des.PC2));
+      }
+    }
+  }
+
+  private final long[] schedule = new long[16];
+  private final byte[] digest = new byte[8];
+  private int localSalt = -1;
+  private long[] localSpe;
+
   /**
    * Constructs a new instance.
    * @param type
@@ -46,38 +111,385 @@ class DesCrypt extends Crypt {
    * {@inheritDoc}
    */
   @Override
-  protected String doCrypt(Password password, Salt salt)
+  protected byte[] doDigest(Password password, Salt salt)
       throws NoSuchAlgorithmException, UnsupportedEncodingException {
-    checkUnixCryptAvailability();
-    return UnixCrypt.crypt(password.getBytes(CHARACTER_ENCODING), 
-        salt.getText(2));
+    final String setting = salt.getText();
+    checkSetting(setting);
+    return doCrypt(password.getBytes(), setting);
   }
 
-  private void checkUnixCryptAvailability() 
-      throws NoSuchAlgorithmException {
+  /**
+   * Encrypts the given password.
+   * <p>
+   * The returned array is a working buffer of this instance; its contents
+   * are valid only until the next invocation.
+   * @param password the encoded password
+   * @param setting a well-formed setting
+   * @return raw digest
+   */
+  byte[] doCrypt(byte[] password, String setting) {
     try {
-      getClassLoader().loadClass(UNIX_CRYPT_CLASS);
+      final long key = key(password, setting);
+      putBlock(crypt(key, saltBits(setting), count(setting)), digest);
+      return digest;
     }
-    catch (ClassNotFoundException ex) {
-      throw new NoSuchAlgorithmException(
-          "DES unavailable; Commons Codec library not on classpath");
+    finally {
+      clearSchedule();
     }
   }
-  
-  private ClassLoader getClassLoader() {
-    ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
-    if (classLoader == null) {
-      classLoader = getClass().getClassLoader();
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendOutput(StringBuilder sb, byte[] digest, Salt salt) {
+    final String setting = salt.getText();
+    checkSetting(setting);
+    sb.append(setting, 0, settingLength(setting));
+    appendPassword(sb, digest);
+  }
+
+  /**
+   * Forms the DES key for a password.
+   * <p>
+   * In the traditional format, the key is formed from the first 8
+   * characters of the password. In the extended format, each successive
+   * group of 8 characters is added to the encryption of the key by itself.
+   * @param password the encoded password
+   * @param setting a well-formed setting
+   * @return key
+   */
+  long key(byte[] password, String setting) {
+    return isExtended(setting) ? foldKey(password) : initialKey(password);
+  }
+
+  /**
+   * Stores an encrypted block as a raw digest.
+   * @param block the subject block
+   * @param digest an array of (at least) 8 bytes to receive the digest
+   */
+  static void putBlock(long block, byte[] digest) {
+    for (int i = 0; i < 8; i++) {
+      digest[i] = (byte) (block >>> (56 - 8 * i));
     }
-    return classLoader;
   }
-  
+
+  /**
+   * Checks that a setting is well formed.
+   * @param setting the setting that begins a salt or hashed value
+   * @throws IllegalArgumentException if {@code setting} is not well formed
+   */
+  static void checkSetting(String setting) {
+    if (!isWellFormed(setting, settingLength(setting))) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    if (count(setting) == 0) {
+      throw new IllegalArgumentException("illegal iteration count");
+    }
+  }
+
+  /**
+   * Gets the salt specified by a setting.
+   * @param setting a well-formed setting
+   * @return 12-bit (traditional) or 24-bit (extended) salt
+   */
+  static int saltBits(String setting) {
+    return isExtended(setting) ? decode24(setting, 5) : decode12(setting);
+  }
+
+  /**
+   * Gets the number of DES encryptions specified by a setting.
+   * @param setting a well-formed setting
+   * @return iteration count
+   */
+  static int count(String setting) {
+    return isExtended(setting) ? decode24(setting, 1) : ITERATIONS;
+  }
+
+  /**
+   * Gets the length of the setting that begins a DES hashed value.
+   * @param value the subject hashed value (or salt)
+   * @return length of the setting in the format of {@code value}
+   */
+  static int settingLength(String value) {
+    return isExtended(value) ? EXTENDED_SETTING_LENGTH : SETTING_LENGTH;
+  }
+
+  /**
+   * Gets the number of DES encryptions specified by a salt.
+   * @param salt the subject salt
+   * @return iteration count, or {@value #ITERATIONS} if {@code salt} is
+   *    not a well-formed extended setting
+   */
+  static int iterations(Salt salt) {
+    final String setting = salt.getText();
+    if (!isExtended(setting) || !isWellFormed(setting,
+        EXTENDED_SETTING_LENGTH)) {
+      return ITERATIONS;
+    }
+    return decode24(setting, 1);
+  }
+
+  private static boolean isExtended(String setting) {
+    return !setting.isEmpty() && setting.charAt(0) == EXTENDED_PREFIX;
+  }
+
+  private static boolean isWellFormed(String setting, int length) {
+    if (setting.length() < length) return false;
+    for (int i = length == EXTENDED_SETTING_LENGTH ? 1 : 0; i < length; i++) {
+      if (Base64.valueOf(setting.charAt(i)) == -1) return false;
+    }
+    return true;
+  }
+
+  private static int decode12(String setting) {
+    return Base64.valueOf(setting.charAt(0))
+        | Base64.valueOf(setting.charAt(1)) << 6;
+  }
+
+  private static int decode24(String setting, int offset) {
+    int value = 0;
+    for (int i = 0; i < 4; i++) {
+      value |= Base64.valueOf(setting.charAt(offset + i)) << 6 * i;
+    }
+    return value;
+  }
+
+  private static long initialKey(byte[] password) {
+    long key = 0;
+    for (int i = 0; i < KEY_LENGTH; i++) {
+      key <<= 8;
+      if (i < password.length) {
+        key |= (password[i] << 1) & 0xff;
+      }
+    }
+    return key;
+  }
+
+  private long foldKey(byte[] password) {
+    try {
+      long key = initialKey(password);
+      for (int i = KEY_LENGTH; i < password.length; i += KEY_LENGTH) {
+        setKey(key);
+        key = encrypt(key, SPE, 0, 1);
+        for (int j = 0; j < KEY_LENGTH && i + j < password.length; j++) {
+          key ^= (long) ((password[i + j] << 1) & 0xff) << (56 - 8 * j);
+        }
+      }
+      return key;
+    }
+    finally {
+      clearSchedule();
+    }
+  }
+
+  /**
+   * Encrypts the zero block.
+   * @param key the DES key
+   * @param salt the salt
+   * @param count number of encryptions
+   * @return encrypted block
+   */
+  private long crypt(long key, int salt, int count) {
+    setKey(key);
+    return encrypt(0, speTable(salt), saltMask(salt), count);
+  }
+
+  /**
+   * Creates the key schedule for a key.
+   */
+  private void setKey(long key) {
+    long cd = 0;
+    for (int i = 0; i < 8; i++) {
+      cd |= PC1_TABLE[128 * i + ((int) (key >>> (57 - 8 * i)) & 0x7f)];
+    }
+    int c = (int) (cd >>> 28);
+    int d = (int) cd & 0xfffffff;
+    for (int round = 0; round < 16; round++) {
+      final int shift = Des.SHIFTS[round];
+      c = ((c << shift) | (c >>> (28 - shift))) & 0xfffffff;
+      d = ((d << shift) | (d >>> (28 - shift))) & 0xfffffff;
+      cd = ((long) c << 28) | d;
+      long k = 0;
+      for (int i = 0; i < 8; i++) {
+        k |= PC2_TABLE[128 * i + ((int) (cd >>> (49 - 7 * i)) & 0x7f)];
+      }
+      schedule[round] = k;
+    }
+  }
+
+  /**
+   * Clears the key schedule, which is derived from the password.
+   */
+  private void clearSchedule() {
+    Arrays.fill(schedule, 0);
+  }
+
+  /**
+   * Encrypts a block using the current key schedule.
+   * @param block the block to encrypt
+   * @param spe SPE table for the salt
+   * @param mask salt mask
+   * @param count number of times to encrypt the block
+   * @return encrypted block
+   */
+  private long encrypt(long block, long[] spe, long mask, int count) {
+    final long[] ks = this.schedule;
+    long l = 0;
+    long r = 0;
+    if (block != 0) {
+      final long ip = Des.permute(block, 64, Des.IP);
+      l = swap(expanded(Des.permute(ip >>> 32, 32, Des.E)), mask);
+      r = swap(expanded(Des.permute(ip & 0xffffffffL, 32, Des.E)), mask);
+    }
+    while (count-- > 0) {
+      for (int round = 0; round < 16; round += 2) {
+        l ^= f(spe, r ^ ks[round]);
+        r ^= f(spe, l ^ ks[round + 1]);
+      }
+      final long t = l;
+      l = r;
+      r = t;
+    }
+    final long preoutput = (long) contracted(swap(l, mask)) << 32
+        | contracted(swap(r, mask)) & 0xffffffffL;
+    return Des.permute(preoutput, 64, FP);
+  }
+
+  /**
+   * Computes the cipher function for an expanded half block XOR'd with
+   * a subkey.
+   * @return expanded output of the cipher function
+   */
+  private static long f(long[] spe, long x) {
+    return spe[(int) x & 0x3f]
+        ^ spe[64 + ((int) (x >>> 8) & 0x3f)]
+        ^ spe[128 + ((int) (x >>> 16) & 0x3f)]
+        ^ spe[192 + ((int) (x >>> 24) & 0x3f)]
+        ^ spe[256 + ((int) (x >>> 32) & 0x3f)]
+        ^ spe[320 + ((int) (x >>> 40) & 0x3f)]
+        ^ spe[384 + ((int) (x >>> 48) & 0x3f)]
+        ^ spe[448 + ((int) (x >>> 56) & 0x3f)];
+  }
+
+  /**
+   * Gets the SPE table for a salt.
+   * <p>
+   * Tables for traditional salts are shared; a table for any other salt
+   * is retained by this instance until a different salt is used.
+   */
+  private long[] speTable(int salt) {
+    if (salt < SPE_CACHE.length()) {
+      final long[] spe = SPE_CACHE.get(salt);
+      if (spe != null) return spe;
+      SPE_CACHE.compareAndSet(salt, null,
+          newSpeTable(salt, new long[SPE.length]));
+      return SPE_CACHE.get(salt);
+    }
+    if (salt != localSalt) {
+      if (localSpe == null) {
+        localSpe = new long[SPE.length];
+      }
+      newSpeTable(salt, localSpe);
+      localSalt = salt;
+    }
+    return localSpe;
+  }
+
+  private static long[] newSpeTable(int salt, long[] spe) {
+    final long mask = saltMask(salt);
+    for (int i = 0; i < SPE.length; i++) {
+      spe[i] = swap(SPE[i], mask);
+    }
+    return spe;
+  }
+
+  /**
+   * Gets the mask that selects the pairs of expanded bits that a salt
+   * exchanges.
+   * <p>
+   * Each bit of the salt that is set exchanges a bit of the input to one
+   * of S-boxes 1 to 4 with the corresponding bit of the input to the
+   * S-box four places to its right.
+   */
+  private static long saltMask(int salt) {
+    long mask = 0;
+    for (int i = 0; i < 24; i++) {
+      if ((salt & (1 << i)) != 0) {
+        mask |= 1L << (8 * (i / 6) + 5 - i % 6);
+      }
+    }
+    return mask;
+  }
+
+  private static long swap(long x, long mask) {
+    final long t = (x ^ (x >>> 32)) & mask;
+    return x ^ t ^ (t << 32);
+  }
+
+  /**
+   * Converts the 48-bit output of the expansion to the form used in the
+   * rounds, in which the input to S-box {@code n} occupies the low-order
+   * six bits of byte {@code n - 1} (counting from the low-order byte).
+   */
+  private static long expanded(long e) {
+    long x = 0;
+    for (int box = 0; box < 8; box++) {
+      x |= ((e >>> (42 - 6 * box)) & 0x3f) << (8 * box);
+    }
+    return x;
+  }
+
+  /**
+   * Recovers a 32-bit half block from its expanded form.
+   */
+  private static int contracted(long x) {
+    int r = 0;
+    for (int box = 0; box < 8; box++) {
+      r |= (int) ((x >>> (8 * box + 1)) & 0xf) << (28 - 4 * box);
+    }
+    return r;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   protected String encodePassword(byte[] password) {
-    throw new UnsupportedOperationException();
+    long block = 0;
+    for (int i = 0; i < 8; i++) {
+      block = (block << 8) | (password[i] & 0xff);
+    }
+    final char[] buf = new char[ENCODED_LENGTH];
+    for (int i = 0; i < ENCODED_LENGTH - 1; i++) {
+      buf[i] = Base64.charOf((int) (block >>> (58 - 6 * i)));
+    }
+    buf[ENCODED_LENGTH - 1] = Base64.charOf((int) (block << 2));
+    return new String(buf);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] decodePassword(String encoded) {
+    if (encoded.length() != ENCODED_LENGTH) {
+      throw new IllegalArgumentException("illegal encoded length");
+    }
+    long block = 0;
+    for (int i = 0; i < ENCODED_LENGTH; i++) {
+      final int v = Base64.valueOf(encoded.charAt(i));
+      if (v == -1) {
+        throw new IllegalArgumentException("illegal base 64 character");
+      }
+      block = i < ENCODED_LENGTH - 1 ?
+          (block << 6) | v : (block << 4) | (v >>> 2);
+    }
+    final byte[] buf = new byte[8];
+    for (int i = 0; i < 8; i++) {
+      buf[i] = (byte) (block >>> (56 - 8 * i));
+    }
+    return buf;
   }
 
 }
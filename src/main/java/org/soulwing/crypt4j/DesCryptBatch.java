@@ -0,0 +1,139 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An engine that computes many DES crypt hashes using a
+ * {@link DesBitslice}.
+ * <p>
+ * Entries are grouped by iteration count (all traditional entries have
+ * the same count), and each group is processed in chunks of up to
+ * {@link #LANES} entries. Forming the key for each entry and the final
+ * formatting are performed one entry at a time by an ordinary
+ * {@link DesCrypt} engine, which also computes any chunk of fewer than
+ * {@link #MIN_LANES} entries, since the cost of a bitsliced pass does not
+ * depend on the number of lanes in use.
+ * <p>
+ * An instance is reusable but not thread safe.
+ *
+ * @author Carl Harris
+ */
+class DesCryptBatch {
+
+  static final int LANES = DesBitslice.LANES;
+
+  /**
+   * Minimum number of entries in a chunk for which a bitsliced pass is
+   * used; a full pass costs about as much as 20 hashes computed by the
+   * scalar engine.
+   */
+  static final int MIN_LANES = 20;
+
+  private final DesBitslice bitslice = new DesBitslice();
+  private final long[] keys = new long[LANES];
+  private final int[] saltBits = new int[LANES];
+  private final long[] blocks = new long[LANES];
+  private final byte[] digest = new byte[8];
+
+  /**
+   * Encrypts (digests) many passwords.
+   * @param crypt scalar engine used to form keys and format results
+   * @param passwords encoded passwords
+   * @param salts salts for each of the passwords; each salt that is used
+   *    must have a well-formed setting (see
+   *    {@link DesCrypt#checkSetting(String)})
+   * @param entries indexes of the entries to encrypt
+   * @param results array into which the crypt output string for each
+   *    entry is stored, at the index of the entry
+   */
+  public void cryptAll(DesCrypt crypt, byte[][] passwords, Salt[] salts,
+      List<Integer> entries, String[] results) {
+    final Map<Integer, List<Integer>> groups = new LinkedHashMap<>();
+    for (int i : entries) {
+      final int count = DesCrypt.count(salts[i].getText());
+      List<Integer> group = groups.get(count);
+      if (group == null) {
+        group = new ArrayList<>();
+        groups.put(count, group);
+      }
+      group.add(i);
+    }
+
+    final int[] chunk = new int[LANES];
+    for (Map.Entry<Integer, List<Integer>> entry : groups.entrySet()) {
+      final int count = entry.getKey();
+      final List<Integer> group = entry.getValue();
+      for (int from = 0; from < group.size(); from += LANES) {
+        final int n = Math.min(LANES, group.size() - from);
+        for (int l = 0; l < n; l++) {
+          chunk[l] = group.get(from + l);
+        }
+        if (n < MIN_LANES) {
+          for (int l = 0; l < n; l++) {
+            final int i = chunk[l];
+            results[i] = crypt.format(
+                crypt.doCrypt(passwords[i], salts[i].getText()), salts[i]);
+          }
+        }
+        else {
+          crypt(crypt, chunk, n, count, passwords, salts, results);
+        }
+      }
+    }
+  }
+
+  /**
+   * Encrypts a chunk of entries that have the same iteration count.
+   * @param crypt scalar engine
+   * @param chunk indexes of the entries in the chunk
+   * @param n number of entries in the chunk
+   * @param count iteration count
+   * @param passwords encoded passwords
+   * @param salts parsed salts
+   * @param results array into which the crypt output strings are stored
+   */
+  private void crypt(DesCrypt crypt, int[] chunk, int n, int count,
+      byte[][] passwords, Salt[] salts, String[] results) {
+    try {
+      for (int l = 0; l < n; l++) {
+        final int i = chunk[l];
+        final String setting = salts[i].getText();
+        keys[l] = crypt.key(passwords[i], setting);
+        saltBits[l] = DesCrypt.saltBits(setting);
+      }
+      bitslice.crypt(keys, saltBits, n, count, blocks);
+      for (int l = 0; l < n; l++) {
+        DesCrypt.putBlock(blocks[l], digest);
+        results[chunk[l]] = crypt.format(digest, salts[chunk[l]]);
+      }
+    }
+    finally {
+      for (int l = 0; l < n; l++) {
+        keys[l] = 0;
+        blocks[l] = 0;
+      }
+    }
+  }
+
+}
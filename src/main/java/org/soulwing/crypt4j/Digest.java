@@ -0,0 +1,71 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A message digest engine used by the crypt implementations.
+ * <p>
+ * This is a deliberately minimal subset of the operations of a
+ * {@link java.security.MessageDigest}. Instances are reusable but not
+ * thread safe.
+ *
+ * @author Carl Harris
+ */
+interface Digest {
+
+  /**
+   * Gets the length of the digest produced by this engine.
+   * @return digest length in bytes
+   */
+  int getDigestLength();
+
+  /**
+   * Resets this engine, discarding any input provided since the last
+   * digest was finished.
+   */
+  void reset();
+
+  /**
+   * Adds a single byte to the input of this engine.
+   * @param input the byte to add
+   */
+  void update(byte input);
+
+  /**
+   * Adds an array of bytes to the input of this engine.
+   * @param input the bytes to add
+   */
+  void update(byte[] input);
+
+  /**
+   * Adds a range of an array of bytes to the input of this engine.
+   * @param input source array
+   * @param offset offset of the first byte to add
+   * @param length number of bytes to add
+   */
+  void update(byte[] input, int offset, int length);
+
+  /**
+   * Finishes the digest, leaving the engine reset and ready for reuse.
+   * @param output array to receive the digest; it must have room for at
+   *    least {@link #getDigestLength()} bytes
+   */
+  void digest(byte[] output);
+
+}
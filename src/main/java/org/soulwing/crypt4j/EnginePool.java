@@ -0,0 +1,114 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * A bounded, lock-free pool of reusable {@link Crypt} engines of a single
+ * type.
+ * <p>
+ * Engines hold digests and working buffers that are expensive to create,
+ * so they are kept here between calls rather than being discarded. The pool
+ * is striped by thread identity, which means that a platform thread tends
+ * to get back the same engine on every call, while the total number of
+ * retained engines is bounded by the pool capacity rather than by the
+ * number of threads (as would be the case with a {@link ThreadLocal}, which
+ * is unsuitable when callers run on a large number of virtual threads).
+ *
+ * @author Carl Harris
+ */
+class EnginePool {
+
+  private static final int CAPACITY =
+      2 * Runtime.getRuntime().availableProcessors();
+
+  private final Type type;
+  private final AtomicReferenceArray<Crypt> slots;
+
+  /**
+   * Constructs a new instance.
+   * @param type type of the engines in this pool
+   */
+  public EnginePool(Type type) {
+    this(type, CAPACITY);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param type type of the engines in this pool
+   * @param capacity maximum number of idle engines retained by this pool
+   */
+  EnginePool(Type type, int capacity) {
+    this.type = type;
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Acquires an engine from this pool, creating a new engine if no idle
+   * engine is available.
+   * <p>
+   * The caller has exclusive use of the returned engine until it is
+   * returned to the pool using {@link #release(Crypt)}.
+   * @return engine
+   * @throws NoSuchAlgorithmException if a new engine is needed and the
+   *    algorithm is not supported on this platform
+   */
+  public Crypt acquire() throws NoSuchAlgorithmException {
+    final int capacity = slots.length();
+    final int start = probe(capacity);
+    for (int i = 0; i < capacity; i++) {
+      final int index = (start + i) % capacity;
+      final Crypt crypt = slots.get(index);
+      if (crypt != null && slots.compareAndSet(index, crypt, null)) {
+        return crypt;
+      }
+    }
+    return Crypt.newInstance(type);
+  }
+
+  /**
+   * Returns an engine to this pool.
+   * <p>
+   * If the pool is already full, the engine is simply discarded.
+   * @param crypt the engine to return
+   */
+  public void release(Crypt crypt) {
+    final int capacity = slots.length();
+    final int start = probe(capacity);
+    for (int i = 0; i < capacity; i++) {
+      final int index = (start + i) % capacity;
+      if (slots.get(index) == null
+          && slots.compareAndSet(index, null, crypt)) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Gets the slot index at which the calling thread should begin probing.
+   * @param capacity pool capacity
+   * @return slot index
+   */
+  private static int probe(int capacity) {
+    return (int) ((Thread.currentThread().getId() & 0x7fffffff) % capacity);
+  }
+
+}
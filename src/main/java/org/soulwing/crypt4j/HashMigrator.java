@@ -0,0 +1,482 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * A migrator that wraps legacy MD5 and DES hashed values in SHA-512,
+ * without knowledge of the passwords.
+ * <p>
+ * Each legacy value is used as the password for SHA-512 crypt, and the
+ * result is combined with the legacy salt into a value of one of the
+ * wrapped schemes, {@code $w1$} (MD5) or {@code $w0$} (DES), described in
+ * {@link WrappedCryptScheme}. {@link Crypt#validate(char[], String)}
+ * validates a password against a wrapped value by computing the legacy
+ * value first, so a wrapped value accepts exactly the passwords the
+ * legacy value accepted. A {@link HashPolicy} reports wrapped values as
+ * outdated, so a {@link HashUpgrader} replaces them with values of the
+ * preferred algorithm as users log in.
+ * <p>
+ * A credential file (in the formats accepted by {@link CredentialAuditor})
+ * is migrated by reading it in line-aligned chunks, which are processed
+ * in parallel by a pool of worker threads, with a bounded number of chunks
+ * in flight; the output is written in input order. After every few chunks
+ * the output is forced to storage and a checkpoint is saved, recording the
+ * input and output offsets reached and the report so far. If the
+ * migration is interrupted, running it again with the same files resumes
+ * it from the last checkpoint. The checkpoint is deleted when the
+ * migration completes.
+ *
+ * @author Carl Harris
+ */
+public class HashMigrator {
+
+  static final String USAGE =
+      "usage: java -jar crypt4j.jar --migrate [--rounds n] [--threads n] "
+    + "input output";
+
+  static final int EXIT_OK = 0;
+  static final int EXIT_ERROR = 2;
+
+  /**
+   * Default size (in bytes) of the chunks that are migrated in parallel.
+   */
+  static final int DEFAULT_CHUNK_SIZE = 64 * 1024;
+
+  /**
+   * Default number of chunks written between checkpoints.
+   */
+  static final int DEFAULT_CHECKPOINT_INTERVAL = 16;
+
+  private static final String INPUT_OFFSET = "input.offset";
+  private static final String OUTPUT_OFFSET = "output.offset";
+
+  private final int rounds;
+  private final int threads;
+  private final int chunkSize;
+  private final int checkpointInterval;
+  private final SaltGenerator saltGenerator = SaltGenerator.getInstance();
+
+  /**
+   * Constructs a new instance that uses a worker thread for each
+   * available processor.
+   * @param rounds number of SHA-512 rounds for wrapped values
+   */
+  public HashMigrator(int rounds) {
+    this(rounds, Runtime.getRuntime().availableProcessors());
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param rounds number of SHA-512 rounds for wrapped values
+   * @param threads number of worker threads used to migrate a file
+   */
+  public HashMigrator(int rounds, int threads) {
+    this(rounds, threads, DEFAULT_CHUNK_SIZE, DEFAULT_CHECKPOINT_INTERVAL);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param rounds number of SHA-512 rounds for wrapped values
+   * @param threads number of worker threads used to migrate a file
+   * @param chunkSize approximate size of each chunk
+   * @param checkpointInterval number of chunks written between
+   *    checkpoints
+   */
+  HashMigrator(int rounds, int threads, int chunkSize,
+      int checkpointInterval) {
+    if (threads < 1) {
+      throw new IllegalArgumentException("threads must be at least 1");
+    }
+    this.rounds = rounds;
+    this.threads = threads;
+    this.chunkSize = chunkSize;
+    this.checkpointInterval = checkpointInterval;
+  }
+
+  /**
+   * Wraps a legacy hashed value.
+   * @param legacyValue an MD5 or DES hashed value
+   * @return wrapped value
+   * @throws NoSuchAlgorithmException if SHA-512 is not supported on this
+   *    platform
+   * @throws IllegalArgumentException if {@code legacyValue} is not a
+   *    well-formed MD5 or DES hashed value
+   */
+  public String wrap(String legacyValue) throws NoSuchAlgorithmException {
+    final HashedValue value = HashedValue.parse(legacyValue);
+    final WrappedCryptScheme scheme = value.getType() != null ?
+        WrappedCryptScheme.forType(value.getType()) : null;
+    if (scheme == null) {
+      throw new IllegalArgumentException("not a legacy hashed value");
+    }
+    if (!value.isCanonical()) {
+      throw new IllegalArgumentException("malformed hashed value");
+    }
+    return scheme.wrap(legacyValue, saltGenerator.sha512Salt(rounds));
+  }
+
+  /**
+   * Migrates a credential file, or resumes an interrupted migration.
+   * <p>
+   * Each line whose hash field holds a legacy value is written to the
+   * output with that value wrapped; every other line, including those with
+   * a malformed legacy value, is written unchanged.
+   * @param input path to the credential file
+   * @param output path to the migrated file
+   * @param checkpoint path to the checkpoint file; if it exists, the
+   *    migration is resumed from it
+   * @return migration report
+   * @throws IOException if an error occurs in reading or writing the
+   *    files, or if the checkpoint does not match them
+   * @throws InterruptedException if the calling thread is interrupted; the
+   *    migration can be resumed from the last checkpoint
+   */
+  public MigrationReport migrate(Path input, Path output, Path checkpoint)
+      throws IOException, InterruptedException {
+    final ExecutorService executor = Executors.newFixedThreadPool(threads,
+        r -> {
+          final Thread thread = new Thread(r, "crypt4j-migrate-worker");
+          thread.setDaemon(true);
+          return thread;
+        });
+    try (FileChannel in = FileChannel.open(input, StandardOpenOption.READ);
+        FileChannel out = FileChannel.open(output, StandardOpenOption.WRITE,
+            StandardOpenOption.CREATE)) {
+      final MigrationReport report;
+      long inputOffset = 0;
+      long outputOffset = 0;
+      if (Files.exists(checkpoint)) {
+        final Properties properties = loadCheckpoint(checkpoint);
+        try {
+          inputOffset = Long.parseLong(properties.getProperty(INPUT_OFFSET));
+          outputOffset =
+              Long.parseLong(properties.getProperty(OUTPUT_OFFSET));
+          report = MigrationReport.load(properties);
+        }
+        catch (RuntimeException ex) {
+          throw new IOException("malformed checkpoint " + checkpoint, ex);
+        }
+        if (inputOffset > in.size() || outputOffset > out.size()) {
+          throw new IOException("checkpoint " + checkpoint
+              + " does not match " + input + " and " + output);
+        }
+      }
+      else {
+        report = new MigrationReport();
+      }
+      out.truncate(outputOffset);
+
+      final long size = in.size();
+      final Deque<CompletableFuture<Chunk>> pending = new ArrayDeque<>();
+      int written = 0;
+      while (inputOffset < size || !pending.isEmpty()) {
+        if (inputOffset < size && pending.size() < 2 * threads) {
+          final Chunk chunk = readChunk(in, inputOffset);
+          inputOffset = chunk.end;
+          pending.add(CompletableFuture.supplyAsync(
+              () -> process(chunk), executor));
+          continue;
+        }
+        final Chunk chunk = get(pending.remove());
+        outputOffset += write(out, outputOffset, chunk.output);
+        report.merge(chunk.report);
+        if (++written % checkpointInterval == 0) {
+          out.force(false);
+          saveCheckpoint(checkpoint, chunk.end, outputOffset, report);
+        }
+      }
+      out.force(false);
+      Files.deleteIfExists(checkpoint);
+      return report;
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Reads the chunk of complete lines that starts at a given offset.
+   * @param in input channel
+   * @param offset offset of the first byte of a line
+   * @return chunk
+   * @throws IOException
+   */
+  private Chunk readChunk(FileChannel in, long offset) throws IOException {
+    final long size = in.size();
+    ByteBuffer buffer = ByteBuffer.allocate(
+        (int) Math.min(chunkSize, size - offset));
+    for (;;) {
+      while (buffer.hasRemaining()) {
+        if (in.read(buffer, offset + buffer.position()) < 0) {
+          throw new IOException("unexpected end of input");
+        }
+      }
+      final byte[] bytes = buffer.array();
+      for (int i = bytes.length - 1; i >= 0; i--) {
+        if (bytes[i] == '\n') {
+          return new Chunk(bytes, i + 1, offset + i + 1);
+        }
+      }
+      if (offset + bytes.length == size) {
+        return new Chunk(bytes, bytes.length, size);
+      }
+      final long length = Math.min(2L * bytes.length, size - offset);
+      if (length > Integer.MAX_VALUE) {
+        throw new IOException("line at offset " + offset + " is too long");
+      }
+      final ByteBuffer larger = ByteBuffer.allocate((int) length);
+      ((Buffer) buffer).flip();
+      larger.put(buffer);
+      buffer = larger;
+    }
+  }
+
+  /**
+   * Migrates the lines of a chunk, on a worker thread.
+   * @param chunk the subject chunk
+   * @return {@code chunk}, with its output and report
+   */
+  private Chunk process(Chunk chunk) {
+    final byte[] bytes = chunk.input;
+    final ByteArrayOutputStream out = new ByteArrayOutputStream(
+        chunk.length + chunk.length / 2);
+    final MigrationReport report = new MigrationReport();
+    int start = 0;
+    while (start < chunk.length) {
+      int end = start;
+      while (end < chunk.length && bytes[end] != '\n') {
+        end++;
+      }
+      final int next = end < chunk.length ? end + 1 : end;
+      if (end > start && bytes[end - 1] == '\r') {
+        end--;
+      }
+      report.addLine();
+      migrateLine(bytes, start, end, next, out, report);
+      start = next;
+    }
+    chunk.output = out.toByteArray();
+    chunk.report = report;
+    return chunk;
+  }
+
+  /**
+   * Migrates a single line.
+   * @param bytes array containing the line
+   * @param start offset of the first byte of the line
+   * @param end offset of the line terminator
+   * @param next offset of the first byte of the following line
+   * @param out stream to which the line is written
+   * @param report report for the line's chunk
+   */
+  private void migrateLine(byte[] bytes, int start, int end, int next,
+      ByteArrayOutputStream out, MigrationReport report) {
+    int colon = -1;
+    if (end > start && bytes[start] != '#') {
+      for (int i = start; i < end; i++) {
+        if (bytes[i] == ':') {
+          colon = i;
+          break;
+        }
+      }
+    }
+    int hashEnd = colon + 1;
+    while (colon != -1 && hashEnd < end && bytes[hashEnd] != ':') {
+      hashEnd++;
+    }
+    final String hash = colon != -1 ? new String(bytes, colon + 1,
+        hashEnd - colon - 1, StandardCharsets.ISO_8859_1) : null;
+    if (hash == null || !isLegacy(hash)) {
+      out.write(bytes, start, next - start);
+      report.addUnchanged();
+      return;
+    }
+    try {
+      final byte[] wrapped = wrap(hash).getBytes(StandardCharsets.US_ASCII);
+      out.write(bytes, start, colon + 1 - start);
+      out.write(wrapped, 0, wrapped.length);
+      out.write(bytes, hashEnd, next - hashEnd);
+      report.addWrapped();
+    }
+    catch (IllegalArgumentException ex) {
+      out.write(bytes, start, next - start);
+      report.addMalformed();
+    }
+    catch (NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  /**
+   * Tests whether the hash field of a credential entry appears to hold a
+   * legacy value. Locked entries (e.g. {@code !$1$...}) and placeholders
+   * such as {@code *} or {@code x} do not.
+   * @param hash the subject hash field
+   * @return {@code true} if {@code hash} is an MD5 value, or has the
+   *    length of a traditional or extended DES value
+   */
+  static boolean isLegacy(String hash) {
+    if (hash.startsWith("$1$")) return true;
+    if (hash.startsWith("$")) return false;
+    return hash.length() == DesCrypt.SETTING_LENGTH + 11
+        || hash.length() == DesCrypt.EXTENDED_SETTING_LENGTH + 11
+            && hash.charAt(0) == '_';
+  }
+
+  private static int write(FileChannel out, long position, byte[] bytes)
+      throws IOException {
+    final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+    while (buffer.hasRemaining()) {
+      out.write(buffer, position + buffer.position());
+    }
+    return bytes.length;
+  }
+
+  private static Chunk get(CompletableFuture<Chunk> future)
+      throws IOException, InterruptedException {
+    try {
+      return future.get();
+    }
+    catch (ExecutionException ex) {
+      throw new IOException(ex.getCause());
+    }
+  }
+
+  private static Properties loadCheckpoint(Path checkpoint)
+      throws IOException {
+    final Properties properties = new Properties();
+    try (InputStream in = Files.newInputStream(checkpoint)) {
+      properties.load(in);
+    }
+    return properties;
+  }
+
+  /**
+   * Saves a checkpoint, replacing the previous checkpoint atomically.
+   */
+  private static void saveCheckpoint(Path checkpoint, long inputOffset,
+      long outputOffset, MigrationReport report) throws IOException {
+    final Properties properties = new Properties();
+    properties.setProperty(INPUT_OFFSET, Long.toString(inputOffset));
+    properties.setProperty(OUTPUT_OFFSET, Long.toString(outputOffset));
+    report.store(properties);
+    final Path temp = checkpoint.resolveSibling(
+        checkpoint.getFileName() + ".tmp");
+    try (OutputStream out = Files.newOutputStream(temp)) {
+      properties.store(out, "crypt4j migration checkpoint");
+    }
+    Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING,
+        StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  /**
+   * Runs a migration as specified by command line arguments. The
+   * checkpoint file is the output file name with {@code .checkpoint}
+   * appended.
+   * @param args command line arguments, starting with {@code --migrate}
+   * @return exit status
+   */
+  static int main(String[] args) {
+    int rounds = Sha2Crypt.DEFAULT_ROUNDS;
+    int threads = Runtime.getRuntime().availableProcessors();
+    String input = null;
+    String output = null;
+    final HashMigrator migrator;
+    try {
+      for (int i = 1; i < args.length; i++) {
+        if (args[i].equals("--rounds") && i + 1 < args.length) {
+          rounds = Integer.parseInt(args[++i]);
+        }
+        else if (args[i].equals("--threads") && i + 1 < args.length) {
+          threads = Integer.parseInt(args[++i]);
+        }
+        else if (input == null && !args[i].startsWith("--")) {
+          input = args[i];
+        }
+        else if (output == null && !args[i].startsWith("--")) {
+          output = args[i];
+        }
+        else {
+          throw new IllegalArgumentException(args[i]);
+        }
+      }
+      if (output == null) {
+        throw new IllegalArgumentException("input and output are required");
+      }
+      migrator = new HashMigrator(rounds, threads);
+    }
+    catch (Exception ex) {
+      System.err.println(ex);
+      System.err.println(USAGE);
+      return EXIT_ERROR;
+    }
+
+    try {
+      System.err.print(migrator.migrate(Paths.get(input), Paths.get(output),
+          Paths.get(output + ".checkpoint")));
+      return EXIT_OK;
+    }
+    catch (IOException | InterruptedException ex) {
+      System.err.println(ex);
+      return EXIT_ERROR;
+    }
+  }
+
+  /**
+   * A chunk of input lines and its result.
+   */
+  private static class Chunk {
+
+    final byte[] input;
+    final int length;
+    final long end;
+    byte[] output;
+    MigrationReport report;
+
+    Chunk(byte[] input, int length, long end) {
+      this.input = input;
+      this.length = length;
+      this.end = end;
+    }
+
+  }
+
+}
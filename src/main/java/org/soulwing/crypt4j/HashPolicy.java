@@ -0,0 +1,221 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.UnsupportedEncodingException;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A policy that names the preferred algorithm and number of rounds for
+ * hashed passwords.
+ * <p>
+ * A hashed value is <em>outdated</em> under a policy if it uses an
+ * algorithm other than the preferred one (e.g. DES or MD5 when SHA-512 is
+ * preferred), or if it uses fewer rounds than the policy's minimum. A
+ * policy is typically used at login: {@link #validate(char[], String)}
+ * reports whether the stored value is outdated, and if so, a new value
+ * is computed using {@link #hash(char[])}, perhaps in the background using
+ * a {@link HashUpgrader}.
+ * <p>
+ * Instances are immutable and safe for use by multiple threads.
+ *
+ * @author Carl Harris
+ */
+public final class HashPolicy {
+
+  private final Type type;
+  private final int rounds;
+  private final int minRounds;
+
+  /**
+   * Constructs a new instance whose minimum number of rounds is the same
+   * as the number of rounds used for new hashed values.
+   * @param scheme salt string that identifies the preferred algorithm; it
+   *    must specify SHA-256 ({@code $5$}) or SHA-512 ({@code $6$})
+   * @param rounds number of rounds for new hashed values
+   * @throws NoSuchAlgorithmException if the algorithm is not supported on
+   *    this platform
+   * @throws IllegalArgumentException if the algorithm does not have a
+   *    configurable number of rounds or the number of rounds is out of
+   *    range
+   */
+  public HashPolicy(String scheme, int rounds)
+      throws NoSuchAlgorithmException {
+    this(scheme, rounds, rounds);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param scheme salt string that identifies the preferred algorithm; it
+   *    must specify SHA-256 ({@code $5$}) or SHA-512 ({@code $6$})
+   * @param rounds number of rounds for new hashed values
+   * @param minRounds minimum number of rounds of a hashed value that is
+   *    not outdated
+   * @throws NoSuchAlgorithmException if the algorithm is not supported on
+   *    this platform
+   * @throws IllegalArgumentException if the algorithm does not have a
+   *    configurable number of rounds, the number of rounds is out of range,
+   *    or {@code minRounds} exceeds {@code rounds}
+   */
+  public HashPolicy(String scheme, int rounds, int minRounds)
+      throws NoSuchAlgorithmException {
+    final Type type = Type.forSalt(new Salt(scheme));
+    if (type != Type.SHA256 && type != Type.SHA512) {
+      throw new IllegalArgumentException(
+          "algorithm does not have a configurable number of rounds");
+    }
+    if (rounds < Sha2Crypt.MIN_ROUNDS || rounds > Sha2Crypt.MAX_ROUNDS) {
+      throw new IllegalArgumentException("rounds must be in the range "
+          + Sha2Crypt.MIN_ROUNDS + ".." + Sha2Crypt.MAX_ROUNDS);
+    }
+    if (minRounds > rounds) {
+      throw new IllegalArgumentException(
+          "minimum rounds must not exceed rounds");
+    }
+    this.type = type;
+    this.rounds = rounds;
+    this.minRounds = minRounds;
+  }
+
+  /**
+   * Gets the number of rounds for new hashed values.
+   * @return number of rounds
+   */
+  public int getRounds() {
+    return rounds;
+  }
+
+  /**
+   * Gets the minimum number of rounds of a hashed value that is not
+   * outdated.
+   * @return number of rounds
+   */
+  public int getMinRounds() {
+    return minRounds;
+  }
+
+  /**
+   * Gets the salt prefix for new hashed values (e.g.
+   * {@code $6$rounds=5000$}).
+   * @return salt prefix
+   */
+  public String getSaltPrefix() {
+    return "$" + type.getType() + "$rounds=" + rounds + "$";
+  }
+
+  /**
+   * Creates a new salt that conforms to this policy, with random salt text.
+   * @return salt string
+   */
+  public String newSalt() {
+    final SaltGenerator generator = SaltGenerator.getInstance();
+    return type == Type.SHA256 ?
+        generator.sha256Salt(rounds) : generator.sha512Salt(rounds);
+  }
+
+  /**
+   * Hashes a password using a new salt that conforms to this policy.
+   * @param password the password to hash
+   * @return hashed value
+   * @throws NoSuchAlgorithmException if the algorithm is not supported on
+   *    this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *    on the platform
+   */
+  public String hash(char[] password)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return Crypt.crypt(password, newSalt());
+  }
+
+  /**
+   * Tests whether a hashed value is outdated under this policy.
+   * @param hashedValue the subject hashed value
+   * @return {@code true} if {@code hashedValue} should be replaced
+   * @throws NoSuchAlgorithmException if the algorithm of the hashed value
+   *    is not supported on this platform
+   * @throws IllegalArgumentException if the salt of the hashed value is
+   *    malformed
+   */
+  public boolean needsRehash(String hashedValue)
+      throws NoSuchAlgorithmException {
+    final Salt salt = new Salt(hashedValue);
+    final Type type = Type.forType(salt.getType());
+    if (type == null) {
+      SchemeRegistry.forSalt(salt);
+      return true;
+    }
+    return needsRehash(type, salt);
+  }
+
+  /**
+   * Tests whether a hashed value is outdated under this policy.
+   * @param hashedValue the subject hashed value
+   * @return {@code true} if {@code hashedValue} should be replaced
+   */
+  public boolean needsRehash(HashedValue hashedValue) {
+    return needsRehash(hashedValue.getType(), hashedValue.getSalt());
+  }
+
+  /**
+   * Validates a password against a hashed value.
+   * @param password the password to validate
+   * @param hashedValue the hashed value to validate against
+   * @return validation result
+   * @throws NoSuchAlgorithmException if the algorithm of the hashed value
+   *    is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *    on the platform
+   */
+  public ValidationResult validate(char[] password, String hashedValue)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return validate(password, HashedValue.parse(hashedValue));
+  }
+
+  /**
+   * Validates a password against a previously parsed hashed value.
+   * @param password the password to validate
+   * @param hashedValue the hashed value to validate against
+   * @return validation result
+   * @throws NoSuchAlgorithmException if the algorithm of the hashed value
+   *    is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *    on the platform
+   */
+  public ValidationResult validate(char[] password, HashedValue hashedValue)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    if (!hashedValue.matches(password)) {
+      return ValidationResult.INVALID;
+    }
+    return needsRehash(hashedValue) ?
+        ValidationResult.OUTDATED : ValidationResult.VALID;
+  }
+
+  private boolean needsRehash(Type type, Salt salt) {
+    return type != this.type || Sha2Crypt.effectiveRounds(salt) < minRounds;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    return getSaltPrefix() + " (minimum rounds " + minRounds + ")";
+  }
+
+}
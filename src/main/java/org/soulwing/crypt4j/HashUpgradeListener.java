@@ -0,0 +1,42 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A listener that receives the upgraded hashed values computed by a
+ * {@link HashUpgrader}.
+ *
+ * @author Carl Harris
+ */
+public interface HashUpgradeListener {
+
+  /**
+   * Notifies the recipient that an upgraded hashed value is available.
+   * <p>
+   * This method is invoked on a worker thread of the upgrader. Since the
+   * stored value may have changed since the upgrade was requested (e.g.
+   * because the user changed their password), the recipient should
+   * replace the stored value only if it is still {@code oldValue}. Any
+   * exception thrown by this method is ignored.
+   * @param oldValue the outdated hashed value
+   * @param newValue the upgraded hashed value, for the same password
+   */
+  void hashUpgraded(String oldValue, String newValue);
+
+}
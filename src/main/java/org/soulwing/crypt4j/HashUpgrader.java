@@ -0,0 +1,181 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.UnsupportedEncodingException;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * An upgrader that replaces outdated hashed values in the background.
+ * <p>
+ * Re-hashing a password at login doubles the latency of the login while a
+ * migration is in progress. Instead, {@link #validate(char[], String)}
+ * validates the password against the stored value on the calling thread,
+ * and if the password is valid but the stored value is outdated under the
+ * {@link HashPolicy}, queues the computation of an upgraded value. When
+ * the upgraded value is available, it is delivered to a
+ * {@link HashUpgradeListener} on a worker thread.
+ * <p>
+ * Upgrades are coalesced by outdated value: while an upgrade of a given
+ * value is pending, further requests to upgrade the same value (e.g.
+ * repeated logins by the same user) are ignored. The queue of pending
+ * upgrades is bounded; when it is full, further requests are dropped,
+ * and the value will be upgraded at some later login.
+ * <p>
+ * Instances are safe for use by multiple threads.
+ *
+ * @author Carl Harris
+ */
+public class HashUpgrader implements AutoCloseable {
+
+  /**
+   * Default maximum number of upgrades that may wait for a worker thread.
+   */
+  public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+  private final ConcurrentMap<String, Boolean> pending =
+      new ConcurrentHashMap<>();
+
+  private final HashPolicy policy;
+  private final HashUpgradeListener listener;
+  private final CryptService service;
+  private final boolean ownService;
+
+  /**
+   * Constructs a new instance with a single worker thread and the default
+   * queue capacity.
+   * @param policy the policy that determines whether a value is outdated
+   *    and how upgraded values are hashed
+   * @param listener the listener that receives upgraded values
+   */
+  public HashUpgrader(HashPolicy policy, HashUpgradeListener listener) {
+    this(policy, listener, new CryptService(1, DEFAULT_QUEUE_CAPACITY), true);
+  }
+
+  /**
+   * Constructs a new instance that computes upgraded values using the
+   * given service.
+   * <p>
+   * The service is shared with the caller, and is not shut down when this
+   * upgrader is closed.
+   * @param policy the policy that determines whether a value is outdated
+   *    and how upgraded values are hashed
+   * @param listener the listener that receives upgraded values
+   * @param service the service that will compute upgraded values
+   */
+  public HashUpgrader(HashPolicy policy, HashUpgradeListener listener,
+      CryptService service) {
+    this(policy, listener, service, false);
+  }
+
+  private HashUpgrader(HashPolicy policy, HashUpgradeListener listener,
+      CryptService service, boolean ownService) {
+    this.policy = policy;
+    this.listener = listener;
+    this.service = service;
+    this.ownService = ownService;
+  }
+
+  /**
+   * Gets the policy of this upgrader.
+   * @return policy
+   */
+  public HashPolicy getPolicy() {
+    return policy;
+  }
+
+  /**
+   * Validates a password against a hashed value, and queues an upgrade of
+   * the hashed value if the password is valid and the value is outdated.
+   * @param password the password to validate
+   * @param hashedValue the hashed value to validate against
+   * @return validation result
+   * @throws NoSuchAlgorithmException if the algorithm of the hashed value
+   *    is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *    on the platform
+   */
+  public ValidationResult validate(char[] password, String hashedValue)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    final ValidationResult result = policy.validate(password, hashedValue);
+    if (result == ValidationResult.OUTDATED) {
+      upgrade(password, hashedValue);
+    }
+    return result;
+  }
+
+  /**
+   * Queues an upgrade of a hashed value.
+   * <p>
+   * The caller is responsible for having validated the password against
+   * the hashed value.
+   * @param password the password for the hashed value; it is copied before
+   *    this method returns, so the caller may clear it immediately
+   * @param hashedValue the outdated hashed value
+   * @return {@code true} if the upgrade was queued or an upgrade of the
+   *    same value is already pending, {@code false} if the queue is full
+   */
+  public boolean upgrade(char[] password, final String hashedValue) {
+    if (pending.putIfAbsent(hashedValue, Boolean.TRUE) != null) {
+      return true;
+    }
+    final char[] copy = password.clone();
+    final String salt = policy.newSalt();
+    final CompletableFuture<Void> future = service.submit(copy, () -> {
+      try {
+        listener.hashUpgraded(hashedValue, Crypt.crypt(copy, salt));
+        return null;
+      }
+      finally {
+        pending.remove(hashedValue);
+      }
+    });
+    if (!future.isCompletedExceptionally()) return true;
+    final boolean rejected = future.handle(
+        (v, ex) -> ex instanceof RejectedExecutionException).join();
+    if (rejected) {
+      pending.remove(hashedValue);
+    }
+    return !rejected;
+  }
+
+  /**
+   * Gets the number of upgrades that are pending.
+   * @return number of pending upgrades
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Shuts down this upgrader. Upgrades already queued are completed. If the
+   * upgrader was created with its own service, the service is shut down.
+   */
+  @Override
+  public void close() {
+    if (ownService) {
+      service.close();
+    }
+  }
+
+}
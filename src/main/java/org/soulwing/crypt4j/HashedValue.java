@@ -0,0 +1,399 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * An immutable, parsed representation of a hashed value produced by
+ * {@link Crypt#crypt(char[], String)}.
+ * <p>
+ * Parsing separates the algorithm type, parameters and salt from the
+ * encoded digest, and decodes the digest to its raw form. Validating a
+ * password against a parsed value computes only the raw digest of the
+ * password, which is compared to the stored digest in constant time;
+ * nothing is re-encoded. An instance is thread safe and may be retained
+ * (e.g. in a user cache) to avoid repeating the parsing on each
+ * validation.
+ * <p>
+ * A value whose scheme is provided by a registered {@link CryptScheme} is
+ * validated by that scheme.
+ *
+ * @author Carl Harris
+ */
+public final class HashedValue {
+
+  private final String value;
+  private final Type type;
+  private final Salt salt;
+  private final byte[] digest;
+  private final boolean canonical;
+  private final CryptScheme scheme;
+
+  private HashedValue(String value, Type type, Salt salt, byte[] digest,
+      boolean canonical) {
+    this.value = value;
+    this.type = type;
+    this.salt = salt;
+    this.digest = digest;
+    this.canonical = canonical;
+    this.scheme = null;
+  }
+
+  private HashedValue(String value, Salt salt, CryptScheme scheme) {
+    this.value = value;
+    this.type = null;
+    this.salt = salt;
+    this.digest = null;
+    this.canonical = true;
+    this.scheme = scheme;
+  }
+
+  /**
+   * Parses a hashed value.
+   * <p>
+   * A value that has a well-formed salt but is not exactly what
+   * {@link Crypt#crypt(char[], String)} would produce for that salt (for
+   * example, because the digest is truncated or the salt exceeds the
+   * maximum length) is accepted, but no password will match it.
+   * @param value the hashed value to parse
+   * @return parsed hashed value
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   * @throws IllegalArgumentException if the salt of the hashed value is
+   *         malformed
+   */
+  public static HashedValue parse(String value)
+      throws NoSuchAlgorithmException {
+    final Salt salt = new Salt(value);
+    final CryptScheme scheme = SchemeRegistry.lookup(salt);
+    if (scheme != null) {
+      return new HashedValue(value, salt, scheme);
+    }
+    final Type type = Type.forSalt(salt);
+    final EnginePool pool = type.pool;
+    final Crypt crypt = pool.acquire();
+    try {
+      final byte[] digest = decode(crypt, type, value);
+      final boolean canonical = digest != null
+          && crypt.format(digest, salt).equals(value);
+      return new HashedValue(value, type, salt, digest, canonical);
+    }
+    finally {
+      pool.release(crypt);
+    }
+  }
+
+  /**
+   * Decodes the digest portion of a hashed value.
+   * @param crypt engine for the type of the value
+   * @param type type of the value
+   * @param value the subject value
+   * @return raw digest or {@code null} if the digest portion is not a
+   *    valid encoding
+   */
+  private static byte[] decode(Crypt crypt, Type type, String value) {
+    final int start = type == Type.DES ?
+        Math.min(DesCrypt.settingLength(value), value.length())
+        : value.lastIndexOf('$') + 1;
+    try {
+      return crypt.decodePassword(value.substring(start));
+    }
+    catch (IllegalArgumentException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Tests whether a password matches this hashed value.
+   * @param password the password to validate
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *         on the platform
+   */
+  public boolean matches(char[] password)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return matches(password, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Tests whether a password, encoded using the given character set,
+   * matches this hashed value.
+   * @param password the password to validate
+   * @param charset character set used to encode the password
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  public boolean matches(char[] password, Charset charset)
+      throws NoSuchAlgorithmException {
+    return matches(encoder -> encoder.encode(password, charset));
+  }
+
+  /**
+   * Tests whether a password, encoded as UTF-8, matches this hashed value.
+   * @param password the password to validate
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  public boolean matches(CharSequence password)
+      throws NoSuchAlgorithmException {
+    return matches(password, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Tests whether a password, encoded using the given character set,
+   * matches this hashed value.
+   * @param password the password to validate
+   * @param charset character set used to encode the password
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  public boolean matches(CharSequence password, Charset charset)
+      throws NoSuchAlgorithmException {
+    return matches(encoder -> encoder.encode(password, charset));
+  }
+
+  /**
+   * Tests whether an encoded password matches this hashed value.
+   * @param password the encoded password to validate; its contents are
+   *    used as is and are not modified
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  public boolean matches(byte[] password) throws NoSuchAlgorithmException {
+    return matches(encoder -> PasswordEncoder.wrap(password));
+  }
+
+  /**
+   * Tests whether an encoded password matches this hashed value.
+   * @param password buffer whose remaining bytes are the encoded password
+   *    to validate; neither its contents nor its position are modified
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  public boolean matches(ByteBuffer password)
+      throws NoSuchAlgorithmException {
+    return matches(encoder -> PasswordEncoder.wrap(password));
+  }
+
+  /**
+   * Tests whether a password matches this hashed value.
+   * @param password source of the password to validate
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  boolean matches(PasswordSource password) throws NoSuchAlgorithmException {
+    final CryptProbe probe = CryptProbe.begin();
+    if (probe == null) {
+      return matches(password, null);
+    }
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
+    try {
+      final boolean result = matches(password, probe);
+      outcome = outcome(result);
+      return result;
+    }
+    finally {
+      probe.end(outcome);
+    }
+  }
+
+  /**
+   * Tests whether a password matches this hashed value.
+   * @param password source of the password to validate
+   * @param probe probe for the operation (may be {@code null})
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  boolean matches(PasswordSource password, CryptProbe probe)
+      throws NoSuchAlgorithmException {
+    if (probe != null) {
+      identify(probe);
+    }
+    if (scheme != null) {
+      return matchesScheme(password, scheme);
+    }
+    if (!canonical) return false;
+    final EnginePool pool = type.pool;
+    final Crypt crypt = pool.acquire();
+    try {
+      final Password p = password.encode(crypt.getEncoder());
+      try {
+        return matchesEncoded(p, crypt);
+      }
+      finally {
+        p.clear();
+      }
+    }
+    finally {
+      pool.release(crypt);
+    }
+  }
+
+  /**
+   * Tests whether an encoded password matches this hashed value, using an
+   * engine that the caller has acquired. The operation is not reported to
+   * any {@link CryptListener}.
+   * @param password the encoded password to validate
+   * @param crypt engine for the type of this hashed value; ignored (and
+   *    may be {@code null}) if the scheme of this hashed value is provided
+   *    by a registered {@link CryptScheme}
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if the algorithm for the hashed value
+   *         is not supported on this platform
+   */
+  boolean matchesEncoded(Password password, Crypt crypt)
+      throws NoSuchAlgorithmException {
+    if (scheme != null) {
+      return scheme.matches(password.getBytes(), value);
+    }
+    if (!canonical) return false;
+    try {
+      return MessageDigest.isEqual(crypt.doDigest(password, salt), digest);
+    }
+    catch (UnsupportedEncodingException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+  /**
+   * Tests, in constant time, whether the crypt output string computed for
+   * a password is this hashed value.
+   * @param output crypt output string computed using the salt of this
+   *    hashed value
+   * @return {@code true} if {@code output} matches
+   */
+  boolean matchesOutput(String output) {
+    return canonical && MessageDigest.isEqual(
+        output.getBytes(StandardCharsets.UTF_8),
+        value.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * Tests whether a password matches this hashed value, using a registered
+   * crypt scheme.
+   * @param password source of the password to validate
+   * @param scheme the scheme of this hashed value
+   * @return {@code true} if {@code password} matches
+   * @throws NoSuchAlgorithmException if {@code scheme} is not supported on
+   *         this platform
+   */
+  private boolean matchesScheme(PasswordSource password, CryptScheme scheme)
+      throws NoSuchAlgorithmException {
+    final Password p = password.encode(new PasswordEncoder());
+    try {
+      return scheme.matches(p.getBytes(), value);
+    }
+    finally {
+      p.clear();
+    }
+  }
+
+  /**
+   * Records the type or scheme of this hashed value in a probe.
+   * @param probe the subject probe
+   */
+  void identify(CryptProbe probe) {
+    if (scheme != null) {
+      probe.identify(scheme.getId(), 0);
+    }
+    else {
+      probe.identify(type, salt);
+    }
+  }
+
+  /**
+   * Gets the outcome of a validation against this hashed value.
+   * @param matches result of the validation
+   * @return outcome
+   */
+  CryptOutcome outcome(boolean matches) {
+    if (!canonical) return CryptOutcome.MALFORMED;
+    return matches ? CryptOutcome.MATCH : CryptOutcome.MISMATCH;
+  }
+
+  /**
+   * Tests whether this hashed value is exactly what
+   * {@link Crypt#crypt(char[], String)} would produce for its salt; no
+   * password matches a value that is not.
+   * @return {@code true} if this value is canonical
+   */
+  boolean isCanonical() {
+    return canonical;
+  }
+
+  /**
+   * Gets the type of this hashed value.
+   * @return type or {@code null} if the scheme of this hashed value is
+   *    provided by a registered {@link CryptScheme}
+   */
+  Type getType() {
+    return type;
+  }
+
+  /**
+   * Gets the salt of this hashed value.
+   * @return salt
+   */
+  Salt getSalt() {
+    return salt;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int hashCode() {
+    return value.hashCode();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public boolean equals(Object obj) {
+    if (obj == this) return true;
+    if (!(obj instanceof HashedValue)) return false;
+    return value.equals(((HashedValue) obj).value);
+  }
+
+  /**
+   * Gets the hashed value in its string form.
+   * @return hashed value
+   */
+  @Override
+  public String toString() {
+    return value;
+  }
+
+}
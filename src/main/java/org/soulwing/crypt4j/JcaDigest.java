@@ -0,0 +1,94 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+
+/**
+ * A {@link Digest} that delegates to a JCA {@link MessageDigest}.
+ *
+ * @author Carl Harris
+ */
+class JcaDigest implements Digest {
+
+  private final MessageDigest delegate;
+
+  /**
+   * Constructs a new instance.
+   * @param delegate the message digest to which operations are delegated
+   */
+  public JcaDigest(MessageDigest delegate) {
+    this.delegate = delegate;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDigestLength() {
+    return delegate.getDigestLength();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void reset() {
+    delegate.reset();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void update(byte input) {
+    delegate.update(input);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void update(byte[] input) {
+    delegate.update(input);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void update(byte[] input, int offset, int length) {
+    delegate.update(input, offset, length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public void digest(byte[] output) {
+    try {
+      delegate.digest(output, 0, delegate.getDigestLength());
+    }
+    catch (DigestException ex) {
+      throw new RuntimeException(ex);
+    }
+  }
+
+}
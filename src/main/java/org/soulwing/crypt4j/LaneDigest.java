@@ -0,0 +1,110 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * An abstract base for digests that compress several independent messages
+ * (lanes) in lockstep.
+ * <p>
+ * Subclasses keep the state of all lanes in structure-of-arrays form
+ * (element {@code j * lanes + l} holds word {@code j} of lane {@code l})
+ * and perform each step of the compression function as a loop over the
+ * lanes. This layout is the one a SIMD implementation would use, and the
+ * lane loops are simple enough for the JIT compiler's auto-vectorizer.
+ * <p>
+ * All lanes must digest messages of the same padded length, each already
+ * padded by the corresponding {@link BlockDigest}.
+ *
+ * @author Carl Harris
+ */
+abstract class LaneDigest {
+
+  protected final int lanes;
+
+  /**
+   * Constructs a new instance.
+   * @param lanes maximum number of lanes
+   */
+  protected LaneDigest(int lanes) {
+    this.lanes = lanes;
+  }
+
+  /**
+   * Gets the maximum number of lanes.
+   * @return number of lanes
+   */
+  public final int getLanes() {
+    return lanes;
+  }
+
+  /**
+   * Gets the length of the digest produced for each lane.
+   * @return digest length in bytes
+   */
+  public abstract int getDigestLength();
+
+  /**
+   * Gets the length of a compression block.
+   * @return block length in bytes
+   */
+  public abstract int getBlockLength();
+
+  /**
+   * Digests a padded message in each of the first {@code n} lanes.
+   * @param inputs array of input buffers, one for each lane
+   * @param offset offset of the padded message in each input buffer
+   * @param paddedLength length of the padded message
+   * @param outputs array of output buffers, one for each lane
+   * @param n number of lanes in use
+   */
+  public final void digestPadded(byte[][] inputs, int offset,
+      int paddedLength, byte[][] outputs, int n) {
+    final int blockLength = getBlockLength();
+    resetState(n);
+    for (int end = offset + paddedLength; offset < end;
+        offset += blockLength) {
+      compress(inputs, offset, n);
+    }
+    encodeState(outputs, n);
+  }
+
+  /**
+   * Resets the chaining state of the first {@code n} lanes.
+   * @param n number of lanes in use
+   */
+  protected abstract void resetState(int n);
+
+  /**
+   * Compresses a block into the chaining state of the first {@code n}
+   * lanes.
+   * @param inputs array of input buffers, one for each lane
+   * @param offset offset of the block in each input buffer
+   * @param n number of lanes in use
+   */
+  protected abstract void compress(byte[][] inputs, int offset, int n);
+
+  /**
+   * Encodes the chaining state of the first {@code n} lanes as digest
+   * values.
+   * @param outputs array of output buffers, one for each lane
+   * @param n number of lanes in use
+   */
+  protected abstract void encodeState(byte[][] outputs, int n);
+
+}
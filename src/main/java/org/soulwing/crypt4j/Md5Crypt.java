@@ -19,8 +19,8 @@
 package org.soulwing.crypt4j;
 
 import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 /**
  * An MD5 crypt implementation.
@@ -29,10 +29,26 @@ import java.security.NoSuchAlgorithmException;
  */
 class Md5Crypt extends Crypt {
 
-  private static final String SALT_PREFIX = "$1$";
-  private static final int MAX_SALT_LENGTH = 8;
-  private static final int ROUNDS = 1000;
+  /**
+   * Byte order of the base 64 encoded digest, in groups of three bytes
+   * as passed to {@link Base64#encode(byte[], int[])}.
+   */
+  static final int[] ENCODING_ORDER = {
+    0, 6, 12, 1, 7, 13, 2, 8, 14, 3, 9, 15,
+    4, 10, 5, -1, -1, 11
+  };
+
+  private static final byte[] SALT_PREFIX_BYTES = { '$', '1', '$' };
+  static final int MAX_SALT_LENGTH = 8;
+  static final int ROUNDS = 1000;
   
+  private Digest a;
+  private Digest b;
+  private int digestLength;
+  private byte[] sumB;
+  private byte[] ac;
+  private RoundSchedule schedule;
+
   /**
    * Constructs a new instance.
    * @param type
@@ -45,20 +61,39 @@ class Md5Crypt extends Crypt {
    * {@inheritDoc}
    */
   @Override
-  protected String doCrypt(Password password, Salt salt)
+  protected byte[] doDigest(Password password, Salt salt)
       throws NoSuchAlgorithmException, UnsupportedEncodingException {
-    byte[] encrypted = doCrypt(password.getBytes(CHARACTER_ENCODING), 
+    return doCrypt(password.getBytes(), 
         salt.getBytes(MAX_SALT_LENGTH, CHARACTER_ENCODING));
-    
-    return passwordToString(encrypted, salt, MAX_SALT_LENGTH);
   }
 
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendOutput(StringBuilder sb, byte[] digest, Salt salt) {
+    appendOutput(sb, digest, salt, MAX_SALT_LENGTH);
+  }
+
+  /**
+   * Encrypts the given password.
+   * <p>
+   * The returned array is a working buffer of this instance; its contents
+   * are valid only until the next invocation.
+   * @param password the password to encrypt
+   * @param salt salt for the encryption
+   * @return
+   * @throws NoSuchAlgorithmException
+   */
   private byte[] doCrypt(byte[] password, byte[] salt) 
-      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+      throws NoSuchAlgorithmException {
+
+    if (a == null) {
+      init();
+    }
 
     /* start digest A */
-    final MessageDigest a = type.newDigest();
-    final int digestLength = a.getDigestLength();
+    a.reset();
     
     /* add the key string */
     a.update(password);
@@ -66,13 +101,13 @@ class Md5Crypt extends Crypt {
     /* Because the SALT argument need not always have the salt prefix we
      * add it separately.
      */
-    a.update(SALT_PREFIX.getBytes(CHARACTER_ENCODING));
+    a.update(SALT_PREFIX_BYTES);
     
     /* The last part is the salt string. */
     a.update(salt);
     
     /* Compute alternate MD5 sum with input KEY, SALT, and KEY. */
-    final MessageDigest b = type.newDigest();
+    b.reset();
     
     /* Add the key */
     b.update(password);
@@ -84,7 +119,7 @@ class Md5Crypt extends Crypt {
     b.update(password);
     
     /* Get alternate sum */
-    final byte[] sumB = b.digest();
+    b.digest(sumB);
     
     /* Add for any character in the key one byte of the alternate sum.  */
     for (int i = 0, max = password.length / digestLength; i < max; i++) {
@@ -97,10 +132,9 @@ class Md5Crypt extends Crypt {
      * the first character of the key.  This does not seem to be what was 
      * intended but we have to follow this to be compatible.  
      */
-    final byte[] zero = new byte[] { 0 };
     for (int length = password.length; length != 0; length >>>= 1) {
       if ((length & 1) != 0) {
-        a.update(zero);
+        a.update((byte) 0);
       }
       else {
         a.update(password, 0, 1);
@@ -108,15 +142,27 @@ class Md5Crypt extends Crypt {
     }
     
     /* Create intermediate result. */
-    final byte[] sumA = a.digest();
+    a.digest(ac);
+
+    /* the alternate sum is derived from the key and no longer needed */
+    Arrays.fill(sumB, (byte) 0);
     
+    if (schedule.prepare(password, salt)) {
+      /* the loop below, using the precomputed messages for each round */
+      try {
+        schedule.run(ac, ROUNDS);
+      }
+      finally {
+        schedule.clear();
+      }
+      return ac;
+    }
+
     /* loop which just processes the output of each round to increase 
-     * computational costs  
+     * computational costs; each finish starts digest C anew
      */    
-    byte[] ac = sumA;
+    final Digest c = b;
     for (int i = 0; i < ROUNDS; i++) {
-      final MessageDigest c = type.newDigest();
-      
       if (i % 2 != 0) {
         /* for all odd rounds add in key */
         c.update(password);
@@ -146,25 +192,49 @@ class Md5Crypt extends Crypt {
       }
 
       /* Create intermediate result */
-      ac = c.digest();
+      c.digest(ac);
     }
     
     return ac;
   }
 
+  /**
+   * Creates the digests and working buffers used by this instance.
+   * @throws NoSuchAlgorithmException
+   */
+  private void init() throws NoSuchAlgorithmException {
+    final Digest a = type.newDigest();
+    final Digest b = type.newDigest();
+    digestLength = a.getDigestLength();
+    schedule = new RoundSchedule(b);
+    sumB = new byte[digestLength];
+    ac = new byte[digestLength];
+    this.b = b;
+    this.a = a;
+  }
+
   /**
    * {@inheritDoc}
    */
   @Override
   protected String encodePassword(byte[] password) {
-    StringBuilder sb = new StringBuilder();
-    sb.append(Base64.encode(password[0], password[6], password[12], 4));
-    sb.append(Base64.encode(password[1], password[7], password[13], 4));
-    sb.append(Base64.encode(password[2], password[8], password[14], 4));
-    sb.append(Base64.encode(password[3], password[9], password[15], 4));
-    sb.append(Base64.encode(password[4], password[10], password[5], 4));
-    sb.append(Base64.encode((byte) 0, (byte) 0, password[11], 2));
-    return sb.toString();
+    return Base64.encode(password, ENCODING_ORDER);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendPassword(StringBuilder sb, byte[] password) {
+    Base64.encode(password, ENCODING_ORDER, sb);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] decodePassword(String encoded) {
+    return Base64.decode(encoded, ENCODING_ORDER, 16);
   }
 
 }
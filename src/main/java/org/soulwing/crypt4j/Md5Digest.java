@@ -0,0 +1,165 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A pure-Java MD5 digest (RFC 1321).
+ *
+ * @author Carl Harris
+ */
+class Md5Digest extends BlockDigest {
+
+  static final int DIGEST_LENGTH = 16;
+  static final int BLOCK_LENGTH = 64;
+
+  private static final int[] K = {
+    0xd76aa478, 0xe8c7b756, 0x242070db, 0xc1bdceee,
+    0xf57c0faf, 0x4787c62a, 0xa8304613, 0xfd469501,
+    0x698098d8, 0x8b44f7af, 0xffff5bb1, 0x895cd7be,
+    0x6b901122, 0xfd987193, 0xa679438e, 0x49b40821,
+    0xf61e2562, 0xc040b340, 0x265e5a51, 0xe9b6c7aa,
+    0xd62f105d, 0x02441453, 0xd8a1e681, 0xe7d3fbc8,
+    0x21e1cde6, 0xc33707d6, 0xf4d50d87, 0x455a14ed,
+    0xa9e3e905, 0xfcefa3f8, 0x676f02d9, 0x8d2a4c8a,
+    0xfffa3942, 0x8771f681, 0x6d9d6122, 0xfde5380c,
+    0xa4beea44, 0x4bdecfa9, 0xf6bb4b60, 0xbebfbc70,
+    0x289b7ec6, 0xeaa127fa, 0xd4ef3085, 0x04881d05,
+    0xd9d4d039, 0xe6db99e5, 0x1fa27cf8, 0xc4ac5665,
+    0xf4292244, 0x432aff97, 0xab9423a7, 0xfc93a039,
+    0x655b59c3, 0x8f0ccc92, 0xffeff47d, 0x85845dd1,
+    0x6fa87e4f, 0xfe2ce6e0, 0xa3014314, 0x4e0811a1,
+    0xf7537e82, 0xbd3af235, 0x2ad7d2bb, 0xeb86d391
+  };
+
+  private static final int[] S = {
+    7, 12, 17, 22,
+    5, 9, 14, 20,
+    4, 11, 16, 23,
+    6, 10, 15, 21
+  };
+
+  private static final int[] IV = {
+    0x67452301, 0xefcdab89, 0x98badcfe, 0x10325476
+  };
+
+  private final int[] state = new int[4];
+  private final int[] x = new int[16];
+
+  /**
+   * Constructs a new instance.
+   */
+  public Md5Digest() {
+    super(BLOCK_LENGTH, 8);
+    resetState();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDigestLength() {
+    return DIGEST_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void resetState() {
+    System.arraycopy(IV, 0, state, 0, IV.length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compress(byte[] input, int offset) {
+    final int[] x = this.x;
+    for (int i = 0; i < 16; i++, offset += 4) {
+      x[i] = (input[offset] & 0xff)
+          | ((input[offset + 1] & 0xff) << 8)
+          | ((input[offset + 2] & 0xff) << 16)
+          | (input[offset + 3] << 24);
+    }
+
+    final int[] state = this.state;
+    int a = state[0];
+    int b = state[1];
+    int c = state[2];
+    int d = state[3];
+
+    for (int t = 0; t < 64; t++) {
+      final int f;
+      final int g;
+      if (t < 16) {
+        f = (b & c) | (~b & d);
+        g = t;
+      }
+      else if (t < 32) {
+        f = (d & b) | (~d & c);
+        g = (5 * t + 1) & 0xf;
+      }
+      else if (t < 48) {
+        f = b ^ c ^ d;
+        g = (3 * t + 5) & 0xf;
+      }
+      else {
+        f = c ^ (b | ~d);
+        g = (7 * t) & 0xf;
+      }
+      final int temp = d;
+      d = c;
+      c = b;
+      b = b + Integer.rotateLeft(a + f + K[t] + x[g],
+          S[((t >>> 4) << 2) | (t & 3)]);
+      a = temp;
+    }
+
+    state[0] += a;
+    state[1] += b;
+    state[2] += c;
+    state[3] += d;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeState(byte[] output, int offset) {
+    for (int i = 0; i < 4; i++, offset += 4) {
+      final int s = state[i];
+      output[offset] = (byte) s;
+      output[offset + 1] = (byte) (s >>> 8);
+      output[offset + 2] = (byte) (s >>> 16);
+      output[offset + 3] = (byte) (s >>> 24);
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeLength(byte[] output, int offset, long bitLength) {
+    for (int i = 0; i < 8; i++) {
+      output[offset + i] = (byte) bitLength;
+      bitLength >>>= 8;
+    }
+  }
+
+}
@@ -0,0 +1,204 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Formatter;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * A report produced by a {@link HashMigrator}.
+ * <p>
+ * A report is accumulated by the migrator, and is saved with each
+ * checkpoint so that the report of a resumed migration covers the entire
+ * file. Once returned to the caller it is not modified further, and may be
+ * shared among threads.
+ *
+ * @author Carl Harris
+ */
+public final class MigrationReport {
+
+  /**
+   * Maximum number of malformed entries whose line numbers are retained.
+   */
+  public static final int MAX_MALFORMED_LINES = 100;
+
+  private final List<Long> malformedLines = new ArrayList<>();
+
+  private long lineCount;
+  private long wrappedCount;
+  private long unchangedCount;
+  private long malformedCount;
+  private long resumedLineCount;
+
+  /**
+   * Gets the number of lines in the file.
+   * @return number of lines
+   */
+  public long getLineCount() {
+    return lineCount;
+  }
+
+  /**
+   * Gets the number of legacy hashed values that were wrapped.
+   * @return number of entries
+   */
+  public long getWrappedCount() {
+    return wrappedCount;
+  }
+
+  /**
+   * Gets the number of lines that were copied unchanged because they do
+   * not hold a legacy hashed value (including blank lines, comments, and
+   * locked or empty entries).
+   * @return number of lines
+   */
+  public long getUnchangedCount() {
+    return unchangedCount;
+  }
+
+  /**
+   * Gets the number of malformed legacy hashed values, which were copied
+   * unchanged.
+   * @return number of entries
+   */
+  public long getMalformedCount() {
+    return malformedCount;
+  }
+
+  /**
+   * Gets the line numbers of malformed entries.
+   * @return line numbers of up to {@link #MAX_MALFORMED_LINES} entries
+   */
+  public List<Long> getMalformedLines() {
+    return Collections.unmodifiableList(malformedLines);
+  }
+
+  /**
+   * Gets the number of lines that had been migrated before the migration
+   * was resumed from a checkpoint.
+   * @return number of lines, or zero if the migration was not resumed
+   */
+  public long getResumedLineCount() {
+    return resumedLineCount;
+  }
+
+  void addLine() {
+    lineCount++;
+  }
+
+  void addWrapped() {
+    wrappedCount++;
+  }
+
+  void addUnchanged() {
+    unchangedCount++;
+  }
+
+  /**
+   * Records a malformed entry on the current line.
+   */
+  void addMalformed() {
+    malformedCount++;
+    if (malformedLines.size() < MAX_MALFORMED_LINES) {
+      malformedLines.add(lineCount);
+    }
+  }
+
+  /**
+   * Merges a report for the lines that follow those of this report.
+   * @param other the report to merge
+   */
+  void merge(MigrationReport other) {
+    for (long line : other.malformedLines) {
+      if (malformedLines.size() >= MAX_MALFORMED_LINES) break;
+      malformedLines.add(lineCount + line);
+    }
+    lineCount += other.lineCount;
+    wrappedCount += other.wrappedCount;
+    unchangedCount += other.unchangedCount;
+    malformedCount += other.malformedCount;
+  }
+
+  /**
+   * Stores this report in a checkpoint.
+   * @param properties the checkpoint properties
+   */
+  void store(Properties properties) {
+    properties.setProperty("lines", Long.toString(lineCount));
+    properties.setProperty("wrapped", Long.toString(wrappedCount));
+    properties.setProperty("unchanged", Long.toString(unchangedCount));
+    properties.setProperty("malformed", Long.toString(malformedCount));
+    final StringBuilder sb = new StringBuilder();
+    for (long line : malformedLines) {
+      if (sb.length() > 0) {
+        sb.append(',');
+      }
+      sb.append(line);
+    }
+    properties.setProperty("malformed.lines", sb.toString());
+  }
+
+  /**
+   * Loads a report that was stored in a checkpoint, as the starting point
+   * of a resumed migration.
+   * @param properties the checkpoint properties
+   * @return report
+   * @throws NumberFormatException if the properties are malformed
+   * @throws NullPointerException if a property is missing
+   */
+  static MigrationReport load(Properties properties) {
+    final MigrationReport report = new MigrationReport();
+    report.lineCount = Long.parseLong(properties.getProperty("lines"));
+    report.wrappedCount = Long.parseLong(properties.getProperty("wrapped"));
+    report.unchangedCount =
+        Long.parseLong(properties.getProperty("unchanged"));
+    report.malformedCount =
+        Long.parseLong(properties.getProperty("malformed"));
+    for (String line : properties.getProperty("malformed.lines").split(",")) {
+      if (!line.isEmpty()) {
+        report.malformedLines.add(Long.parseLong(line));
+      }
+    }
+    report.resumedLineCount = report.lineCount;
+    return report;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String toString() {
+    final Formatter formatter = new Formatter();
+    formatter.format("lines: %d%n", lineCount);
+    formatter.format("  %-12s %d%n", "wrapped", wrappedCount);
+    formatter.format("  %-12s %d%n", "unchanged", unchangedCount);
+    formatter.format("  %-12s %d%n", "malformed", malformedCount);
+    if (resumedLineCount > 0) {
+      formatter.format("resumed after line: %d%n", resumedLineCount);
+    }
+    if (!malformedLines.isEmpty()) {
+      formatter.format("malformed lines: %s%n", malformedLines);
+    }
+    return formatter.toString();
+  }
+
+}
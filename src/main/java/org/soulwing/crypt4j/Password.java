@@ -18,66 +18,48 @@
  */
 package org.soulwing.crypt4j;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
-import java.io.UnsupportedEncodingException;
-import java.io.Writer;
+import java.util.Arrays;
 
 /**
- * A wrapper for a character array containing a password.
+ * A wrapper for the encoded form of a password.
+ * <p>
+ * A password may wrap an array supplied by the caller, which is used as
+ * is and is never modified, or an array created by a
+ * {@link PasswordEncoder}, which is cleared by {@link #clear()}.
  *
  * @author Carl Harris
  */
 class Password {
 
-  private final char[] text;
-  
+  private final byte[] bytes;
+  private final boolean owned;
+
   /**
    * Constructs a new instance.
-   * @param text
+   * @param bytes the encoded password
+   * @param owned flag indicating whether {@code bytes} belongs to this
+   *    password and should be cleared by {@link #clear()}
    */
-  public Password(char[] text) {
-    this.text = text.clone();
+  Password(byte[] bytes, boolean owned) {
+    this.bytes = bytes;
+    this.owned = owned;
   }
-  
+
   /**
-   * Gets the text of the password.
-   * @return
+   * Gets the encoded password.
+   * @return byte array
    */
-  public char[] getText() {
-    return text;
+  public byte[] getBytes() {
+    return bytes;
   }
-  
+
   /**
-   * Clears the buffer containing the password.
+   * Clears the encoded password, if it was created by an encoder.
    */
   public void clear() {
-    for (int i = 0; i < text.length; i++) {
-      text[i] = 0;
-    }
-  }
-  
-  /**
-   * Gets the password as an array of bytes of a given character encoding.
-   * @param charset character set name
-   * @return byte array
-   * @throws UnsupportedEncodingException
-   */
-  public byte[] getBytes(String charset) throws UnsupportedEncodingException {
-    try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      Writer writer = new OutputStreamWriter(outputStream, charset);
-      writer.write(text);
-      writer.close();
-      return outputStream.toByteArray();
-    }
-    catch (UnsupportedEncodingException ex) {
-      throw ex;
-    }
-    catch (IOException ex) {
-      throw new RuntimeException(ex);
+    if (owned) {
+      Arrays.fill(bytes, (byte) 0);
     }
   }
-  
+
 }
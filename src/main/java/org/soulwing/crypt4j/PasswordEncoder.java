@@ -0,0 +1,182 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * An encoder that converts passwords to the byte form that is input to
+ * the crypt algorithms.
+ * <p>
+ * A password consisting only of ASCII characters is copied directly into
+ * its encoded form when the character set is one of UTF-8, ISO-8859-1 or
+ * US-ASCII. Otherwise, the password is encoded by a {@link CharsetEncoder}
+ * that is retained for the most recently used character set, into a
+ * scratch buffer that is retained and cleared after each use. As with
+ * {@link String#getBytes(Charset)}, malformed input (e.g. an unpaired
+ * surrogate) and unmappable characters are replaced.
+ * <p>
+ * An instance is reusable but not thread safe; each {@link Crypt} engine
+ * has its own.
+ *
+ * @author Carl Harris
+ */
+class PasswordEncoder {
+
+  private static final int MIN_SCRATCH_LENGTH = 256;
+
+  private CharsetEncoder encoder;
+  private byte[] scratch = new byte[0];
+
+  /**
+   * Encodes a password.
+   * @param password the password to encode
+   * @param charset character set for the encoding
+   * @return encoded password; the caller must clear it after use
+   */
+  public Password encode(CharSequence password, Charset charset) {
+    if (isAsciiCompatible(charset)) {
+      final byte[] bytes = encodeAscii(password);
+      if (bytes != null) {
+        return new Password(bytes, true);
+      }
+    }
+    final CharBuffer in = password instanceof CharBuffer ?
+        ((CharBuffer) password).duplicate() : CharBuffer.wrap(password);
+    return encode(in, charset);
+  }
+
+  /**
+   * Encodes a password.
+   * @param password the password to encode
+   * @param charset character set for the encoding
+   * @return encoded password; the caller must clear it after use
+   */
+  public Password encode(char[] password, Charset charset) {
+    if (isAsciiCompatible(charset)) {
+      final byte[] bytes = encodeAscii(password);
+      if (bytes != null) {
+        return new Password(bytes, true);
+      }
+    }
+    return encode(CharBuffer.wrap(password), charset);
+  }
+
+  /**
+   * Wraps an encoded password.
+   * <p>
+   * The remaining bytes of {@code password} are used as is when the
+   * buffer is backed by an array that contains exactly those bytes;
+   * otherwise they are copied. The position of the buffer is not changed.
+   * @param password the encoded password
+   * @return password; the caller must clear it after use
+   */
+  public static Password wrap(ByteBuffer password) {
+    if (password.hasArray() && password.arrayOffset() == 0
+        && password.position() == 0
+        && password.limit() == password.array().length) {
+      return new Password(password.array(), false);
+    }
+    final byte[] bytes = new byte[password.remaining()];
+    password.duplicate().get(bytes);
+    return new Password(bytes, true);
+  }
+
+  /**
+   * Wraps an encoded password.
+   * @param password the encoded password, which is used as is
+   * @return password
+   */
+  public static Password wrap(byte[] password) {
+    return new Password(password, false);
+  }
+
+  private Password encode(CharBuffer in, Charset charset) {
+    final CharsetEncoder encoder = encoder(charset);
+    final int capacity = (int) Math.ceil(
+        in.remaining() * (double) encoder.maxBytesPerChar());
+    if (scratch.length < capacity) {
+      scratch = new byte[Math.max(capacity, MIN_SCRATCH_LENGTH)];
+    }
+    final ByteBuffer out = ByteBuffer.wrap(scratch);
+    try {
+      encoder.reset();
+      encoder.encode(in, out, true);
+      encoder.flush(out);
+      return new Password(Arrays.copyOf(scratch, out.position()), true);
+    }
+    finally {
+      Arrays.fill(scratch, 0, out.position(), (byte) 0);
+    }
+  }
+
+  private CharsetEncoder encoder(Charset charset) {
+    if (encoder == null || !encoder.charset().equals(charset)) {
+      encoder = charset.newEncoder()
+          .onMalformedInput(CodingErrorAction.REPLACE)
+          .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    }
+    return encoder;
+  }
+
+  private static boolean isAsciiCompatible(Charset charset) {
+    return charset.equals(StandardCharsets.UTF_8)
+        || charset.equals(StandardCharsets.ISO_8859_1)
+        || charset.equals(StandardCharsets.US_ASCII);
+  }
+
+  /**
+   * Encodes a password that consists only of ASCII characters.
+   * @return encoded password or {@code null} if {@code password} contains
+   *    a character that is not ASCII
+   */
+  private static byte[] encodeAscii(CharSequence password) {
+    final int length = password.length();
+    final byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      final char c = password.charAt(i);
+      if (c >= 0x80) {
+        Arrays.fill(bytes, 0, i, (byte) 0);
+        return null;
+      }
+      bytes[i] = (byte) c;
+    }
+    return bytes;
+  }
+
+  private static byte[] encodeAscii(char[] password) {
+    final byte[] bytes = new byte[password.length];
+    for (int i = 0; i < password.length; i++) {
+      final char c = password[i];
+      if (c >= 0x80) {
+        Arrays.fill(bytes, 0, i, (byte) 0);
+        return null;
+      }
+      bytes[i] = (byte) c;
+    }
+    return bytes;
+  }
+
+}
@@ -0,0 +1,36 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A password in any of the forms accepted by {@link Crypt}, which is
+ * encoded only once an engine has been acquired to use it.
+ *
+ * @author Carl Harris
+ */
+interface PasswordSource {
+
+  /**
+   * Gets the encoded form of the password.
+   * @param encoder encoder of the engine that will use the password
+   * @return encoded password; the caller must clear it after use
+   */
+  Password encode(PasswordEncoder encoder);
+
+}
@@ -0,0 +1,262 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A precomputed schedule of the message inputs for the round loop that is
+ * common to the MD5 and SHA-2 crypt algorithms.
+ * <p>
+ * Round {@code i} of the loop digests a message composed of the previous
+ * round's digest (A/C), a password-derived sequence (P) and a
+ * salt-derived sequence (S), where the presence and order of each part
+ * depends only on {@code i % 2}, {@code i % 3}, and {@code i % 7}. The
+ * layout therefore repeats every {@value #PERIOD} rounds. This schedule
+ * holds each of the {@value #PERIOD} messages with a hole where A/C goes,
+ * so that a round consists only of copying A/C into its hole and digesting
+ * the message in a single operation. When the digest is a
+ * {@link BlockDigest}, the messages are also stored fully padded, and each
+ * round simply compresses the message blocks.
+ * <p>
+ * An instance is reusable but not thread safe; its buffer is reallocated
+ * only when a longer password or salt requires it.
+ *
+ * @author Carl Harris
+ */
+class RoundSchedule {
+
+  static final int PERIOD = 42;
+
+  /**
+   * Maximum total length of the padded messages; for (unusually) long
+   * passwords the schedule declines, and the caller falls back to
+   * digesting each round incrementally.
+   */
+  static final int MAX_LENGTH = 65536;
+
+  private final Digest digest;
+  private final BlockDigest blockDigest;
+  private final int digestLength;
+  private final int[] offsets = new int[PERIOD];
+  private final int[] lengths = new int[PERIOD];
+  private final int[] holes = new int[PERIOD];
+
+  private byte[] buffer = new byte[0];
+
+  /**
+   * Constructs a new instance.
+   * @param digest the digest engine to use for each round
+   */
+  public RoundSchedule(Digest digest) {
+    this.digest = digest;
+    this.blockDigest = digest instanceof BlockDigest ?
+        (BlockDigest) digest : null;
+    this.digestLength = digest.getDigestLength();
+  }
+
+  /**
+   * Prepares the messages for the given P and S sequences.
+   * @param p the password-derived sequence
+   * @param s the salt-derived sequence
+   * @return {@code true} if the schedule was prepared, {@code false} if
+   *    the padded messages would exceed {@link #MAX_LENGTH}
+   */
+  public boolean prepare(byte[] p, byte[] s) {
+    return prepare(p, 0, p.length, s, 0, s.length);
+  }
+
+  /**
+   * Prepares the messages for P and S sequences that are regions of
+   * larger arrays (e.g. of a {@link ScratchArena}).
+   * @param p array containing the password-derived sequence
+   * @param pOffset offset of the sequence in {@code p}
+   * @param pLength length of the sequence
+   * @param s array containing the salt-derived sequence
+   * @param sOffset offset of the sequence in {@code s}
+   * @param sLength length of the sequence
+   * @return {@code true} if the schedule was prepared, {@code false} if
+   *    the padded messages would exceed {@link #MAX_LENGTH}
+   */
+  public boolean prepare(byte[] p, int pOffset, int pLength,
+      byte[] s, int sOffset, int sLength) {
+    int total = 0;
+    for (int k = 0; k < PERIOD; k++) {
+      total += storedLength(messageLength(k, pLength, sLength));
+    }
+    if (total > MAX_LENGTH) return false;
+    if (buffer.length < total) {
+      clear();
+      buffer = new byte[total];
+    }
+
+    int offset = 0;
+    for (int k = 0; k < PERIOD; k++) {
+      final int messageLength = messageLength(k, pLength, sLength);
+      offsets[k] = offset;
+      lengths[k] = storedLength(messageLength);
+
+      int index = offset;
+      if (k % 2 != 0) {
+        index = put(p, pOffset, pLength, index);
+      }
+      else {
+        holes[k] = index;
+        index += digestLength;
+      }
+      if (k % 3 != 0) {
+        index = put(s, sOffset, sLength, index);
+      }
+      if (k % 7 != 0) {
+        index = put(p, pOffset, pLength, index);
+      }
+      if (k % 2 != 0) {
+        holes[k] = index;
+        index += digestLength;
+      }
+      else {
+        index = put(p, pOffset, pLength, index);
+      }
+
+      if (blockDigest != null) {
+        blockDigest.pad(buffer, offset, messageLength);
+      }
+      offset += lengths[k];
+    }
+    return true;
+  }
+
+  /**
+   * Runs the round loop.
+   * @param ac on input, the digest that is the input to the first round;
+   *    on output, the digest produced by the last round
+   * @param rounds number of rounds to run
+   */
+  public void run(byte[] ac, int rounds) {
+    final byte[] buffer = this.buffer;
+    final int digestLength = this.digestLength;
+    if (blockDigest != null) {
+      final BlockDigest digest = this.blockDigest;
+      for (int i = 0, k = 0; i < rounds; i++) {
+        System.arraycopy(ac, 0, buffer, holes[k], digestLength);
+        digest.digestPadded(buffer, offsets[k], lengths[k], ac);
+        if (++k == PERIOD) {
+          k = 0;
+        }
+      }
+    }
+    else {
+      final Digest digest = this.digest;
+      for (int i = 0, k = 0; i < rounds; i++) {
+        System.arraycopy(ac, 0, buffer, holes[k], digestLength);
+        digest.update(buffer, offsets[k], lengths[k]);
+        digest.digest(ac);
+        if (++k == PERIOD) {
+          k = 0;
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the buffer that holds the prepared messages.
+   * @return buffer
+   */
+  byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * Gets the offset of a prepared message.
+   * @param k round number modulo {@link #PERIOD}
+   * @return offset in the buffer
+   */
+  int getOffset(int k) {
+    return offsets[k];
+  }
+
+  /**
+   * Gets the stored length of a prepared message.
+   * @param k round number modulo {@link #PERIOD}
+   * @return length in bytes, including padding when the digest is a
+   *    block digest
+   */
+  int getLength(int k) {
+    return lengths[k];
+  }
+
+  /**
+   * Gets the offset of the hole for A/C in a prepared message.
+   * @param k round number modulo {@link #PERIOD}
+   * @return offset in the buffer
+   */
+  int getHole(int k) {
+    return holes[k];
+  }
+
+  /**
+   * Clears the prepared messages, which contain password-derived data.
+   */
+  public void clear() {
+    for (int i = 0; i < buffer.length; i++) {
+      buffer[i] = 0;
+    }
+  }
+
+  /**
+   * Computes the length of the message for a given round.
+   * @param k round number modulo {@link #PERIOD}
+   * @param pLength length of the P sequence
+   * @param sLength length of the S sequence
+   * @return message length
+   */
+  private int messageLength(int k, int pLength, int sLength) {
+    int length = digestLength + pLength;
+    if (k % 3 != 0) {
+      length += sLength;
+    }
+    if (k % 7 != 0) {
+      length += pLength;
+    }
+    return length;
+  }
+
+  /**
+   * Computes the length of the stored form of a message.
+   * @param messageLength message length
+   * @return length of the message, including padding when the digest is
+   *    a block digest
+   */
+  private int storedLength(int messageLength) {
+    return blockDigest != null ?
+        blockDigest.paddedLength(messageLength) : messageLength;
+  }
+
+  /**
+   * Copies a sequence into the buffer.
+   * @param sequence array containing the sequence to copy
+   * @param offset offset of the sequence in {@code sequence}
+   * @param length length of the sequence
+   * @param index index in the buffer at which to place the sequence
+   * @return index following the copied sequence
+   */
+  private int put(byte[] sequence, int offset, int length, int index) {
+    System.arraycopy(sequence, offset, buffer, index, length);
+    return index + length;
+  }
+
+}
@@ -18,60 +18,134 @@
  */
 package org.soulwing.crypt4j;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.io.UnsupportedEncodingException;
-import java.io.Writer;
 
 /**
  * A value holder for salt string.
+ * <p>
+ * A salt is a flyweight over the string (or array of ASCII bytes) from
+ * which it was parsed; parsing records only the offsets of the scheme
+ * identifier, parameters and salt text, and decodes the type. A scheme
+ * identifier is any non-empty sequence of characters other than
+ * {@code $} (e.g. {@code 6}, {@code 2b} or {@code apr1}); the type is
+ * the value of an identifier that consists of at most 9 decimal digits,
+ * 0 for a salt that has no identifier (e.g. DES), or -1 for any other
+ * identifier. The type, scheme identifier, parameter
+ * values and salt bytes can be obtained without creating intermediate
+ * strings. An instance can be reused by parsing another salt into it;
+ * an instance that is shared among threads must not be reused.
  *
  * @author Carl Harris
  */
 class Salt {
 
-  private final int type;
-  private final String params;
-  private final String text;
-  
+  private CharSequence chars;
+  private byte[] bytes;
+  private int offset;
+  private int length;
+
+  private int type;
+  private int idStart;
+  private int idEnd;
+  private int paramsStart;
+  private int paramsEnd;
+  private int textStart;
+  private int textEnd;
+
+  private String params;
+  private String text;
+
+  /**
+   * Constructs a new instance that has no salt; use
+   * {@link #parse(CharSequence)} or {@link #parse(byte[], int, int)}
+   * before using it.
+   */
+  Salt() {
+  }
+
   public Salt(String salt) {
-    if (salt.charAt(0) != '$') {
+    parse(salt);
+  }
+
+  /**
+   * Parses a salt into this instance.
+   * @param salt the salt to parse; it must not be modified while this
+   *    instance refers to it
+   * @return this salt
+   * @throws IllegalArgumentException if {@code salt} is malformed
+   */
+  Salt parse(CharSequence salt) {
+    this.chars = salt;
+    this.bytes = null;
+    this.offset = 0;
+    this.length = salt.length();
+    parse();
+    return this;
+  }
+
+  /**
+   * Parses a salt, given as an array of ASCII bytes, into this instance.
+   * @param salt array containing the salt to parse; it must not be
+   *    modified while this instance refers to it
+   * @param offset offset of the salt in {@code salt}
+   * @param length length of the salt
+   * @return this salt
+   * @throws IllegalArgumentException if the salt is malformed
+   */
+  Salt parse(byte[] salt, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > salt.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    this.chars = null;
+    this.bytes = salt;
+    this.offset = offset;
+    this.length = length;
+    parse();
+    return this;
+  }
+
+  private void parse() {
+    this.params = null;
+    this.text = null;
+    this.paramsStart = -1;
+    this.paramsEnd = -1;
+
+    if (length == 0) {
+      throw new StringIndexOutOfBoundsException(0);
+    }
+
+    if (charAt(0) != '$') {
       this.type = 0;
-      this.params = null;
-      this.text = salt;
+      this.idStart = 0;
+      this.idEnd = 0;
+      this.textStart = 0;
+      this.textEnd = length;
       return;
     }
-    
+
     int index = 1;
-    int extent = salt.indexOf('$', index);
-    if (extent == -1) {
+    int extent = indexOf('$', index);
+    if (extent == -1 || extent == index) {
       throw new IllegalArgumentException("illegal salt format");
     }
-    this.type = Integer.parseInt(salt.substring(index, extent));
-    
+    this.idStart = index;
+    this.idEnd = extent;
+    this.type = numericType(index, extent);
+
     index = extent + 1;
-    if (index > salt.length()) {
-      throw new IllegalArgumentException("illegal salt format");
-    }
-    
-    extent = salt.indexOf('$', index);
-    if (extent == -1 || salt.substring(index, extent).indexOf('=') == -1) {
-      this.params = null;
-    }
-    else {
-      this.params = salt.substring(index, extent);
+    extent = indexOf('$', index);
+    if (extent != -1 && indexOf('=', index, extent) != -1) {
+      this.paramsStart = index;
+      this.paramsEnd = extent;
       index = extent + 1;
-      if (index > salt.length()) {
-        throw new IllegalArgumentException("illegal salt format");
-      }
     }
 
-    extent = salt.indexOf('$', index);
+    extent = indexOf('$', index);
     if (extent == -1) {
-      extent = salt.length();
+      extent = length;
     }
-    this.text = salt.substring(index, extent);
+    this.textStart = index;
+    this.textEnd = extent;
   }
 
   /**
@@ -82,19 +156,100 @@ class Salt {
     return type;
   }
 
+  /**
+   * Gets the scheme identifier.
+   * @return identifier (e.g. {@code 6} or {@code apr1}), or an empty
+   *    string if this salt has no identifier
+   */
+  public String getId() {
+    return substring(idStart, idEnd);
+  }
+
+  /**
+   * Gets the length of the scheme identifier.
+   * @return number of characters
+   */
+  int getIdLength() {
+    return idEnd - idStart;
+  }
+
+  /**
+   * Gets a character of the scheme identifier.
+   * @param index index of the character
+   * @return character
+   */
+  char getIdChar(int index) {
+    return charAt(idStart + index);
+  }
+
+  /**
+   * Tests whether this salt has the given scheme identifier.
+   * @param id the subject identifier
+   * @return {@code true} if the identifier of this salt is {@code id}
+   */
+  boolean hasId(String id) {
+    if (id.length() != idEnd - idStart) return false;
+    for (int i = 0; i < id.length(); i++) {
+      if (charAt(idStart + i) != id.charAt(i)) return false;
+    }
+    return true;
+  }
+
   /**
    * Gets the {@code params} property.
    * @return
    */
   public String getParams() {
+    if (params == null && paramsStart != -1) {
+      params = substring(paramsStart, paramsEnd);
+    }
     return params;
   }
 
+  /**
+   * Tests whether the parameters of this salt begin with the given
+   * parameter name.
+   * @param name parameter name, including the {@code =} separator
+   *    (e.g. {@code rounds=})
+   * @return {@code true} if this salt has parameters that begin with
+   *    {@code name}
+   */
+  boolean hasParam(String name) {
+    if (paramsStart == -1 || paramsEnd - paramsStart < name.length()) {
+      return false;
+    }
+    for (int i = 0; i < name.length(); i++) {
+      if (charAt(paramsStart + i) != name.charAt(i)) return false;
+    }
+    return true;
+  }
+
+  /**
+   * Gets the integer value of a parameter.
+   * @param name parameter name, including the {@code =} separator
+   * @return value of the parameter, which is assumed to be the
+   *    remainder of the parameters of this salt
+   * @throws IllegalStateException if this salt does not have the given
+   *    parameter
+   * @throws NumberFormatException if the value is not an integer, as
+   *    with {@link Integer#parseInt(String)}
+   * @see #hasParam(String)
+   */
+  int getIntParam(String name) {
+    if (!hasParam(name)) {
+      throw new IllegalStateException("no parameter named " + name);
+    }
+    return parseInt(paramsStart + name.length(), paramsEnd);
+  }
+
   /**
    * Gets the {@code text} property.
    * @return
    */
   public String getText() {
+    if (text == null) {
+      text = substring(textStart, textEnd);
+    }
     return text;
   }
 
@@ -104,9 +259,32 @@ class Salt {
    * @return truncated salt text
    */
   public String getText(int maxLength) {
-    return text.substring(0, Math.min(text.length(), maxLength));
+    if (textEnd - textStart <= maxLength) {
+      return getText();
+    }
+    return substring(textStart, textStart + maxLength);
   }
-  
+
+  /**
+   * Appends the salt text, truncated to a given maximum length, to a
+   * string builder.
+   * @param sb the target string builder
+   * @param maxLength maximum length
+   * @return {@code sb}
+   */
+  StringBuilder appendText(StringBuilder sb, int maxLength) {
+    final int end = textStart + Math.min(textEnd - textStart, maxLength);
+    if (chars != null) {
+      sb.append(chars, textStart, end);
+    }
+    else {
+      for (int i = textStart; i < end; i++) {
+        sb.append(charAt(i));
+      }
+    }
+    return sb;
+  }
+
   /**
    * Gets the salt text as an array of bytes of a given character encoding.
    * @param charset character set name
@@ -115,19 +293,118 @@ class Salt {
    */
   public byte[] getBytes(int maxLength, String charset) 
       throws UnsupportedEncodingException {
-    try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      Writer writer = new OutputStreamWriter(outputStream, charset);
-      writer.write(text, 0, Math.min(text.length(), maxLength));
-      writer.close();
-      return outputStream.toByteArray();
+    final int end = textStart + Math.min(textEnd - textStart, maxLength);
+    if (Crypt.CHARACTER_ENCODING.equals(charset)) {
+      final byte[] buf = new byte[end - textStart];
+      int i = textStart;
+      while (i < end) {
+        final char c = charAt(i);
+        if (c >= 0x80) break;
+        buf[i - textStart] = (byte) c;
+        i++;
+      }
+      if (i == end) return buf;
+    }
+    return substring(textStart, end).getBytes(charset);
+  }
+
+  private char charAt(int index) {
+    return chars != null ?
+        chars.charAt(index) : (char) (bytes[offset + index] & 0xff);
+  }
+
+  private int indexOf(char c, int from) {
+    return indexOf(c, from, length);
+  }
+
+  private int indexOf(char c, int from, int to) {
+    for (int i = from; i < to; i++) {
+      if (charAt(i) == c) return i;
     }
-    catch (UnsupportedEncodingException ex) {
-      throw ex;
+    return -1;
+  }
+
+  private String substring(int start, int end) {
+    if (chars != null) {
+      if (start == 0 && end == length && chars instanceof String) {
+        return (String) chars;
+      }
+      return chars.subSequence(start, end).toString();
     }
-    catch (IOException ex) {
-      throw new RuntimeException(ex);
+    final char[] buf = new char[end - start];
+    for (int i = start; i < end; i++) {
+      buf[i - start] = charAt(i);
     }
+    return new String(buf);
   }
-  
+
+  /**
+   * Gets the type that corresponds to a scheme identifier.
+   * @param start index of the first character of the identifier
+   * @param end index following the last character
+   * @return value of the identifier if it consists of at most 9 decimal
+   *    digits, otherwise -1
+   */
+  private int numericType(int start, int end) {
+    if (end - start > 9) return -1;
+    int value = 0;
+    for (int i = start; i < end; i++) {
+      final char c = charAt(i);
+      if (c < '0' || c > '9') return -1;
+      value = 10 * value + c - '0';
+    }
+    return value;
+  }
+
+  /**
+   * Parses a range of this salt as a signed decimal integer, exactly as
+   * {@link Integer#parseInt(String)} would parse the corresponding
+   * substring.
+   * @param start index of the first character
+   * @param end index following the last character
+   * @return integer value
+   * @throws NumberFormatException if the range is not a valid integer
+   */
+  private int parseInt(int start, int end) {
+    if (start >= end) {
+      throw numberFormatException(start, end);
+    }
+    boolean negative = false;
+    int limit = -Integer.MAX_VALUE;
+    int i = start;
+    final char first = charAt(i);
+    if (first < '0') {
+      if (first == '-') {
+        negative = true;
+        limit = Integer.MIN_VALUE;
+      }
+      else if (first != '+') {
+        throw numberFormatException(start, end);
+      }
+      if (end - start == 1) {
+        throw numberFormatException(start, end);
+      }
+      i++;
+    }
+    final int multmin = limit / 10;
+    int result = 0;
+    while (i < end) {
+      final int digit = Character.digit(charAt(i++), 10);
+      if (digit < 0 || result < multmin) {
+        throw numberFormatException(start, end);
+      }
+      result *= 10;
+      if (result < limit + digit) {
+        throw numberFormatException(start, end);
+      }
+      result -= digit;
+    }
+    return negative ? result : -result;
+  }
+
+  private NumberFormatException numberFormatException(int start, int end) {
+    return new NumberFormatException(
+        "For input string: \"" + substring(start, end) + "\"");
+  }
+
 }
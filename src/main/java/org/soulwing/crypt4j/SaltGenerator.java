@@ -0,0 +1,265 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A generator of random salts for the MD5, SHA-256 and SHA-512 algorithms.
+ * <p>
+ * A single {@link SecureRandom} shared by many threads is a point of
+ * contention, since its methods are synchronized. This generator instead
+ * uses a stripe of {@link SecureRandom} instances (one per available
+ * processor, rounded up to a power of two), selected by thread identity.
+ * Each stripe holds a block of random bytes that is filled in advance;
+ * threads claim disjoint ranges of the block with an atomic increment, so
+ * the common path takes no locks. When a block is exhausted, the thread
+ * that needs more bytes fills a new block and installs it.
+ * <p>
+ * In the default mode, each stripe uses the platform's default
+ * {@link SecureRandom} algorithm. In non-blocking mode, each stripe uses
+ * the {@code NativePRNGNonBlocking} algorithm where it is available (i.e.
+ * on Unix-like platforms), which obtains both seed and random bytes from
+ * {@code /dev/urandom} and never waits for {@code /dev/random}; elsewhere
+ * the platform default is used, which does not block on those platforms.
+ * <p>
+ * Instances are safe for use by multiple threads.
+ *
+ * @author Carl Harris
+ */
+public final class SaltGenerator {
+
+  /**
+   * Number of bytes in each block of random bytes.
+   */
+  static final int BLOCK_LENGTH = 4096;
+
+  private static final String NON_BLOCKING_ALGORITHM = "NativePRNGNonBlocking";
+
+  private static final int MD5_SALT_LENGTH = 8;
+  private static final int SHA2_SALT_LENGTH = 16;
+
+  private final Stripe[] stripes;
+
+  /**
+   * Constructs a new instance that uses the platform's default
+   * {@link SecureRandom} algorithm.
+   */
+  public SaltGenerator() {
+    this(false);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param nonBlocking flag indicating whether the generator must avoid
+   *    sources of randomness that may block (i.e. {@code /dev/random})
+   */
+  public SaltGenerator(boolean nonBlocking) {
+    final int processors = Runtime.getRuntime().availableProcessors();
+    final int size = Integer.highestOneBit(processors) == processors ?
+        processors : Integer.highestOneBit(processors) << 1;
+    stripes = new Stripe[size];
+    for (int i = 0; i < size; i++) {
+      stripes[i] = new Stripe(newSecureRandom(nonBlocking));
+    }
+  }
+
+  /**
+   * Gets a shared instance that uses the platform's default
+   * {@link SecureRandom} algorithm.
+   * @return salt generator
+   */
+  public static SaltGenerator getInstance() {
+    return DefaultInstance.INSTANCE;
+  }
+
+  /**
+   * Generates a new MD5 salt (e.g. {@code $1$Kd1bX/UZ}).
+   * @return salt string
+   */
+  public String md5Salt() {
+    return salt("$1$", MD5_SALT_LENGTH);
+  }
+
+  /**
+   * Generates a new SHA-256 salt that uses the default number of rounds.
+   * @return salt string
+   */
+  public String sha256Salt() {
+    return salt("$5$", SHA2_SALT_LENGTH);
+  }
+
+  /**
+   * Generates a new SHA-256 salt (e.g.
+   * {@code $5$rounds=10000$0IcYEjvNzfs1Zk2/}).
+   * @param rounds number of rounds
+   * @return salt string
+   * @throws IllegalArgumentException if {@code rounds} is out of range
+   */
+  public String sha256Salt(int rounds) {
+    return salt("$5$" + roundsParam(rounds), SHA2_SALT_LENGTH);
+  }
+
+  /**
+   * Generates a new SHA-512 salt that uses the default number of rounds.
+   * @return salt string
+   */
+  public String sha512Salt() {
+    return salt("$6$", SHA2_SALT_LENGTH);
+  }
+
+  /**
+   * Generates a new SHA-512 salt (e.g.
+   * {@code $6$rounds=10000$0IcYEjvNzfs1Zk2/}).
+   * @param rounds number of rounds
+   * @return salt string
+   * @throws IllegalArgumentException if {@code rounds} is out of range
+   */
+  public String sha512Salt(int rounds) {
+    return salt("$6$" + roundsParam(rounds), SHA2_SALT_LENGTH);
+  }
+
+  /**
+   * Generates a new salt with a given prefix.
+   * @param prefix algorithm identifier and parameters, ending with
+   *    {@code $} (e.g. {@code $6$rounds=10000$})
+   * @return salt string consisting of {@code prefix} followed by salt text
+   *    of the maximum length for the algorithm
+   * @throws NoSuchAlgorithmException if the prefix specifies an algorithm
+   *    that is not supported
+   * @throws IllegalArgumentException if the prefix is malformed or
+   *    specifies DES
+   */
+  public String newSalt(String prefix) throws NoSuchAlgorithmException {
+    if (!prefix.startsWith("$") || !prefix.endsWith("$")
+        || !new Salt(prefix).getText().isEmpty()) {
+      throw new IllegalArgumentException("illegal salt prefix");
+    }
+    switch (Type.forSalt(new Salt(prefix))) {
+      case MD5:
+        return salt(prefix, MD5_SALT_LENGTH);
+      case SHA256:
+      case SHA512:
+        return salt(prefix, SHA2_SALT_LENGTH);
+      default:
+        throw new IllegalArgumentException("illegal salt prefix");
+    }
+  }
+
+  /**
+   * Fills an array with random bytes from the calling thread's stripe.
+   * @param bytes the array to fill
+   */
+  void nextBytes(byte[] bytes) {
+    final int length = bytes.length;
+    final Stripe stripe = stripes[(int) Thread.currentThread().getId()
+        & (stripes.length - 1)];
+    for (;;) {
+      final Block block = stripe.block.get();
+      final int position = block.position.getAndAdd(length);
+      if (position >= 0 && position <= block.bytes.length - length) {
+        System.arraycopy(block.bytes, position, bytes, 0, length);
+        return;
+      }
+      final byte[] fresh = new byte[BLOCK_LENGTH];
+      stripe.random.nextBytes(fresh);
+      stripe.block.compareAndSet(block, new Block(fresh));
+    }
+  }
+
+  /**
+   * Generates a salt.
+   * @param prefix algorithm identifier and parameters
+   * @param length length of the salt text; a multiple of 4
+   * @return salt string
+   */
+  private String salt(String prefix, int length) {
+    final byte[] bytes = new byte[length / 4 * 3];
+    nextBytes(bytes);
+    final char[] text = new char[length];
+    for (int i = 0, j = 0; i < bytes.length; i += 3) {
+      int w = ((bytes[i] & 0xff) << 16) | ((bytes[i + 1] & 0xff) << 8)
+          | (bytes[i + 2] & 0xff);
+      for (int k = 0; k < 4; k++, w >>>= 6) {
+        text[j++] = Base64.BASE64_SET.charAt(w & 0x3f);
+      }
+    }
+    return prefix.concat(new String(text));
+  }
+
+  private static String roundsParam(int rounds) {
+    if (rounds < Sha2Crypt.MIN_ROUNDS || rounds > Sha2Crypt.MAX_ROUNDS) {
+      throw new IllegalArgumentException("rounds must be in the range "
+          + Sha2Crypt.MIN_ROUNDS + ".." + Sha2Crypt.MAX_ROUNDS);
+    }
+    return "rounds=" + rounds + "$";
+  }
+
+  private static SecureRandom newSecureRandom(boolean nonBlocking) {
+    if (nonBlocking) {
+      try {
+        return SecureRandom.getInstance(NON_BLOCKING_ALGORITHM);
+      }
+      catch (NoSuchAlgorithmException ex) {
+        return new SecureRandom();
+      }
+    }
+    return new SecureRandom();
+  }
+
+  /**
+   * A {@link SecureRandom} and its current block of random bytes.
+   */
+  private static class Stripe {
+
+    final SecureRandom random;
+    final AtomicReference<Block> block =
+        new AtomicReference<>(new Block(new byte[0]));
+
+    Stripe(SecureRandom random) {
+      this.random = random;
+    }
+
+  }
+
+  /**
+   * A block of random bytes and the position of the next unclaimed byte.
+   */
+  private static class Block {
+
+    final byte[] bytes;
+    final AtomicInteger position = new AtomicInteger();
+
+    Block(byte[] bytes) {
+      this.bytes = bytes;
+    }
+
+  }
+
+  /**
+   * Holder of the shared instance, which is created on first use.
+   */
+  private static class DefaultInstance {
+    static final SaltGenerator INSTANCE = new SaltGenerator();
+  }
+
+}
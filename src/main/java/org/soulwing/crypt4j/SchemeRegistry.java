@@ -0,0 +1,160 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+
+/**
+ * The registry of {@link CryptScheme} providers.
+ * <p>
+ * Providers are discovered once, when the registry is first used. Lookup
+ * indexes a table by the first character of the scheme identifier, and
+ * compares the identifier in place with the (usually one) provider whose
+ * identifier begins with that character; it neither allocates nor
+ * hashes. Salts that have a built-in type are never looked up here.
+ * <p>
+ * The {@link WrappedCryptScheme wrapped} legacy schemes are registered
+ * ahead of any provider.
+ *
+ * @author Carl Harris
+ */
+final class SchemeRegistry {
+
+  private static final int TABLE_SIZE = 128;
+
+  private static volatile CryptScheme[][] table;
+
+  private SchemeRegistry() {
+  }
+
+  /**
+   * Finds the provider for a salt that does not have a built-in type.
+   * @param salt the subject salt
+   * @return provider or {@code null} if the salt has a built-in type or
+   *    if no provider has its identifier
+   */
+  static CryptScheme lookup(Salt salt) {
+    if (Type.forType(salt.getType()) != null) return null;
+    final int length = salt.getIdLength();
+    if (length == 0) return null;
+    final char first = salt.getIdChar(0);
+    if (first >= TABLE_SIZE) return null;
+    final CryptScheme[] candidates = table()[first];
+    if (candidates == null) return null;
+    for (CryptScheme candidate : candidates) {
+      if (salt.hasId(candidate.getId())) return candidate;
+    }
+    return null;
+  }
+
+  /**
+   * Finds the provider for a salt that does not have a built-in type.
+   * @param salt the subject salt
+   * @return provider
+   * @throws NoSuchAlgorithmException if no provider has the identifier
+   *    of {@code salt}
+   */
+  static CryptScheme forSalt(Salt salt) throws NoSuchAlgorithmException {
+    final CryptScheme scheme = lookup(salt);
+    if (scheme == null) {
+      throw new NoSuchAlgorithmException(
+          new IllegalArgumentException("unsupported type"));
+    }
+    return scheme;
+  }
+
+  /**
+   * Gets the providers that have been discovered.
+   * @return list of providers
+   */
+  static List<CryptScheme> schemes() {
+    final List<CryptScheme> schemes = new ArrayList<>();
+    for (CryptScheme[] candidates : table()) {
+      if (candidates != null) {
+        schemes.addAll(Arrays.asList(candidates));
+      }
+    }
+    return schemes;
+  }
+
+  private static CryptScheme[][] table() {
+    CryptScheme[][] table = SchemeRegistry.table;
+    if (table == null) {
+      synchronized (SchemeRegistry.class) {
+        table = SchemeRegistry.table;
+        if (table == null) {
+          final List<CryptScheme> schemes = new ArrayList<>();
+          schemes.add(WrappedCryptScheme.DES);
+          schemes.add(WrappedCryptScheme.MD5);
+          for (CryptScheme scheme : ServiceLoader.load(CryptScheme.class,
+              CryptScheme.class.getClassLoader())) {
+            schemes.add(scheme);
+          }
+          table = load(schemes);
+          SchemeRegistry.table = table;
+        }
+      }
+    }
+    return table;
+  }
+
+  /**
+   * Builds the lookup table for a sequence of providers.
+   * @param schemes the providers, in order of precedence
+   * @return lookup table
+   * @throws ServiceConfigurationError if a provider has an illegal
+   *    identifier
+   */
+  static CryptScheme[][] load(Iterable<CryptScheme> schemes) {
+    final CryptScheme[][] table = new CryptScheme[TABLE_SIZE][];
+    for (CryptScheme scheme : schemes) {
+      add(table, scheme);
+    }
+    return table;
+  }
+
+  private static void add(CryptScheme[][] table, CryptScheme scheme) {
+    final String id = scheme.getId();
+    if (id == null || id.isEmpty() || id.indexOf('$') != -1
+        || id.charAt(0) >= TABLE_SIZE) {
+      throw new ServiceConfigurationError("illegal scheme identifier '"
+          + id + "' for " + scheme.getClass().getName());
+    }
+    if (Type.forType(new Salt("$" + id + "$").getType()) != null) return;
+    final int first = id.charAt(0);
+    final CryptScheme[] candidates = table[first];
+    if (candidates == null) {
+      table[first] = new CryptScheme[] { scheme };
+      return;
+    }
+    for (CryptScheme candidate : candidates) {
+      if (candidate.getId().equals(id)) return;
+    }
+    final CryptScheme[] extended =
+        Arrays.copyOf(candidates, candidates.length + 1);
+    extended[candidates.length] = scheme;
+    table[first] = extended;
+  }
+
+}
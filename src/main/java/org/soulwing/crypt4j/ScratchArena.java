@@ -0,0 +1,110 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.util.Arrays;
+
+/**
+ * A reusable region of working memory for password-derived data.
+ * <p>
+ * An engine allocates the buffers it needs for an operation from its
+ * arena, by simply advancing an offset, and resets the arena when the
+ * operation is done. Resetting zeroes every byte used since the last
+ * reset, so no password-derived data is left behind for the garbage
+ * collector; and since the arena retains its memory, an operation
+ * allocates nothing once the arena has grown to the size that the
+ * longest password requires.
+ * <p>
+ * The arena is an ordinary array rather than off-heap memory, because the
+ * digests accept only arrays; data in a direct buffer would have to be
+ * copied to the heap for each update.
+ * <p>
+ * An instance is not thread safe; each engine has its own.
+ *
+ * @author Carl Harris
+ */
+class ScratchArena {
+
+  static final int INITIAL_CAPACITY = 256;
+
+  private byte[] buffer;
+  private int top;
+
+  /**
+   * Constructs a new instance with the default initial capacity.
+   */
+  public ScratchArena() {
+    this(INITIAL_CAPACITY);
+  }
+
+  /**
+   * Constructs a new instance.
+   * @param capacity initial capacity in bytes
+   */
+  public ScratchArena(int capacity) {
+    this.buffer = new byte[capacity];
+  }
+
+  /**
+   * Allocates a region of this arena.
+   * <p>
+   * If the arena must grow, its contents are moved to a larger array and
+   * the old array is zeroed, so callers must obtain the array using
+   * {@link #array()} after their last allocation.
+   * @param length length of the region in bytes
+   * @return offset of the region in {@link #array()}
+   */
+  public int allocate(int length) {
+    final int offset = top;
+    if (buffer.length - offset < length) {
+      final byte[] old = buffer;
+      buffer = Arrays.copyOf(old,
+          Math.max(2 * old.length, offset + length));
+      Arrays.fill(old, 0, offset, (byte) 0);
+    }
+    top = offset + length;
+    return offset;
+  }
+
+  /**
+   * Gets the array that holds the regions of this arena.
+   * @return array
+   */
+  public byte[] array() {
+    return buffer;
+  }
+
+  /**
+   * Gets the number of bytes allocated since the last reset.
+   * @return number of bytes
+   */
+  public int size() {
+    return top;
+  }
+
+  /**
+   * Zeroes every region allocated since the last reset, and makes the
+   * memory available for reuse.
+   */
+  public void reset() {
+    Arrays.fill(buffer, 0, top, (byte) 0);
+    top = 0;
+  }
+
+}
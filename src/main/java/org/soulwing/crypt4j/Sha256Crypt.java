@@ -25,6 +25,16 @@ package org.soulwing.crypt4j;
  */
 class Sha256Crypt extends Sha2Crypt {
 
+  /**
+   * Byte order of the base 64 encoded digest, in groups of three bytes
+   * as passed to {@link Base64#encode(byte[], int[])}.
+   */
+  static final int[] ENCODING_ORDER = {
+    0, 10, 20, 21, 1, 11, 12, 22, 2, 3, 13, 23,
+    24, 4, 14, 15, 25, 5, 6, 16, 26, 27, 7, 17,
+    18, 28, 8, 9, 19, 29, -1, 31, 30
+  };
+
   /**
    * Constructs a new instance.
    * @param type
@@ -38,19 +48,23 @@ class Sha256Crypt extends Sha2Crypt {
    */
   @Override
   protected String encodePassword(byte[] password) {
-    StringBuilder sb = new StringBuilder();
-    sb.append(Base64.encode(password[0], password[10], password[20], 4));
-    sb.append(Base64.encode(password[21], password[1], password[11], 4));
-    sb.append(Base64.encode(password[12], password[22], password[2], 4));
-    sb.append(Base64.encode(password[3], password[13], password[23], 4));
-    sb.append(Base64.encode(password[24], password[4], password[14], 4));
-    sb.append(Base64.encode(password[15], password[25], password[5], 4));
-    sb.append(Base64.encode(password[6], password[16], password[26], 4));
-    sb.append(Base64.encode(password[27], password[7], password[17], 4));
-    sb.append(Base64.encode(password[18], password[28], password[8], 4));
-    sb.append(Base64.encode(password[9], password[19], password[29], 4));
-    sb.append(Base64.encode((byte) 0, password[31], password[30], 3));
-    return sb.toString();
+    return Base64.encode(password, ENCODING_ORDER);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendPassword(StringBuilder sb, byte[] password) {
+    Base64.encode(password, ENCODING_ORDER, sb);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] decodePassword(String encoded) {
+    return Base64.decode(encoded, ENCODING_ORDER, 32);
   }
 
 }
@@ -0,0 +1,165 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A pure-Java SHA-256 digest (FIPS 180-4).
+ *
+ * @author Carl Harris
+ */
+class Sha256Digest extends BlockDigest {
+
+  static final int DIGEST_LENGTH = 32;
+  static final int BLOCK_LENGTH = 64;
+
+  private static final int[] K = {
+    0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5,
+    0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+    0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3,
+    0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+    0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc,
+    0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+    0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7,
+    0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+    0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13,
+    0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+    0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3,
+    0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+    0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5,
+    0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+    0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208,
+    0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+  };
+
+  private static final int[] IV = {
+    0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a,
+    0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+  };
+
+  private final int[] state = new int[8];
+  private final int[] w = new int[64];
+
+  /**
+   * Constructs a new instance.
+   */
+  public Sha256Digest() {
+    super(BLOCK_LENGTH, 8);
+    resetState();
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDigestLength() {
+    return DIGEST_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void resetState() {
+    System.arraycopy(IV, 0, state, 0, IV.length);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compress(byte[] input, int offset) {
+    final int[] w = this.w;
+    for (int t = 0; t < 16; t++, offset += 4) {
+      w[t] = (input[offset] << 24)
+          | ((input[offset + 1] & 0xff) << 16)
+          | ((input[offset + 2] & 0xff) << 8)
+          | (input[offset + 3] & 0xff);
+    }
+    for (int t = 16; t < 64; t++) {
+      final int w2 = w[t - 2];
+      final int w15 = w[t - 15];
+      final int s0 = Integer.rotateRight(w15, 7)
+          ^ Integer.rotateRight(w15, 18) ^ (w15 >>> 3);
+      final int s1 = Integer.rotateRight(w2, 17)
+          ^ Integer.rotateRight(w2, 19) ^ (w2 >>> 10);
+      w[t] = s1 + w[t - 7] + s0 + w[t - 16];
+    }
+
+    final int[] state = this.state;
+    int a = state[0];
+    int b = state[1];
+    int c = state[2];
+    int d = state[3];
+    int e = state[4];
+    int f = state[5];
+    int g = state[6];
+    int h = state[7];
+
+    for (int t = 0; t < 64; t++) {
+      final int s1 = Integer.rotateRight(e, 6)
+          ^ Integer.rotateRight(e, 11) ^ Integer.rotateRight(e, 25);
+      final int ch = (e & f) ^ (~e & g);
+      final int t1 = h + s1 + ch + K[t] + w[t];
+      final int s0 = Integer.rotateRight(a, 2)
+          ^ Integer.rotateRight(a, 13) ^ Integer.rotateRight(a, 22);
+      final int maj = (a & b) ^ (a & c) ^ (b & c);
+      final int t2 = s0 + maj;
+      h = g;
+      g = f;
+      f = e;
+      e = d + t1;
+      d = c;
+      c = b;
+      b = a;
+      a = t1 + t2;
+    }
+
+    state[0] += a;
+    state[1] += b;
+    state[2] += c;
+    state[3] += d;
+    state[4] += e;
+    state[5] += f;
+    state[6] += g;
+    state[7] += h;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeState(byte[] output, int offset) {
+    for (int i = 0; i < 8; i++, offset += 4) {
+      final int s = state[i];
+      output[offset] = (byte) (s >>> 24);
+      output[offset + 1] = (byte) (s >>> 16);
+      output[offset + 2] = (byte) (s >>> 8);
+      output[offset + 3] = (byte) s;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeLength(byte[] output, int offset, long bitLength) {
+    putLongBigEndian(bitLength, output, offset);
+  }
+
+}
@@ -0,0 +1,230 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A SHA-256 digest (FIPS 180-4) that compresses several messages in
+ * lockstep.
+ *
+ * @author Carl Harris
+ */
+class Sha256Lanes extends LaneDigest {
+
+  private static final int[] K = {
+    0x428a2f98, 0x71374491, 0xb5c0fbcf, 0xe9b5dba5,
+    0x3956c25b, 0x59f111f1, 0x923f82a4, 0xab1c5ed5,
+    0xd807aa98, 0x12835b01, 0x243185be, 0x550c7dc3,
+    0x72be5d74, 0x80deb1fe, 0x9bdc06a7, 0xc19bf174,
+    0xe49b69c1, 0xefbe4786, 0x0fc19dc6, 0x240ca1cc,
+    0x2de92c6f, 0x4a7484aa, 0x5cb0a9dc, 0x76f988da,
+    0x983e5152, 0xa831c66d, 0xb00327c8, 0xbf597fc7,
+    0xc6e00bf3, 0xd5a79147, 0x06ca6351, 0x14292967,
+    0x27b70a85, 0x2e1b2138, 0x4d2c6dfc, 0x53380d13,
+    0x650a7354, 0x766a0abb, 0x81c2c92e, 0x92722c85,
+    0xa2bfe8a1, 0xa81a664b, 0xc24b8b70, 0xc76c51a3,
+    0xd192e819, 0xd6990624, 0xf40e3585, 0x106aa070,
+    0x19a4c116, 0x1e376c08, 0x2748774c, 0x34b0bcb5,
+    0x391c0cb3, 0x4ed8aa4a, 0x5b9cca4f, 0x682e6ff3,
+    0x748f82ee, 0x78a5636f, 0x84c87814, 0x8cc70208,
+    0x90befffa, 0xa4506ceb, 0xbef9a3f7, 0xc67178f2
+  };
+
+  private static final int[] IV = {
+    0x6a09e667, 0xbb67ae85, 0x3c6ef372, 0xa54ff53a,
+    0x510e527f, 0x9b05688c, 0x1f83d9ab, 0x5be0cd19
+  };
+
+  private final int[] state;
+  private final int[] w;
+  private final int[] a;
+  private final int[] b;
+  private final int[] c;
+  private final int[] d;
+  private final int[] e;
+  private final int[] f;
+  private final int[] g;
+  private final int[] h;
+
+  /**
+   * Constructs a new instance.
+   * @param lanes maximum number of lanes
+   */
+  public Sha256Lanes(int lanes) {
+    super(lanes);
+    state = new int[8 * lanes];
+    w = new int[64 * lanes];
+    a = new int[lanes];
+    b = new int[lanes];
+    c = new int[lanes];
+    d = new int[lanes];
+    e = new int[lanes];
+    f = new int[lanes];
+    g = new int[lanes];
+    h = new int[lanes];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDigestLength() {
+    return Sha256Digest.DIGEST_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getBlockLength() {
+    return Sha256Digest.BLOCK_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void resetState(int n) {
+    for (int j = 0; j < 8; j++) {
+      final int iv = IV[j];
+      for (int l = 0, i = j * lanes; l < n; l++, i++) {
+        state[i] = iv;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compress(byte[][] inputs, int offset, int n) {
+    final int lanes = this.lanes;
+    final int[] w = this.w;
+    for (int l = 0; l < n; l++) {
+      final byte[] input = inputs[l];
+      for (int t = 0, i = offset; t < 16; t++, i += 4) {
+        w[t * lanes + l] = (input[i] << 24)
+            | ((input[i + 1] & 0xff) << 16)
+            | ((input[i + 2] & 0xff) << 8)
+            | (input[i + 3] & 0xff);
+      }
+    }
+    for (int t = 16; t < 64; t++) {
+      final int i2 = (t - 2) * lanes;
+      final int i7 = (t - 7) * lanes;
+      final int i15 = (t - 15) * lanes;
+      final int i16 = (t - 16) * lanes;
+      final int i = t * lanes;
+      for (int l = 0; l < n; l++) {
+        final int w2 = w[i2 + l];
+        final int w15 = w[i15 + l];
+        final int s0 = Integer.rotateRight(w15, 7)
+            ^ Integer.rotateRight(w15, 18) ^ (w15 >>> 3);
+        final int s1 = Integer.rotateRight(w2, 17)
+            ^ Integer.rotateRight(w2, 19) ^ (w2 >>> 10);
+        w[i + l] = s1 + w[i7 + l] + s0 + w[i16 + l];
+      }
+    }
+
+    System.arraycopy(state, 0, a, 0, n);
+    System.arraycopy(state, lanes, b, 0, n);
+    System.arraycopy(state, 2 * lanes, c, 0, n);
+    System.arraycopy(state, 3 * lanes, d, 0, n);
+    System.arraycopy(state, 4 * lanes, e, 0, n);
+    System.arraycopy(state, 5 * lanes, f, 0, n);
+    System.arraycopy(state, 6 * lanes, g, 0, n);
+    System.arraycopy(state, 7 * lanes, h, 0, n);
+
+    /* rather than shifting the working variables after each round, rotate
+     * their roles; after eight rounds they are back where they started */
+    for (int t = 0; t < 64; t += 8) {
+      round(t, a, b, c, d, e, f, g, h, n);
+      round(t + 1, h, a, b, c, d, e, f, g, n);
+      round(t + 2, g, h, a, b, c, d, e, f, n);
+      round(t + 3, f, g, h, a, b, c, d, e, n);
+      round(t + 4, e, f, g, h, a, b, c, d, n);
+      round(t + 5, d, e, f, g, h, a, b, c, n);
+      round(t + 6, c, d, e, f, g, h, a, b, n);
+      round(t + 7, b, c, d, e, f, g, h, a, n);
+    }
+
+    add(a, 0, n);
+    add(b, lanes, n);
+    add(c, 2 * lanes, n);
+    add(d, 3 * lanes, n);
+    add(e, 4 * lanes, n);
+    add(f, 5 * lanes, n);
+    add(g, 6 * lanes, n);
+    add(h, 7 * lanes, n);
+  }
+
+  /**
+   * Performs one round of the compression function in each lane.
+   * <p>
+   * On return, {@code h} holds the new value of the first working variable
+   * and {@code d} holds the new value of the fifth.
+   */
+  private void round(int t, int[] a, int[] b, int[] c, int[] d,
+      int[] e, int[] f, int[] g, int[] h, int n) {
+    final int k = K[t];
+    final int[] w = this.w;
+    final int i = t * lanes;
+    for (int l = 0; l < n; l++) {
+      final int el = e[l];
+      final int s1 = Integer.rotateRight(el, 6)
+          ^ Integer.rotateRight(el, 11) ^ Integer.rotateRight(el, 25);
+      final int ch = (el & f[l]) ^ (~el & g[l]);
+      final int t1 = h[l] + s1 + ch + k + w[i + l];
+      final int al = a[l];
+      final int bl = b[l];
+      final int s0 = Integer.rotateRight(al, 2)
+          ^ Integer.rotateRight(al, 13) ^ Integer.rotateRight(al, 22);
+      final int maj = (al & bl) ^ (al & c[l]) ^ (bl & c[l]);
+      d[l] += t1;
+      h[l] = t1 + s0 + maj;
+    }
+  }
+
+  /**
+   * Adds a working variable into the chaining state of each lane.
+   */
+  private void add(int[] v, int index, int n) {
+    final int[] state = this.state;
+    for (int l = 0; l < n; l++) {
+      state[index + l] += v[l];
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeState(byte[][] outputs, int n) {
+    for (int l = 0; l < n; l++) {
+      final byte[] output = outputs[l];
+      for (int j = 0; j < 8; j++) {
+        final int v = state[j * lanes + l];
+        output[4 * j] = (byte) (v >>> 24);
+        output[4 * j + 1] = (byte) (v >>> 16);
+        output[4 * j + 2] = (byte) (v >>> 8);
+        output[4 * j + 3] = (byte) v;
+      }
+    }
+  }
+
+}
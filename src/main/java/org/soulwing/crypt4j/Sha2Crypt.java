@@ -18,26 +18,42 @@
  */
 package org.soulwing.crypt4j;
 
-import java.io.ByteArrayOutputStream;
-import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
 
 /**
  * An abstract base for password encryption that uses one of the SHA-2 
  * variants (e.g. SHA-256).
+ * <p>
+ * The sequences P and S are held in a {@link ScratchArena} that is
+ * zeroed at the end of each operation, as are the intermediate sums;
+ * only the final digest remains in a working buffer.
  *
  * @author Carl Harris
  */
 abstract class Sha2Crypt extends Crypt {
 
   private static final String ROUNDS_PARAM = "rounds=";
-  private static final int MIN_ROUNDS = 1000;
-  private static final int MAX_ROUNDS = 999999999; 
-  private static final int DEFAULT_ROUNDS = 5000;
-  private static final int MAX_SALT_LENGTH = 16;
+  static final int MIN_ROUNDS = 1000;
+  static final int MAX_ROUNDS = 999999999;
+  static final int DEFAULT_ROUNDS = 5000;
+  static final int MAX_SALT_LENGTH = 16;
   
+  private Digest a;
+  private Digest b;
+  private int digestLength;
+  private byte[] sumB;
+  private byte[] sumDP;
+  private byte[] sumDS;
+  private byte[] ac;
+  private final ScratchArena arena = new ScratchArena();
+  private int seqP;
+  private int seqS;
+  private int seqPLength;
+  private int seqSLength;
+  private RoundSchedule schedule;
+
   /**
    * Constructs a new instance.
    * @param type
@@ -50,55 +66,88 @@ abstract class Sha2Crypt extends Crypt {
    * {@inheritDoc}
    */
   @Override
-  protected String doCrypt(Password password, Salt salt) 
+  protected byte[] doDigest(Password password, Salt salt) 
       throws NoSuchAlgorithmException, UnsupportedEncodingException {
-    
-    Integer rounds = rounds(salt);
-    byte[] encrypted = doCrypt(password.getBytes(CHARACTER_ENCODING), 
+    return doCrypt(password.getBytes(), 
         salt.getBytes(MAX_SALT_LENGTH, CHARACTER_ENCODING),
-        rounds == null ? DEFAULT_ROUNDS : rounds);
-    
-    return passwordToString(encrypted, salt, MAX_SALT_LENGTH, rounds);
+        effectiveRounds(salt));
   }
 
   /**
    * {@inheritDoc}
    */
   @Override
-  protected String encodeParameters(Object... params) {
-    if (params[0] == null) return null;
-    return ROUNDS_PARAM + params[0];
+  protected void appendOutput(StringBuilder sb, byte[] digest, Salt salt) {
+    appendOutput(sb, digest, salt, MAX_SALT_LENGTH);
   }
 
   /**
-   * Gets the number of rounds explicitly requested in the given salt
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendParameters(StringBuilder sb, Salt salt) {
+    if (!salt.hasParam(ROUNDS_PARAM)) return;
+    sb.append(ROUNDS_PARAM).append(effectiveRounds(salt)).append('$');
+  }
+
+  /**
+   * Gets the number of rounds that will be used for the given salt.
    * @param salt the subject salt
-   * @return number of rounds requested or {@code null} if the salt does not
-   *    specify the number of rounds
+   * @return number of rounds
    */
-  private Integer rounds(Salt salt) {
-    String params = salt.getParams();
-    if (params == null || !params.startsWith(ROUNDS_PARAM)) return null;  
-    Integer rounds = Integer.valueOf(params.substring(ROUNDS_PARAM.length()));
-    rounds = Math.max(MIN_ROUNDS, rounds);
-    rounds = Math.min(rounds, MAX_ROUNDS);
-    return rounds;
+  static int effectiveRounds(Salt salt) {
+    if (!salt.hasParam(ROUNDS_PARAM)) return DEFAULT_ROUNDS;
+    return clampRounds(salt.getIntParam(ROUNDS_PARAM));
+  }
+
+  private static int clampRounds(int rounds) {
+    return Math.min(Math.max(MIN_ROUNDS, rounds), MAX_ROUNDS);
   }
   
   /**
    * Encrypts the given password.
+   * <p>
+   * The returned array is a working buffer of this instance; its contents
+   * are valid only until the next invocation.
    * @param password the password to encrypt
    * @param salt salt for the encryption
    * @param rounds number of rounds requested
    * @return
    * @throws NoSuchAlgorithmException
    */
-  private byte[] doCrypt(byte[] password, byte[] salt, int rounds)
+  byte[] doCrypt(byte[] password, byte[] salt, int rounds)
+      throws NoSuchAlgorithmException {
+    prepare(password, salt);
+    try {
+      return doRounds(rounds);
+    }
+    finally {
+      clearSequences();
+      schedule.clear();
+    }
+  }
+
+  /**
+   * Performs steps 1 through 20 of the algorithm, producing the initial
+   * digest A/C and the sequences P and S that are the inputs to the round
+   * loop. The sequences remain in the arena of this instance until
+   * {@link #clearSequences()} is invoked.
+   * @param password the password to encrypt
+   * @param salt salt for the encryption
+   * @throws NoSuchAlgorithmException
+   * @see #getSumA()
+   * @see #prepareSchedule(RoundSchedule)
+   */
+  void prepare(byte[] password, byte[] salt)
       throws NoSuchAlgorithmException {
     
+    if (a == null) {
+      init();
+    }
+    arena.reset();
+
     /* 1. start digest A */
-    final MessageDigest a = type.newDigest();
-    final int digestLength = a.getDigestLength();
+    a.reset();
     
     /* 2. the password string is added to digest A  */
     a.update(password);
@@ -107,7 +156,7 @@ abstract class Sha2Crypt extends Crypt {
     a.update(salt);
     
     /* 4.  start digest B */
-    final MessageDigest b = type.newDigest();
+    b.reset();
     
     /* 5.  add the password to digest B */    
     b.update(password);
@@ -119,7 +168,7 @@ abstract class Sha2Crypt extends Crypt {
     b.update(password);
     
     /* 8.  finish digest B */
-    final byte[] sumB = b.digest();
+    b.digest(sumB);
     
     /* 9.  For each block of 32 or 64 bytes in the password string 
      *     add digest B to digest A
@@ -149,10 +198,10 @@ abstract class Sha2Crypt extends Crypt {
     }
     
     /* 12. finish digest A */
-    final byte[] sumA = a.digest();
+    a.digest(ac);
     
-    /* 13. start digest DP */
-    final MessageDigest dp = type.newDigest();
+    /* 13. start digest DP (digest B is no longer needed) */
+    final Digest dp = b;
     
     /* 14. for every byte in the password add the password to digest DP */
     for (int i = 0; i < password.length; i++) {
@@ -160,7 +209,7 @@ abstract class Sha2Crypt extends Crypt {
     }
     
     /* 15. finish digest DP */
-    final byte[] sumDP = dp.digest();
+    dp.digest(sumDP);
     
     /* 16. produce byte sequence P of the same length as the password where
      *     a) for each block of 32 or 64 bytes of length of the password string
@@ -168,21 +217,22 @@ abstract class Sha2Crypt extends Crypt {
      *     b) for the remaining N (up to  31 or 63) bytes use the first N
      *        bytes of digest DP 
      */
-    final byte[] seqP = makeSequence(sumDP, password.length, digestLength);
+    seqP = makeSequence(sumDP, password.length);
+    seqPLength = password.length;
 
     /* 17. start digest DS */
-    final MessageDigest ds = type.newDigest();
+    final Digest ds = b;
     
     /* 18. repeat the following 16+A[0] times, where A[0] represents the first
      *     byte in digest A interpreted as an 8-bit unsigned value:
      *     add the salt to digest DS  
      */
-    for (int i = 0, max = 16 + ((int) sumA[0] & 0xff); i < max; i++) {
+    for (int i = 0, max = 16 + ((int) ac[0] & 0xff); i < max; i++) {
       ds.update(salt);
     }
 
     /* 19. finish digest DS */
-    final byte[] sumDS = ds.digest();
+    ds.digest(sumDS);
 
     /* 20. produce byte sequence S of the same length as the salt string where
      *     a) for each block of 32 or 64 bytes of length of the salt string
@@ -190,8 +240,22 @@ abstract class Sha2Crypt extends Crypt {
      *     b) for the remaining N (up to  31 or 63) bytes use the first N
      *        bytes of digest DS
      */
-    final byte[] seqS = makeSequence(sumDS, salt.length, digestLength);
+    seqS = makeSequence(sumDS, salt.length);
+    seqSLength = salt.length;
+
+    /* the sums are no longer needed, except for A/C */
+    Arrays.fill(sumB, (byte) 0);
+    Arrays.fill(sumDP, (byte) 0);
+    Arrays.fill(sumDS, (byte) 0);
+  }
 
+  /**
+   * Performs step 21 of the algorithm, using the inputs produced by
+   * {@link #prepare(byte[], byte[])}.
+   * @param rounds number of rounds
+   * @return final digest A/C, in a working buffer of this instance
+   */
+  private byte[] doRounds(int rounds) {
     /* 21. repeat a loop according to the number specified in the rounds=<N>
      *     specification in the salt (or the default value if none is
      *     present).  Each round is numbered, starting with 0 and up to N-1.
@@ -202,15 +266,24 @@ abstract class Sha2Crypt extends Crypt {
      *     "digest A/C" to describe this behavior.
      */
     
-    byte[] ac = sumA;
+    if (prepareSchedule(schedule)) {
+      /* a) - h) using the precomputed messages for each round */
+      schedule.run(ac, rounds);
+      return ac;
+    }
+
+    /* a) digest C is started anew by each finish in h) */
+    final Digest c = b;
+    final byte[] scratch = arena.array();
+    final int seqP = this.seqP;
+    final int seqS = this.seqS;
+    final int seqPLength = this.seqPLength;
+    final int seqSLength = this.seqSLength;
     
     for (int i = 0, max = rounds; i < max; i++) {
-      /* a) start digest C */
-      final MessageDigest c = type.newDigest();
-      
       if (i % 2 != 0) {
         /* b) for odd round numbers add the byte sequence P to digest C */
-        c.update(seqP);
+        c.update(scratch, seqP, seqPLength);
       }
       else {
         /* c) for even round numbers add digest A/C */
@@ -219,12 +292,12 @@ abstract class Sha2Crypt extends Crypt {
       
       if (i % 3 != 0) {
         /* d) for all round numbers not divisible by 3 add the byte sequence S */
-        c.update(seqS);
+        c.update(scratch, seqS, seqSLength);
       }
       
       if (i % 7 != 0) {
         /* e) for all round numbers not divisible by 7 add the byte sequence P */
-        c.update(seqP);
+        c.update(scratch, seqP, seqPLength);
       }
       
       if (i % 2 != 0) {
@@ -233,35 +306,78 @@ abstract class Sha2Crypt extends Crypt {
       }
       else {
         /* g) for even round numbers add the byte sequence P */
-        c.update(seqP);
+        c.update(scratch, seqP, seqPLength);
       }
       
       /* h) finish digest C */
-      ac = c.digest();
+      c.digest(ac);
     }
     return ac;
   }
 
   /**
-   * Makes a sequence as described in steps 16 and 20 of the algorithm.
+   * Gets the digest A produced by {@link #prepare(byte[], byte[])}.
+   * @return digest A, in a working buffer of this instance
+   */
+  byte[] getSumA() {
+    return ac;
+  }
+
+  /**
+   * Prepares a round schedule using the sequences P and S produced by
+   * {@link #prepare(byte[], byte[])}.
+   * @param schedule the schedule to prepare
+   * @return {@code true} if the schedule was prepared
+   * @see RoundSchedule#prepare(byte[], int, int, byte[], int, int)
+   */
+  boolean prepareSchedule(RoundSchedule schedule) {
+    final byte[] scratch = arena.array();
+    return schedule.prepare(scratch, seqP, seqPLength,
+        scratch, seqS, seqSLength);
+  }
+
+  /**
+   * Zeroes the sequences P and S produced by
+   * {@link #prepare(byte[], byte[])}.
+   */
+  void clearSequences() {
+    arena.reset();
+  }
+
+  /**
+   * Creates the digests and working buffers used by this instance.
+   * @throws NoSuchAlgorithmException
+   */
+  private void init() throws NoSuchAlgorithmException {
+    final Digest a = type.newDigest();
+    final Digest b = type.newDigest();
+    digestLength = a.getDigestLength();
+    schedule = new RoundSchedule(b);
+    sumB = new byte[digestLength];
+    sumDP = new byte[digestLength];
+    sumDS = new byte[digestLength];
+    ac = new byte[digestLength];
+    this.b = b;
+    this.a = a;
+  }
+
+  /**
+   * Makes a sequence as described in steps 16 and 20 of the algorithm,
+   * in the arena of this instance.
    * @param sum the intermediate sum to place into the sequence
    * @param length length of the sequence in bytes
-   * @param digestLength length of the digest in bytes
-   * @return sequence
+   * @return offset of the sequence in the arena
    */
-  private byte[] makeSequence(byte[] sum, int length,
-      final int digestLength) {
-    try {
-      ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
-      for (int i = 0, max = length / digestLength; i < max; i++) {
-        outputStream.write(sum);
-      }
-      outputStream.write(sum, 0, length % digestLength);
-      return outputStream.toByteArray();
-    }
-    catch (IOException ex) {
-      throw new RuntimeException(ex);
+  private int makeSequence(byte[] sum, int length) {
+    final int offset = arena.allocate(length);
+    final byte[] scratch = arena.array();
+    int index = offset;
+    for (int i = 0, max = length / digestLength; i < max; i++) {
+      System.arraycopy(sum, 0, scratch, index, digestLength);
+      index += digestLength;
     }
+    System.arraycopy(sum, 0, scratch, index, length % digestLength);
+    return offset;
   }
 
 }
@@ -0,0 +1,328 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An engine that computes several SHA-256 or SHA-512 crypt hashes at once.
+ * <p>
+ * The round loop of the SHA-2 crypt algorithm is strictly serial within a
+ * single hash, so the only way to keep a wide SIMD unit busy is to run
+ * several independent hashes side by side. This engine carries up to
+ * {@link #LANES} hashes through the round loop in lockstep using a
+ * {@link LaneDigest}. Because every lane must digest a message of the same
+ * length in each round, entries are first grouped by password length,
+ * salt length and number of rounds; a group is then processed in chunks of
+ * up to {@link #LANES} entries. Steps 1 through 20 of the algorithm (which
+ * are cheap relative to the round loop) and the final formatting are
+ * performed one entry at a time by an ordinary {@link Sha2Crypt} engine.
+ * <p>
+ * The lanes are compressed by portable Java code in structure-of-arrays
+ * form rather than by explicit vector operations, so whether the lane
+ * loops actually execute in SIMD registers is up to the JIT compiler. On
+ * HotSpot with the default JCA digests, the SHA intrinsics of the scalar
+ * engine are faster, so the lane engine is used only when the built-in
+ * digests are selected (see {@link Type#BUILTIN_DIGEST_PROPERTY}).
+ * Otherwise, and for entries that are alone in their group and entries
+ * whose password is too long for a {@link RoundSchedule}, the scalar
+ * engine is used. DES entries are delegated to a {@link DesCryptBatch};
+ * entries of other types, and entries whose scheme is provided by a
+ * registered {@link CryptScheme}, are computed one at a time.
+ * <p>
+ * An instance is reusable but not thread safe.
+ *
+ * @author Carl Harris
+ */
+class Sha2CryptBatch {
+
+  static final int LANES = 8;
+
+  private final LaneDigest digest;
+  private final RoundSchedule[] schedules = new RoundSchedule[LANES];
+  private final byte[][] acs = new byte[LANES][];
+  private final byte[][] buffers = new byte[LANES][];
+
+  /**
+   * Constructs a new instance.
+   * @param type {@link Type#SHA256} or {@link Type#SHA512}
+   * @throws IllegalArgumentException if {@code type} is not a SHA-2 type
+   */
+  public Sha2CryptBatch(Type type) {
+    this.digest = newLaneDigest(type);
+    for (int l = 0; l < LANES; l++) {
+      schedules[l] = new RoundSchedule(newBlockDigest(type));
+      acs[l] = new byte[digest.getDigestLength()];
+    }
+  }
+
+  /**
+   * Encrypts (digests) many passwords.
+   * @param passwords the passwords to encrypt
+   * @param salts the salts for each of the passwords
+   * @return crypt output strings; the string at each index corresponds to
+   *    the password at the same index
+   * @throws NoSuchAlgorithmException if the algorithm required for some
+   *    salt is not supported on this platform
+   * @throws UnsupportedEncodingException if UTF-8 encoding is not available
+   *    on the platform
+   */
+  public static String[] cryptAll(char[][] passwords, String[] salts)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    return cryptAll(passwords, salts, Type.USE_BUILTIN_DIGEST);
+  }
+
+  /**
+   * Encrypts (digests) many passwords.
+   * @param passwords the passwords to encrypt
+   * @param salts the salts for each of the passwords
+   * @param useLanes flag indicating whether the lane engine should be used
+   *    for groups of more than one entry
+   * @return crypt output strings
+   * @throws NoSuchAlgorithmException
+   * @throws UnsupportedEncodingException
+   */
+  static String[] cryptAll(char[][] passwords, String[] salts,
+      boolean useLanes)
+      throws NoSuchAlgorithmException, UnsupportedEncodingException {
+    final String[] results = new String[passwords.length];
+    final Salt[] parsed = new Salt[passwords.length];
+    final byte[][] passwordBytes = new byte[passwords.length][];
+    final byte[][] saltBytes = new byte[passwords.length][];
+    final Map<List<Integer>, List<Integer>> groups = new LinkedHashMap<>();
+    final List<Integer> desEntries = new ArrayList<>();
+    final PasswordEncoder encoder = new PasswordEncoder();
+    try {
+      for (int i = 0; i < passwords.length; i++) {
+        final Salt salt = new Salt(salts[i]);
+        if (SchemeRegistry.lookup(salt) != null) {
+          results[i] = Crypt.crypt(passwords[i], salts[i]);
+          continue;
+        }
+        final Type type = Type.forSalt(salt);
+        if (type == Type.DES) {
+          DesCrypt.checkSetting(salt.getText());
+        }
+        else if (type != Type.SHA256 && type != Type.SHA512) {
+          results[i] = Crypt.crypt(passwords[i], salts[i]);
+          continue;
+        }
+        passwordBytes[i] = encoder.encode(passwords[i],
+            StandardCharsets.UTF_8).getBytes();
+        if (type == Type.DES) {
+          parsed[i] = salt;
+          desEntries.add(i);
+          continue;
+        }
+        saltBytes[i] = salt.getBytes(Sha2Crypt.MAX_SALT_LENGTH,
+            Crypt.CHARACTER_ENCODING);
+        parsed[i] = salt;
+        final List<Integer> key = Arrays.asList(type.ordinal(),
+            passwordBytes[i].length, saltBytes[i].length,
+            Sha2Crypt.effectiveRounds(salt));
+        List<Integer> group = groups.get(key);
+        if (group == null) {
+          group = new ArrayList<>();
+          groups.put(key, group);
+        }
+        group.add(i);
+      }
+
+      final Sha2CryptBatch[] batches =
+          new Sha2CryptBatch[Type.values().length];
+      for (Map.Entry<List<Integer>, List<Integer>> entry : groups.entrySet()) {
+        final Type type = Type.values()[entry.getKey().get(0)];
+        final int rounds = entry.getKey().get(3);
+        final List<Integer> group = entry.getValue();
+        final CryptProbe[] probes = beginBatch(type, group, parsed);
+        CryptOutcome outcome = CryptOutcome.UNSUPPORTED;
+        final EnginePool pool = type.pool;
+        final Sha2Crypt crypt = (Sha2Crypt) pool.acquire();
+        try {
+          if (!useLanes || group.size() == 1) {
+            for (int i : group) {
+              results[i] = crypt.format(
+                  crypt.doCrypt(passwordBytes[i], saltBytes[i], rounds),
+                  parsed[i]);
+            }
+          }
+          else {
+            Sha2CryptBatch batch = batches[type.ordinal()];
+            if (batch == null) {
+              batch = new Sha2CryptBatch(type);
+              batches[type.ordinal()] = batch;
+            }
+            final int[] chunk = new int[LANES];
+            for (int from = 0; from < group.size(); from += LANES) {
+              final int n = Math.min(LANES, group.size() - from);
+              for (int l = 0; l < n; l++) {
+                chunk[l] = group.get(from + l);
+              }
+              batch.crypt(crypt, chunk, n, passwordBytes, saltBytes, parsed,
+                  rounds, results);
+            }
+          }
+          outcome = CryptOutcome.HASHED;
+        }
+        finally {
+          pool.release(crypt);
+          CryptProbe.endBatch(probes, outcome);
+        }
+      }
+
+      if (!desEntries.isEmpty()) {
+        final CryptProbe[] probes = beginBatch(Type.DES, desEntries, parsed);
+        final EnginePool pool = Type.DES.pool;
+        final DesCrypt crypt = (DesCrypt) pool.acquire();
+        try {
+          new DesCryptBatch().cryptAll(crypt, passwordBytes, parsed,
+              desEntries, results);
+        }
+        finally {
+          pool.release(crypt);
+          CryptProbe.endBatch(probes, CryptOutcome.HASHED);
+        }
+      }
+      return results;
+    }
+    finally {
+      for (byte[] bytes : passwordBytes) {
+        if (bytes != null) {
+          Arrays.fill(bytes, (byte) 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Encrypts a chunk of entries that have the same password length, salt
+   * length and number of rounds.
+   * @param crypt scalar engine of this batch's type
+   * @param chunk indexes of the entries in the chunk
+   * @param n number of entries in the chunk
+   * @param passwords encoded passwords
+   * @param salts encoded salts
+   * @param parsed parsed salts
+   * @param rounds number of rounds
+   * @param results array into which the crypt output strings are stored
+   * @throws NoSuchAlgorithmException
+   */
+  private void crypt(Sha2Crypt crypt, int[] chunk, int n,
+      byte[][] passwords, byte[][] salts, Salt[] parsed, int rounds,
+      String[] results) throws NoSuchAlgorithmException {
+    final int digestLength = digest.getDigestLength();
+    try {
+      for (int l = 0; l < n; l++) {
+        final int i = chunk[l];
+        crypt.prepare(passwords[i], salts[i]);
+        final boolean prepared;
+        try {
+          prepared = crypt.prepareSchedule(schedules[l]);
+        }
+        finally {
+          crypt.clearSequences();
+        }
+        if (!prepared) {
+          /* the password is too long; all lanes are the same length */
+          for (int j = 0; j < n; j++) {
+            final int k = chunk[j];
+            results[k] = crypt.format(
+                crypt.doCrypt(passwords[k], salts[k], rounds), parsed[k]);
+          }
+          return;
+        }
+        System.arraycopy(crypt.getSumA(), 0, acs[l], 0, digestLength);
+        buffers[l] = schedules[l].getBuffer();
+      }
+
+      final RoundSchedule layout = schedules[0];
+      for (int r = 0, k = 0; r < rounds; r++) {
+        final int hole = layout.getHole(k);
+        for (int l = 0; l < n; l++) {
+          System.arraycopy(acs[l], 0, buffers[l], hole, digestLength);
+        }
+        digest.digestPadded(buffers, layout.getOffset(k),
+            layout.getLength(k), acs, n);
+        if (++k == RoundSchedule.PERIOD) {
+          k = 0;
+        }
+      }
+
+      for (int l = 0; l < n; l++) {
+        results[chunk[l]] = crypt.format(acs[l], parsed[chunk[l]]);
+      }
+    }
+    finally {
+      for (int l = 0; l < n; l++) {
+        schedules[l].clear();
+        buffers[l] = null;
+      }
+    }
+  }
+
+  /**
+   * Begins the operations on a group of entries that are encrypted
+   * together.
+   * @param type type of the entries
+   * @param group indexes of the entries
+   * @param salts parsed salts
+   * @return probes for the operations or {@code null} if no listener is
+   *    registered
+   */
+  private static CryptProbe[] beginBatch(Type type, List<Integer> group,
+      Salt[] salts) {
+    final CryptProbe[] probes = CryptProbe.beginBatch(group.size());
+    if (probes != null) {
+      for (int k = 0; k < probes.length; k++) {
+        probes[k].identify(type, salts[group.get(k)]);
+      }
+    }
+    return probes;
+  }
+
+  private static LaneDigest newLaneDigest(Type type) {
+    switch (type) {
+      case SHA256:
+        return new Sha256Lanes(LANES);
+      case SHA512:
+        return new Sha512Lanes(LANES);
+      default:
+        throw new IllegalArgumentException("unsupported type");
+    }
+  }
+
+  private static BlockDigest newBlockDigest(Type type) {
+    switch (type) {
+      case SHA256:
+        return new Sha256Digest();
+      case SHA512:
+        return new Sha512Digest();
+      default:
+        throw new IllegalArgumentException("unsupported type");
+    }
+  }
+
+}
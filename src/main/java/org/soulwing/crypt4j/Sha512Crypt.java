@@ -25,6 +25,19 @@ package org.soulwing.crypt4j;
  */
 class Sha512Crypt extends Sha2Crypt {
 
+  /**
+   * Byte order of the base 64 encoded digest, in groups of three bytes
+   * as passed to {@link Base64#encode(byte[], int[])}.
+   */
+  static final int[] ENCODING_ORDER = {
+    0, 21, 42, 22, 43, 1, 44, 2, 23, 3, 24, 45,
+    25, 46, 4, 47, 5, 26, 6, 27, 48, 28, 49, 7,
+    50, 8, 29, 9, 30, 51, 31, 52, 10, 53, 11, 32,
+    12, 33, 54, 34, 55, 13, 56, 14, 35, 15, 36, 57,
+    37, 58, 16, 59, 17, 38, 18, 39, 60, 40, 61, 19,
+    62, 20, 41, -1, -1, 63
+  };
+
   /**
    * Constructs a new instance.
    * @param type
@@ -38,32 +51,23 @@ class Sha512Crypt extends Sha2Crypt {
    */
   @Override
   protected String encodePassword(byte[] password) {
-    StringBuilder sb = new StringBuilder();
-    sb.append(Base64.encode(password[0], password[21], password[42], 4));
-    sb.append(Base64.encode(password[22], password[43], password[1], 4));
-    sb.append(Base64.encode(password[44], password[2], password[23], 4));
-    sb.append(Base64.encode(password[3], password[24], password[45], 4));
-    sb.append(Base64.encode(password[25], password[46], password[4], 4));
-    sb.append(Base64.encode(password[47], password[5], password[26], 4));
-    sb.append(Base64.encode(password[6], password[27], password[48], 4));
-    sb.append(Base64.encode(password[28], password[49], password[7], 4));
-    sb.append(Base64.encode(password[50], password[8], password[29], 4));
-    sb.append(Base64.encode(password[9], password[30], password[51], 4));
-    sb.append(Base64.encode(password[31], password[52], password[10], 4));
-    sb.append(Base64.encode(password[53], password[11], password[32], 4));
-    sb.append(Base64.encode(password[12], password[33], password[54], 4));
-    sb.append(Base64.encode(password[34], password[55], password[13], 4));
-    sb.append(Base64.encode(password[56], password[14], password[35], 4));
-    sb.append(Base64.encode(password[15], password[36], password[57], 4));
-    sb.append(Base64.encode(password[37], password[58], password[16], 4));
-    sb.append(Base64.encode(password[59], password[17], password[38], 4));
-    sb.append(Base64.encode(password[18], password[39], password[60], 4));
-    sb.append(Base64.encode(password[40], password[61], password[19], 4));
-    sb.append(Base64.encode(password[62], password[20], password[41], 4));
-    sb.append(Base64.encode((byte) 0, (byte) 0, password[63], 2));
-    return sb.toString();
+    return Base64.encode(password, ENCODING_ORDER);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void appendPassword(StringBuilder sb, byte[] password) {
+    Base64.encode(password, ENCODING_ORDER, sb);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected byte[] decodePassword(String encoded) {
+    return Base64.decode(encoded, ENCODING_ORDER, 64);
   }
-  
-  
 
 }
@@ -0,0 +1,256 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * A SHA-512 digest (FIPS 180-4) that compresses several messages in
+ * lockstep.
+ *
+ * @author Carl Harris
+ */
+class Sha512Lanes extends LaneDigest {
+
+  private static final long[] K = {
+    0x428a2f98d728ae22L, 0x7137449123ef65cdL,
+    0xb5c0fbcfec4d3b2fL, 0xe9b5dba58189dbbcL,
+    0x3956c25bf348b538L, 0x59f111f1b605d019L,
+    0x923f82a4af194f9bL, 0xab1c5ed5da6d8118L,
+    0xd807aa98a3030242L, 0x12835b0145706fbeL,
+    0x243185be4ee4b28cL, 0x550c7dc3d5ffb4e2L,
+    0x72be5d74f27b896fL, 0x80deb1fe3b1696b1L,
+    0x9bdc06a725c71235L, 0xc19bf174cf692694L,
+    0xe49b69c19ef14ad2L, 0xefbe4786384f25e3L,
+    0x0fc19dc68b8cd5b5L, 0x240ca1cc77ac9c65L,
+    0x2de92c6f592b0275L, 0x4a7484aa6ea6e483L,
+    0x5cb0a9dcbd41fbd4L, 0x76f988da831153b5L,
+    0x983e5152ee66dfabL, 0xa831c66d2db43210L,
+    0xb00327c898fb213fL, 0xbf597fc7beef0ee4L,
+    0xc6e00bf33da88fc2L, 0xd5a79147930aa725L,
+    0x06ca6351e003826fL, 0x142929670a0e6e70L,
+    0x27b70a8546d22ffcL, 0x2e1b21385c26c926L,
+    0x4d2c6dfc5ac42aedL, 0x53380d139d95b3dfL,
+    0x650a73548baf63deL, 0x766a0abb3c77b2a8L,
+    0x81c2c92e47edaee6L, 0x92722c851482353bL,
+    0xa2bfe8a14cf10364L, 0xa81a664bbc423001L,
+    0xc24b8b70d0f89791L, 0xc76c51a30654be30L,
+    0xd192e819d6ef5218L, 0xd69906245565a910L,
+    0xf40e35855771202aL, 0x106aa07032bbd1b8L,
+    0x19a4c116b8d2d0c8L, 0x1e376c085141ab53L,
+    0x2748774cdf8eeb99L, 0x34b0bcb5e19b48a8L,
+    0x391c0cb3c5c95a63L, 0x4ed8aa4ae3418acbL,
+    0x5b9cca4f7763e373L, 0x682e6ff3d6b2b8a3L,
+    0x748f82ee5defb2fcL, 0x78a5636f43172f60L,
+    0x84c87814a1f0ab72L, 0x8cc702081a6439ecL,
+    0x90befffa23631e28L, 0xa4506cebde82bde9L,
+    0xbef9a3f7b2c67915L, 0xc67178f2e372532bL,
+    0xca273eceea26619cL, 0xd186b8c721c0c207L,
+    0xeada7dd6cde0eb1eL, 0xf57d4f7fee6ed178L,
+    0x06f067aa72176fbaL, 0x0a637dc5a2c898a6L,
+    0x113f9804bef90daeL, 0x1b710b35131c471bL,
+    0x28db77f523047d84L, 0x32caab7b40c72493L,
+    0x3c9ebe0a15c9bebcL, 0x431d67c49c100d4cL,
+    0x4cc5d4becb3e42b6L, 0x597f299cfc657e2aL,
+    0x5fcb6fab3ad6faecL, 0x6c44198c4a475817L
+  };
+
+  private static final long[] IV = {
+    0x6a09e667f3bcc908L, 0xbb67ae8584caa73bL,
+    0x3c6ef372fe94f82bL, 0xa54ff53a5f1d36f1L,
+    0x510e527fade682d1L, 0x9b05688c2b3e6c1fL,
+    0x1f83d9abfb41bd6bL, 0x5be0cd19137e2179L
+  };
+
+  private final long[] state;
+  private final long[] w;
+  private final long[] a;
+  private final long[] b;
+  private final long[] c;
+  private final long[] d;
+  private final long[] e;
+  private final long[] f;
+  private final long[] g;
+  private final long[] h;
+
+  /**
+   * Constructs a new instance.
+   * @param lanes maximum number of lanes
+   */
+  public Sha512Lanes(int lanes) {
+    super(lanes);
+    state = new long[8 * lanes];
+    w = new long[80 * lanes];
+    a = new long[lanes];
+    b = new long[lanes];
+    c = new long[lanes];
+    d = new long[lanes];
+    e = new long[lanes];
+    f = new long[lanes];
+    g = new long[lanes];
+    h = new long[lanes];
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getDigestLength() {
+    return Sha512Digest.DIGEST_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public int getBlockLength() {
+    return Sha512Digest.BLOCK_LENGTH;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void resetState(int n) {
+    for (int j = 0; j < 8; j++) {
+      final long iv = IV[j];
+      for (int l = 0, i = j * lanes; l < n; l++, i++) {
+        state[i] = iv;
+      }
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compress(byte[][] inputs, int offset, int n) {
+    final int lanes = this.lanes;
+    final long[] w = this.w;
+    for (int l = 0; l < n; l++) {
+      final byte[] input = inputs[l];
+      for (int t = 0, i = offset; t < 16; t++, i += 8) {
+        w[t * lanes + l] = ((long) input[i] << 56)
+            | (((long) input[i + 1] & 0xff) << 48)
+            | (((long) input[i + 2] & 0xff) << 40)
+            | (((long) input[i + 3] & 0xff) << 32)
+            | (((long) input[i + 4] & 0xff) << 24)
+            | (((long) input[i + 5] & 0xff) << 16)
+            | (((long) input[i + 6] & 0xff) << 8)
+            | ((long) input[i + 7] & 0xff);
+      }
+    }
+    for (int t = 16; t < 80; t++) {
+      final int i2 = (t - 2) * lanes;
+      final int i7 = (t - 7) * lanes;
+      final int i15 = (t - 15) * lanes;
+      final int i16 = (t - 16) * lanes;
+      final int i = t * lanes;
+      for (int l = 0; l < n; l++) {
+        final long w2 = w[i2 + l];
+        final long w15 = w[i15 + l];
+        final long s0 = Long.rotateRight(w15, 1)
+            ^ Long.rotateRight(w15, 8) ^ (w15 >>> 7);
+        final long s1 = Long.rotateRight(w2, 19)
+            ^ Long.rotateRight(w2, 61) ^ (w2 >>> 6);
+        w[i + l] = s1 + w[i7 + l] + s0 + w[i16 + l];
+      }
+    }
+
+    System.arraycopy(state, 0, a, 0, n);
+    System.arraycopy(state, lanes, b, 0, n);
+    System.arraycopy(state, 2 * lanes, c, 0, n);
+    System.arraycopy(state, 3 * lanes, d, 0, n);
+    System.arraycopy(state, 4 * lanes, e, 0, n);
+    System.arraycopy(state, 5 * lanes, f, 0, n);
+    System.arraycopy(state, 6 * lanes, g, 0, n);
+    System.arraycopy(state, 7 * lanes, h, 0, n);
+
+    /* rather than shifting the working variables after each round, rotate
+     * their roles; after eight rounds they are back where they started */
+    for (int t = 0; t < 80; t += 8) {
+      round(t, a, b, c, d, e, f, g, h, n);
+      round(t + 1, h, a, b, c, d, e, f, g, n);
+      round(t + 2, g, h, a, b, c, d, e, f, n);
+      round(t + 3, f, g, h, a, b, c, d, e, n);
+      round(t + 4, e, f, g, h, a, b, c, d, n);
+      round(t + 5, d, e, f, g, h, a, b, c, n);
+      round(t + 6, c, d, e, f, g, h, a, b, n);
+      round(t + 7, b, c, d, e, f, g, h, a, n);
+    }
+
+    add(a, 0, n);
+    add(b, lanes, n);
+    add(c, 2 * lanes, n);
+    add(d, 3 * lanes, n);
+    add(e, 4 * lanes, n);
+    add(f, 5 * lanes, n);
+    add(g, 6 * lanes, n);
+    add(h, 7 * lanes, n);
+  }
+
+  /**
+   * Performs one round of the compression function in each lane.
+   * <p>
+   * On return, {@code h} holds the new value of the first working variable
+   * and {@code d} holds the new value of the fifth.
+   */
+  private void round(int t, long[] a, long[] b, long[] c, long[] d,
+      long[] e, long[] f, long[] g, long[] h, int n) {
+    final long k = K[t];
+    final long[] w = this.w;
+    final int i = t * lanes;
+    for (int l = 0; l < n; l++) {
+      final long el = e[l];
+      final long s1 = Long.rotateRight(el, 14)
+          ^ Long.rotateRight(el, 18) ^ Long.rotateRight(el, 41);
+      final long ch = (el & f[l]) ^ (~el & g[l]);
+      final long t1 = h[l] + s1 + ch + k + w[i + l];
+      final long al = a[l];
+      final long bl = b[l];
+      final long s0 = Long.rotateRight(al, 28)
+          ^ Long.rotateRight(al, 34) ^ Long.rotateRight(al, 39);
+      final long maj = (al & bl) ^ (al & c[l]) ^ (bl & c[l]);
+      d[l] += t1;
+      h[l] = t1 + s0 + maj;
+    }
+  }
+
+  /**
+   * Adds a working variable into the chaining state of each lane.
+   */
+  private void add(long[] v, int index, int n) {
+    final long[] state = this.state;
+    for (int l = 0; l < n; l++) {
+      state[index + l] += v[l];
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void encodeState(byte[][] outputs, int n) {
+    for (int l = 0; l < n; l++) {
+      final byte[] output = outputs[l];
+      for (int j = 0; j < 8; j++) {
+        BlockDigest.putLongBigEndian(state[j * lanes + l], output, 8 * j);
+      }
+    }
+  }
+
+}
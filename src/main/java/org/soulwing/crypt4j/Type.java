@@ -20,6 +20,7 @@ package org.soulwing.crypt4j;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.function.Function;
 
 /**
  * A enumeration of supported encryption types.
@@ -28,20 +29,59 @@ import java.security.NoSuchAlgorithmException;
  */
 enum Type {
   
-  DES(0, "DES", DesCrypt.class),
-  MD5(1, "MD5", Md5Crypt.class),
-  SHA256(5, "SHA-256", Sha256Crypt.class),
-  SHA512(6, "SHA-512", Sha512Crypt.class);
+  DES(0, "DES", DesCrypt::new),
+  MD5(1, "MD5", Md5Crypt::new),
+  SHA256(5, "SHA-256", Sha256Crypt::new),
+  SHA512(6, "SHA-512", Sha512Crypt::new);
+
+  /**
+   * Name of a system property that, when set to {@code true}, causes the
+   * built-in digest engines to be used in place of the JCA message digest
+   * implementations.
+   * <p>
+   * On HotSpot the JCA digests are compiled to intrinsics that use the
+   * CPU's SHA extensions, and generally outperform the built-in engines.
+   * The built-in engines avoid provider lookup and initialization entirely
+   * and are the faster choice on runtimes that lack those intrinsics.
+   */
+  static final String BUILTIN_DIGEST_PROPERTY =
+      "org.soulwing.crypt4j.builtinDigest";
+
+  /**
+   * Estimated cost of a DES encryption, in units of a digest compression.
+   */
+  private static final long DES_COST = 2;
+
+  static final boolean USE_BUILTIN_DIGEST =
+      Boolean.getBoolean(BUILTIN_DIGEST_PROPERTY);
+
+  /**
+   * Types indexed by type code.
+   */
+  private static final Type[] BY_TYPE;
+
+  static {
+    int max = 0;
+    for (Type t : values()) {
+      max = Math.max(max, t.type);
+    }
+    BY_TYPE = new Type[max + 1];
+    for (Type t : values()) {
+      BY_TYPE[t.type] = t;
+    }
+  }
   
   private final int type;
   private final String algorithm;
-  final Class<? extends Crypt> providerClass;
+  final Function<Type, ? extends Crypt> factory;
+  final EnginePool pool;
   
-  private Type(int type, String algorithm, 
-      Class<? extends Crypt> providerClass) {
+  private Type(int type, String algorithm,
+      Function<Type, ? extends Crypt> factory) {
     this.type = type;
     this.algorithm = algorithm;
-    this.providerClass = providerClass;
+    this.factory = factory;
+    this.pool = new EnginePool(this);
   }
   
   /**
@@ -60,23 +100,67 @@ enum Type {
     return algorithm;
   }
 
-  /**
-   * Gets the {@code providerClass} property.
-   * @return
-   */
-  public Class<? extends Crypt> getProviderClass() {
-    return providerClass;
-  }
-
   /**
    * Creates a new digest for the algorithm specified for this type.
+   * <p>
+   * The digest is obtained from the JCA, unless the
+   * {@value #BUILTIN_DIGEST_PROPERTY} system property is set to
+   * {@code true}, in which case the built-in pure-Java engine is used.
    * @return message digest
    * @throws NoSuchAlgorithmException
    */
-  public MessageDigest newDigest() throws NoSuchAlgorithmException {
-    return MessageDigest.getInstance(algorithm);  
+  public Digest newDigest() throws NoSuchAlgorithmException {
+    if (USE_BUILTIN_DIGEST) {
+      switch (this) {
+        case MD5:
+          return new Md5Digest();
+        case SHA256:
+          return new Sha256Digest();
+        case SHA512:
+          return new Sha512Digest();
+        default:
+          break;
+      }
+    }
+    return new JcaDigest(MessageDigest.getInstance(algorithm));
   }
   
+  /**
+   * Estimates the relative cost of a crypt operation of this type.
+   * <p>
+   * The unit of cost is roughly that of a single digest compression; the
+   * estimate is used only to balance work among parallel tasks.
+   * @param salt salt for the operation
+   * @return cost estimate
+   */
+  public long estimateCost(Salt salt) {
+    switch (this) {
+      case DES:
+        return DES_COST * DesCrypt.iterations(salt);
+      case MD5:
+        return Md5Crypt.ROUNDS;
+      default:
+        return 2L * Sha2Crypt.effectiveRounds(salt);
+    }
+  }
+
+  /**
+   * Gets the number of rounds (or iterations) performed by a crypt
+   * operation of this type.
+   * @param salt salt for the operation
+   * @return number of rounds
+   */
+  public int rounds(Salt salt) {
+    switch (this) {
+      case DES:
+        return DesCrypt.iterations(salt);
+      case MD5:
+        return Md5Crypt.ROUNDS;
+      default:
+        return Sha2Crypt.effectiveRounds(salt);
+    }
+  }
+
   /**
    * Gets the type instance that corresponds to the type specified by the
    * given salt.
@@ -86,12 +170,21 @@ enum Type {
    */
   public static Type forSalt(Salt salt) 
       throws NoSuchAlgorithmException {
-    for (Type type : Type.values()) {
-      if (type.type == salt.getType()) {
-        return type;
-      }
+    final Type type = forType(salt.getType());
+    if (type == null) {
+      throw new NoSuchAlgorithmException(
+          new IllegalArgumentException("unsupported type"));
     }
-    throw new NoSuchAlgorithmException(
-        new IllegalArgumentException("unsupported type"));
+    return type;
+  }
+
+  /**
+   * Gets the type instance that corresponds to a type code.
+   * @param type the subject type code (e.g. 6 for SHA-512)
+   * @return type instance or {@code null} if no type corresponds to
+   *    {@code type}
+   */
+  static Type forType(int type) {
+    return type >= 0 && type < BY_TYPE.length ? BY_TYPE[type] : null;
   }
 }
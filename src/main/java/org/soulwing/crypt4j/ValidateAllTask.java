@@ -0,0 +1,336 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fork/join task that validates a range of (password, hashed value)
+ * pairs.
+ * <p>
+ * A range is split at the point that divides its estimated cost (as given
+ * by {@link Type#estimateCost(Salt)}) in half, until the cost of a range
+ * falls below a threshold. The leaf task for a range acquires at most one
+ * engine of each type and uses it for every entry in its range; the DES
+ * entries of a range are validated together by a {@link DesCryptBatch}.
+ *
+ * @author Carl Harris
+ */
+class ValidateAllTask extends RecursiveAction {
+
+  private static final long serialVersionUID = 5512357138404911817L;
+
+  /**
+   * Estimated cost below which a range is not split further; about a
+   * millisecond of work.
+   */
+  static final long THRESHOLD = 5000;
+
+  private final char[][] passwords;
+  private final String[] hashedValues;
+  private final Salt[] salts;
+  private final long[] cumulativeCosts;
+  private final AtomicLongArray results;
+  private final int from;
+  private final int to;
+
+  /**
+   * Constructs a new instance that validates all entries.
+   * @param passwords the passwords to validate
+   * @param hashedValues the hashed values corresponding to
+   *    {@code passwords}
+   * @param results bit set (of at least {@code (passwords.length + 63)/64}
+   *    words) in which a bit is set for each entry that validates
+   */
+  public ValidateAllTask(char[][] passwords, String[] hashedValues,
+      AtomicLongArray results) {
+    this(passwords, hashedValues, new Salt[hashedValues.length],
+        new long[hashedValues.length + 1], results, 0, passwords.length);
+    for (int i = 0; i < hashedValues.length; i++) {
+      salts[i] = parse(hashedValues[i]);
+      cumulativeCosts[i + 1] = cumulativeCosts[i] + estimateCost(salts[i]);
+    }
+  }
+
+  private ValidateAllTask(char[][] passwords, String[] hashedValues,
+      Salt[] salts, long[] cumulativeCosts, AtomicLongArray results,
+      int from, int to) {
+    this.passwords = passwords;
+    this.hashedValues = hashedValues;
+    this.salts = salts;
+    this.cumulativeCosts = cumulativeCosts;
+    this.results = results;
+    this.from = from;
+    this.to = to;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  protected void compute() {
+    if (to - from < 2 || cost(from, to) <= THRESHOLD) {
+      validateRange();
+      return;
+    }
+    final int split = split();
+    invokeAll(
+        new ValidateAllTask(passwords, hashedValues, salts, cumulativeCosts,
+            results, from, split),
+        new ValidateAllTask(passwords, hashedValues, salts, cumulativeCosts,
+            results, split, to));
+  }
+
+  /**
+   * Finds the index that divides the cost of this task's range in half.
+   * @return split index, which is always greater than {@code from} and
+   *    less than {@code to}
+   */
+  private int split() {
+    final long target = cost(0, from) + cost(from, to) / 2;
+    int low = from + 1;
+    int high = to - 1;
+    while (low < high) {
+      final int mid = (low + high) >>> 1;
+      if (cumulativeCosts[mid] < target) {
+        low = mid + 1;
+      }
+      else {
+        high = mid;
+      }
+    }
+    return low;
+  }
+
+  /**
+   * Gets the estimated cost of a range of entries.
+   * @param from index of the first entry
+   * @param to index following the last entry
+   * @return cost estimate
+   */
+  private long cost(int from, int to) {
+    return cumulativeCosts[to] - cumulativeCosts[from];
+  }
+
+  /**
+   * Validates each entry in the range of this task.
+   */
+  private void validateRange() {
+    final Crypt[] engines = new Crypt[Type.values().length];
+    final PasswordEncoder encoder = new PasswordEncoder();
+    final List<Integer> desEntries = new ArrayList<>();
+    try {
+      for (int i = from; i < to; i++) {
+        if (salts[i] == null) {
+          final CryptProbe probe = CryptProbe.begin();
+          if (probe != null) {
+            probe.end(CryptOutcome.MALFORMED);
+          }
+          continue;
+        }
+        if (salts[i].getType() == Type.DES.getType()) {
+          desEntries.add(i);
+        }
+        else if (validate(passwords[i], hashedValues[i], engines, encoder)) {
+          set(i);
+        }
+      }
+      if (!desEntries.isEmpty()) {
+        validateDes(desEntries, engines);
+      }
+    }
+    finally {
+      for (int i = 0; i < engines.length; i++) {
+        if (engines[i] != null) {
+          Type.values()[i].pool.release(engines[i]);
+        }
+      }
+    }
+  }
+
+  /**
+   * Validates the DES entries of this task's range together, using a
+   * {@link DesCryptBatch}.
+   * @param entries indexes of the DES entries
+   * @param engines engines acquired by this task, indexed by type ordinal
+   */
+  private void validateDes(List<Integer> entries, Crypt[] engines) {
+    final int size = to - from;
+    final byte[][] passwordBytes = new byte[size][];
+    final Salt[] rangeSalts = new Salt[size];
+    final String[] results = new String[size];
+    final List<Integer> wellFormed = new ArrayList<>(entries.size());
+    final CryptProbe[] probes = CryptProbe.beginBatch(entries.size());
+    final CryptOutcome[] outcomes = new CryptOutcome[entries.size()];
+    Arrays.fill(outcomes, CryptOutcome.MALFORMED);
+    try {
+      Crypt crypt = engines[Type.DES.ordinal()];
+      if (crypt == null) {
+        crypt = Type.DES.pool.acquire();
+        engines[Type.DES.ordinal()] = crypt;
+      }
+      for (int k = 0; k < entries.size(); k++) {
+        final int i = entries.get(k);
+        if (probes != null) {
+          probes[k].identify(Type.DES, salts[i]);
+        }
+        try {
+          DesCrypt.checkSetting(salts[i].getText());
+        }
+        catch (RuntimeException ex) {
+          continue;
+        }
+        passwordBytes[i - from] = crypt.getEncoder()
+            .encode(passwords[i], StandardCharsets.UTF_8).getBytes();
+        rangeSalts[i - from] = salts[i];
+        wellFormed.add(i - from);
+      }
+      new DesCryptBatch().cryptAll((DesCrypt) crypt, passwordBytes,
+          rangeSalts, wellFormed, results);
+      for (int k = 0; k < entries.size(); k++) {
+        final int j = entries.get(k) - from;
+        if (results[j] == null) continue;
+        final HashedValue value = HashedValue.parse(hashedValues[from + j]);
+        final boolean valid = value.matchesOutput(results[j]);
+        if (valid) {
+          set(from + j);
+        }
+        outcomes[k] = value.outcome(valid);
+      }
+    }
+    catch (NoSuchAlgorithmException ex) {
+      return;
+    }
+    finally {
+      CryptProbe.endBatch(probes, outcomes);
+      for (byte[] bytes : passwordBytes) {
+        if (bytes != null) {
+          Arrays.fill(bytes, (byte) 0);
+        }
+      }
+    }
+  }
+
+  /**
+   * Validates a single entry.
+   * @param password the password to validate
+   * @param hashedValue the hashed value to validate against
+   * @param engines engines acquired by this task, indexed by type ordinal
+   * @param encoder encoder for values whose scheme is provided by a
+   *    registered {@link CryptScheme}
+   * @return {@code true} if the password and hashed value validate;
+   *    {@code false} if they do not, or if the hashed value is malformed
+   *    or uses an algorithm that is not supported
+   */
+  private static boolean validate(char[] password, String hashedValue,
+      Crypt[] engines, PasswordEncoder encoder) {
+    final CryptProbe probe = CryptProbe.begin();
+    CryptOutcome outcome = CryptOutcome.MALFORMED;
+    Password p = null;
+    try {
+      final HashedValue value = HashedValue.parse(hashedValue);
+      if (probe != null) {
+        value.identify(probe);
+      }
+      final Type type = value.getType();
+      Crypt crypt = null;
+      if (type != null) {
+        crypt = engines[type.ordinal()];
+        if (crypt == null) {
+          crypt = type.pool.acquire();
+          engines[type.ordinal()] = crypt;
+        }
+      }
+      p = (crypt != null ? crypt.getEncoder() : encoder)
+          .encode(password, StandardCharsets.UTF_8);
+      final boolean result = value.matchesEncoded(p, crypt);
+      outcome = value.outcome(result);
+      return result;
+    }
+    catch (NoSuchAlgorithmException ex) {
+      outcome = CryptOutcome.UNSUPPORTED;
+      return false;
+    }
+    catch (RuntimeException ex) {
+      return false;
+    }
+    finally {
+      if (p != null) {
+        p.clear();
+      }
+      if (probe != null) {
+        probe.end(outcome);
+      }
+    }
+  }
+
+  /**
+   * Sets the result bit for an entry.
+   * @param index index of the entry
+   */
+  private void set(int index) {
+    final int word = index >>> 6;
+    final long mask = 1L << index;
+    long value;
+    do {
+      value = results.get(word);
+    }
+    while (!results.compareAndSet(word, value, value | mask));
+  }
+
+  /**
+   * Parses a hashed value.
+   * @param hashedValue the subject hashed value
+   * @return salt or {@code null} if {@code hashedValue} is malformed
+   */
+  private static Salt parse(String hashedValue) {
+    try {
+      return new Salt(hashedValue);
+    }
+    catch (RuntimeException ex) {
+      return null;
+    }
+  }
+
+  /**
+   * Estimates the cost of validating against a hashed value.
+   * @param salt the parsed hashed value (may be {@code null})
+   * @return cost estimate; a nominal cost of 1 for a value that is
+   *    malformed or of an unsupported type
+   */
+  private static long estimateCost(Salt salt) {
+    if (salt == null) return 1;
+    try {
+      return Type.forSalt(salt).estimateCost(salt);
+    }
+    catch (NoSuchAlgorithmException ex) {
+      return 1;
+    }
+    catch (RuntimeException ex) {
+      return 1;
+    }
+  }
+
+}
@@ -0,0 +1,49 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+/**
+ * An enumeration of the results of validating a password under a
+ * {@link HashPolicy}.
+ *
+ * @author Carl Harris
+ */
+public enum ValidationResult {
+
+  /** The password does not match the hashed value. */
+  INVALID,
+
+  /** The password matches, and the hashed value conforms to the policy. */
+  VALID,
+
+  /**
+   * The password matches, but the hashed value does not conform to the
+   * policy and should be replaced.
+   */
+  OUTDATED;
+
+  /**
+   * Tests whether this result indicates that the password matched.
+   * @return {@code true} for {@link #VALID} and {@link #OUTDATED}
+   */
+  public boolean isValid() {
+    return this != INVALID;
+  }
+
+}
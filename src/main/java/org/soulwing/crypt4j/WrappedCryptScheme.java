@@ -0,0 +1,169 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * A built-in {@link CryptScheme} for legacy hashed values that have been
+ * wrapped (onion hashed) in SHA-512 by a {@link HashMigrator}.
+ * <p>
+ * A legacy MD5 or DES value is wrapped by using the complete value (e.g.
+ * {@code $1$saltstri$YMyguxXMBpd2TEZ.vS/3q1}) as the password for
+ * SHA-512 crypt, so no password is needed to migrate it. The wrapped value
+ * is the identifier of the scheme, followed by the legacy salt, followed
+ * by the SHA-512 crypt output string without its {@code $6$} identifier:
+ * <pre>
+ * $w1$&lt;MD5 salt&gt;$[rounds=&lt;N&gt;$]&lt;SHA-512 salt&gt;$&lt;SHA-512 digest&gt;
+ * $w0$&lt;DES setting&gt;$[rounds=&lt;N&gt;$]&lt;SHA-512 salt&gt;$&lt;SHA-512 digest&gt;
+ * </pre>
+ * where the DES setting is the first 2 characters of a traditional DES
+ * value or the first 9 characters of a BSDi extended DES value. A password
+ * is validated by computing its legacy value using the legacy salt, and
+ * then the SHA-512 digest of that value.
+ *
+ * @author Carl Harris
+ */
+final class WrappedCryptScheme implements CryptScheme {
+
+  /** the scheme for wrapped DES values */
+  static final WrappedCryptScheme DES = new WrappedCryptScheme(Type.DES);
+
+  /** the scheme for wrapped MD5 values */
+  static final WrappedCryptScheme MD5 = new WrappedCryptScheme(Type.MD5);
+
+  private static final String ID_PREFIX = "w";
+  private static final String OUTER_PREFIX = "$6$";
+
+  private final Type inner;
+  private final String id;
+  private final String prefix;
+
+  private WrappedCryptScheme(Type inner) {
+    this.inner = inner;
+    this.id = ID_PREFIX + inner.getType();
+    this.prefix = "$" + id + "$";
+  }
+
+  /**
+   * Gets the scheme for legacy values of a given type.
+   * @param type type of the legacy values
+   * @return scheme or {@code null} if values of {@code type} are not
+   *    wrapped
+   */
+  static WrappedCryptScheme forType(Type type) {
+    switch (type) {
+      case DES:
+        return DES;
+      case MD5:
+        return MD5;
+      default:
+        return null;
+    }
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * Wraps a legacy hashed value.
+   * @param legacyValue the legacy value, which must be of the type of this
+   *    scheme; it is not validated
+   * @param outerSalt SHA-512 salt (e.g. {@code $6$rounds=10000$salt})
+   * @return wrapped value
+   * @throws NoSuchAlgorithmException if SHA-512 is not supported on this
+   *    platform
+   * @throws IllegalArgumentException if {@code outerSalt} is not a SHA-512
+   *    salt
+   */
+  String wrap(String legacyValue, String outerSalt)
+      throws NoSuchAlgorithmException {
+    if (!outerSalt.startsWith(OUTER_PREFIX)) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    return wrap(legacySalt(legacyValue),
+        legacyValue.getBytes(StandardCharsets.US_ASCII), outerSalt);
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String crypt(byte[] password, String salt)
+      throws NoSuchAlgorithmException {
+    if (!salt.startsWith(prefix)) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    final int end = salt.indexOf('$', prefix.length());
+    if (end == -1) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    final String legacySalt = salt.substring(prefix.length(), end);
+    final String legacyValue = Crypt.cryptBuiltIn(
+        encoder -> PasswordEncoder.wrap(password),
+        inner == Type.MD5 ? "$" + inner.getType() + "$" + legacySalt
+            : legacySalt);
+    final byte[] legacyBytes =
+        legacyValue.getBytes(StandardCharsets.US_ASCII);
+    try {
+      return wrap(legacySalt, legacyBytes,
+          OUTER_PREFIX + salt.substring(end + 1));
+    }
+    finally {
+      Arrays.fill(legacyBytes, (byte) 0);
+    }
+  }
+
+  /**
+   * Gets the salt portion of a legacy value.
+   * @param legacyValue the subject value
+   * @return salt (for MD5) or setting (for DES)
+   * @throws IllegalArgumentException if the legacy salt cannot be wrapped
+   */
+  private String legacySalt(String legacyValue) {
+    final String salt = inner == Type.DES ?
+        legacyValue.substring(0,
+            Math.min(DesCrypt.settingLength(legacyValue),
+                legacyValue.length()))
+        : new Salt(legacyValue).getText(Md5Crypt.MAX_SALT_LENGTH);
+    if (salt.indexOf('$') != -1) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    return salt;
+  }
+
+  private String wrap(String legacySalt, byte[] legacyValue,
+      String outerSalt) throws NoSuchAlgorithmException {
+    final String outer = Crypt.cryptBuiltIn(
+        encoder -> PasswordEncoder.wrap(legacyValue), outerSalt);
+    return new StringBuilder(prefix.length() + legacySalt.length()
+        + outer.length())
+        .append(prefix).append(legacySalt).append('$')
+        .append(outer, OUTER_PREFIX.length(), outer.length())
+        .toString();
+  }
+
+}
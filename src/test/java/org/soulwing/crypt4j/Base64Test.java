@@ -0,0 +1,115 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Base64}.
+ *
+ * @author Carl Harris
+ */
+public class Base64Test {
+
+  private static final int[][] ORDERS = {
+      Md5Crypt.ENCODING_ORDER, Sha256Crypt.ENCODING_ORDER,
+      Sha512Crypt.ENCODING_ORDER
+  };
+
+  private static final int[] LENGTHS = { 16, 32, 64 };
+
+  private final Random random = new Random(0);
+
+  @Test
+  public void testKnownEncoding() throws Exception {
+    final String hashedValue = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+    final String encoded = hashedValue.substring(
+        hashedValue.lastIndexOf('$') + 1);
+    final byte[] digest = Base64.decode(encoded, Sha512Crypt.ENCODING_ORDER,
+        64);
+    assertThat(Base64.encode(digest, Sha512Crypt.ENCODING_ORDER),
+        is(equalTo(encoded)));
+  }
+
+  @Test
+  public void testEncodeForms() throws Exception {
+    for (int k = 0; k < ORDERS.length; k++) {
+      final int[] order = ORDERS[k];
+      final byte[] digest = new byte[LENGTHS[k]];
+      random.nextBytes(digest);
+      final String encoded = Base64.encode(digest, order);
+      assertThat(encoded.length(), is(equalTo(Base64.encodedLength(order))));
+
+      final char[] chars = new char[encoded.length() + 2];
+      assertThat(Base64.encode(digest, order, chars, 1),
+          is(equalTo(encoded.length() + 1)));
+      assertThat(new String(chars, 1, encoded.length()),
+          is(equalTo(encoded)));
+
+      final byte[] bytes = new byte[encoded.length() + 2];
+      assertThat(Base64.encode(digest, order, bytes, 1),
+          is(equalTo(encoded.length() + 1)));
+      assertThat(new String(bytes, 1, encoded.length(),
+          StandardCharsets.US_ASCII), is(equalTo(encoded)));
+
+      assertThat(Base64.encode(digest, order, new StringBuilder("$"))
+          .toString(), is(equalTo("$" + encoded)));
+      final Appendable appendable = new StringBuffer();
+      assertThat(Base64.encode(digest, order, appendable).toString(),
+          is(equalTo(encoded)));
+    }
+  }
+
+  @Test
+  public void testDecodeForms() throws Exception {
+    for (int k = 0; k < ORDERS.length; k++) {
+      final int[] order = ORDERS[k];
+      final byte[] digest = new byte[LENGTHS[k]];
+      random.nextBytes(digest);
+      final String encoded = Base64.encode(digest, order);
+      assertThat(Base64.decode(encoded, order, digest.length),
+          is(equalTo(digest)));
+      final byte[] bytes = ("x" + encoded).getBytes(StandardCharsets.US_ASCII);
+      assertThat(Base64.decode(bytes, 1, encoded.length(), order,
+          digest.length), is(equalTo(digest)));
+    }
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeIllegalCharacter() throws Exception {
+    final String encoded = Base64.encode(new byte[16],
+        Md5Crypt.ENCODING_ORDER);
+    Base64.decode(encoded.replace('.', 'é'), Md5Crypt.ENCODING_ORDER,
+        16);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDecodeIllegalLength() throws Exception {
+    Base64.decode("abc".getBytes(StandardCharsets.US_ASCII), 0, 3,
+        Md5Crypt.ENCODING_ORDER, 16);
+  }
+
+}
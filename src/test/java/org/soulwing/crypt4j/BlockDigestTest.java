@@ -0,0 +1,79 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for the {@link BlockDigest} implementations.
+ *
+ * @author Carl Harris
+ */
+public class BlockDigestTest {
+
+  private static final int MAX_LENGTH = 600;
+
+  @Test
+  public void testMd5() throws Exception {
+    assertMatchesJca(new Md5Digest(), "MD5");
+  }
+
+  @Test
+  public void testSha256() throws Exception {
+    assertMatchesJca(new Sha256Digest(), "SHA-256");
+  }
+
+  @Test
+  public void testSha512() throws Exception {
+    assertMatchesJca(new Sha512Digest(), "SHA-512");
+  }
+
+  private void assertMatchesJca(BlockDigest digest, String algorithm)
+      throws Exception {
+    final MessageDigest expected = MessageDigest.getInstance(algorithm);
+    final Random random = new Random(algorithm.hashCode());
+    final byte[] actual = new byte[digest.getDigestLength()];
+    for (int length = 0; length < MAX_LENGTH; length++) {
+      final byte[] input = new byte[length];
+      random.nextBytes(input);
+      int offset = 0;
+      while (offset < length) {
+        int n = Math.min(length - offset, random.nextInt(200));
+        if (n == 1) {
+          digest.update(input[offset]);
+        }
+        else {
+          digest.update(input, offset, n);
+        }
+        offset += n;
+      }
+      digest.digest(actual);
+      assertThat("length " + length, actual,
+          is(equalTo(expected.digest(input))));
+    }
+  }
+
+}
@@ -0,0 +1,116 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.both;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CostCalibrator}.
+ *
+ * @author Carl Harris
+ */
+public class CostCalibratorTest {
+
+  private final CostCalibrator calibrator = new CostCalibrator(2);
+
+  @Before
+  public void setUp() throws Exception {
+    calibrator.setSampleRounds(5000);
+    calibrator.setIterations(3);
+  }
+
+  @Test
+  public void testCalibrate() throws Exception {
+    final AtomicInteger reported = new AtomicInteger();
+    final CryptListener listener = new CryptListener() {
+      @Override
+      public void operationStarted() {
+        reported.incrementAndGet();
+      }
+      @Override
+      public void operationCompleted(String scheme, int rounds,
+          CryptOutcome outcome, long elapsedNanos) {
+        reported.incrementAndGet();
+      }
+    };
+    CryptMetrics.addListener(listener);
+    final CostModel model;
+    try {
+      model = calibrator.calibrate();
+    }
+    finally {
+      CryptMetrics.removeListener(listener);
+    }
+    assertThat(reported.get(), is(equalTo(0)));
+    assertThat(model.getThreads(), is(2));
+    for (String scheme : new String[] { "$1$", "$5$", "$6$" }) {
+      for (int length : CostModel.PASSWORD_LENGTHS) {
+        assertThat(model.getNanosPerRound(scheme, length),
+            is(greaterThan(0.0)));
+      }
+    }
+    assertThat(model.estimateNanos("$6$rounds=100000$salt", 8),
+        is(greaterThan(model.estimateNanos("$6$rounds=1000$salt", 8))));
+    assertThat(model.roundsFor("$6$", 8, 1, TimeUnit.DAYS),
+        is(equalTo(Sha2Crypt.MAX_ROUNDS)));
+    assertThat(model.roundsFor("$6$", 8, 1, TimeUnit.NANOSECONDS),
+        is(equalTo(Sha2Crypt.MIN_ROUNDS)));
+    try {
+      model.getNanosPerRound("saltstring", 8);
+      fail("expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      assertThat(ex.getMessage(), containsString("DES"));
+    }
+  }
+
+  @Test
+  public void testRecommend() throws Exception {
+    final CostCalibrator.Recommendation recommendation =
+        calibrator.recommend("$5$", 5, TimeUnit.MILLISECONDS);
+    assertThat(recommendation.getRounds(),
+        is(both(greaterThanOrEqualTo(Sha2Crypt.MIN_ROUNDS))
+            .and(lessThanOrEqualTo(Sha2Crypt.MAX_ROUNDS))));
+    assertThat(recommendation.getSaltPrefix(),
+        is(equalTo("$5$rounds=" + recommendation.getRounds() + "$")));
+    assertThat(Crypt.crypt("password".toCharArray(),
+        recommendation.getSaltPrefix() + "saltstring").startsWith(
+            recommendation.getSaltPrefix() + "saltstring$"), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRecommendMd5() throws Exception {
+    calibrator.recommend("$1$", 5, TimeUnit.MILLISECONDS);
+  }
+
+}
@@ -0,0 +1,120 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link CredentialAuditor}.
+ *
+ * @author Carl Harris
+ */
+public class CredentialAuditorTest {
+
+  private static final String[] LINES = {
+    "# comment",
+    "",
+    "root:$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1:17000:0:99999:7:::",
+    "alice:$5$rounds=10000$saltstringsaltstring$" + repeat('a', 43),
+    "bob:$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1",
+    "carol:saszt8mUri4AI",
+    "dave:!:17000::::::",
+    "erin:",
+    "frank:$2b$12$abcdefghijklmnopqrstuuABCDEFGHIJKLMNOPQRSTUVWXYZ01234",
+    "gina:{SHA}abc=",
+    "hank:$6$rounds=abc$saltsaltsaltsalt$" + repeat('a', 86),
+    "ivan",
+    "jill:$6$rounds=500$saltsaltsaltsalt$" + repeat('a', 86) + "\r",
+    "kate:$apr1$xyz$abc",
+    "lena:_J9..CCCCoYeEi67o2u.",
+    "mike:$w1$saltstri$rounds=1000$saltsaltsaltsalt$" + repeat('a', 86),
+    "nina:$w0$sa$saltstring$" + repeat('a', 86),
+    "omar:$w5$saltstring$" + repeat('a', 43),
+    "paul:$w0$sal$saltsaltsaltsalt$" + repeat('a', 86)
+  };
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setUp() throws Exception {
+    file = folder.newFile("shadow");
+    final StringBuilder sb = new StringBuilder();
+    for (String line : LINES) {
+      if (sb.length() > 0) {
+        sb.append('\n');
+      }
+      sb.append(line);
+    }
+    Files.write(file.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testAudit() throws Exception {
+    final AuditReport report = new CredentialAuditor().audit(file.toPath());
+    assertThat(report.getEntryCount(), is(equalTo(17L)));
+    assertThat(report.getAlgorithmCounts().values(),
+        contains(2L, 1L, 1L, 2L));
+    assertThat(report.getWrappedCounts().keySet(), contains("DES", "MD5"));
+    assertThat(report.getWrappedCounts().values(), contains(1L, 1L));
+    assertThat(report.getUnsupportedCounts().keySet(),
+        contains("$2b$", "$apr1$", "$w5$", "{SHA}"));
+    assertThat(report.getRoundsHistogram().keySet(),
+        contains(1000, 5000, 10000));
+    assertThat(report.getEmptyCount(), is(equalTo(1L)));
+    assertThat(report.getLockedCount(), is(equalTo(1L)));
+    assertThat(report.getMalformedCount(), is(equalTo(3L)));
+    assertThat(report.getMalformedLines(), contains(11L, 12L, 19L));
+    assertThat(report.getShortSaltCount(), is(equalTo(2L)));
+    assertThat(report.getLongSaltCount(), is(equalTo(1L)));
+  }
+
+  @Test
+  public void testAuditInSmallChunks() throws Exception {
+    final String expected =
+        new CredentialAuditor().audit(file.toPath()).toString();
+    for (int chunkSize = 1; chunkSize < 200; chunkSize += 7) {
+      assertThat(new CredentialAuditor(ForkJoinPool.commonPool(), chunkSize)
+          .audit(file.toPath()).toString(), is(equalTo(expected)));
+    }
+  }
+
+  private static String repeat(char c, int count) {
+    final char[] chars = new char[count];
+    Arrays.fill(chars, c);
+    return new String(chars);
+  }
+
+}
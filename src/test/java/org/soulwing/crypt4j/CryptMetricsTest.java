@@ -0,0 +1,268 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasEntry;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.junit.Assert.fail;
+
+import java.lang.management.ManagementFactory;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.TabularData;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CryptMetrics} and {@link CryptStatistics}.
+ *
+ * @author Carl Harris
+ */
+public class CryptMetricsTest {
+
+  private static final String HASHED_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private final MockListener listener = new MockListener();
+
+  @After
+  public void tearDown() throws Exception {
+    CryptMetrics.removeListener(listener);
+    CryptMetrics.disableStatistics();
+  }
+
+  @Test
+  public void testNoListener() throws Exception {
+    assertThat(CryptMetrics.getListener(), is(nullValue()));
+    assertThat(CryptProbe.begin(), is(nullValue()));
+  }
+
+  @Test
+  public void testOutcomes() throws Exception {
+    CryptMetrics.addListener(listener);
+    Crypt.crypt("password".toCharArray(), "$5$rounds=2000$salt");
+    Crypt.validate("Hello world!".toCharArray(), HASHED_VALUE);
+    Crypt.validate("Hello World!".toCharArray(), HASHED_VALUE);
+    Crypt.validate("Hello world!".toCharArray(),
+        HASHED_VALUE.substring(0, HASHED_VALUE.length() - 1));
+    try {
+      Crypt.validate("password".toCharArray(), "$99$XX");
+      fail("expected NoSuchAlgorithmException");
+    }
+    catch (NoSuchAlgorithmException ex) {
+      assert true;
+    }
+    try {
+      Crypt.crypt("password".toCharArray(), "$6");
+      fail("expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      assert true;
+    }
+    HashedValue.parse("$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1")
+        .matches("Hello world!");
+    Crypt.validateAscii("password".toCharArray(),
+        Crypt.cryptAscii("password".toCharArray(), "_J9..CCCC"));
+
+    final int count = DesCrypt.count("_J9..CCCC");
+    assertThat(listener.started, is(equalTo(9)));
+    assertThat(listener.events, is(equalTo(Arrays.asList(
+        "SHA256/2000/HASHED", "SHA512/5000/MATCH", "SHA512/5000/MISMATCH",
+        "SHA512/5000/MALFORMED", "null/0/UNSUPPORTED", "null/0/MALFORMED",
+        "MD5/1000/MATCH", "DES/" + count + "/HASHED",
+        "DES/" + count + "/MATCH"))));
+  }
+
+  @Test
+  public void testBatchesReported() throws Exception {
+    CryptMetrics.addListener(listener);
+    final char[][] passwords = new char[6][];
+    for (int i = 0; i < passwords.length; i++) {
+      passwords[i] = ("password" + i).toCharArray();
+    }
+    final String[] salts = { "$6$rounds=2000$salt0", "$6$rounds=2000$salt1",
+        "$6$rounds=2000$salt2", "ab", "cd", "$1$salt" };
+    final String[] hashedValues = Sha2CryptBatch.cryptAll(
+        passwords, salts, true);
+    assertThat(listener.started, is(equalTo(6)));
+    assertThat(listener.events, containsInAnyOrder(
+        "SHA512/2000/HASHED", "SHA512/2000/HASHED", "SHA512/2000/HASHED",
+        "DES/25/HASHED", "DES/25/HASHED", "MD5/1000/HASHED"));
+
+    listener.events.clear();
+    final List<char[]> candidates = new ArrayList<>();
+    for (int i = 0; i < passwords.length; i++) {
+      candidates.add(i % 2 == 0 ?
+          ("password" + i).toCharArray() : "wrong".toCharArray());
+    }
+    candidates.add("password".toCharArray());
+    final List<String> values = new ArrayList<>(Arrays.asList(hashedValues));
+    values.add("$X$XX");
+    Crypt.validateAll(candidates, values, ForkJoinPool.commonPool());
+    assertThat(listener.events, containsInAnyOrder(
+        "SHA512/2000/MATCH", "SHA512/2000/MISMATCH", "SHA512/2000/MATCH",
+        "DES/25/MISMATCH", "DES/25/MATCH", "MD5/1000/MISMATCH",
+        "null/0/UNSUPPORTED"));
+  }
+
+  @Test
+  public void testWarmUpNotReported() throws Exception {
+    CryptMetrics.addListener(listener);
+    Crypt.warmUp();
+    assertThat(listener.events.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testRemoveListener() throws Exception {
+    CryptMetrics.addListener(listener);
+    assertThat(CryptMetrics.removeListener(listener), is(true));
+    assertThat(CryptMetrics.removeListener(listener), is(false));
+    Crypt.validate("Hello world!".toCharArray(), HASHED_VALUE);
+    assertThat(listener.events.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testFailingListener() throws Exception {
+    final CryptListener failing = new FailingListener();
+    CryptMetrics.addListener(failing);
+    CryptMetrics.addListener(listener);
+    try {
+      assertThat(Crypt.validate("Hello world!".toCharArray(), HASHED_VALUE),
+          is(true));
+      assertThat(listener.events.size(), is(equalTo(1)));
+    }
+    finally {
+      CryptMetrics.removeListener(failing);
+    }
+  }
+
+  @Test
+  public void testStatistics() throws Exception {
+    final CryptStatistics statistics = CryptMetrics.enableStatistics(false);
+    assertThat(CryptMetrics.enableStatistics(false), is(statistics));
+    Crypt.validate("Hello world!".toCharArray(), HASHED_VALUE);
+    Crypt.validate("Hello World!".toCharArray(), HASHED_VALUE);
+    Crypt.validate("Hello World!".toCharArray(), HASHED_VALUE);
+    Crypt.crypt("password".toCharArray(), "$6$rounds=2000000$salt");
+    Crypt.crypt("password".toCharArray(), "$w1$saltstri$rounds=1000$salt");
+
+    assertThat(statistics.getCount("SHA512", CryptOutcome.MATCH),
+        is(equalTo(1L)));
+    assertThat(statistics.getCount("SHA512", CryptOutcome.MISMATCH),
+        is(equalTo(2L)));
+    assertThat(statistics.getCounts(), hasEntry("SHA512/HASHED", 1L));
+    assertThat(statistics.getCounts(), hasEntry("w1/HASHED", 1L));
+    assertThat(statistics.getCount("w1", CryptOutcome.HASHED),
+        is(equalTo(1L)));
+    assertThat(statistics.getCount("w0", CryptOutcome.HASHED),
+        is(equalTo(0L)));
+    assertThat(statistics.getInFlight(), is(equalTo(0)));
+    assertThat(statistics.getPeakInFlight(), is(equalTo(1)));
+
+    final long median = statistics.getLatencyPercentile("SHA512", 5000, 50);
+    final long slow = statistics.getLatencyPercentile("SHA512", 2000000, 50);
+    assertThat(median, is(greaterThan(0L)));
+    assertThat(slow, is(greaterThan(median)));
+    assertThat(statistics.getLatencyPercentile("MD5", 1000, 50),
+        is(equalTo(0L)));
+    assertThat(statistics.getMedianLatencyMillis().keySet().toString(),
+        is(equalTo("[SHA512/rounds<=10000, SHA512/rounds>1000000, "
+            + "w1/rounds<=1000]")));
+
+    statistics.reset();
+    assertThat(statistics.getCounts().isEmpty(), is(true));
+    assertThat(statistics.getMaxLatencyMillis().isEmpty(), is(true));
+  }
+
+  @Test
+  public void testMBean() throws Exception {
+    CryptMetrics.enableStatistics(true);
+    Crypt.validate("Hello world!".toCharArray(), HASHED_VALUE);
+    final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    final ObjectName name = new ObjectName(CryptStatistics.OBJECT_NAME);
+    final TabularData counts = (TabularData) server.getAttribute(name,
+        "Counts");
+    assertThat(counts.size(), is(equalTo(1)));
+    assertThat(server.getAttribute(name, "InFlight"), is(equalTo((Object) 0)));
+    CryptMetrics.disableStatistics();
+    assertThat(server.isRegistered(name), is(false));
+  }
+
+  @Test
+  public void testLatencyBuckets() throws Exception {
+    long previous = 0;
+    for (int i = 0; i < 4 * 62; i++) {
+      final long bound = CryptStatistics.upperBound(i);
+      assertThat(bound, is(greaterThan(previous)));
+      assertThat(CryptStatistics.latencyBucket(bound - 1), is(equalTo(i)));
+      if (bound != Long.MAX_VALUE) {
+        assertThat(CryptStatistics.latencyBucket(bound), is(equalTo(i + 1)));
+      }
+      assertThat(bound - previous, is(lessThanOrEqualTo(
+          Math.max(1, previous / 4))));
+      previous = bound;
+    }
+  }
+
+  private static class MockListener implements CryptListener {
+
+    private final List<String> events = new ArrayList<>();
+    private int started;
+
+    @Override
+    public synchronized void operationStarted() {
+      started++;
+    }
+
+    @Override
+    public synchronized void operationCompleted(String scheme, int rounds,
+        CryptOutcome outcome, long elapsedNanos) {
+      events.add(scheme + "/" + rounds + "/" + outcome);
+    }
+
+  }
+
+  private static class FailingListener implements CryptListener {
+
+    @Override
+    public void operationStarted() {
+      throw new RuntimeException();
+    }
+
+    @Override
+    public void operationCompleted(String scheme, int rounds,
+        CryptOutcome outcome, long elapsedNanos) {
+      throw new RuntimeException();
+    }
+
+  }
+
+}
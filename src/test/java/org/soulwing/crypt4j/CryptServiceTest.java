@@ -0,0 +1,102 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CryptService}.
+ *
+ * @author Carl Harris
+ */
+public class CryptServiceTest {
+
+  private static final String SALT = "$6$saltstring";
+  private static final String HASHED_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private CryptService service = new CryptService(2);
+
+  @After
+  public void tearDown() throws Exception {
+    service.close();
+  }
+
+  @Test
+  public void testCryptAsync() throws Exception {
+    char[] password = "Hello world!".toCharArray();
+    CompletableFuture<String> result = service.cryptAsync(password, SALT);
+    password[0] = 0;
+    assertThat(result.get(), is(equalTo(HASHED_VALUE)));
+  }
+
+  @Test
+  public void testValidateAsync() throws Exception {
+    assertThat(service.validateAsync("Hello world!".toCharArray(),
+        HASHED_VALUE).get(), is(true));
+    assertThat(service.validateAsync("Hello World!".toCharArray(),
+        HASHED_VALUE).get(), is(false));
+  }
+
+  @Test
+  public void testUnsupportedAlgorithm() throws Exception {
+    try {
+      service.cryptAsync("password".toCharArray(), "$99$XX").get();
+      fail("expected ExecutionException");
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause(), is(instanceOf(NoSuchAlgorithmException.class)));
+    }
+  }
+
+  @Test
+  public void testRejectsWhenSaturated() throws Exception {
+    service.close();
+    service = new CryptService(1, 1);
+    final String salt = "$6$rounds=1000000$saltstring";
+    CompletableFuture<String> running = service.cryptAsync(
+        "password".toCharArray(), salt);
+    CompletableFuture<String> queued = service.cryptAsync(
+        "password".toCharArray(), salt);
+    CompletableFuture<String> rejected = service.cryptAsync(
+        "password".toCharArray(), salt);
+    assertThat(rejected.isCompletedExceptionally(), is(true));
+    try {
+      rejected.get();
+      fail("expected ExecutionException");
+    }
+    catch (ExecutionException ex) {
+      assertThat(ex.getCause(),
+          is(instanceOf(RejectedExecutionException.class)));
+    }
+    assertThat(running.get(), is(equalTo(queued.get())));
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.channels.Channels;
+import java.nio.channels.Pipe;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link CryptStream}.
+ *
+ * @author Carl Harris
+ */
+public class CryptStreamTest {
+
+  private static final String SHA512_VALUE =
+      "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private static final String SHA256_VALUE =
+      "$5$saltstring$5B8vYYiY.CVt1RlTTf8KbXBH3hsxY/GNooZaBBGWEc5";
+
+  private final ByteArrayOutputStream err = new ByteArrayOutputStream();
+
+  private String output;
+
+  @Test
+  public void testCryptInOrder() throws Exception {
+    final int status = run(new CryptStream(false, false, 2, "$5$"),
+        "Hello world!\t$6$saltstring\n"
+        + "Hello world!\n"
+        + "Hello world!\t$5$saltstring\r\n");
+    assertThat(status, is(equalTo(CryptStream.EXIT_OK)));
+    final String[] lines = output.split("\n");
+    assertThat(lines.length, is(equalTo(3)));
+    assertThat(lines[0], is(equalTo(SHA512_VALUE)));
+    assertThat(Crypt.validate("Hello world!".toCharArray(), lines[1]),
+        is(true));
+    assertThat(lines[1].startsWith("$5$"), is(true));
+    assertThat(lines[2], is(equalTo(SHA256_VALUE)));
+  }
+
+  @Test
+  public void testCryptTagged() throws Exception {
+    final int status = run(new CryptStream(false, true, 2, "$6$"),
+        "Hello world!\t$6$saltstring\n"
+        + "Hello world!\t$5$saltstring");
+    assertThat(status, is(equalTo(CryptStream.EXIT_OK)));
+    assertThat(Arrays.asList(output.split("\n")), containsInAnyOrder(
+        "1\t" + SHA512_VALUE, "2\t" + SHA256_VALUE));
+  }
+
+  @Test
+  public void testVerify() throws Exception {
+    final int status = run(new CryptStream(true, false, 2, "$6$"),
+        "Hello world!\t" + SHA512_VALUE + "\n"
+        + "Hello world\t" + SHA256_VALUE + "\n");
+    assertThat(status, is(equalTo(CryptStream.EXIT_FAILED)));
+    assertThat(output, is(equalTo("OK\nFAIL\n")));
+  }
+
+  @Test
+  public void testErrorsAndLongLines() throws Exception {
+    final char[] password = new char[3 * CryptStream.BUFFER_SIZE / 2];
+    Arrays.fill(password, 'x');
+    final int status = run(new CryptStream(false, false, 1, "$6$"),
+        new String(password) + "\t$99$saltstring\n"
+        + "Hello world!\t$6$saltstring\n");
+    assertThat(status, is(equalTo(CryptStream.EXIT_ERROR)));
+    assertThat(output, is(equalTo("\n" + SHA512_VALUE + "\n")));
+    assertThat(new String(err.toByteArray(), StandardCharsets.UTF_8),
+        containsString("record 1:"));
+  }
+
+  @Test
+  public void testOutputBeforeEndOfInput() throws Exception {
+    final Pipe input = Pipe.open();
+    final Pipe output = Pipe.open();
+    final ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      final Future<Integer> status = executor.submit(
+          () -> new CryptStream(false, false, 2, "$6$").run(input.source(),
+              output.sink(), new PrintStream(err, true)));
+      final BufferedReader reader = new BufferedReader(new InputStreamReader(
+          Channels.newInputStream(output.source()), StandardCharsets.UTF_8));
+      final OutputStream writer = Channels.newOutputStream(input.sink());
+
+      writer.write("Hello world!\t$6$saltstring\n".getBytes(
+          StandardCharsets.UTF_8));
+      writer.flush();
+      final Future<String> line = executor.submit(reader::readLine);
+      assertThat(line.get(10, TimeUnit.SECONDS), is(equalTo(SHA512_VALUE)));
+
+      writer.close();
+      assertThat(status.get(10, TimeUnit.SECONDS),
+          is(equalTo(CryptStream.EXIT_OK)));
+    }
+    finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private int run(CryptStream stream, String input) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    final int status = stream.run(
+        Channels.newChannel(new ByteArrayInputStream(
+            input.getBytes(StandardCharsets.UTF_8))),
+        Channels.newChannel(out), new PrintStream(err, true));
+    output = new String(out.toByteArray(), StandardCharsets.UTF_8);
+    return status;
+  }
+
+}
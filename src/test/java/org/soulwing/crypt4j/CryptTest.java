@@ -24,8 +24,14 @@ import static org.hamcrest.Matchers.is;
 
 import java.io.FileNotFoundException;
 import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.ForkJoinPool;
 
 import org.junit.Test;
 
@@ -61,6 +67,101 @@ public class CryptTest {
     }
   }
   
+  @Test
+  public void testCryptAscii() throws Exception {
+    Properties properties = loadTestCases();
+    int i = 0;
+    while (properties.containsKey(i + ".password")) {
+      String password = properties.getProperty(i + ".password");
+      String salt = properties.getProperty(i + ".salt");
+      byte[] expected = properties.getProperty(i + ".expected")
+          .getBytes(StandardCharsets.UTF_8);
+      String note = properties.getProperty(i + ".note");
+      assertThat("failed hashing: " + note,
+          Crypt.cryptAscii(password.toCharArray(), salt),
+          is(equalTo(expected)));
+      assertThat("failed validating: " + note,
+          Crypt.validateAscii(password.toCharArray(), expected), is(true));
+      assertThat("failed validating: " + note,
+          Crypt.validateAscii(("x" + password).toCharArray(), expected),
+          is(false));
+      i++;
+    }
+  }
+
+  @Test
+  public void testValidateAsciiNonCanonical() throws Exception {
+    final String hashedValue = Crypt.crypt("password".toCharArray(),
+        "$5$rounds=10$saltstring");
+    final byte[] truncated = hashedValue.substring(0,
+        hashedValue.length() - 1).getBytes(StandardCharsets.US_ASCII);
+    assertThat(Crypt.validateAscii("password".toCharArray(), truncated),
+        is(false));
+    final byte[] clamped = hashedValue.replace("rounds=1000", "rounds=10")
+        .getBytes(StandardCharsets.US_ASCII);
+    assertThat(Crypt.validateAscii("password".toCharArray(), clamped),
+        is(false));
+  }
+
+  @Test
+  public void testValidateAll() throws Exception {
+    Properties properties = loadTestCases();
+    List<char[]> passwords = new ArrayList<>();
+    List<String> hashedValues = new ArrayList<>();
+    BitSet expected = new BitSet();
+    int i = 0;
+    while (properties.containsKey(i + ".password")) {
+      String password = properties.getProperty(i + ".password");
+      String hashedValue = properties.getProperty(i + ".expected");
+      expected.set(passwords.size());
+      passwords.add(password.toCharArray());
+      hashedValues.add(hashedValue);
+      passwords.add(("x" + password).toCharArray());
+      hashedValues.add(hashedValue);
+      i++;
+    }
+    passwords.add("password".toCharArray());
+    hashedValues.add("$99$XX");
+    passwords.add("password".toCharArray());
+    hashedValues.add("$X$XX");
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      assertThat(Crypt.validateAll(passwords, hashedValues, pool),
+          is(equalTo(expected)));
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testValidateAllAgreesWithValidate() throws Exception {
+    final char[] password = "password".toCharArray();
+    final String sha256 = Crypt.crypt(password, "$5$rounds=10$saltstring");
+    final String des = Crypt.crypt(password, "ab");
+    final List<String> hashedValues = Arrays.asList(sha256,
+        sha256.substring(0, sha256.length() - 1),
+        sha256.replace("rounds=1000", "rounds=10"),
+        des, des + "x", des.substring(0, des.length() - 1));
+    final List<char[]> passwords = new ArrayList<>();
+    for (int i = 0; i < hashedValues.size(); i++) {
+      passwords.add(password.clone());
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(2);
+    try {
+      final BitSet valid = Crypt.validateAll(passwords, hashedValues, pool);
+      for (int i = 0; i < hashedValues.size(); i++) {
+        assertThat(hashedValues.get(i), valid.get(i),
+            is(equalTo(Crypt.validate(password, hashedValues.get(i)))));
+      }
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
   private Properties loadTestCases() throws Exception {
     try (InputStream inputStream = openTestCases()) {
       Properties properties = new Properties();
@@ -0,0 +1,149 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DesCryptBatch} and {@link DesBitslice}.
+ *
+ * @author Carl Harris
+ */
+public class DesCryptBatchTest {
+
+  private final Random random = new Random(0);
+  private final List<char[]> passwords = new ArrayList<>();
+  private final List<String> salts = new ArrayList<>();
+
+  @Test
+  public void testBitslice() throws Exception {
+    final DesCrypt crypt = new DesCrypt(Type.DES);
+    final DesBitslice bitslice = new DesBitslice();
+    final long[] keys = new long[DesBitslice.LANES];
+    final int[] saltBits = new int[DesBitslice.LANES];
+    final long[] blocks = new long[DesBitslice.LANES];
+    final byte[] digest = new byte[8];
+    for (int l = 0; l < DesBitslice.LANES; l++) {
+      keys[l] = random.nextLong();
+      saltBits[l] = random.nextInt(1 << 24);
+    }
+    bitslice.crypt(keys, saltBits, DesBitslice.LANES, 3, blocks);
+    for (int l = 0; l < DesBitslice.LANES; l++) {
+      final byte[] password = new byte[8];
+      for (int i = 0; i < 8; i++) {
+        password[i] = (byte) ((keys[l] >>> (57 - 8 * i)) & 0x7f);
+      }
+      final String setting = "_1..." + encode24(saltBits[l]);
+      DesCrypt.putBlock(blocks[l], digest);
+      assertThat(digest, is(equalTo(crypt.doCrypt(password, setting))));
+    }
+  }
+
+  @Test
+  public void testTraditional() throws Exception {
+    for (int i = 0; i < 2 * DesCryptBatch.LANES + 5; i++) {
+      add(randomPassword(12), randomSetting(2));
+    }
+    assertMatchesScalar();
+  }
+
+  @Test
+  public void testMixed() throws Exception {
+    for (int i = 0; i < DesCryptBatch.LANES + 1; i++) {
+      add(randomPassword(20), "_J9.." + randomSetting(4));
+      add(randomPassword(8), randomSetting(2) + "ignored");
+      add(randomPassword(8), "$6$rounds=1000$" + randomSetting(16));
+    }
+    for (int i = 0; i < DesCryptBatch.MIN_LANES - 1; i++) {
+      add(randomPassword(8), "_/..." + randomSetting(4));
+    }
+    assertMatchesScalar();
+  }
+
+  @Test
+  public void testValidateAll() throws Exception {
+    final BitSet expected = new BitSet();
+    for (int i = 0; i < 3 * DesCryptBatch.LANES; i++) {
+      final char[] password = ("x" + randomPassword(9)).toCharArray();
+      final String value = Crypt.crypt(password, randomSetting(2));
+      if (i % 3 == 0) {
+        password[0]++;
+      }
+      else {
+        expected.set(i);
+      }
+      passwords.add(password);
+      salts.add(value);
+    }
+    passwords.add("password".toCharArray());
+    salts.add("*.malformed..");
+    assertThat(Crypt.validateAll(passwords, salts, new ForkJoinPool(2)),
+        is(equalTo(expected)));
+  }
+
+  private void add(String password, String salt) {
+    passwords.add(password.toCharArray());
+    salts.add(salt);
+  }
+
+  private void assertMatchesScalar() throws Exception {
+    final String[] expected = new String[passwords.size()];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = Crypt.crypt(passwords.get(i), salts.get(i));
+    }
+    assertThat(Crypt.cryptAll(passwords, salts),
+        is(equalTo(Arrays.asList(expected))));
+  }
+
+  private String randomPassword(int maxLength) {
+    final char[] password = new char[random.nextInt(maxLength + 1)];
+    for (int i = 0; i < password.length; i++) {
+      password[i] = (char) (' ' + random.nextInt(95));
+    }
+    return new String(password);
+  }
+
+  private String randomSetting(int length) {
+    final char[] setting = new char[length];
+    for (int i = 0; i < length; i++) {
+      setting[i] = Base64.BASE64_SET.charAt(random.nextInt(64));
+    }
+    return new String(setting);
+  }
+
+  private static String encode24(int value) {
+    final char[] chars = new char[4];
+    for (int i = 0; i < 4; i++) {
+      chars[i] = Base64.BASE64_SET.charAt((value >>> (6 * i)) & 0x3f);
+    }
+    return new String(chars);
+  }
+
+}
@@ -0,0 +1,113 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.commons.codec.digest.UnixCrypt;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link DesCrypt}.
+ *
+ * @author Carl Harris
+ */
+public class DesCryptTest {
+
+  @Test
+  public void testAgreesWithCommonsCodec() throws Exception {
+    final Random random = new Random(0);
+    for (int i = 0; i < 1000; i++) {
+      final char[] password = new char[random.nextInt(12)];
+      for (int j = 0; j < password.length; j++) {
+        password[j] = (char) (' ' + random.nextInt(95));
+      }
+      final String salt = new String(new char[] {
+          Base64.BASE64_SET.charAt(random.nextInt(64)),
+          Base64.BASE64_SET.charAt(random.nextInt(64)) });
+      final String expected = UnixCrypt.crypt(
+          new String(password).getBytes(Crypt.CHARACTER_ENCODING), salt);
+      assertThat(Crypt.crypt(password, salt), is(equalTo(expected)));
+      assertThat(Crypt.validate(password, expected), is(true));
+    }
+  }
+
+  @Test
+  public void testExtendedIterationCount() throws Exception {
+    final char[] password = "test".toCharArray();
+    assertThat(Crypt.crypt(password, "_J9..CCCC"),
+        is(equalTo("_J9..CCCCZBIc.TMGpK.")));
+    assertThat(Crypt.crypt(password, "_J9..CCCCZBIc.TMGpK."),
+        is(equalTo("_J9..CCCCZBIc.TMGpK.")));
+    assertThat(DesCrypt.iterations(new Salt("_J9..CCCC")),
+        is(equalTo(725)));
+    assertThat(DesCrypt.iterations(new Salt("saltstring")),
+        is(equalTo(DesCrypt.ITERATIONS)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testZeroIterationCount() throws Exception {
+    Crypt.crypt("test".toCharArray(), "_..../...");
+  }
+
+  @Test
+  public void testZeroIterationCountNotValidated() throws Exception {
+    final String hashedValue = "_..../...RYB.2Jjs7Ys";
+    try {
+      Crypt.validate("test".toCharArray(), hashedValue);
+      fail("expected IllegalArgumentException");
+    }
+    catch (IllegalArgumentException ex) {
+      assert true;
+    }
+    final BitSet valid = Crypt.validateAll(
+        Collections.singletonList("test".toCharArray()),
+        Collections.singletonList(hashedValue), ForkJoinPool.commonPool());
+    assertThat(valid.isEmpty(), is(true));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testShortExtendedSetting() throws Exception {
+    Crypt.crypt("test".toCharArray(), "_J9..CC");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testIllegalSaltCharacter() throws Exception {
+    Crypt.crypt("test".toCharArray(), "a*");
+  }
+
+  @Test
+  public void testExtendedWithTraditionalParameters() throws Exception {
+    // 25 iterations and a 12-bit salt are equivalent to the traditional
+    // format for a password of up to 8 characters
+    final char[] password = "test".toCharArray();
+    assertThat(Crypt.crypt(password, "ab"), is(equalTo("abgOeLfPimXQo")));
+    assertThat(Crypt.crypt(password, "_N...ab.."),
+        is(equalTo("_N...ab..gOeLfPimXQo")));
+  }
+
+}
@@ -0,0 +1,207 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Properties;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Unit tests for {@link HashMigrator} and {@link WrappedCryptScheme}.
+ *
+ * @author Carl Harris
+ */
+public class HashMigratorTest {
+
+  private static final String PASSWORD = "Hello world!";
+  private static final String MD5_VALUE = "$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1";
+  private static final String DES_VALUE = "saszt8mUri4AI";
+  private static final String BSDI_VALUE = "_J9..CCCCoYeEi67o2u.";
+  private static final String SHA512_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private static final String[] LINES = {
+    "# comment",
+    "",
+    "root:" + SHA512_VALUE + ":17000:0:99999:7:::",
+    "bob:" + MD5_VALUE + ":17000:0:99999:7:::",
+    "carol:" + DES_VALUE,
+    "dave:!:17000::::::",
+    "erin:!" + MD5_VALUE,
+    "frank:$1$saltstri$short",
+    "gina:saszt8mUri4A!",
+    "ivan",
+    "jill:" + MD5_VALUE + "\r",
+    "lena:" + BSDI_VALUE
+  };
+
+  @Rule
+  public final TemporaryFolder folder = new TemporaryFolder();
+
+  private final HashMigrator migrator = new HashMigrator(1000, 2, 64, 1);
+
+  private Path input;
+  private Path output;
+  private Path checkpoint;
+
+  @Before
+  public void setUp() throws Exception {
+    input = folder.getRoot().toPath().resolve("shadow");
+    output = folder.getRoot().toPath().resolve("shadow.migrated");
+    checkpoint = folder.getRoot().toPath().resolve("shadow.checkpoint");
+    Files.write(input, String.join("\n", LINES)
+        .getBytes(StandardCharsets.UTF_8));
+  }
+
+  @Test
+  public void testWrapMd5() throws Exception {
+    final String wrapped = migrator.wrap(MD5_VALUE);
+    assertThat(wrapped, startsWith("$w1$saltstri$rounds=1000$"));
+    assertValidates(wrapped);
+  }
+
+  @Test
+  public void testWrapDes() throws Exception {
+    final String wrapped = migrator.wrap(DES_VALUE);
+    assertThat(wrapped, startsWith("$w0$sa$rounds=1000$"));
+    assertValidates(wrapped);
+  }
+
+  @Test
+  public void testWrapExtendedDes() throws Exception {
+    final String wrapped = migrator.wrap(BSDI_VALUE);
+    assertThat(wrapped, startsWith("$w0$_J9..CCCC$rounds=1000$"));
+    assertValidates(wrapped);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrapNonLegacyValue() throws Exception {
+    migrator.wrap(SHA512_VALUE);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrapMalformedValue() throws Exception {
+    migrator.wrap("$1$saltstri$short");
+  }
+
+  @Test
+  public void testWrappedValueIsOutdated() throws Exception {
+    final HashPolicy policy = new HashPolicy("$6$", 5000, 5000);
+    final String wrapped = migrator.wrap(MD5_VALUE);
+    assertThat(policy.needsRehash(wrapped), is(true));
+    assertThat(policy.needsRehash(HashedValue.parse(wrapped)), is(true));
+  }
+
+  @Test
+  public void testMigrate() throws Exception {
+    final MigrationReport report =
+        migrator.migrate(input, output, checkpoint);
+    assertThat(report.getLineCount(), is(equalTo((long) LINES.length)));
+    assertThat(report.getWrappedCount(), is(equalTo(4L)));
+    assertThat(report.getUnchangedCount(), is(equalTo(6L)));
+    assertThat(report.getMalformedCount(), is(equalTo(2L)));
+    assertThat(report.getMalformedLines(), contains(8L, 9L));
+    assertThat(report.getResumedLineCount(), is(equalTo(0L)));
+    assertThat(Files.exists(checkpoint), is(false));
+    assertMigrated(readOutput());
+    assertThat(new String(Files.readAllBytes(output),
+        StandardCharsets.UTF_8).contains("\r\nlena:"), is(true));
+  }
+
+  @Test
+  public void testResume() throws Exception {
+    migrator.migrate(input, output, checkpoint);
+    final List<String> first = readOutput();
+
+    /* simulate an interruption after line 4, with a partial line 5 */
+    long inputOffset = 0;
+    long outputOffset = 0;
+    for (int i = 0; i < 4; i++) {
+      inputOffset += LINES[i].length() + 1;
+      outputOffset += first.get(i).length() + 1;
+    }
+    Files.write(output, (String.join("\n", first.subList(0, 4)) + "\nca")
+        .getBytes(StandardCharsets.UTF_8));
+    final MigrationReport partial = new MigrationReport();
+    for (int i = 0; i < 4; i++) {
+      partial.addLine();
+      partial.addUnchanged();
+    }
+    final Properties properties = new Properties();
+    properties.setProperty("input.offset", Long.toString(inputOffset));
+    properties.setProperty("output.offset", Long.toString(outputOffset));
+    partial.store(properties);
+    try (OutputStream out = Files.newOutputStream(checkpoint)) {
+      properties.store(out, null);
+    }
+
+    final MigrationReport report =
+        migrator.migrate(input, output, checkpoint);
+    assertThat(report.getResumedLineCount(), is(equalTo(4L)));
+    assertThat(report.getLineCount(), is(equalTo((long) LINES.length)));
+    assertThat(report.getWrappedCount(), is(equalTo(3L)));
+    assertThat(report.getMalformedLines(), contains(8L, 9L));
+    final List<String> second = readOutput();
+    assertThat(second.subList(0, 4), is(equalTo(first.subList(0, 4))));
+    assertMigrated(second);
+  }
+
+  private List<String> readOutput() throws Exception {
+    return Files.readAllLines(output, StandardCharsets.UTF_8);
+  }
+
+  private static void assertMigrated(List<String> lines) throws Exception {
+    assertThat(lines.size(), is(equalTo(LINES.length)));
+    for (int i = 0; i < LINES.length; i++) {
+      final String line = lines.get(i);
+      if (i == 3 || i == 4 || i == 10 || i == 11) {
+        final String[] fields = line.split(":", -1);
+        assertValidates(fields[1]);
+        assertThat(fields.length, is(equalTo(
+            LINES[i].split(":", -1).length)));
+      }
+      else {
+        assertThat(line, is(equalTo(LINES[i])));
+      }
+    }
+    assertThat(lines.get(3), startsWith("bob:$w1$saltstri$"));
+    assertThat(lines.get(3).endsWith(":17000:0:99999:7:::"), is(true));
+  }
+
+  private static void assertValidates(String wrapped) throws Exception {
+    assertThat(Crypt.validate(PASSWORD.toCharArray(), wrapped), is(true));
+    assertThat(Crypt.validate("Hello World!".toCharArray(), wrapped),
+        is(false));
+    assertThat(HashedValue.parse(wrapped).matches(PASSWORD), is(true));
+  }
+
+}
@@ -0,0 +1,87 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.startsWith;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HashPolicy}.
+ *
+ * @author Carl Harris
+ */
+public class HashPolicyTest {
+
+  private static final char[] PASSWORD = "Hello world!".toCharArray();
+
+  private final HashPolicy policy;
+
+  public HashPolicyTest() throws Exception {
+    policy = new HashPolicy("$6$", 2000, 1500);
+  }
+
+  @Test
+  public void testNewSalt() throws Exception {
+    final String salt = policy.newSalt();
+    assertThat(salt, startsWith("$6$rounds=2000$"));
+    assertThat(salt.length(), is(equalTo("$6$rounds=2000$".length() + 16)));
+    assertThat(policy.newSalt().equals(salt), is(false));
+  }
+
+  @Test
+  public void testNeedsRehash() throws Exception {
+    assertThat(policy.needsRehash("saszt8mUri4AI"), is(true));
+    assertThat(policy.needsRehash("$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1"),
+        is(true));
+    assertThat(policy.needsRehash(
+        "$5$rounds=2000$salt$abc"), is(true));
+    assertThat(policy.needsRehash("$6$saltstring$abc"), is(false));
+    assertThat(policy.needsRehash("$6$rounds=1499$saltstring$abc"),
+        is(true));
+    assertThat(policy.needsRehash("$6$rounds=1500$saltstring$abc"),
+        is(false));
+  }
+
+  @Test
+  public void testValidate() throws Exception {
+    assertThat(policy.validate(PASSWORD, policy.hash(PASSWORD)),
+        is(equalTo(ValidationResult.VALID)));
+    assertThat(policy.validate(PASSWORD,
+        "$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1"),
+        is(equalTo(ValidationResult.OUTDATED)));
+    assertThat(policy.validate("wrong".toCharArray(),
+        "$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1"),
+        is(equalTo(ValidationResult.INVALID)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMd5Policy() throws Exception {
+    new HashPolicy("$1$", 5000);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMinRoundsExceedsRounds() throws Exception {
+    new HashPolicy("$6$", 5000, 6000);
+  }
+
+}
@@ -0,0 +1,136 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HashUpgrader}.
+ *
+ * @author Carl Harris
+ */
+public class HashUpgraderTest {
+
+  private static final char[] PASSWORD = "Hello world!".toCharArray();
+
+  private static final String MD5_VALUE =
+      "$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1";
+
+  private static final String DES_VALUE = "saszt8mUri4AI";
+
+  private final BlockingQueue<String[]> upgrades =
+      new LinkedBlockingQueue<>();
+
+  private final HashPolicy policy;
+
+  private HashUpgrader upgrader;
+
+  public HashUpgraderTest() throws Exception {
+    policy = new HashPolicy("$6$", 1000);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    if (upgrader != null) {
+      upgrader.close();
+    }
+  }
+
+  @Test
+  public void testUpgradeOutdatedValue() throws Exception {
+    upgrader = new HashUpgrader(policy,
+        (oldValue, newValue) -> upgrades.add(
+            new String[] { oldValue, newValue }));
+    assertThat(upgrader.validate(PASSWORD, MD5_VALUE),
+        is(equalTo(ValidationResult.OUTDATED)));
+    final String[] upgrade = upgrades.poll(10, TimeUnit.SECONDS);
+    assertThat(upgrade[0], is(equalTo(MD5_VALUE)));
+    assertThat(policy.validate(PASSWORD, upgrade[1]),
+        is(equalTo(ValidationResult.VALID)));
+  }
+
+  @Test
+  public void testNoUpgradeOfInvalidOrCurrentValue() throws Exception {
+    upgrader = new HashUpgrader(policy,
+        (oldValue, newValue) -> upgrades.add(
+            new String[] { oldValue, newValue }));
+    assertThat(upgrader.validate("wrong".toCharArray(), MD5_VALUE),
+        is(equalTo(ValidationResult.INVALID)));
+    assertThat(upgrader.validate(PASSWORD, policy.hash(PASSWORD)),
+        is(equalTo(ValidationResult.VALID)));
+    assertThat(upgrader.getPendingCount(), is(equalTo(0)));
+    assertThat(upgrades.isEmpty(), is(true));
+  }
+
+  @Test
+  public void testCoalescesAndBounds() throws Exception {
+    final CountDownLatch entered = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final CryptService service = new CryptService(1, 1);
+    try {
+      upgrader = new HashUpgrader(policy, (oldValue, newValue) -> {
+        upgrades.add(new String[] { oldValue, newValue });
+        if (oldValue.equals(MD5_VALUE)) {
+          entered.countDown();
+          await(release);
+        }
+      }, service);
+
+      /* occupy the worker with the first upgrade */
+      assertThat(upgrader.upgrade(PASSWORD, MD5_VALUE), is(true));
+      await(entered);
+
+      assertThat(upgrader.upgrade(PASSWORD, DES_VALUE), is(true));
+      assertThat(upgrader.upgrade(PASSWORD, DES_VALUE), is(true));
+      assertThat(upgrader.upgrade(PASSWORD, "$1$other$"), is(false));
+      assertThat(upgrader.getPendingCount(), is(equalTo(2)));
+      release.countDown();
+
+      assertThat(upgrades.poll(10, TimeUnit.SECONDS)[0],
+          is(equalTo(MD5_VALUE)));
+      assertThat(upgrades.poll(10, TimeUnit.SECONDS)[0],
+          is(equalTo(DES_VALUE)));
+      assertThat(upgrades.poll(100, TimeUnit.MILLISECONDS) == null, is(true));
+    }
+    finally {
+      release.countDown();
+      service.close();
+    }
+  }
+
+  private static void await(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    }
+    catch (InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link HashedValue}.
+ *
+ * @author Carl Harris
+ */
+public class HashedValueTest {
+
+  private static final char[] PASSWORD = "Hello world!".toCharArray();
+
+  private static final String SHA512 = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+  private static final String SHA256 = "$5$saltstring$5B8vYYiY.CVt1RlTTf8KbXBH3hsxY/GNooZaBBGWEc5";
+  private static final String MD5 = "$1$saltstri$YMyguxXMBpd2TEZ.vS/3q1";
+  private static final String DES = "saszt8mUri4AI";
+  private static final String EXTENDED_DES = "_J9..CCCCoYeEi67o2u.";
+
+  @Test
+  public void testMatches() throws Exception {
+    for (String value : new String[] { SHA512, SHA256, MD5, DES,
+        EXTENDED_DES }) {
+      HashedValue hashedValue = HashedValue.parse(value);
+      assertThat(value, hashedValue.matches(PASSWORD), is(true));
+      assertThat(value, hashedValue.matches("Hello World!".toCharArray()),
+          is(false));
+      assertThat(hashedValue.toString(), is(equalTo(value)));
+    }
+  }
+
+  @Test
+  public void testDoesNotMatchTruncatedDigest() throws Exception {
+    assertThat(HashedValue.parse(SHA512.substring(0, SHA512.length() - 1))
+        .matches(PASSWORD), is(false));
+  }
+
+  @Test
+  public void testDoesNotMatchIllegalDigestCharacter() throws Exception {
+    assertThat(HashedValue.parse(MD5.replace('.', '*')).matches(PASSWORD),
+        is(false));
+  }
+
+  @Test
+  public void testDoesNotMatchNonCanonicalEncoding() throws Exception {
+    // the last character encodes only 4 significant bits
+    assertThat(HashedValue.parse(SHA512.substring(0, SHA512.length() - 1)
+        + "2").matches(PASSWORD), is(false));
+  }
+
+  @Test
+  public void testDoesNotMatchNonCanonicalDesEncoding() throws Exception {
+    // the last character of a DES encoding has 4 significant bits
+    assertThat(HashedValue.parse(DES.substring(0, DES.length() - 1)
+        + "J").matches(PASSWORD), is(false));
+  }
+
+  @Test
+  public void testDoesNotMatchExcessiveSalt() throws Exception {
+    String value = "$1$saltstring$YMyguxXMBpd2TEZ.vS/3q1";
+    assertThat(HashedValue.parse(value).matches(PASSWORD), is(false));
+    assertThat(Crypt.validate(PASSWORD, value), is(false));
+  }
+
+  @Test(expected = NoSuchAlgorithmException.class)
+  public void testUnsupportedType() throws Exception {
+    HashedValue.parse("$99$XX$XX");
+  }
+
+  @Test
+  public void testDecodeInvertsEncode() throws Exception {
+    Random random = new Random(0);
+    for (Type type : new Type[] { Type.MD5, Type.SHA256, Type.SHA512 }) {
+      Crypt crypt = Crypt.newInstance(type);
+      byte[] digest = new byte[type.newDigest().getDigestLength()];
+      for (int i = 0; i < 100; i++) {
+        random.nextBytes(digest);
+        assertThat(crypt.decodePassword(crypt.encodePassword(digest)),
+            is(equalTo(digest)));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,173 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PasswordEncoder} and the password input forms of
+ * {@link Crypt}.
+ *
+ * @author Carl Harris
+ */
+public class PasswordEncoderTest {
+
+  private static final String[] PASSWORDS = {
+      "", "Hello world!", "pässwörd", "密码",
+      "🔑key", "bad\ud800surrogate"
+  };
+
+  private static final Charset[] CHARSETS = {
+      StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1,
+      StandardCharsets.US_ASCII, StandardCharsets.UTF_16LE
+  };
+
+  private static final String SALT = "$6$saltstring";
+  private static final String HASHED_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private final PasswordEncoder encoder = new PasswordEncoder();
+
+  @Test
+  public void testEncodeMatchesString() throws Exception {
+    for (Charset charset : CHARSETS) {
+      for (String password : PASSWORDS) {
+        final byte[] expected = password.getBytes(charset);
+        assertThat(encoder.encode(password.toCharArray(), charset)
+            .getBytes(), is(equalTo(expected)));
+        assertThat(encoder.encode(password, charset).getBytes(),
+            is(equalTo(expected)));
+        assertThat(encoder.encode(CharBuffer.wrap(password), charset)
+            .getBytes(), is(equalTo(expected)));
+      }
+    }
+  }
+
+  @Test
+  public void testEncodeLongPassword() throws Exception {
+    final StringBuilder sb = new StringBuilder();
+    for (int i = 0; i < 1000; i++) {
+      sb.append((char) (0xa0 + i));
+    }
+    final String password = sb.toString();
+    assertThat(encoder.encode(password, StandardCharsets.UTF_8).getBytes(),
+        is(equalTo(password.getBytes(StandardCharsets.UTF_8))));
+  }
+
+  @Test
+  public void testEncodeDoesNotConsumeCharBuffer() throws Exception {
+    final CharBuffer buffer = CharBuffer.wrap("xpässword");
+    buffer.position(1);
+    encoder.encode(buffer, StandardCharsets.UTF_8);
+    assertThat(buffer.position(), is(equalTo(1)));
+  }
+
+  @Test
+  public void testClearEncoded() throws Exception {
+    final Password password = encoder.encode("pässword",
+        StandardCharsets.UTF_8);
+    final byte[] bytes = password.getBytes();
+    password.clear();
+    assertThat(bytes, is(equalTo(new byte[bytes.length])));
+  }
+
+  @Test
+  public void testWrapArray() throws Exception {
+    final byte[] bytes = "password".getBytes(StandardCharsets.US_ASCII);
+    final Password password = PasswordEncoder.wrap(bytes);
+    assertThat(password.getBytes(), is(sameInstance(bytes)));
+    password.clear();
+    assertThat(bytes, is(equalTo(
+        "password".getBytes(StandardCharsets.US_ASCII))));
+  }
+
+  @Test
+  public void testWrapByteBuffer() throws Exception {
+    final byte[] bytes = "xpasswordx".getBytes(StandardCharsets.US_ASCII);
+    final ByteBuffer whole = ByteBuffer.wrap(bytes);
+    assertThat(PasswordEncoder.wrap(whole).getBytes(),
+        is(sameInstance(bytes)));
+
+    final ByteBuffer slice = ByteBuffer.wrap(bytes, 1, 8);
+    final Password password = PasswordEncoder.wrap(slice);
+    assertThat(password.getBytes(), is(not(sameInstance(bytes))));
+    assertThat(password.getBytes(), is(equalTo(
+        "password".getBytes(StandardCharsets.US_ASCII))));
+    password.clear();
+    assertThat(slice.position(), is(equalTo(1)));
+    assertThat(bytes, is(equalTo(
+        "xpasswordx".getBytes(StandardCharsets.US_ASCII))));
+
+    final ByteBuffer direct = ByteBuffer.allocateDirect(8);
+    direct.put("password".getBytes(StandardCharsets.US_ASCII)).flip();
+    assertThat(PasswordEncoder.wrap(direct).getBytes(), is(equalTo(
+        "password".getBytes(StandardCharsets.US_ASCII))));
+    assertThat(direct.remaining(), is(equalTo(8)));
+  }
+
+  @Test
+  public void testCryptPasswordForms() throws Exception {
+    final String password = "Hello world!";
+    final byte[] bytes = password.getBytes(StandardCharsets.UTF_8);
+    assertThat(Crypt.crypt(password, SALT), is(equalTo(HASHED_VALUE)));
+    assertThat(Crypt.crypt(CharBuffer.wrap(password), SALT),
+        is(equalTo(HASHED_VALUE)));
+    assertThat(Crypt.crypt(bytes, SALT), is(equalTo(HASHED_VALUE)));
+    assertThat(Crypt.crypt(ByteBuffer.wrap(bytes), SALT),
+        is(equalTo(HASHED_VALUE)));
+    assertThat(Crypt.crypt(password.toCharArray(), SALT,
+        StandardCharsets.ISO_8859_1), is(equalTo(HASHED_VALUE)));
+  }
+
+  @Test
+  public void testCharsetSelectsEncoding() throws Exception {
+    final String password = "pässword";
+    final byte[] latin1 = password.getBytes(StandardCharsets.ISO_8859_1);
+    final String hashedValue = Crypt.crypt(latin1, SALT);
+    assertThat(Crypt.crypt(password, SALT), is(not(equalTo(hashedValue))));
+    assertThat(Crypt.crypt(password, SALT, StandardCharsets.ISO_8859_1),
+        is(equalTo(hashedValue)));
+    assertThat(Crypt.validate(password, hashedValue), is(false));
+    assertThat(Crypt.validate(password.toCharArray(), hashedValue,
+        StandardCharsets.ISO_8859_1), is(true));
+    assertThat(Crypt.validate(ByteBuffer.wrap(latin1), hashedValue),
+        is(true));
+    assertThat(HashedValue.parse(hashedValue).matches(
+        CharBuffer.wrap(password), StandardCharsets.ISO_8859_1), is(true));
+  }
+
+  @Test
+  public void testValidateDoesNotModifyInput() throws Exception {
+    final byte[] bytes = "Hello world!".getBytes(StandardCharsets.UTF_8);
+    assertThat(Crypt.validate(bytes, HASHED_VALUE), is(true));
+    assertThat(bytes, is(equalTo(
+        "Hello world!".getBytes(StandardCharsets.UTF_8))));
+  }
+
+}
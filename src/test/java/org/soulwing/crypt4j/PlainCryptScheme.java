@@ -0,0 +1,70 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * A trivial {@link CryptScheme} used to test the scheme registry. It
+ * produces {@code $plain$salt$digest}, where the digest is the SHA-256
+ * digest of the salt text followed by the password, in hexadecimal.
+ *
+ * @author Carl Harris
+ */
+public class PlainCryptScheme implements CryptScheme {
+
+  static final String ID = "plain";
+
+  private static final String PREFIX = "$" + ID + "$";
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String getId() {
+    return ID;
+  }
+
+  /**
+   * {@inheritDoc}
+   */
+  @Override
+  public String crypt(byte[] password, String salt)
+      throws NoSuchAlgorithmException {
+    if (!salt.startsWith(PREFIX)) {
+      throw new IllegalArgumentException("illegal salt format");
+    }
+    final int end = salt.indexOf('$', PREFIX.length());
+    final String text = salt.substring(PREFIX.length(),
+        end == -1 ? salt.length() : end);
+    final MessageDigest md = MessageDigest.getInstance("SHA-256");
+    md.update(text.getBytes(StandardCharsets.US_ASCII));
+    md.update(password);
+    final StringBuilder sb = new StringBuilder(PREFIX).append(text)
+        .append('$');
+    for (byte b : md.digest()) {
+      sb.append(Character.forDigit((b >>> 4) & 0xf, 16))
+          .append(Character.forDigit(b & 0xf, 16));
+    }
+    return sb.toString();
+  }
+
+}
@@ -0,0 +1,98 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.security.MessageDigest;
+import java.util.Random;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link RoundSchedule}.
+ *
+ * @author Carl Harris
+ */
+public class RoundScheduleTest {
+
+  private static final int ROUNDS = 2 * RoundSchedule.PERIOD + 5;
+
+  @Test
+  public void testMd5() throws Exception {
+    assertMatchesRoundLoop(new Md5Digest());
+  }
+
+  @Test
+  public void testSha256() throws Exception {
+    assertMatchesRoundLoop(new Sha256Digest());
+  }
+
+  @Test
+  public void testSha512() throws Exception {
+    assertMatchesRoundLoop(new Sha512Digest());
+  }
+
+  @Test
+  public void testJcaDigest() throws Exception {
+    assertMatchesRoundLoop(
+        new JcaDigest(MessageDigest.getInstance("SHA-512")));
+  }
+
+  @Test
+  public void testDeclinesWhenTooLong() throws Exception {
+    final RoundSchedule schedule = new RoundSchedule(new Sha512Digest());
+    final byte[] p = new byte[RoundSchedule.MAX_LENGTH / RoundSchedule.PERIOD];
+    assertThat(schedule.prepare(p, new byte[16]), is(false));
+  }
+
+  private void assertMatchesRoundLoop(Digest digest) {
+    final RoundSchedule schedule = new RoundSchedule(digest);
+    final Random random = new Random(digest.getDigestLength());
+    final int digestLength = digest.getDigestLength();
+    for (int pLength = 0; pLength < 300; pLength += 7) {
+      for (int sLength = 0; sLength <= 16; sLength += 4) {
+        final byte[] p = new byte[pLength];
+        final byte[] s = new byte[sLength];
+        final byte[] initial = new byte[digestLength];
+        random.nextBytes(p);
+        random.nextBytes(s);
+        random.nextBytes(initial);
+
+        final byte[] expected = initial.clone();
+        for (int i = 0; i < ROUNDS; i++) {
+          digest.update(i % 2 != 0 ? p : expected);
+          if (i % 3 != 0) digest.update(s);
+          if (i % 7 != 0) digest.update(p);
+          digest.update(i % 2 != 0 ? expected : p);
+          digest.digest(expected);
+        }
+
+        final byte[] actual = initial.clone();
+        assertThat(schedule.prepare(p, s), is(true));
+        schedule.run(actual, ROUNDS);
+        assertThat("p=" + pLength + ", s=" + sLength, actual,
+            is(equalTo(expected)));
+      }
+    }
+  }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SaltGenerator}.
+ *
+ * @author Carl Harris
+ */
+public class SaltGeneratorTest {
+
+  private static final String TEXT_8 = "[./0-9A-Za-z]{8}";
+  private static final String TEXT_16 = "[./0-9A-Za-z]{16}";
+
+  private final SaltGenerator generator = new SaltGenerator();
+
+  @Test
+  public void testFormats() throws Exception {
+    assertThat(generator.md5Salt().matches("\\$1\\$" + TEXT_8), is(true));
+    assertThat(generator.sha256Salt().matches("\\$5\\$" + TEXT_16),
+        is(true));
+    assertThat(generator.sha512Salt().matches("\\$6\\$" + TEXT_16),
+        is(true));
+    assertThat(generator.sha256Salt(10000).matches(
+        "\\$5\\$rounds=10000\\$" + TEXT_16), is(true));
+    assertThat(generator.sha512Salt(10000).matches(
+        "\\$6\\$rounds=10000\\$" + TEXT_16), is(true));
+    assertThat(generator.newSalt("$6$rounds=2000$").matches(
+        "\\$6\\$rounds=2000\\$" + TEXT_16), is(true));
+    assertThat(generator.newSalt("$1$").matches("\\$1\\$" + TEXT_8),
+        is(true));
+  }
+
+  @Test
+  public void testSaltsAreUsable() throws Exception {
+    final String salt = generator.sha512Salt(1000);
+    final String hashedValue = Crypt.crypt("password".toCharArray(), salt);
+    assertThat(hashedValue.startsWith(salt + "$"), is(true));
+    assertThat(Crypt.validate("password".toCharArray(), hashedValue),
+        is(true));
+  }
+
+  @Test
+  public void testConcurrentSaltsAreUnique() throws Exception {
+    final SaltGenerator generator = new SaltGenerator(true);
+    final Set<String> salts = ConcurrentHashMap.newKeySet();
+    final int threads = 4;
+    final int count = 2 * SaltGenerator.BLOCK_LENGTH;
+    final List<Thread> workers = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      workers.add(new Thread(() -> {
+        for (int j = 0; j < count; j++) {
+          salts.add(generator.sha512Salt());
+        }
+      }));
+    }
+    for (Thread worker : workers) {
+      worker.start();
+    }
+    for (Thread worker : workers) {
+      worker.join();
+    }
+    assertThat(salts.size(), is(equalTo(threads * count)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRoundsOutOfRange() throws Exception {
+    generator.sha512Salt(999);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testPrefixWithText() throws Exception {
+    generator.newSalt("$6$text$");
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDesPrefix() throws Exception {
+    generator.newSalt("$0$");
+  }
+
+}
@@ -22,6 +22,10 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 
 import org.junit.Test;
 
@@ -72,5 +76,157 @@ public class SaltTest {
     assertThat(salt.getParams(), is(equalTo("param=value")));
   }
 
+  @Test
+  public void testMatchesReferenceParser() throws Exception {
+    final String[] salts = {
+        "", "$", "$$", "$6", "$6$", "$6$$", "$6$abc", "$x$abc", "$$abc",
+        "$+6$abc", "$-1$abc", "$06$abc", "$2147483647$a", "$2147483648$a",
+        "$-2147483648$a", "$-2147483649$a", "$-$a", "$+$a", "$\u0666$a",
+        "$6$rounds=5000$abc", "$6$rounds=5000$abc$digest",
+        "$6$rounds=$abc", "$6$rounds=x$abc", "$6$rounds=-7$abc",
+        "$6$rounds=99999999999$abc", "$6$a=b", "$6$a=b$", "$6$norounds$abc",
+        "$6$ROUNDS=10$abc", "$5$rounds=1000$s\u00e4lt$x", "ab", "_J9..CCCC",
+        "ab$cd", "$2b$10$abc", "$y$j9T$abc$digest", "$apr1$abc",
+        "$md5$rounds=10$abc", "$sha1$40000$abc$digest"
+    };
+    for (String text : salts) {
+      final Object expected = reference(text);
+      final Object actual = parsed(text);
+      assertThat(text, actual, is(equalTo(expected)));
+    }
+  }
+
+  @Test
+  public void testSchemeIdentifiers() throws Exception {
+    Salt salt = new Salt("$apr1$aSalt$digest");
+    assertThat(salt.getType(), is(equalTo(-1)));
+    assertThat(salt.getId(), is(equalTo("apr1")));
+    assertThat(salt.hasId("apr1"), is(true));
+    assertThat(salt.hasId("apr"), is(false));
+    assertThat(salt.getText(), is(equalTo("aSalt")));
+
+    salt = new Salt("$6$aSalt");
+    assertThat(salt.getId(), is(equalTo("6")));
+    assertThat(salt.getType(), is(equalTo(6)));
+
+    salt = new Salt("aSalt");
+    assertThat(salt.getId(), is(equalTo("")));
+    assertThat(salt.getIdLength(), is(equalTo(0)));
+  }
+
+  @Test
+  public void testParseBytes() throws Exception {
+    final byte[] buf = "xx$6$rounds=10000$saltstring$digestxx"
+        .getBytes(StandardCharsets.US_ASCII);
+    final Salt salt = new Salt().parse(buf, 2, buf.length - 4);
+    assertThat(salt.getType(), is(equalTo(6)));
+    assertThat(salt.getParams(), is(equalTo("rounds=10000")));
+    assertThat(salt.getIntParam("rounds="), is(equalTo(10000)));
+    assertThat(salt.getText(), is(equalTo("saltstring")));
+    assertThat(salt.getText(4), is(equalTo("salt")));
+    assertThat(salt.getBytes(4, Crypt.CHARACTER_ENCODING),
+        is(equalTo("salt".getBytes(StandardCharsets.US_ASCII))));
+    assertThat(salt.appendText(new StringBuilder("$"), 16).toString(),
+        is(equalTo("$saltstring")));
+  }
+
+  @Test
+  public void testReuse() throws Exception {
+    final Salt salt = new Salt();
+    salt.parse("$6$rounds=10000$first");
+    assertThat(salt.getText(), is(equalTo("first")));
+    salt.parse("$1$second");
+    assertThat(salt.getType(), is(equalTo(1)));
+    assertThat(salt.getParams(), is(nullValue()));
+    assertThat(salt.hasParam("rounds="), is(false));
+    assertThat(salt.getText(), is(equalTo("second")));
+  }
+
+  @Test
+  public void testUntypedTextIsSource() throws Exception {
+    final String text = "aSalt";
+    assertThat(new Salt(text).getText(), is(sameInstance(text)));
+  }
+
+  @Test
+  public void testNonAsciiBytes() throws Exception {
+    final Salt salt = new Salt("$5$s\u00e4lt");
+    assertThat(salt.getBytes(16, Crypt.CHARACTER_ENCODING),
+        is(equalTo("s\u00e4lt".getBytes(StandardCharsets.UTF_8))));
+  }
+
+  /**
+   * Parses a salt and summarizes the result or the exception thrown.
+   */
+  private static Object parsed(String text) throws Exception {
+    try {
+      final Salt salt = new Salt(text);
+      return Arrays.asList(salt.getType(), salt.getParams(), salt.getText(),
+          salt.hasParam("rounds=") ? rounds(salt) : null,
+          Arrays.toString(salt.getBytes(16, Crypt.CHARACTER_ENCODING)));
+    }
+    catch (RuntimeException ex) {
+      return ex.getClass().getName() + ": " + ex.getMessage();
+    }
+  }
+
+  private static Object rounds(Salt salt) {
+    try {
+      return salt.getIntParam("rounds=");
+    }
+    catch (RuntimeException ex) {
+      return ex.getClass().getName() + ": " + ex.getMessage();
+    }
+  }
+
+  /**
+   * Parses a salt in the manner of the original substring-based parser,
+   * with the scheme identifiers described for {@link Salt}, and
+   * summarizes the result or the exception thrown.
+   */
+  private static Object reference(String salt) throws Exception {
+    try {
+      final int type;
+      String params = null;
+      if (salt.charAt(0) != '$') {
+        return Arrays.asList(0, null, salt, null, Arrays.toString(
+            salt.substring(0, Math.min(salt.length(), 16))
+                .getBytes(Crypt.CHARACTER_ENCODING)));
+      }
+      int index = 1;
+      int extent = salt.indexOf('$', index);
+      if (extent == -1 || extent == index) {
+        throw new IllegalArgumentException("illegal salt format");
+      }
+      final String id = salt.substring(index, extent);
+      type = id.matches("[0-9]{1,9}") ? Integer.parseInt(id) : -1;
+      index = extent + 1;
+      extent = salt.indexOf('$', index);
+      if (extent != -1 && salt.substring(index, extent).indexOf('=') != -1) {
+        params = salt.substring(index, extent);
+        index = extent + 1;
+      }
+      extent = salt.indexOf('$', index);
+      if (extent == -1) {
+        extent = salt.length();
+      }
+      final String text = salt.substring(index, extent);
+      Object rounds = null;
+      if (params != null && params.startsWith("rounds=")) {
+        try {
+          rounds = Integer.valueOf(params.substring("rounds=".length()));
+        }
+        catch (RuntimeException ex) {
+          rounds = ex.getClass().getName() + ": " + ex.getMessage();
+        }
+      }
+      return Arrays.asList(type, params, text, rounds, Arrays.toString(
+          text.substring(0, Math.min(text.length(), 16))
+              .getBytes(Crypt.CHARACTER_ENCODING)));
+    }
+    catch (RuntimeException ex) {
+      return ex.getClass().getName() + ": " + ex.getMessage();
+    }
+  }
 
 }
@@ -0,0 +1,186 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.hamcrest.Matchers.startsWith;
+
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.ServiceConfigurationError;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link SchemeRegistry} and dispatch to registered
+ * {@link CryptScheme} providers.
+ *
+ * @author Carl Harris
+ */
+public class SchemeRegistryTest {
+
+  private static final String SALT = "$plain$saltstring";
+
+  private static final String SHA512_VALUE = "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1";
+
+  private final PlainCryptScheme plain = new PlainCryptScheme();
+
+  @Test
+  public void testDiscovery() throws Exception {
+    assertThat(SchemeRegistry.lookup(new Salt(SALT)),
+        is(instanceOf(PlainCryptScheme.class)));
+    assertThat(SchemeRegistry.lookup(new Salt("$plainer$salt")),
+        is(nullValue()));
+    assertThat(SchemeRegistry.lookup(new Salt("$pla$salt")),
+        is(nullValue()));
+    assertThat(SchemeRegistry.lookup(new Salt("$6$salt")), is(nullValue()));
+    assertThat(SchemeRegistry.lookup(new Salt("saltstring")),
+        is(nullValue()));
+  }
+
+  @Test
+  public void testCrypt() throws Exception {
+    final String expected = plain.crypt(
+        "Hello world!".getBytes(StandardCharsets.UTF_8), SALT);
+    assertThat(expected, startsWith(SALT + "$"));
+    assertThat(Crypt.crypt("Hello world!".toCharArray(), SALT),
+        is(equalTo(expected)));
+    assertThat(Crypt.crypt("Hello world!", SALT), is(equalTo(expected)));
+    assertThat(Crypt.cryptAscii("Hello world!".toCharArray(), SALT),
+        is(equalTo(expected.getBytes(StandardCharsets.US_ASCII))));
+  }
+
+  @Test
+  public void testCryptAll() throws Exception {
+    final String wrapped = "$w1$saltstri$rounds=1000$outersalt";
+    final String[] salts = { SALT, wrapped, "$6$saltstring", SALT };
+    final char[][] passwords = new char[salts.length][];
+    for (int i = 0; i < salts.length; i++) {
+      passwords[i] = "Hello world!".toCharArray();
+    }
+    for (boolean useLanes : new boolean[] { false, true }) {
+      final String[] results = Sha2CryptBatch.cryptAll(passwords, salts,
+          useLanes);
+      for (int i = 0; i < salts.length; i++) {
+        assertThat(results[i], is(equalTo(
+            Crypt.crypt("Hello world!".toCharArray(), salts[i]))));
+      }
+      assertThat(results[2], is(equalTo(SHA512_VALUE)));
+    }
+    assertThat(Crypt.cryptAll(Arrays.asList(passwords), Arrays.asList(salts)),
+        contains(Crypt.crypt("Hello world!".toCharArray(), SALT),
+            Crypt.crypt("Hello world!".toCharArray(), wrapped),
+            SHA512_VALUE,
+            Crypt.crypt("Hello world!".toCharArray(), SALT)));
+  }
+
+  @Test
+  public void testValidate() throws Exception {
+    final String hashed = Crypt.crypt("Hello world!".toCharArray(), SALT);
+    assertThat(Crypt.validate("Hello world!".toCharArray(), hashed),
+        is(true));
+    assertThat(Crypt.validate("Hello World!".toCharArray(), hashed),
+        is(false));
+    assertThat(Crypt.validateAscii("Hello world!".toCharArray(),
+        hashed.getBytes(StandardCharsets.US_ASCII)), is(true));
+    final HashedValue value = HashedValue.parse(hashed);
+    assertThat(value.getType(), is(nullValue()));
+    assertThat(value.matches("Hello world!"), is(true));
+    assertThat(value.matches("Hello World!"), is(false));
+  }
+
+  @Test
+  public void testValidateAll() throws Exception {
+    final String hashed = Crypt.crypt("Hello world!".toCharArray(), SALT);
+    final BitSet valid = Crypt.validateAll(
+        Arrays.asList("Hello world!".toCharArray(),
+            "Hello World!".toCharArray(), "Hello world!".toCharArray()),
+        Arrays.asList(hashed, hashed, SHA512_VALUE), ForkJoinPool.commonPool());
+    assertThat(valid.get(0), is(true));
+    assertThat(valid.get(1), is(false));
+    assertThat(valid.get(2), is(true));
+  }
+
+  @Test
+  public void testNeedsRehash() throws Exception {
+    final HashPolicy policy = new HashPolicy("$6$", 5000, 5000);
+    final String hashed = Crypt.crypt("Hello world!".toCharArray(), SALT);
+    assertThat(policy.needsRehash(hashed), is(true));
+    assertThat(policy.needsRehash(HashedValue.parse(hashed)), is(true));
+  }
+
+  @Test(expected = NoSuchAlgorithmException.class)
+  public void testUnregisteredScheme() throws Exception {
+    Crypt.crypt("Hello world!".toCharArray(), "$apr1$saltstring");
+  }
+
+  @Test(expected = NoSuchAlgorithmException.class)
+  public void testUnregisteredSchemeHashedValue() throws Exception {
+    HashedValue.parse("$2b$10$saltstring");
+  }
+
+  @Test
+  public void testBuiltInsUnaffected() throws Exception {
+    assertThat(Crypt.crypt("Hello world!".toCharArray(), "$6$saltstring"),
+        is(equalTo(SHA512_VALUE)));
+    assertThat(Crypt.validate("Hello world!".toCharArray(), SHA512_VALUE),
+        is(true));
+  }
+
+  @Test
+  public void testLoad() throws Exception {
+    final CryptScheme pz = scheme("pz");
+    final CryptScheme duplicate = scheme(PlainCryptScheme.ID);
+    final CryptScheme builtIn = scheme("6");
+    final CryptScheme[][] table = SchemeRegistry.load(
+        Arrays.asList(plain, pz, duplicate, builtIn));
+    assertThat(Arrays.asList(table['p']), contains(
+        sameInstance((CryptScheme) plain), sameInstance(pz)));
+    assertThat(table['6'], is(nullValue()));
+  }
+
+  @Test(expected = ServiceConfigurationError.class)
+  public void testLoadIllegalIdentifier() throws Exception {
+    SchemeRegistry.load(Arrays.asList(scheme("a$b")));
+  }
+
+  private static CryptScheme scheme(String id) {
+    return new CryptScheme() {
+      @Override
+      public String getId() {
+        return id;
+      }
+
+      @Override
+      public String crypt(byte[] password, String salt) {
+        return salt;
+      }
+    };
+  }
+
+}
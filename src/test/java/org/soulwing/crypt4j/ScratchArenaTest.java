@@ -0,0 +1,70 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ScratchArena}.
+ *
+ * @author Carl Harris
+ */
+public class ScratchArenaTest {
+
+  private final ScratchArena arena = new ScratchArena(8);
+
+  @Test
+  public void testAllocateAndReset() throws Exception {
+    final byte[] array = arena.array();
+    assertThat(arena.allocate(3), is(equalTo(0)));
+    assertThat(arena.allocate(5), is(equalTo(3)));
+    assertThat(arena.size(), is(equalTo(8)));
+    Arrays.fill(array, (byte) 1);
+    arena.reset();
+    assertThat(arena.size(), is(equalTo(0)));
+    assertThat(arena.array(), is(sameInstance(array)));
+    assertThat(array, is(equalTo(new byte[8])));
+    assertThat(arena.allocate(8), is(equalTo(0)));
+  }
+
+  @Test
+  public void testGrowMovesAndZeroesContents() throws Exception {
+    final byte[] old = arena.array();
+    final int offset = arena.allocate(6);
+    Arrays.fill(old, offset, offset + 6, (byte) 7);
+    assertThat(arena.allocate(20), is(equalTo(6)));
+    final byte[] array = arena.array();
+    assertThat(array, is(not(sameInstance(old))));
+    assertThat(array.length >= 26, is(true));
+    assertThat(Arrays.copyOf(array, 6),
+        is(equalTo(new byte[] { 7, 7, 7, 7, 7, 7 })));
+    assertThat(old, is(equalTo(new byte[8])));
+    arena.reset();
+    assertThat(Arrays.copyOf(arena.array(), 26), is(equalTo(new byte[26])));
+  }
+
+}
@@ -0,0 +1,104 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Sha2CryptBatch}.
+ *
+ * @author Carl Harris
+ */
+public class Sha2CryptBatchTest {
+
+  private final List<char[]> passwords = new ArrayList<>();
+  private final List<String> salts = new ArrayList<>();
+
+  @Test
+  public void testLanes() throws Exception {
+    for (int i = 0; i < 2 * Sha2CryptBatch.LANES + 3; i++) {
+      add("password" + (i % 10), "$5$rounds=1000$salt" + i);
+      add("password" + (i % 10), "$6$rounds=1000$salt" + i);
+    }
+    assertMatchesScalar(true);
+  }
+
+  @Test
+  public void testMixed() throws Exception {
+    add("Hello world!", "$6$saltstring");
+    add("Hello world!", "$5$saltstring");
+    add("Hello world!", "$1$saltstring");
+    add("Hello world!", "saltstring");
+    add("short", "$6$rounds=1000$saltstring");
+    add("other", "$6$rounds=1000$saltstrinG");
+    add("other", "$6$rounds=1001$saltstrinG");
+    add("other", "$6$rounds=1001$saltstrinG");
+    add(longPassword(), "$5$rounds=1000$saltstring");
+    add(longPassword(), "$5$rounds=1000$saltstrinG");
+    assertMatchesScalar(true);
+    assertMatchesScalar(false);
+  }
+
+  @Test
+  public void testCryptAll() throws Exception {
+    add("Hello world!", "$6$saltstring");
+    add("Hello world!", "$5$saltstring");
+    assertThat(Crypt.cryptAll(passwords, salts), contains(
+        "$6$saltstring$svn8UoSVapNtMuq1ukKS4tPQd8iKwSMHWjl/O817G3uBnIFNjnQJuesI68u4OTLiBFdcbYEdFCoEOfaS35inz1",
+        "$5$saltstring$5B8vYYiY.CVt1RlTTf8KbXBH3hsxY/GNooZaBBGWEc5"));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCryptAllWithMismatchedSizes() throws Exception {
+    add("Hello world!", "$6$saltstring");
+    Crypt.cryptAll(passwords, salts.subList(0, 0));
+  }
+
+  private void add(String password, String salt) {
+    passwords.add(password.toCharArray());
+    salts.add(salt);
+  }
+
+  private void assertMatchesScalar(boolean useLanes) throws Exception {
+    final String[] results = Sha2CryptBatch.cryptAll(
+        passwords.toArray(new char[0][]), salts.toArray(new String[0]),
+        useLanes);
+    final String[] expected = new String[results.length];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = Crypt.crypt(passwords.get(i), salts.get(i));
+    }
+    assertThat(Arrays.asList(results),
+        equalTo(Arrays.asList(expected)));
+  }
+
+  private static String longPassword() {
+    final char[] password = new char[2000];
+    Arrays.fill(password, 'x');
+    return new String(password);
+  }
+
+}
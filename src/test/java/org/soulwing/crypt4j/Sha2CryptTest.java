@@ -0,0 +1,71 @@
+/*
+ * File created on Oct 18, 2026
+ *
+ * Copyright (c) 2014 Carl Harris, Jr.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+package org.soulwing.crypt4j;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.junit.Assume.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link Sha2Crypt}.
+ *
+ * @author Carl Harris
+ */
+public class Sha2CryptTest {
+
+  private static final char[] PASSWORD = "Hello world!".toCharArray();
+
+  private static final int FEW_ROUNDS = 1000;
+  private static final int MANY_ROUNDS = 101000;
+
+  @Test
+  public void testRoundLoopDoesNotAllocate() throws Exception {
+    final java.lang.management.ThreadMXBean bean =
+        ManagementFactory.getThreadMXBean();
+    assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+    final com.sun.management.ThreadMXBean threadBean =
+        (com.sun.management.ThreadMXBean) bean;
+    assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+    threadBean.setThreadAllocatedMemoryEnabled(true);
+
+    for (String prefix : new String[] { "$5$", "$6$" }) {
+      for (int i = 0; i < 5; i++) {
+        allocatedBytes(threadBean, prefix, FEW_ROUNDS);
+      }
+      long few = allocatedBytes(threadBean, prefix, FEW_ROUNDS);
+      long many = allocatedBytes(threadBean, prefix, MANY_ROUNDS);
+      assertThat((many - few) / (MANY_ROUNDS - FEW_ROUNDS), is(lessThan(1L)));
+    }
+  }
+
+  private long allocatedBytes(com.sun.management.ThreadMXBean threadBean,
+      String prefix, int rounds) throws Exception {
+    final long threadId = Thread.currentThread().getId();
+    final String salt = prefix + "rounds=" + rounds + "$saltstring";
+    final long before = threadBean.getThreadAllocatedBytes(threadId);
+    Crypt.crypt(PASSWORD, salt);
+    return threadBean.getThreadAllocatedBytes(threadId) - before;
+  }
+
+}